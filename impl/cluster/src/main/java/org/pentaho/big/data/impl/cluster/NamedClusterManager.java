@@ -60,12 +60,15 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class NamedClusterManager implements NamedClusterService {
@@ -74,8 +77,21 @@ public class NamedClusterManager implements NamedClusterService {
   private static final Class<?> PKG = NamedClusterManager.class;
   private BundleContext bundleContext;
 
+  /**
+   * How long an index of the named clusters of a metastore is used before it is rebuilt. Changes made through this
+   * service invalidate the indexes right away, this only bounds how long changes made behind its back go unnoticed.
+   * The change stamp lives in this process only: clusters edited by another process, or written to the metastore
+   * without going through this service, are not seen until the index expires.
+   */
+  static final long DEFAULT_INDEX_TTL_MS = 30000L;
+
   private Map<IMetaStore, MetaStoreFactory<NamedClusterImpl>> factoryMap = new HashMap<>();
 
+  private final Map<IMetaStore, NamedClusterIndex> indexMap = Collections.synchronizedMap( new WeakHashMap<>() );
+  private volatile NamedClusterIndex slaveIndex;
+  private final AtomicLong changeStamp = new AtomicLong();
+  private long indexTtlMs = DEFAULT_INDEX_TTL_MS;
+
   private NamedCluster clusterTemplate;
 
   private LogChannel log = new LogChannel( this );
@@ -145,6 +161,88 @@ public class NamedClusterManager implements NamedClusterService {
 
   @Override public void close( IMetaStore metastore ) {
     factoryMap.remove( metastore );
+    indexMap.remove( metastore );
+  }
+
+  /**
+   * The named clusters of one metastore indexed by name and by HDFS host. The index is current as long as nothing was
+   * changed through this service since it was built and it is younger than the index TTL.
+   */
+  private static final class NamedClusterIndex {
+    private final IMetaStore metastore;
+    private final long stamp;
+    private final long created = System.currentTimeMillis();
+    private final Map<String, NamedCluster> byName = new HashMap<>();
+    private final Map<String, NamedCluster> byHost = new HashMap<>();
+
+    NamedClusterIndex( IMetaStore metastore, long stamp, List<NamedCluster> namedClusters ) {
+      this.metastore = metastore;
+      this.stamp = stamp;
+      for ( NamedCluster nc : namedClusters ) {
+        // keep the first match, as the linear searches did
+        byName.putIfAbsent( nc.getName(), nc );
+        if ( nc.getHdfsHost() != null ) {
+          byHost.putIfAbsent( nc.getHdfsHost(), nc );
+        }
+      }
+    }
+
+    boolean isCurrent( long currentStamp, long ttlMs ) {
+      return stamp == currentStamp && System.currentTimeMillis() - created < ttlMs;
+    }
+  }
+
+  /**
+   * Returns the index of the named clusters in the given metastore, rebuilding it if it is missing or out of date.
+   *
+   * @return the index, or null if the metastore couldn't be read
+   */
+  private NamedClusterIndex getIndex( IMetaStore metastore ) {
+    long stamp = changeStamp.get();
+    NamedClusterIndex index = indexMap.get( metastore );
+    if ( index == null || !index.isCurrent( stamp, indexTtlMs ) ) {
+      try {
+        index = new NamedClusterIndex( metastore, stamp, list( metastore ) );
+      } catch ( MetaStoreException e ) {
+        indexMap.remove( metastore );
+        return null;
+      }
+      indexMap.put( metastore, index );
+    }
+    return index;
+  }
+
+  /**
+   * Same as {@link #getIndex(IMetaStore)} for the slave server metastore, which is looked up again only when the
+   * index is rebuilt. If there is no slave metastore the index is empty.
+   */
+  private NamedClusterIndex getSlaveIndex() {
+    long stamp = changeStamp.get();
+    NamedClusterIndex index = slaveIndex;
+    if ( index == null || !index.isCurrent( stamp, indexTtlMs ) ) {
+      IMetaStore slaveMetastore = getSlaveServerMetastore();
+      try {
+        index = new NamedClusterIndex( slaveMetastore, stamp,
+          slaveMetastore == null ? Collections.emptyList() : list( slaveMetastore ) );
+      } catch ( MetaStoreException e ) {
+        slaveIndex = null;
+        return null;
+      }
+      slaveIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Drops every index so the next lookups read the metastores again.
+   */
+  public void invalidateIndexes() {
+    changeStamp.incrementAndGet();
+  }
+
+  @VisibleForTesting
+  void setIndexTtlMs( long indexTtlMs ) {
+    this.indexTtlMs = indexTtlMs;
   }
 
   @Override
@@ -172,18 +270,23 @@ public class NamedClusterManager implements NamedClusterService {
 
   @Override
   public void create( NamedCluster namedCluster, IMetaStore metastore ) throws MetaStoreException {
-    getMetaStoreFactory( metastore ).saveElement( new NamedClusterImpl( namedCluster ) );
+    try {
+      getMetaStoreFactory( metastore ).saveElement( new NamedClusterImpl( namedCluster ) );
+    } finally {
+      invalidateIndexes();
+    }
   }
 
   @Override
   public NamedCluster read( String clusterName, IMetaStore metastore ) throws MetaStoreException {
     MetaStoreFactory<NamedClusterImpl> factory = getMetaStoreFactory( metastore );
 
-    if ( metastore == null || !listNames( metastore ).contains( clusterName ) ) {
+    NamedClusterIndex index = metastore == null ? null : getIndex( metastore );
+    if ( index == null || !index.byName.containsKey( clusterName ) ) {
       // only try the slave metastore if the given one fails
-      IMetaStore slaveMetastore = getSlaveServerMetastore();
-      if ( slaveMetastore != null && listNames( slaveMetastore ).contains( clusterName ) ) {
-        factory = getMetaStoreFactory( slaveMetastore );
+      NamedClusterIndex slave = getSlaveIndex();
+      if ( slave != null && slave.metastore != null && slave.byName.containsKey( clusterName ) ) {
+        factory = getMetaStoreFactory( slave.metastore );
       }
     }
 
@@ -202,18 +305,26 @@ public class NamedClusterManager implements NamedClusterService {
   @Override
   public void update( NamedCluster namedCluster, IMetaStore metastore ) throws MetaStoreException {
     MetaStoreFactory<NamedClusterImpl> factory = getMetaStoreFactory( metastore );
-    List<NamedCluster> namedClusters = list( metastore );
-    for ( NamedCluster nc : namedClusters ) {
-      if ( namedCluster.getName().equals( nc.getName() ) ) {
-        factory.deleteElement( nc.getName() );
-        factory.saveElement( new NamedClusterImpl( namedCluster ) );
+    try {
+      List<NamedCluster> namedClusters = list( metastore );
+      for ( NamedCluster nc : namedClusters ) {
+        if ( namedCluster.getName().equals( nc.getName() ) ) {
+          factory.deleteElement( nc.getName() );
+          factory.saveElement( new NamedClusterImpl( namedCluster ) );
+        }
       }
+    } finally {
+      invalidateIndexes();
     }
   }
 
   @Override
   public void delete( String clusterName, IMetaStore metastore ) throws MetaStoreException {
-    getMetaStoreFactory( metastore ).deleteElement( clusterName );
+    try {
+      getMetaStoreFactory( metastore ).deleteElement( clusterName );
+    } finally {
+      invalidateIndexes();
+    }
   }
 
   @Override
@@ -270,37 +381,29 @@ public class NamedClusterManager implements NamedClusterService {
     return found;
   }
 
+  /**
+   * Looks the named cluster up in the index of the given metastore, falling back to the slave server metastore. The
+   * returned named cluster is a copy, changing it does not change the index.
+   */
   @Override
   public NamedCluster getNamedClusterByName( String namedClusterName, IMetaStore metastore ) {
     NamedCluster namedCluster = null;
     if ( metastore != null ) {
-      namedCluster = searchMetastoreByName( namedClusterName, metastore );
+      namedCluster = searchIndexByName( namedClusterName, getIndex( metastore ) );
     }
     if ( namedCluster == null ) {
-      IMetaStore slaveMetastore = getSlaveServerMetastore();
-      if ( slaveMetastore != null ) {
-        namedCluster = searchMetastoreByName( namedClusterName, slaveMetastore );
-      }
+      NamedClusterIndex slave = getSlaveIndex();
+      namedCluster = searchIndexByName( namedClusterName, slave );
       if ( namedCluster != null ) {
-        metastore = slaveMetastore;
+        metastore = slave.metastore;
       }
     }
     loadSiteFilesIfNecessary( namedCluster, metastore );
     return namedCluster;
   }
 
-  private NamedCluster searchMetastoreByName( String namedCluster, IMetaStore metastore ) {
-    try {
-      List<NamedCluster> namedClusters = list( metastore );
-      for ( NamedCluster nc : namedClusters ) {
-        if ( nc.getName().equals( namedCluster ) ) {
-          return nc;
-        }
-      }
-    } catch ( MetaStoreException e ) {
-      return null;
-    }
-    return null;
+  private NamedCluster searchIndexByName( String namedCluster, NamedClusterIndex index ) {
+    return index == null || namedCluster == null ? null : copyOf( index.byName.get( namedCluster ) );
   }
 
   public Map<String, Object> getProperties() {
@@ -314,30 +417,25 @@ public class NamedClusterManager implements NamedClusterService {
       return null;
     }
     if ( metastore != null ) {
-      namedCluster = searchMetastoreByHost( hostName, metastore );
+      namedCluster = searchIndexByHost( hostName, getIndex( metastore ) );
     }
     if ( namedCluster == null ) {
-      IMetaStore slaveMetastore = getSlaveServerMetastore();
-      if ( slaveMetastore != null ) {
-        namedCluster = searchMetastoreByHost( hostName, slaveMetastore );
-      }
+      namedCluster = searchIndexByHost( hostName, getSlaveIndex() );
     }
     return namedCluster;
   }
 
-  private NamedCluster searchMetastoreByHost( String hostName, IMetaStore metastore ) {
-    try {
-      List<NamedCluster> namedClusters = list( metastore );
-      for ( NamedCluster nc : namedClusters ) {
-        if ( hostName.equals( nc.getHdfsHost() ) ) {
-          loadSiteFilesIfNecessary( nc, metastore );
-          return nc;
-        }
-      }
-    } catch ( MetaStoreException e ) {
+  private NamedCluster searchIndexByHost( String hostName, NamedClusterIndex index ) {
+    if ( index == null ) {
       return null;
     }
-    return null;
+    NamedCluster nc = copyOf( index.byHost.get( hostName ) );
+    loadSiteFilesIfNecessary( nc, index.metastore );
+    return nc;
+  }
+
+  private static NamedCluster copyOf( NamedCluster namedCluster ) {
+    return namedCluster == null ? null : namedCluster.clone();
   }
 
   @Override
@@ -59,6 +59,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.*;
@@ -261,30 +262,93 @@ public class NamedClusterManagerTest {
   public void testGetNamedClusterByName() throws MetaStoreException {
     String testName = "testName";
     NamedCluster namedCluster = mock( NamedCluster.class );
+    NamedCluster copy = mock( NamedCluster.class );
     when( namedCluster.getName() ).thenReturn( testName );
+    when( namedCluster.clone() ).thenReturn( copy );
     List namedClusters = new ArrayList<>( Arrays.asList( namedCluster ) );
     when( metaStoreFactory.getElements( anyBoolean(), any( List.class ) ) ).thenReturn( namedClusters )
       .thenReturn( namedClusters ).thenThrow( new MetaStoreException() );
     assertNull( namedClusterManager.getNamedClusterByName( testName, null ) );
-    assertEquals( namedCluster, namedClusterManager.getNamedClusterByName( testName, metaStore ) );
+    assertEquals( copy, namedClusterManager.getNamedClusterByName( testName, metaStore ) );
     assertNull( namedClusterManager.getNamedClusterByName( "fakeName", metaStore ) );
+    namedClusterManager.invalidateIndexes();
+    assertEquals( copy, namedClusterManager.getNamedClusterByName( testName, metaStore ) );
+    namedClusterManager.invalidateIndexes();
     assertNull( namedClusterManager.getNamedClusterByName( testName, metaStore ) );
   }
 
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testLookupsAreServedFromIndexUntilChanged() throws MetaStoreException {
+    NamedCluster namedCluster = mock( NamedCluster.class );
+    NamedCluster copy = mock( NamedCluster.class );
+    when( namedCluster.getName() ).thenReturn( "testName" );
+    when( namedCluster.getHdfsHost() ).thenReturn( "testHostName" );
+    when( namedCluster.clone() ).thenReturn( copy );
+    List namedClusters = new ArrayList<>( Arrays.asList( namedCluster ) );
+    when( metaStoreFactory.getElements( anyBoolean(), any( List.class ) ) ).thenReturn( namedClusters );
+
+    for ( int i = 0; i < 5; i++ ) {
+      assertEquals( copy, namedClusterManager.getNamedClusterByName( "testName", metaStore ) );
+      assertEquals( copy, namedClusterManager.getNamedClusterByHost( "testHostName", metaStore ) );
+    }
+    verify( metaStoreFactory, times( 1 ) ).getElements( anyBoolean(), any( List.class ) );
+
+    namedClusterManager.delete( "otherName", metaStore );
+    assertEquals( copy, namedClusterManager.getNamedClusterByName( "testName", metaStore ) );
+    verify( metaStoreFactory, times( 2 ) ).getElements( anyBoolean(), any( List.class ) );
+
+    NamedClusterImpl created = new NamedClusterImpl();
+    created.setName( "createdName" );
+    namedClusterManager.create( created, metaStore );
+    assertEquals( copy, namedClusterManager.getNamedClusterByHost( "testHostName", metaStore ) );
+    verify( metaStoreFactory, times( 3 ) ).getElements( anyBoolean(), any( List.class ) );
+
+    namedClusterManager.setIndexTtlMs( 0 );
+    assertEquals( copy, namedClusterManager.getNamedClusterByName( "testName", metaStore ) );
+    verify( metaStoreFactory, times( 4 ) ).getElements( anyBoolean(), any( List.class ) );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testLookupsReturnCopiesOfTheIndexedCluster() throws MetaStoreException {
+    NamedClusterImpl namedCluster = new NamedClusterImpl();
+    namedCluster.setName( "testName" );
+    namedCluster.setHdfsHost( "testHostName" );
+    List namedClusters = new ArrayList<>( Arrays.asList( namedCluster ) );
+    when( metaStoreFactory.getElements( anyBoolean(), any( List.class ) ) ).thenReturn( namedClusters );
+
+    NamedCluster byName = namedClusterManager.getNamedClusterByName( "testName", metaStore );
+    NamedCluster byHost = namedClusterManager.getNamedClusterByHost( "testHostName", metaStore );
+    assertNotSame( namedCluster, byName );
+    assertNotSame( byName, byHost );
+    byName.setHdfsHost( "changedHostName" );
+
+    assertEquals( "testHostName",
+      namedClusterManager.getNamedClusterByName( "testName", metaStore ).getHdfsHost() );
+    assertNotNull( namedClusterManager.getNamedClusterByHost( "testHostName", metaStore ) );
+    verify( metaStoreFactory, times( 1 ) ).getElements( anyBoolean(), any( List.class ) );
+  }
+
   @Test
   @SuppressWarnings( "unchecked" )
   public void testGetNamedClusterByHost() throws MetaStoreException {
     String testName = "testName";
     String testHostName = "testHostName";
     NamedCluster namedCluster = mock( NamedCluster.class );
+    NamedCluster copy = mock( NamedCluster.class );
     when( namedCluster.getName() ).thenReturn( testName );
     when( namedCluster.getHdfsHost() ).thenReturn( testHostName );
+    when( namedCluster.clone() ).thenReturn( copy );
     List namedClusters = new ArrayList<>( Arrays.asList( namedCluster ) );
     when( metaStoreFactory.getElements( anyBoolean(), any( List.class ) ) ).thenReturn( namedClusters )
       .thenReturn( namedClusters ).thenThrow( new MetaStoreException() );
     assertNull( namedClusterManager.getNamedClusterByHost( testHostName, null ) );
-    assertEquals( namedCluster, namedClusterManager.getNamedClusterByHost( testHostName, metaStore ) );
+    assertEquals( copy, namedClusterManager.getNamedClusterByHost( testHostName, metaStore ) );
     assertNull( namedClusterManager.getNamedClusterByHost( "fakeName", metaStore ) );
+    namedClusterManager.invalidateIndexes();
+    assertEquals( copy, namedClusterManager.getNamedClusterByHost( testHostName, metaStore ) );
+    namedClusterManager.invalidateIndexes();
     assertNull( namedClusterManager.getNamedClusterByHost( testHostName, metaStore ) );
   }
 
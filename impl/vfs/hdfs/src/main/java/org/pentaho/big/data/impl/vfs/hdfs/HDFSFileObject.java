@@ -22,9 +22,11 @@
 
 package org.pentaho.big.data.impl.vfs.hdfs;
 
+import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.NameScope;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileObject;
 import org.pentaho.hadoop.shim.api.hdfs.HadoopFileStatus;
@@ -34,22 +36,56 @@ import org.pentaho.hadoop.shim.api.hdfs.HadoopFileSystem;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+/**
+ * HDFS file object. The file status is fetched once and shared by the type, size and last modified time lookups
+ * until it is older than the file system's status cache TTL. Listing a folder hands the statuses returned by the
+ * listing to the child objects, so walking a directory tree needs one call per folder instead of several per file.
+ * Writing, deleting, renaming or touching the file drops the cached status.
+ */
 public class HDFSFileObject extends AbstractFileObject  {
 
   private HadoopFileSystem hdfs;
+  private final long statusCacheTtlMs;
+
+  private HadoopFileStatus cachedStatus;
+  private long cachedStatusTime;
 
   public HDFSFileObject( final AbstractFileName name, final HDFSFileSystem fileSystem ) throws FileSystemException {
     super( name, fileSystem );
     hdfs = fileSystem.getHDFSFileSystem();
+    statusCacheTtlMs = fileSystem.getStatusCacheTtlMs();
+  }
+
+  @Override
+  protected void doAttach() throws Exception {
+    if ( getCachedStatus() == null ) {
+      try {
+        cacheStatus( hdfs.getFileStatus( hdfs.getPath( getName().getPath() ) ) );
+      } catch ( Exception ex ) {
+        // Ignore, the file doesn't exist (yet)
+      }
+    }
+  }
+
+  @Override
+  protected void doDetach() throws Exception {
+    invalidateStatus();
+  }
+
+  @Override
+  protected void onChange() throws Exception {
+    invalidateStatus();
+    super.onChange();
   }
 
   @Override
   protected long doGetContentSize() throws Exception {
-    return hdfs.getFileStatus( hdfs.getPath( getName().getPath() ) ).getLen();
+    return getFileStatus().getLen();
   }
 
   @Override
   protected OutputStream doGetOutputStream( boolean append ) throws Exception {
+    invalidateStatus();
     OutputStream out;
     if ( append ) {
       out = hdfs.append( hdfs.getPath( getName().getPath() ) );
@@ -73,7 +109,7 @@ public class HDFSFileObject extends AbstractFileObject  {
   protected FileType doGetType() throws Exception {
     HadoopFileStatus status = null;
     try {
-      status = hdfs.getFileStatus( hdfs.getPath( getName().getPath() ) );
+      status = getFileStatus();
     } catch ( Exception ex ) {
       // Ignore
     }
@@ -89,26 +125,33 @@ public class HDFSFileObject extends AbstractFileObject  {
 
   @Override
   public void doCreateFolder() throws Exception {
+    invalidateStatus();
     hdfs.mkdirs( hdfs.getPath( getName().getPath() ) );
   }
 
   @Override
   public void doDelete() throws Exception {
+    invalidateStatus();
     hdfs.delete( hdfs.getPath( getName().getPath() ), true );
   }
 
   @Override
   protected void doRename( FileObject newfile ) throws Exception {
+    invalidateStatus();
+    if ( newfile instanceof HDFSFileObject ) {
+      ( (HDFSFileObject) newfile ).invalidateStatus();
+    }
     hdfs.rename( hdfs.getPath( getName().getPath() ), hdfs.getPath( newfile.getName().getPath() ) );
   }
 
   @Override
   protected long doGetLastModifiedTime() throws Exception {
-    return hdfs.getFileStatus( hdfs.getPath( getName().getPath() ) ).getModificationTime();
+    return getFileStatus().getModificationTime();
   }
 
   @Override
   protected boolean doSetLastModifiedTime( long modtime ) throws Exception {
+    invalidateStatus();
     hdfs.setTimes( hdfs.getPath( getName().getPath() ), modtime, System.currentTimeMillis() );
     return true;
   }
@@ -123,4 +166,53 @@ public class HDFSFileObject extends AbstractFileObject  {
     return children;
   }
 
+  @Override
+  protected FileObject[] doListChildrenResolved() throws Exception {
+    HadoopFileStatus[] statusList = hdfs.listStatus( hdfs.getPath( getName().getPath() ) );
+    if ( statusList == null ) {
+      return null;
+    }
+    FileObject[] children = new FileObject[ statusList.length ];
+    for ( int i = 0; i < statusList.length; i++ ) {
+      // resolved the same way AbstractFileObject resolves the names returned by doListChildren
+      FileName childName = getFileSystem().getFileSystemManager()
+        .resolveName( getName(), "./" + statusList[ i ].getPath().getName(), NameScope.CHILD );
+      FileObject child = getFileSystem().resolveFile( childName );
+      if ( child instanceof HDFSFileObject ) {
+        ( (HDFSFileObject) child ).cacheStatus( statusList[ i ] );
+      }
+      children[ i ] = child;
+    }
+    return children;
+  }
+
+  /**
+   * Returns the status of this file, from the cache while it is fresh and from HDFS otherwise.
+   */
+  private HadoopFileStatus getFileStatus() throws Exception {
+    HadoopFileStatus status = getCachedStatus();
+    if ( status == null ) {
+      status = hdfs.getFileStatus( hdfs.getPath( getName().getPath() ) );
+      cacheStatus( status );
+    }
+    return status;
+  }
+
+  synchronized HadoopFileStatus getCachedStatus() {
+    if ( cachedStatus != null && System.currentTimeMillis() - cachedStatusTime > statusCacheTtlMs ) {
+      cachedStatus = null;
+    }
+    return cachedStatus;
+  }
+
+  synchronized void cacheStatus( HadoopFileStatus status ) {
+    if ( statusCacheTtlMs > 0 ) {
+      cachedStatus = status;
+      cachedStatusTime = System.currentTimeMillis();
+    }
+  }
+
+  synchronized void invalidateStatus() {
+    cachedStatus = null;
+  }
 }
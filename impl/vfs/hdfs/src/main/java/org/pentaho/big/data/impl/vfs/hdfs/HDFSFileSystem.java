@@ -30,17 +30,34 @@ import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileSystem;
+import org.pentaho.di.core.Const;
 import org.pentaho.hadoop.shim.api.hdfs.HadoopFileSystem;
 
 import java.util.Collection;
 
 public class HDFSFileSystem extends AbstractFileSystem implements FileSystem {
+  /**
+   * How long a file object trusts the file status it fetched or received from a folder listing, in milliseconds.
+   */
+  public static final long DEFAULT_STATUS_CACHE_TTL_MS = 5000;
+  /**
+   * Cluster configuration property (e.g. in core-site.xml) overriding {@link #DEFAULT_STATUS_CACHE_TTL_MS}, 0 disables
+   * the status cache
+   */
+  public static final String STATUS_CACHE_TTL_PROPERTY = "pentaho.vfs.hdfs.statusCacheTtlMs";
+
   private final HadoopFileSystem hdfs;
+  private volatile long statusCacheTtlMs = DEFAULT_STATUS_CACHE_TTL_MS;
 
   public HDFSFileSystem( final FileName rootName, final FileSystemOptions fileSystemOptions,
                             HadoopFileSystem hdfs ) {
     super( rootName, null, fileSystemOptions );
     this.hdfs = hdfs;
+    if ( hdfs != null ) {
+      setStatusCacheTtlMs( Const.toLong(
+        hdfs.getProperty( STATUS_CACHE_TTL_PROPERTY, String.valueOf( DEFAULT_STATUS_CACHE_TTL_MS ) ),
+        DEFAULT_STATUS_CACHE_TTL_MS ) );
+    }
   }
 
   @Override
@@ -64,4 +81,15 @@ public class HDFSFileSystem extends AbstractFileSystem implements FileSystem {
   public HadoopFileSystem getHDFSFileSystem() throws FileSystemException {
     return hdfs;
   }
+
+  public long getStatusCacheTtlMs() {
+    return statusCacheTtlMs;
+  }
+
+  /**
+   * Sets the status cache TTL of the file objects created from now on, 0 disables the cache.
+   */
+  public void setStatusCacheTtlMs( long statusCacheTtlMs ) {
+    this.statusCacheTtlMs = Math.max( 0, statusCacheTtlMs );
+  }
 }
@@ -22,11 +22,16 @@
 
 package org.pentaho.big.data.impl.vfs.hdfs;
 
+import org.apache.commons.vfs2.CacheStrategy;
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.FilesCache;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
 import org.apache.commons.vfs2.provider.AbstractFileName;
+import org.apache.commons.vfs2.provider.URLFileName;
+import org.apache.commons.vfs2.provider.VfsComponentContext;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -40,8 +45,11 @@ import java.io.OutputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -184,4 +192,75 @@ public class HDFSFileObjectTest {
     assertEquals( 1, children.length );
     assertEquals( childPathName, children[ 0 ] );
   }
+
+  @Test
+  public void testFileStatusIsCached() throws Exception {
+    HadoopFileStatus hadoopFileStatus = mock( HadoopFileStatus.class );
+    when( hadoopFileSystem.getFileStatus( hadoopFileSystemPath ) ).thenReturn( hadoopFileStatus );
+    when( hadoopFileStatus.getLen() ).thenReturn( 321L );
+    when( hadoopFileStatus.getModificationTime() ).thenReturn( 8988L );
+
+    assertEquals( FileType.FILE, hdfsFileObject.doGetType() );
+    assertEquals( 321L, hdfsFileObject.doGetContentSize() );
+    assertEquals( 8988L, hdfsFileObject.doGetLastModifiedTime() );
+    verify( hadoopFileSystem, times( 1 ) ).getFileStatus( hadoopFileSystemPath );
+
+    hdfsFileObject.doDelete();
+    hdfsFileObject.doGetContentSize();
+    verify( hadoopFileSystem, times( 2 ) ).getFileStatus( hadoopFileSystemPath );
+  }
+
+  @Test
+  public void testCachedStatusFromListing() throws Exception {
+    HadoopFileStatus hadoopFileStatus = mock( HadoopFileStatus.class );
+    when( hadoopFileStatus.isDir() ).thenReturn( true );
+    hdfsFileObject.cacheStatus( hadoopFileStatus );
+
+    assertEquals( FileType.FOLDER, hdfsFileObject.doGetType() );
+    verify( hadoopFileSystem, never() ).getFileStatus( hadoopFileSystemPath );
+  }
+
+  @Test
+  public void testStatusCacheDisabled() throws Exception {
+    hdfsFileSystem.setStatusCacheTtlMs( 0 );
+    hdfsFileObject = new HDFSFileObject( abstractFileName, hdfsFileSystem );
+    HadoopFileStatus hadoopFileStatus = mock( HadoopFileStatus.class );
+    when( hadoopFileSystem.getFileStatus( hadoopFileSystemPath ) ).thenReturn( hadoopFileStatus );
+
+    hdfsFileObject.doGetContentSize();
+    hdfsFileObject.doGetLastModifiedTime();
+    verify( hadoopFileSystem, times( 2 ) ).getFileStatus( hadoopFileSystemPath );
+  }
+
+  @Test
+  public void testListedChildrenUseTheStatusFromTheListing() throws Exception {
+    DefaultFileSystemManager fileSystemManager = new DefaultFileSystemManager();
+    fileSystemManager.setFilesCache( mock( FilesCache.class ) );
+    fileSystemManager.setCacheStrategy( CacheStrategy.MANUAL );
+    VfsComponentContext context = mock( VfsComponentContext.class );
+    when( context.getFileSystemManager() ).thenReturn( fileSystemManager );
+    URLFileName rootName = new URLFileName( "hdfs", "namenode", 8020, 8020, null, null, "/", FileType.FOLDER, null );
+    HDFSFileSystem fileSystem = new HDFSFileSystem( rootName, null, hadoopFileSystem );
+    fileSystem.setContext( context );
+
+    HadoopFileSystemPath folderPath = mock( HadoopFileSystemPath.class );
+    HadoopFileSystemPath childPath = mock( HadoopFileSystemPath.class );
+    HadoopFileStatus childStatus = mock( HadoopFileStatus.class );
+    when( hadoopFileSystem.getPath( "/" ) ).thenReturn( folderPath );
+    when( childPath.getName() ).thenReturn( "child.txt" );
+    when( childStatus.getPath() ).thenReturn( childPath );
+    when( childStatus.getLen() ).thenReturn( 42L );
+    when( childStatus.getModificationTime() ).thenReturn( 8988L );
+    when( hadoopFileSystem.listStatus( folderPath ) ).thenReturn( new HadoopFileStatus[] { childStatus } );
+
+    FileObject[] children = new HDFSFileObject( rootName, fileSystem ).doListChildrenResolved();
+
+    assertEquals( 1, children.length );
+    assertEquals( "/child.txt", children[ 0 ].getName().getPath() );
+    HDFSFileObject child = (HDFSFileObject) children[ 0 ];
+    assertEquals( FileType.FILE, child.doGetType() );
+    assertEquals( 42L, child.doGetContentSize() );
+    assertEquals( 8988L, child.doGetLastModifiedTime() );
+    verify( hadoopFileSystem, never() ).getFileStatus( any( HadoopFileSystemPath.class ) );
+  }
 }
@@ -84,6 +84,24 @@ public class HDFSFileSystemTest {
     assertTrue( hdfsFileSystem.createFile( mock( AbstractFileName.class ) ) instanceof HDFSFileObject );
   }
 
+  @Test
+  public void testStatusCacheTtlFromClusterConfiguration() {
+    assertEquals( HDFSFileSystem.DEFAULT_STATUS_CACHE_TTL_MS, hdfsFileSystem.getStatusCacheTtlMs() );
+
+    when( hadoopFileSystem.getProperty( eq( HDFSFileSystem.STATUS_CACHE_TTL_PROPERTY ), anyString() ) )
+      .thenReturn( "1500" );
+    assertEquals( 1500L, new HDFSFileSystem( rootName, null, hadoopFileSystem ).getStatusCacheTtlMs() );
+
+    when( hadoopFileSystem.getProperty( eq( HDFSFileSystem.STATUS_CACHE_TTL_PROPERTY ), anyString() ) )
+      .thenReturn( "-1" );
+    assertEquals( 0L, new HDFSFileSystem( rootName, null, hadoopFileSystem ).getStatusCacheTtlMs() );
+
+    when( hadoopFileSystem.getProperty( eq( HDFSFileSystem.STATUS_CACHE_TTL_PROPERTY ), anyString() ) )
+      .thenReturn( "soon" );
+    assertEquals( HDFSFileSystem.DEFAULT_STATUS_CACHE_TTL_MS,
+      new HDFSFileSystem( rootName, null, hadoopFileSystem ).getStatusCacheTtlMs() );
+  }
+
   @Test
   public void testGetHDFSFileSystem() throws FileSystemException {
     assertEquals( hadoopFileSystem, hdfsFileSystem.getHDFSFileSystem() );
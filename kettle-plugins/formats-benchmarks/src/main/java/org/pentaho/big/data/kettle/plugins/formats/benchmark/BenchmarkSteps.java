@@ -0,0 +1,116 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.logging.LogLevel;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStep;
+import org.pentaho.di.trans.step.RowHandler;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Helpers to run a single format step outside of a running transformation: the step gets a transformation of its
+ * own, is fed the dataset rows over and over and its output rows are dropped.
+ */
+final class BenchmarkSteps {
+
+  private BenchmarkSteps() {
+  }
+
+  /**
+   * @return the step meta of the given step, added to a transformation of its own
+   */
+  static StepMeta stepMeta( String name, StepMetaInterface meta ) {
+    TransMeta transMeta = new TransMeta();
+    StepMeta stepMeta = new StepMeta( name, meta );
+    transMeta.addStep( stepMeta );
+    stepMeta.setParentTransMeta( transMeta );
+    meta.setParentStepMeta( stepMeta );
+    return stepMeta;
+  }
+
+  static Trans trans( StepMeta stepMeta ) {
+    return new Trans( stepMeta.getParentTransMeta() );
+  }
+
+  static <T extends BaseStep> T prepare( T step, SyntheticDataset dataset ) {
+    step.setLogLevel( LogLevel.ERROR );
+    step.setInputRowMeta( dataset.getRowMeta() );
+    step.setRowHandler( new DatasetRowHandler( dataset ) );
+    return step;
+  }
+
+  static File newOutputDirectory( SyntheticDataset dataset, String prefix ) throws IOException {
+    return Files.createTempDirectory( dataset.getDirectory().toPath(), prefix ).toFile();
+  }
+
+  static void deleteDirectory( File directory ) throws IOException {
+    File[] files = directory.listFiles();
+    if ( files != null ) {
+      for ( File file : files ) {
+        Files.deleteIfExists( file.toPath() );
+      }
+    }
+    Files.deleteIfExists( directory.toPath() );
+  }
+
+  /**
+   * Hands out the dataset rows in a loop and drops the rows the step passes on.
+   */
+  static class DatasetRowHandler implements RowHandler {
+    private final SyntheticDataset dataset;
+    private int next;
+
+    DatasetRowHandler( SyntheticDataset dataset ) {
+      this.dataset = dataset;
+    }
+
+    @Override
+    public Object[] getRow() throws KettleException {
+      if ( next == dataset.rows ) {
+        next = 0;
+      }
+      return dataset.getRow( next++ );
+    }
+
+    @Override
+    public void putRow( RowMetaInterface rowMeta, Object[] row ) throws KettleStepException {
+      // dropped, the benchmarks measure the step itself
+    }
+
+    @Override
+    public void putError( RowMetaInterface rowMeta, Object[] row, long nrErrors, String errorDescriptions,
+                          String fieldNames, String errorCodes ) throws KettleStepException {
+      throw new KettleStepException( errorDescriptions );
+    }
+  }
+}
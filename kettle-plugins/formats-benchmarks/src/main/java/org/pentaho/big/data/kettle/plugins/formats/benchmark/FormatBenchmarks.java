@@ -0,0 +1,58 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the format benchmarks. Accepts the usual JMH command line; unless told otherwise it adds the GC profiler, so
+ * every result comes with the bytes allocated per operation (gc.alloc.rate.norm, per row for the step benchmarks),
+ * and writes the results as JSON to {@value #DEFAULT_RESULT_FILE} so runs can be compared.
+ */
+public class FormatBenchmarks {
+
+  public static final String DEFAULT_RESULT_FILE = "formats-benchmarks.json";
+
+  private FormatBenchmarks() {
+  }
+
+  public static void main( String[] args ) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions( args );
+    ChainedOptionsBuilder options = new OptionsBuilder().parent( commandLine );
+    if ( commandLine.getProfilers().isEmpty() ) {
+      options.addProfiler( GCProfiler.class );
+    }
+    if ( !commandLine.getResultFormat().hasValue() ) {
+      options.resultFormat( ResultFormatType.JSON );
+    }
+    if ( !commandLine.getResult().hasValue() ) {
+      options.result( DEFAULT_RESULT_FILE );
+    }
+    new Runner( options.build() ).run();
+  }
+}
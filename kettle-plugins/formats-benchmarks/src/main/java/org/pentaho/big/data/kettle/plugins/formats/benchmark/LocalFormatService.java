@@ -0,0 +1,189 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.pentaho.big.data.kettle.plugins.formats.impl.NamedClusterResolver;
+import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
+import org.pentaho.hadoop.shim.api.cluster.NamedClusterService;
+import org.pentaho.hadoop.shim.api.cluster.NamedClusterServiceLocator;
+import org.pentaho.hadoop.shim.api.format.FormatService;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wires the format steps to {@link LocalRowFiles} instead of a Hadoop shim. The shim interfaces are implemented with
+ * dynamic proxies that only answer the calls the steps make while reading and writing (setting files, listing splits
+ * and schemas, opening readers and writers) and ignore the format tuning setters. The proxies are only involved
+ * when a reader or writer is opened, not for every row.
+ */
+public class LocalFormatService {
+
+  /**
+   * Output files are rewound after this many bytes, see {@link LocalRowFiles.Writer}.
+   */
+  public static final long MAX_OUTPUT_BYTES = 256L * 1024 * 1024;
+
+  private final SyntheticDataset dataset;
+  private final List<?> schema;
+  private final boolean cycle;
+  private final List<LocalRowFiles.Reader> openReaders = Collections.synchronizedList( new ArrayList<>() );
+
+  /**
+   * @param dataset the dataset read by input steps
+   * @param schema  the fields returned when a step reads the schema of a file
+   * @param cycle   whether readers start over at the end of their file
+   */
+  public LocalFormatService( SyntheticDataset dataset, List<?> schema, boolean cycle ) {
+    this.dataset = dataset;
+    this.schema = schema;
+    this.cycle = cycle;
+  }
+
+  /**
+   * @return a resolver that serves every file from this format service, without a named cluster
+   */
+  public NamedClusterResolver namedClusterResolver() {
+    FormatService formatService = proxy( FormatService.class, ( proxy, method, args ) -> {
+      if ( method.getName().startsWith( "create" ) ) {
+        return newFormat( (Class<?>) args[ 0 ] );
+      }
+      return defaultValue( method );
+    } );
+    NamedClusterServiceLocator locator = proxy( NamedClusterServiceLocator.class,
+      ( proxy, method, args ) -> "getService".equals( method.getName() ) ? formatService : defaultValue( method ) );
+    NamedClusterService namedClusterService =
+      proxy( NamedClusterService.class, ( proxy, method, args ) -> defaultValue( method ) );
+    return new NamedClusterResolver( locator, namedClusterService ) {
+      @Override
+      public NamedCluster resolveNamedCluster( String fileName, String embeddedMetastoreKey ) {
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Closes the readers the steps left open, cycling readers never reach the end of their file.
+   */
+  public void closeReaders() {
+    synchronized ( openReaders ) {
+      for ( LocalRowFiles.Reader reader : openReaders ) {
+        reader.close();
+      }
+      openReaders.clear();
+    }
+  }
+
+  private Object newFormat( Class<?> formatType ) {
+    return proxy( formatType, new FormatHandler() );
+  }
+
+  /**
+   * The state of one input or output format: the file it was pointed at and the splits it handed out.
+   */
+  private class FormatHandler implements InvocationHandler {
+    private String outputFile;
+    private final Map<IPentahoInputSplit, File> splitFiles = new IdentityHashMap<>();
+
+    @Override
+    public Object invoke( Object proxy, Method method, Object[] args ) throws Throwable {
+      switch ( method.getName() ) {
+        case "setOutputFile":
+          outputFile = (String) args[ 0 ];
+          return null;
+        case "createRecordWriter":
+          return new LocalRowFiles.Writer( new File( new URI( outputFile ).getPath() ), MAX_OUTPUT_BYTES );
+        case "readSchema":
+          return schema;
+        case "getSplits":
+          List<IPentahoInputSplit> splits = new ArrayList<>();
+          for ( File file : dataset.getSplitFiles() ) {
+            IPentahoInputSplit split = proxy( IPentahoInputSplit.class, ( p, m, a ) -> defaultValue( m ) );
+            splitFiles.put( split, file );
+            splits.add( split );
+          }
+          return Collections.unmodifiableList( splits );
+        case "createRecordReader":
+          // without a split the whole input is read, as the ORC input does
+          int split = args[ 0 ] == null ? 0 : dataset.getSplitFiles().indexOf( splitFiles.get( args[ 0 ] ) );
+          LocalRowFiles.Reader reader = new LocalRowFiles.Reader( dataset.getSplitFiles().get( split ),
+            dataset.getRowMeta(), dataset.getRowsPerSplit( split ), cycle );
+          openReaders.add( reader );
+          return reader;
+        case "generateAlias":
+          return null;
+        default:
+          return defaultValue( method );
+      }
+    }
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private static <T> T proxy( Class<T> type, InvocationHandler handler ) {
+    return (T) Proxy.newProxyInstance( LocalFormatService.class.getClassLoader(), new Class<?>[] { type },
+      ( proxy, method, args ) -> {
+        if ( method.getDeclaringClass() == Object.class ) {
+          switch ( method.getName() ) {
+            case "equals":
+              return proxy == args[ 0 ];
+            case "hashCode":
+              return System.identityHashCode( proxy );
+            default:
+              return type.getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( proxy ) );
+          }
+        }
+        return handler.invoke( proxy, method, args );
+      } );
+  }
+
+  private static Object defaultValue( Method method ) {
+    Class<?> type = method.getReturnType();
+    if ( type == boolean.class ) {
+      return false;
+    } else if ( type == int.class ) {
+      return 0;
+    } else if ( type == long.class ) {
+      return 0L;
+    } else if ( type == double.class ) {
+      return 0d;
+    } else if ( type == float.class ) {
+      return 0f;
+    } else if ( type == short.class ) {
+      return (short) 0;
+    } else if ( type == byte.class ) {
+      return (byte) 0;
+    } else if ( type == char.class ) {
+      return (char) 0;
+    }
+    return null;
+  }
+}
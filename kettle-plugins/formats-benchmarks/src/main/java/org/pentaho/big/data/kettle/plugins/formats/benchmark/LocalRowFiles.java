@@ -0,0 +1,161 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Record readers and writers over local files holding rows in Kettle's binary row format. They stand in for the
+ * Parquet/ORC codecs, which live in the Hadoop shims, so the benchmarks measure the steps' own per row work plus real
+ * local file I/O without a shim or a cluster.
+ */
+public final class LocalRowFiles {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private LocalRowFiles() {
+  }
+
+  /**
+   * Writes rows to a local file. Once {@code maxBytes} have been written the file is rewound, so a long measurement
+   * keeps doing file I/O without filling the disk.
+   */
+  public static class Writer implements IPentahoRecordWriter, Closeable {
+    private final long maxBytes;
+    private final FileOutputStream file;
+    private DataOutputStream out;
+
+    public Writer( File target ) throws IOException {
+      this( target, Long.MAX_VALUE );
+    }
+
+    public Writer( File target, long maxBytes ) throws IOException {
+      this.maxBytes = maxBytes;
+      this.file = new FileOutputStream( target );
+      this.out = new DataOutputStream( new BufferedOutputStream( file, BUFFER_SIZE ) );
+    }
+
+    @Override
+    public void write( RowMetaAndData row ) {
+      write( row.getRowMeta(), row.getData() );
+    }
+
+    public void write( RowMetaInterface meta, Object[] data ) {
+      try {
+        meta.writeData( out, data );
+        if ( out.size() >= maxBytes ) {
+          out.flush();
+          file.getChannel().position( 0 );
+          out = new DataOutputStream( new BufferedOutputStream( file, BUFFER_SIZE ) );
+        }
+      } catch ( KettleException | IOException e ) {
+        throw new RuntimeException( e );
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  /**
+   * Reads the rows of a local file. A cycling reader starts over at the end of the file and never runs dry, so a
+   * benchmark can read one row per operation for as long as it is measured.
+   */
+  public static class Reader implements IPentahoRecordReader {
+    private final File source;
+    private final RowMetaInterface rowMeta;
+    private final int rows;
+    private final boolean cycle;
+    private DataInputStream in;
+    private int read;
+
+    public Reader( File source, RowMetaInterface rowMeta, int rows, boolean cycle ) {
+      this.source = source;
+      this.rowMeta = rowMeta;
+      this.rows = rows;
+      this.cycle = cycle && rows > 0;
+    }
+
+    @Override
+    public Iterator<RowMetaAndData> iterator() {
+      return new Iterator<RowMetaAndData>() {
+        @Override
+        public boolean hasNext() {
+          return cycle || read < rows;
+        }
+
+        @Override
+        public RowMetaAndData next() {
+          if ( !hasNext() ) {
+            throw new NoSuchElementException();
+          }
+          try {
+            if ( in == null || read == rows ) {
+              reopen();
+            }
+            read++;
+            return new RowMetaAndData( rowMeta, rowMeta.readData( in ) );
+          } catch ( KettleException | IOException e ) {
+            throw new RuntimeException( e );
+          }
+        }
+      };
+    }
+
+    private void reopen() throws IOException {
+      close();
+      in = new DataInputStream( new BufferedInputStream( new FileInputStream( source ), BUFFER_SIZE ) );
+      read = 0;
+    }
+
+    @Override
+    public void close() {
+      if ( in != null ) {
+        try {
+          in.close();
+        } catch ( IOException e ) {
+          // nothing left to read from it
+        }
+        in = null;
+      }
+    }
+  }
+}
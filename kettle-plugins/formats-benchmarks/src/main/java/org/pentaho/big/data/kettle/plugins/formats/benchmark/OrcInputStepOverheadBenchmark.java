@@ -0,0 +1,105 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pentaho.big.data.kettle.plugins.formats.impl.orc.input.OrcInput;
+import org.pentaho.big.data.kettle.plugins.formats.impl.orc.input.OrcInputData;
+import org.pentaho.big.data.kettle.plugins.formats.impl.orc.input.OrcInputMeta;
+import org.pentaho.big.data.kettle.plugins.formats.orc.OrcInputField;
+import org.pentaho.big.data.kettle.plugins.formats.orc.OrcTypeConverter;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.step.StepMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second read through the ORC Input step, one row per operation, from the Kettle binary row files of
+ * {@link LocalFormatService}. No ORC decoding is involved, this measures the step's own per row work.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class OrcInputStepOverheadBenchmark {
+
+  private LocalFormatService formatService;
+  private OrcInputMeta meta;
+  private OrcInputData data;
+  private OrcInput step;
+
+  @Setup( Level.Iteration )
+  public void setUp( SyntheticDataset dataset ) throws Exception {
+    List<OrcInputField> fields = inputFields( dataset.getRowMeta() );
+    formatService = new LocalFormatService( dataset, fields, true );
+
+    meta = new OrcInputMeta( formatService.namedClusterResolver() );
+    meta.inputFiles.fileName = new String[] { dataset.getSplitFiles().get( 0 ).getAbsolutePath() };
+    meta.setInputFields( fields );
+
+    StepMeta stepMeta = BenchmarkSteps.stepMeta( "ORC input", meta );
+    data = (OrcInputData) meta.getStepData();
+    step = BenchmarkSteps.prepare(
+      new OrcInput( stepMeta, data, 0, stepMeta.getParentTransMeta(), BenchmarkSteps.trans( stepMeta ) ), dataset );
+  }
+
+  @Benchmark
+  public boolean readRow() throws KettleException {
+    return step.processRow( meta, data );
+  }
+
+  @TearDown( Level.Iteration )
+  public void tearDown() {
+    formatService.closeReaders();
+  }
+
+  static List<OrcInputField> inputFields( RowMetaInterface rowMeta ) {
+    List<OrcInputField> fields = new ArrayList<>( rowMeta.size() );
+    for ( ValueMetaInterface valueMeta : rowMeta.getValueMetaList() ) {
+      OrcInputField field = new OrcInputField();
+      field.setFormatFieldName( valueMeta.getName() );
+      field.setPentahoFieldName( valueMeta.getName() );
+      field.setPentahoType( valueMeta.getType() );
+      field.setOrcType( OrcTypeConverter.convertToOrcType( valueMeta.getType() ) );
+      fields.add( field );
+    }
+    return fields;
+  }
+}
@@ -0,0 +1,115 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pentaho.big.data.kettle.plugins.formats.impl.parquet.output.ParquetOutput;
+import org.pentaho.big.data.kettle.plugins.formats.impl.parquet.output.ParquetOutputData;
+import org.pentaho.big.data.kettle.plugins.formats.impl.parquet.output.ParquetOutputMeta;
+import org.pentaho.big.data.kettle.plugins.formats.parquet.ParquetTypeConverter;
+import org.pentaho.big.data.kettle.plugins.formats.parquet.output.ParquetOutputField;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.step.StepMeta;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second written through the Parquet Output step, one row per operation, to the Kettle binary row files of
+ * {@link LocalFormatService}. No Parquet encoding is involved, this measures the step's own per row work.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ParquetOutputStepOverheadBenchmark {
+
+  private ParquetOutputMeta meta;
+  private ParquetOutputData data;
+  private ParquetOutput step;
+  private File outputDirectory;
+
+  @Setup( Level.Iteration )
+  public void setUp( SyntheticDataset dataset ) throws Exception {
+    outputDirectory = BenchmarkSteps.newOutputDirectory( dataset, "parquet-output" );
+
+    meta = new ParquetOutputMeta(
+      new LocalFormatService( dataset, Collections.emptyList(), false ).namedClusterResolver() );
+    meta.setDefault();
+    meta.setFilename( new File( outputDirectory, "output" ).getAbsolutePath() );
+    meta.setOverrideOutput( true );
+    meta.setOutputFields( outputFields( dataset.getRowMeta() ) );
+
+    StepMeta stepMeta = BenchmarkSteps.stepMeta( "Parquet output", meta );
+    data = (ParquetOutputData) meta.getStepData();
+    step = BenchmarkSteps.prepare(
+      new ParquetOutput( stepMeta, data, 0, stepMeta.getParentTransMeta(), BenchmarkSteps.trans( stepMeta ) ),
+      dataset );
+    if ( !step.init( meta, data ) ) {
+      throw new IllegalStateException( "Unable to initialize the Parquet Output step" );
+    }
+  }
+
+  @Benchmark
+  public boolean writeRow() throws KettleException {
+    return step.processRow( meta, data );
+  }
+
+  @TearDown( Level.Iteration )
+  public void tearDown() throws Exception {
+    if ( data.output != null ) {
+      step.closeWriter();
+    }
+    BenchmarkSteps.deleteDirectory( outputDirectory );
+  }
+
+  static List<ParquetOutputField> outputFields( RowMetaInterface rowMeta ) {
+    List<ParquetOutputField> fields = new ArrayList<>( rowMeta.size() );
+    for ( ValueMetaInterface valueMeta : rowMeta.getValueMetaList() ) {
+      ParquetOutputField field = new ParquetOutputField();
+      field.setFormatFieldName( valueMeta.getName() );
+      field.setPentahoFieldName( valueMeta.getName() );
+      field.setFormatType( ParquetTypeConverter.convertToParquetType( valueMeta.getType() ) );
+      fields.add( field );
+    }
+    return fields;
+  }
+}
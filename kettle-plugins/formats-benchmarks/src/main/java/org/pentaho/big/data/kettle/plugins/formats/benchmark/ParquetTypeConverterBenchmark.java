@@ -0,0 +1,81 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pentaho.big.data.kettle.plugins.formats.parquet.ParquetTypeConverter;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts the types of every field of a dataset row to Parquet types, as the Parquet Output step does when the
+ * output fields are set up from the incoming stream. One operation converts all fields of the row.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ParquetTypeConverterBenchmark {
+
+  private int[] typeIds;
+  private String[] typeCodes;
+
+  @Setup( Level.Trial )
+  public void setUp( SyntheticDataset dataset ) {
+    RowMetaInterface rowMeta = dataset.getRowMeta();
+    typeIds = new int[ rowMeta.size() ];
+    typeCodes = new String[ rowMeta.size() ];
+    for ( int i = 0; i < rowMeta.size(); i++ ) {
+      typeIds[ i ] = rowMeta.getValueMeta( i ).getType();
+      typeCodes[ i ] = rowMeta.getValueMeta( i ).getTypeDesc();
+    }
+  }
+
+  @Benchmark
+  public void convertTypeIds( Blackhole blackhole ) {
+    for ( int typeId : typeIds ) {
+      blackhole.consume( ParquetTypeConverter.convertToParquetType( typeId ) );
+    }
+  }
+
+  @Benchmark
+  public void convertTypeNames( Blackhole blackhole ) {
+    for ( String typeCode : typeCodes ) {
+      blackhole.consume( ParquetTypeConverter.convertToParquetType( typeCode ) );
+    }
+  }
+}
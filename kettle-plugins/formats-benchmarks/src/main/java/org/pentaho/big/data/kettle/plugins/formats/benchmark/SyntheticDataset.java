@@ -0,0 +1,175 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.pentaho.di.core.KettleEnvironment;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A generated table of {@code rows} rows and {@code width} columns whose types follow {@code typeMix}. The rows are
+ * kept in memory for the write benchmarks and written to {@link #SPLIT_FILES} local files for the read benchmarks.
+ * The data is generated from a fixed seed so every run measures the same rows.
+ */
+@State( Scope.Benchmark )
+public class SyntheticDataset {
+
+  public enum TypeMix {
+    STRING( ValueMetaInterface.TYPE_STRING ),
+    NUMERIC( ValueMetaInterface.TYPE_INTEGER, ValueMetaInterface.TYPE_NUMBER, ValueMetaInterface.TYPE_BIGNUMBER ),
+    MIXED( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER, ValueMetaInterface.TYPE_NUMBER,
+      ValueMetaInterface.TYPE_DATE, ValueMetaInterface.TYPE_BOOLEAN, ValueMetaInterface.TYPE_BIGNUMBER );
+
+    private final int[] types;
+
+    TypeMix( int... types ) {
+      this.types = types;
+    }
+
+    int typeOf( int column ) {
+      return types[ column % types.length ];
+    }
+  }
+
+  public static final int SPLIT_FILES = 4;
+
+  private static final long SEED = 20220901L;
+
+  @Param( { "4", "16", "64" } )
+  public int width;
+
+  @Param( { "STRING", "NUMERIC", "MIXED" } )
+  public TypeMix typeMix;
+
+  @Param( { "10000", "100000" } )
+  public int rows;
+
+  private RowMetaInterface rowMeta;
+  private Object[][] data;
+  private File directory;
+  private List<File> splitFiles;
+
+  @Setup( Level.Trial )
+  public void setUp() throws Exception {
+    KettleEnvironment.init( false );
+
+    rowMeta = new RowMeta();
+    for ( int column = 0; column < width; column++ ) {
+      rowMeta.addValueMeta( ValueMetaFactory.createValueMeta( "field_" + column, typeMix.typeOf( column ) ) );
+    }
+
+    Random random = new Random( SEED );
+    data = new Object[ rows ][];
+    for ( int row = 0; row < rows; row++ ) {
+      Object[] values = new Object[ width ];
+      for ( int column = 0; column < width; column++ ) {
+        values[ column ] = randomValue( random, rowMeta.getValueMeta( column ).getType() );
+      }
+      data[ row ] = values;
+    }
+
+    directory = Files.createTempDirectory( "formats-benchmark" ).toFile();
+    splitFiles = new ArrayList<>( SPLIT_FILES );
+    int rowsPerSplit = ( rows + SPLIT_FILES - 1 ) / SPLIT_FILES;
+    for ( int split = 0; split < SPLIT_FILES; split++ ) {
+      File file = new File( directory, "split-" + split + ".rows" );
+      try ( LocalRowFiles.Writer writer = new LocalRowFiles.Writer( file ) ) {
+        for ( int row = split * rowsPerSplit; row < Math.min( rows, ( split + 1 ) * rowsPerSplit ); row++ ) {
+          writer.write( rowMeta, data[ row ] );
+        }
+      }
+      splitFiles.add( file );
+    }
+  }
+
+  @TearDown( Level.Trial )
+  public void tearDown() throws IOException {
+    if ( directory != null ) {
+      File[] files = directory.listFiles();
+      if ( files != null ) {
+        for ( File file : files ) {
+          Files.deleteIfExists( file.toPath() );
+        }
+      }
+      Files.deleteIfExists( directory.toPath() );
+    }
+  }
+
+  private static Object randomValue( Random random, int type ) {
+    switch ( type ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+        return random.nextLong();
+      case ValueMetaInterface.TYPE_NUMBER:
+        return random.nextDouble() * 1000000;
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return BigDecimal.valueOf( random.nextInt(), 4 );
+      case ValueMetaInterface.TYPE_DATE:
+        return new Date( 1500000000000L + random.nextInt( Integer.MAX_VALUE ) * 1000L );
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return random.nextBoolean();
+      default:
+        return Long.toString( random.nextLong(), 36 ) + Integer.toString( random.nextInt( 1000 ) );
+    }
+  }
+
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  public Object[] getRow( int index ) {
+    return data[ index ];
+  }
+
+  public List<File> getSplitFiles() {
+    return splitFiles;
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  /**
+   * @return the rows written to each split file
+   */
+  public int getRowsPerSplit( int split ) {
+    int rowsPerSplit = ( rows + SPLIT_FILES - 1 ) / SPLIT_FILES;
+    return Math.max( 0, Math.min( rows, ( split + 1 ) * rowsPerSplit ) - split * rowsPerSplit );
+  }
+}
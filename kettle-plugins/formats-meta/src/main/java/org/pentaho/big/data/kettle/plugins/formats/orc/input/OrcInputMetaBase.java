@@ -32,6 +32,7 @@ import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.exception.KettlePluginException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.exception.KettleXMLException;
+import org.pentaho.di.core.injection.Injection;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaBase;
@@ -62,6 +63,18 @@ import java.util.List;
 public abstract class OrcInputMetaBase extends
     BaseFileInputMeta<BaseFileInputAdditionalField, FormatInputFile, OrcInputField> implements ResolvableResource {
 
+  /** Number of files or stripe ranges decoded concurrently; empty or 1 reads them one after another. */
+  @Injection( name = "READ_THREADS" )
+  String readThreads = "";
+
+  /** When reading concurrently, emit the rows in file and stripe order. */
+  @Injection( name = "PRESERVE_ORDER" )
+  boolean preserveOrder = false;
+
+  /** Let each copy of the step read only its share of the files and stripe ranges. */
+  @Injection( name = "PARTITION_SPLITS" )
+  boolean partitionSplits = false;
+
   public OrcInputMetaBase() {
     additionalOutputFields = new BaseFileInputAdditionalField();
     inputFiles = new FormatInputFile();
@@ -81,6 +94,30 @@ public abstract class OrcInputMetaBase extends
     inputFiles.fileName[0] = filename;
   }
 
+  public String getReadThreads() {
+    return readThreads;
+  }
+
+  public void setReadThreads( String readThreads ) {
+    this.readThreads = readThreads;
+  }
+
+  public boolean isPreserveOrder() {
+    return preserveOrder;
+  }
+
+  public void setPreserveOrder( boolean preserveOrder ) {
+    this.preserveOrder = preserveOrder;
+  }
+
+  public boolean isPartitionSplits() {
+    return partitionSplits;
+  }
+
+  public void setPartitionSplits( boolean partitionSplits ) {
+    this.partitionSplits = partitionSplits;
+  }
+
   public OrcInputField[] getInputFields() {
     return inputFields;
   }
@@ -99,6 +136,9 @@ public abstract class OrcInputMetaBase extends
     StringBuilder retval = new StringBuilder( 1500 );
 
     retval.append( "    " ).append( XMLHandler.addTagValue( "passing_through_fields", inputFiles.passingThruFields ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "read_threads", readThreads ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "preserve_order", preserveOrder ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "partition_splits", partitionSplits ) );
     retval.append( "    <file>" ).append( Const.CR );
     //we need the equals by size arrays for inputFiles.fileName[i], inputFiles.fileMask[i], inputFiles.fileRequired[i], inputFiles.includeSubFolders[i]
     //to prevent the ArrayIndexOutOfBoundsException
@@ -148,6 +188,9 @@ public abstract class OrcInputMetaBase extends
     throws KettleException {
     try {
       rep.saveStepAttribute( id_transformation, id_step, "passing_through_fields", inputFiles.passingThruFields );
+      rep.saveStepAttribute( id_transformation, id_step, "read_threads", readThreads );
+      rep.saveStepAttribute( id_transformation, id_step, "preserve_order", preserveOrder );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_splits", partitionSplits );
       if ( !( inputFiles.fileName.length == 1 && inputFiles.fileName[0].equalsIgnoreCase( "" ) ) ) {
         for ( int i = 0; i < inputFiles.fileName.length; i++ ) {
           rep.saveStepAttribute( id_transformation, id_step, i, "environment", inputFiles.environment[i] );
@@ -192,6 +235,9 @@ public abstract class OrcInputMetaBase extends
             : XMLHandler.getTagValue( stepnode, "passing_through_fields" );
     allocateFiles( nrfiles );
     inputFiles.passingThruFields = ValueMetaBase.convertStringToBoolean( passThroughFields );
+    readThreads = Const.NVL( XMLHandler.getTagValue( stepnode, "read_threads" ), "" );
+    preserveOrder = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "preserve_order" ) );
+    partitionSplits = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "partition_splits" ) );
     for ( int i = 0; i < nrfiles; i++ ) {
       Node envnode = XMLHandler.getSubNodeByNr( filenode, "environment", i );
       Node filenamenode = XMLHandler.getSubNodeByNr( filenode, "name", i );
@@ -236,6 +282,9 @@ public abstract class OrcInputMetaBase extends
       allocateFiles( nrfiles );
 
       inputFiles.passingThruFields = rep.getStepAttributeBoolean( id_step, "passing_through_fields" );
+      readThreads = Const.NVL( rep.getStepAttributeString( id_step, "read_threads" ), "" );
+      preserveOrder = rep.getStepAttributeBoolean( id_step, "preserve_order" );
+      partitionSplits = rep.getStepAttributeBoolean( id_step, "partition_splits" );
       for ( int i = 0; i < nrfiles; i++ ) {
         inputFiles.environment[i] = rep.getStepAttributeString( id_step, i, "environment" );
         inputFiles.fileName[i] = rep.getStepAttributeString( id_step, i, "file_name" );
@@ -291,6 +340,9 @@ public abstract class OrcInputMetaBase extends
   public void setDefault() {
     allocateFiles( 0 );
     inputFields = new OrcInputField[ 0 ];
+    readThreads = "";
+    preserveOrder = false;
+    partitionSplits = false;
   }
 
   @Override
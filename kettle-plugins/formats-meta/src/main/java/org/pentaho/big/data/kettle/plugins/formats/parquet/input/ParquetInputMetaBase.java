@@ -66,6 +66,18 @@ public abstract class ParquetInputMetaBase extends
   @Injection( name = "IGNORE_EMPTY_FOLDER" )
   boolean ignoreEmptyFolder = false;
 
+  /** Number of input splits decoded concurrently; empty or 1 reads the splits one after another. */
+  @Injection( name = "READ_THREADS" )
+  String readThreads = "";
+
+  /** When reading splits concurrently, emit the rows in split order. */
+  @Injection( name = "PRESERVE_ORDER" )
+  boolean preserveOrder = false;
+
+  /** Let each copy of the step read only its share of the input splits. */
+  @Injection( name = "PARTITION_SPLITS" )
+  boolean partitionSplits = false;
+
   public ParquetInputMetaBase() {
     additionalOutputFields = new BaseFileInputAdditionalField();
     inputFiles = new FormatInputFile();
@@ -80,6 +92,30 @@ public abstract class ParquetInputMetaBase extends
     this.ignoreEmptyFolder = ignoreEmptyFolder;
   }
 
+  public String getReadThreads() {
+    return readThreads;
+  }
+
+  public void setReadThreads( String readThreads ) {
+    this.readThreads = readThreads;
+  }
+
+  public boolean isPreserveOrder() {
+    return preserveOrder;
+  }
+
+  public void setPreserveOrder( boolean preserveOrder ) {
+    this.preserveOrder = preserveOrder;
+  }
+
+  public boolean isPartitionSplits() {
+    return partitionSplits;
+  }
+
+  public void setPartitionSplits( boolean partitionSplits ) {
+    this.partitionSplits = partitionSplits;
+  }
+
   public String getFilename() {
     if ( inputFiles != null && inputFiles.fileName != null && inputFiles.fileName.length > 0 ) {
       return inputFiles.fileName[0];
@@ -123,6 +159,9 @@ public abstract class ParquetInputMetaBase extends
 
     retval.append( "    " ).append( XMLHandler.addTagValue( "passing_through_fields", inputFiles.passingThruFields ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "ignore_empty_folder", ignoreEmptyFolder ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "read_threads", readThreads ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "preserve_order", preserveOrder ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "partition_splits", partitionSplits ) );
     retval.append( "    <file>" ).append( Const.CR );
     //we need the equals by size arrays for inputFiles.fileName[i], inputFiles.fileMask[i], inputFiles.fileRequired[i], inputFiles.includeSubFolders[i]
     //to prevent the ArrayIndexOutOfBoundsException
@@ -174,6 +213,9 @@ public abstract class ParquetInputMetaBase extends
     try {
       rep.saveStepAttribute( id_transformation, id_step, "ignore_empty_folder", ignoreEmptyFolder );
       rep.saveStepAttribute( id_transformation, id_step, "passing_through_fields", inputFiles.passingThruFields );
+      rep.saveStepAttribute( id_transformation, id_step, "read_threads", readThreads );
+      rep.saveStepAttribute( id_transformation, id_step, "preserve_order", preserveOrder );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_splits", partitionSplits );
       if ( !( inputFiles.fileName.length == 1 && inputFiles.fileName[0].equalsIgnoreCase( "" ) ) ) {
         for ( int i = 0; i < inputFiles.fileName.length; i++ ) {
           rep.saveStepAttribute( id_transformation, id_step, i, "environment", inputFiles.environment[i] );
@@ -220,6 +262,9 @@ public abstract class ParquetInputMetaBase extends
     allocateFiles( nrfiles );
     inputFiles.passingThruFields = ValueMetaBase.convertStringToBoolean( passThroughFields );
     ignoreEmptyFolder = ValueMetaBase.convertStringToBoolean( skipIfNoFile );
+    readThreads = Const.NVL( XMLHandler.getTagValue( stepnode, "read_threads" ), "" );
+    preserveOrder = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "preserve_order" ) );
+    partitionSplits = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "partition_splits" ) );
     for ( int i = 0; i < nrfiles; i++ ) {
       Node envnode = XMLHandler.getSubNodeByNr( filenode, "environment", i );
       Node filenamenode = XMLHandler.getSubNodeByNr( filenode, "name", i );
@@ -266,6 +311,9 @@ public abstract class ParquetInputMetaBase extends
 
       inputFiles.passingThruFields = rep.getStepAttributeBoolean( id_step, "passing_through_fields" );
       ignoreEmptyFolder = rep.getStepAttributeBoolean( id_step, "ignore_empty_folder" );
+      readThreads = Const.NVL( rep.getStepAttributeString( id_step, "read_threads" ), "" );
+      preserveOrder = rep.getStepAttributeBoolean( id_step, "preserve_order" );
+      partitionSplits = rep.getStepAttributeBoolean( id_step, "partition_splits" );
       for ( int i = 0; i < nrfiles; i++ ) {
         inputFiles.environment[ i ] = rep.getStepAttributeString( id_step, i, "environment" );
         inputFiles.fileName[ i ] = rep.getStepAttributeString( id_step, i, "file_name" );
@@ -324,6 +372,9 @@ public abstract class ParquetInputMetaBase extends
   public void setDefault() {
     allocateFiles( 0 );
     inputFields = new ParquetInputField[ 0 ];
+    readThreads = "";
+    preserveOrder = false;
+    partitionSplits = false;
   }
 
   @Override
@@ -0,0 +1,227 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.impl;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decodes several input splits at once on a bounded pool and hands their rows to the step thread through bounded
+ * queues. Without order preservation all splits share one queue and their rows are interleaved. With order
+ * preservation every split gets its own queue, the rows are returned split by split, and at most {@code readThreads}
+ * splits are read ahead of the one being returned so the buffered rows stay bounded.
+ */
+public class InputSplitReader<S> {
+
+  /**
+   * Opens a record reader over one input split.
+   */
+  public interface RecordReaderFactory<S> {
+    IPentahoRecordReader createRecordReader( S split ) throws Exception;
+  }
+
+  public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+  private static final Object END_OF_SPLIT = new Object();
+  private static final long QUEUE_TIMEOUT_MS = 100;
+
+  private final List<S> splits;
+  private final int readThreads;
+  private final RecordReaderFactory<S> readerFactory;
+  private final ConcurrentLinkedQueue<Integer> pendingSplits = new ConcurrentLinkedQueue<>();
+  private final List<BlockingQueue<Object>> splitQueues;
+  private final Semaphore readAhead;
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+  private volatile boolean closed = false;
+  private int finishedSplits = 0;
+  private ExecutorService executor;
+
+  public InputSplitReader( List<S> splits, int readThreads, int queueSize, boolean preserveOrder,
+                           RecordReaderFactory<S> readerFactory ) {
+    this.splits = splits;
+    this.readThreads = Math.max( 1, Math.min( readThreads, Math.max( 1, splits.size() ) ) );
+    this.readerFactory = readerFactory;
+    this.splitQueues = new ArrayList<>( splits.size() );
+    if ( preserveOrder ) {
+      for ( int i = 0; i < splits.size(); i++ ) {
+        splitQueues.add( new LinkedBlockingQueue<>( Math.max( 1, queueSize ) ) );
+      }
+      readAhead = new Semaphore( this.readThreads );
+    } else {
+      BlockingQueue<Object> sharedQueue = new ArrayBlockingQueue<>( Math.max( 1, queueSize ) );
+      for ( int i = 0; i < splits.size(); i++ ) {
+        splitQueues.add( sharedQueue );
+      }
+      readAhead = null;
+    }
+    for ( int i = 0; i < splits.size(); i++ ) {
+      pendingSplits.add( i );
+    }
+  }
+
+  /**
+   * Picks the splits read by one step copy, dealing them out round robin between the copies.
+   *
+   * @param splits all input splits
+   * @param copyNr the number of this copy
+   * @param copies the total number of copies
+   * @return the splits for this copy
+   */
+  public static <T> List<T> splitsForCopy( List<T> splits, int copyNr, int copies ) {
+    if ( copies <= 1 ) {
+      return splits;
+    }
+    List<T> copySplits = new ArrayList<>();
+    for ( int i = copyNr; i < splits.size(); i += copies ) {
+      copySplits.add( splits.get( i ) );
+    }
+    return Collections.unmodifiableList( copySplits );
+  }
+
+  public void start() {
+    if ( splits.isEmpty() ) {
+      return;
+    }
+    executor = Executors.newFixedThreadPool( readThreads );
+    for ( int i = 0; i < readThreads; i++ ) {
+      executor.submit( this::readSplits );
+    }
+    executor.shutdown();
+  }
+
+  /**
+   * Returns the next row, blocking until one is available.
+   *
+   * @return the next row, or null once every split has been read or the reader has been closed
+   * @throws KettleException if reading one of the splits failed
+   */
+  public RowMetaAndData next() throws KettleException {
+    while ( finishedSplits < splits.size() ) {
+      Object item = take( splitQueues.get( finishedSplits ) );
+      if ( item == null ) {
+        return null;
+      }
+      if ( item != END_OF_SPLIT ) {
+        return (RowMetaAndData) item;
+      }
+      finishedSplits++;
+      if ( readAhead != null ) {
+        readAhead.release();
+      }
+    }
+    return null;
+  }
+
+  public void close() {
+    closed = true;
+    if ( executor != null ) {
+      executor.shutdownNow();
+    }
+    for ( BlockingQueue<Object> queue : splitQueues ) {
+      queue.clear();
+    }
+  }
+
+  private Object take( BlockingQueue<Object> queue ) throws KettleException {
+    try {
+      while ( !closed ) {
+        Exception e = failure.get();
+        if ( e != null ) {
+          throw e instanceof KettleException ? (KettleException) e : new KettleException( e.getMessage(), e );
+        }
+        Object item = queue.poll( QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS );
+        if ( item != null ) {
+          return item;
+        }
+      }
+      return null;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    }
+  }
+
+  private void readSplits() {
+    try {
+      while ( !closed && failure.get() == null ) {
+        if ( readAhead != null ) {
+          readAhead.acquire();
+        }
+        Integer splitNr = pendingSplits.poll();
+        if ( splitNr == null ) {
+          return;
+        }
+        readSplit( splitNr );
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } catch ( Exception e ) {
+      failure.compareAndSet( null, e );
+    }
+  }
+
+  private void readSplit( int splitNr ) throws Exception {
+    BlockingQueue<Object> queue = splitQueues.get( splitNr );
+    IPentahoRecordReader reader;
+    try {
+      reader = readerFactory.createRecordReader( splits.get( splitNr ) );
+    } catch ( Exception e ) {
+      throw new KettleException( "Unable to open input split " + splitNr, e );
+    }
+    try {
+      Iterator<RowMetaAndData> rows = reader.iterator();
+      while ( rows.hasNext() ) {
+        if ( closed || failure.get() != null ) {
+          return;
+        }
+        enqueue( queue, rows.next() );
+      }
+    } finally {
+      reader.close();
+    }
+    enqueue( queue, END_OF_SPLIT );
+  }
+
+  private void enqueue( BlockingQueue<Object> queue, Object item ) throws InterruptedException {
+    while ( !closed && failure.get() == null ) {
+      if ( queue.offer( item, QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS ) ) {
+        return;
+      }
+    }
+  }
+}
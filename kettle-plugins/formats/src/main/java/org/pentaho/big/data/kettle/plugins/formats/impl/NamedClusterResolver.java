@@ -28,18 +28,54 @@ import org.pentaho.di.core.service.PluginServiceLoader;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.cluster.NamedClusterService;
 import org.pentaho.hadoop.shim.api.cluster.NamedClusterServiceLocator;
+import org.pentaho.metastore.api.IMetaStore;
 import org.pentaho.metastore.locator.api.MetastoreLocator;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Finds the named cluster a file belongs to: by name for hc:// URIs, by host otherwise. Resolutions, including the ones
+ * finding no cluster, are cached by scheme, host and embedded metastore key for {@link #DEFAULT_CACHE_TTL_MS}, so the
+ * steps resolving the same file for every split or file don't search the metastore each time. A cached resolution is
+ * dropped when the metastore it came from is replaced. Every caller gets its own copy of a cached named cluster, so
+ * changing it doesn't change what later resolutions return.
+ * <p>
+ * Nothing tells the resolver that a named cluster was created, changed or deleted, so the TTL is the only bound on how
+ * long a stale resolution is used; {@link #refreshNamedCluster(String)} bypasses the cache. The named cluster service
+ * keeps its own indexes for up to 30 seconds as well, so a change made outside that service can take up to both TTLs
+ * to show up here.
+ */
 public class NamedClusterResolver {
 
+  /**
+   * How long a resolution is trusted, matching how long the named cluster service trusts its own indexes
+   */
+  public static final long DEFAULT_CACHE_TTL_MS = 30000;
+  private static final int MAX_CACHED_RESOLUTIONS = 1000;
+
+  private static class Resolution {
+    private final NamedCluster namedCluster;
+    private final IMetaStore metastore;
+    private final long expires;
+
+    Resolution( NamedCluster namedCluster, IMetaStore metastore, long expires ) {
+      this.namedCluster = namedCluster;
+      this.metastore = metastore;
+      this.expires = expires;
+    }
+  }
+
   private final NamedClusterServiceLocator namedClusterServiceLocator;
   private final NamedClusterService namedClusterService;
   private MetastoreLocator metaStoreService;
+  private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+  private volatile long cacheTtlMs = DEFAULT_CACHE_TTL_MS;
 
   public NamedClusterResolver( NamedClusterServiceLocator namedClusterServiceLocator,
                                NamedClusterService namedClusterService ) {
@@ -60,30 +96,74 @@ public class NamedClusterResolver {
   }
 
   public NamedCluster resolveNamedCluster( String fileName, String embeddedMetastoreKey ) {
-    NamedCluster namedCluster = null;
+    return resolveNamedCluster( fileName, embeddedMetastoreKey, false );
+  }
+
+  /**
+   * Resolves the named cluster of a file from the metastore, bypassing and then replacing the cached resolution. For
+   * dialogs, where the user may just have edited the cluster.
+   */
+  public NamedCluster refreshNamedCluster( String fileName ) {
+    return resolveNamedCluster( fileName, null, true );
+  }
+
+  void setCacheTtlMs( long cacheTtlMs ) {
+    this.cacheTtlMs = Math.max( 0, cacheTtlMs );
+    resolutions.clear();
+  }
+
+  private NamedCluster resolveNamedCluster( String fileName, String embeddedMetastoreKey, boolean refresh ) {
     Optional<URI> uri = fileUri( fileName );
+    if ( !uri.isPresent() ) {
+      return null;
+    }
+    String scheme = uri.get().getScheme();
+    String hostName = uri.get().getHost();
+    boolean byName = scheme != null && scheme.equals( "hc" );
+    IMetaStore metastore =
+      byName ? metaStoreService.getMetastore() : metaStoreService.getMetastore( embeddedMetastoreKey );
+
+    // cluster names are case sensitive, host names aren't
+    String key = ( scheme == null ? "" : scheme.toLowerCase( Locale.ROOT ) ) + "://"
+      + ( hostName == null || byName ? hostName : hostName.toLowerCase( Locale.ROOT ) ) + "|" + embeddedMetastoreKey;
+    long ttl = cacheTtlMs;
+    if ( !refresh && ttl > 0 ) {
+      Resolution resolution = resolutions.get( key );
+      if ( resolution != null && resolution.metastore == metastore
+        && System.currentTimeMillis() < resolution.expires ) {
+        return copyOf( resolution.namedCluster );
+      }
+    }
+
+    NamedCluster namedCluster;
+    if ( byName ) {
+      namedCluster = namedClusterService.getNamedClusterByName( hostName, metastore );
+      if ( namedCluster == null && embeddedMetastoreKey != null ) {
+        namedCluster = namedClusterService
+          .getNamedClusterByName( hostName, metaStoreService.getExplicitMetastore( embeddedMetastoreKey ) );
+      }
+    } else {
+      namedCluster = namedClusterService.getNamedClusterByHost( hostName, metastore );
+      if ( namedCluster == null && embeddedMetastoreKey != null ) {
+        namedCluster = namedClusterService
+          .getNamedClusterByHost( hostName, metaStoreService.getExplicitMetastore( embeddedMetastoreKey ) );
+      }
+    }
 
-    if ( uri.isPresent() ) {
-      String scheme = uri.get().getScheme();
-      String hostName = uri.get().getHost();
-      if ( scheme != null && scheme.equals( "hc" ) ) {
-        namedCluster = namedClusterService.getNamedClusterByName( hostName, metaStoreService.getMetastore( ) );
-        if ( namedCluster == null && embeddedMetastoreKey != null ) {
-          namedCluster = namedClusterService
-            .getNamedClusterByName( hostName, metaStoreService.getExplicitMetastore( embeddedMetastoreKey ) );
-        }
-      } else {
-        namedCluster =
-          namedClusterService.getNamedClusterByHost( hostName, metaStoreService.getMetastore( embeddedMetastoreKey ) );
-        if ( namedCluster == null && embeddedMetastoreKey != null ) {
-          namedCluster = namedClusterService
-            .getNamedClusterByHost( hostName, metaStoreService.getExplicitMetastore( embeddedMetastoreKey ) );
-        }
+    if ( ttl > 0 ) {
+      if ( resolutions.size() >= MAX_CACHED_RESOLUTIONS ) {
+        resolutions.clear();
       }
+      resolutions.put( key, new Resolution( namedCluster, metastore, System.currentTimeMillis() + ttl ) );
+      return copyOf( namedCluster );
     }
     return namedCluster;
   }
 
+  private static NamedCluster copyOf( NamedCluster namedCluster ) {
+    return namedCluster == null ? null : namedCluster.clone();
+  }
+
   private Optional<URI> fileUri( String fileName ) {
     try {
       return Optional.of( new URI( fileName ) );
@@ -26,7 +26,9 @@ import org.apache.commons.vfs2.FileObject;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.cluster.NamedClusterServiceLocator;
 import org.pentaho.hadoop.shim.api.cluster.ClusterInitializationException;
+import org.pentaho.big.data.kettle.plugins.formats.impl.InputSplitReader;
 import org.pentaho.big.data.kettle.plugins.formats.orc.input.OrcInputMetaBase;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
@@ -41,9 +43,13 @@ import org.pentaho.di.trans.steps.file.BaseFileInputStep;
 import org.pentaho.di.trans.steps.file.IBaseFileInputReader;
 import org.pentaho.hadoop.shim.api.format.FormatService;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcInputFormat;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 public class OrcInput extends BaseFileInputStep<OrcInputMeta, OrcInputData> {
@@ -59,6 +65,12 @@ public class OrcInput extends BaseFileInputStep<OrcInputMeta, OrcInputData> {
     meta = (OrcInputMeta) smi;
     data = (OrcInputData) sdi;
     try {
+      if ( data.splits == null && isSplitRead() ) {
+        initSplits();
+      }
+      if ( data.splits != null ) {
+        return readSplits();
+      }
       if ( data.input == null || data.reader == null || data.rowIterator == null ) {
         FormatService formatService = getFormatService();
         if ( meta.inputFiles == null || meta.getFilename() == null || meta.getFilename().length() == 0 ) {
@@ -92,6 +104,136 @@ public class OrcInput extends BaseFileInputStep<OrcInputMeta, OrcInputData> {
     }
   }
 
+  /**
+   * Files are split into stripe ranges, and directories into their files, only when they are read by several threads
+   * or partitioned between copies; otherwise the single input file is read as a whole.
+   */
+  private boolean isSplitRead() {
+    return getReadThreads() > 1 || meta.isPartitionSplits();
+  }
+
+  private int getReadThreads() {
+    return Const.toInt( environmentSubstitute( meta.getReadThreads() ), 1 );
+  }
+
+  void initSplits() throws Exception {
+    FormatService formatService = getFormatService();
+    if ( meta.inputFiles == null || meta.getFilename() == null || meta.getFilename().length() == 0 ) {
+      throw new KettleException( "No input files defined" );
+    }
+    List<IOrcInputField> schema = createSchemaFromMeta( meta );
+    List<OrcInputSplit> splits = new ArrayList<>();
+    String fileName = meta.getParentStepMeta().getParentTransMeta().environmentSubstitute( meta.getFilename() );
+    for ( String file : listInputFiles( fileName ) ) {
+      IPentahoOrcInputFormat format = formatService.createInputFormat( IPentahoOrcInputFormat.class, getNamedCluster() );
+      format.setInputFile( file );
+      format.setSchema( schema );
+      List<IPentahoInputSplit> fileSplits = getStripeSplits( format );
+      if ( fileSplits == null || fileSplits.isEmpty() ) {
+        splits.add( new OrcInputSplit( format, null ) );
+      } else {
+        for ( IPentahoInputSplit split : fileSplits ) {
+          splits.add( new OrcInputSplit( format, split ) );
+        }
+      }
+    }
+    logDebug( "Input split count: {0}", splits.size() );
+    if ( meta.isPartitionSplits() ) {
+      splits = InputSplitReader.splitsForCopy( splits, getUniqueStepNrAcrossSlaves(),
+        getUniqueStepCountAcrossSlaves() );
+      logDebug( "Input split count for this copy: {0}", splits.size() );
+    }
+    data.splits = splits;
+    data.currentSplit = 0;
+    int readThreads = getReadThreads();
+    if ( readThreads > 1 && splits.size() > 1 ) {
+      logBasic( "Reading " + splits.size() + " input splits with " + readThreads + " threads" );
+      data.splitReader = new InputSplitReader<>( splits, readThreads, InputSplitReader.DEFAULT_QUEUE_SIZE,
+        meta.isPreserveOrder(), OrcInputSplit::createRecordReader );
+      data.splitReader.start();
+    }
+  }
+
+  /**
+   * Lists the ORC files of a directory, skipping hidden and marker files such as _SUCCESS, or returns the path itself
+   * when it is a file.
+   */
+  private List<String> listInputFiles( String path ) throws Exception {
+    FileObject fileObject = KettleVFS.getFileObject( path );
+    if ( !fileObject.isFolder() ) {
+      return Collections.singletonList( getKettleVFSFileName( path ) );
+    }
+    List<String> files = new ArrayList<>();
+    FileObject[] children = fileObject.getChildren();
+    Arrays.sort( children, Comparator.comparing( child -> child.getName().getBaseName() ) );
+    for ( FileObject child : children ) {
+      String name = child.getName().getBaseName();
+      if ( child.isFile() && !name.startsWith( "." ) && !name.startsWith( "_" ) ) {
+        files.add( getKettleVFSFileName( child.getName().getURI() ) );
+      }
+    }
+    logDebug( "Input file count: {0}", files.size() );
+    return files;
+  }
+
+  /**
+   * @return the stripe ranges of the input file, or null when the shim does not split ORC files
+   */
+  private List<IPentahoInputSplit> getStripeSplits( IPentahoOrcInputFormat format ) throws Exception {
+    try {
+      return format.getSplits();
+    } catch ( UnsupportedOperationException e ) {
+      return null;
+    }
+  }
+
+  private boolean readSplits() throws Exception {
+    RowMetaAndData row;
+    if ( data.splitReader != null ) {
+      row = data.splitReader.next();
+    } else {
+      row = nextSplitRow();
+    }
+    if ( row == null ) {
+      if ( data.splitReader != null ) {
+        data.splitReader.close();
+      }
+      data.currentSplit = data.splits.size();
+      setOutputDone();
+      return false;
+    }
+    putRow( row.getRowMeta(), row.getData() );
+    return true;
+  }
+
+  private RowMetaAndData nextSplitRow() throws Exception {
+    while ( data.currentSplit < data.splits.size() ) {
+      if ( data.reader == null ) {
+        logDebug( "Open split {0}", data.currentSplit );
+        data.reader = data.splits.get( data.currentSplit ).createRecordReader();
+        data.rowIterator = data.reader.iterator();
+      }
+      if ( data.rowIterator.hasNext() ) {
+        return data.rowIterator.next();
+      }
+      data.reader.close();
+      data.reader = null;
+      data.rowIterator = null;
+      logDebug( "Close split {0}", data.currentSplit );
+      data.currentSplit++;
+    }
+    return null;
+  }
+
+  @Override
+  public void setStopped( boolean stopped ) {
+    super.setStopped( stopped );
+    InputSplitReader<OrcInputSplit> splitReader = data == null ? null : data.splitReader;
+    if ( stopped && splitReader != null ) {
+      splitReader.close();
+    }
+  }
+
   private NamedCluster getNamedCluster() {
     return meta.getNamedClusterResolver().resolveNamedCluster( environmentSubstitute( meta.getFilename() ) );
   }
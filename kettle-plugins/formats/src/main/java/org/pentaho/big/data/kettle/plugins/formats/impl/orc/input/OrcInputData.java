@@ -23,7 +23,9 @@
 package org.pentaho.big.data.kettle.plugins.formats.impl.orc.input;
 
 import java.util.Iterator;
+import java.util.List;
 
+import org.pentaho.big.data.kettle.plugins.formats.impl.InputSplitReader;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.steps.file.BaseFileInputStepData;
@@ -35,4 +37,10 @@ public class OrcInputData extends BaseFileInputStepData {
   IPentahoRecordReader reader;
   Iterator<RowMetaAndData> rowIterator;
   RowMetaInterface outputRowMeta;
+  /**
+   * The files or stripe ranges read by this copy, only set when reading in parallel or partitioning between copies
+   */
+  List<OrcInputSplit> splits;
+  int currentSplit;
+  InputSplitReader<OrcInputSplit> splitReader;
 }
@@ -50,6 +50,7 @@ import org.pentaho.di.ui.core.events.dialog.SelectionOperation;
 import org.pentaho.di.ui.core.widget.ColumnInfo;
 import org.pentaho.di.ui.core.widget.ColumnsResizer;
 import org.pentaho.di.ui.core.widget.TableView;
+import org.pentaho.di.ui.core.widget.TextVar;
 import org.pentaho.di.ui.trans.dialog.TransPreviewProgressDialog;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
 import org.pentaho.hadoop.shim.api.format.OrcSpec;
@@ -59,7 +60,7 @@ import java.util.List;
 public class OrcInputDialog extends BaseOrcStepDialog<OrcInputMeta> {
 
   private static final int SHELL_WIDTH = 526;
-  private static final int SHELL_HEIGHT = 506;
+  private static final int SHELL_HEIGHT = 566;
 
   private static final int ORC_PATH_COLUMN_INDEX = 1;
 
@@ -76,6 +77,9 @@ public class OrcInputDialog extends BaseOrcStepDialog<OrcInputMeta> {
   private TableView wInputFields;
 
   private Button wPassThruFields;
+  private TextVar wReadThreads;
+  private Button wPreserveOrder;
+  private Button wPartitionSplits;
 
   public OrcInputDialog( Shell parent, Object in, TransMeta transMeta, String sname ) {
     super( parent, (OrcInputMeta) in, transMeta, sname );
@@ -98,10 +102,36 @@ public class OrcInputDialog extends BaseOrcStepDialog<OrcInputMeta> {
     fdSpacer.right = new FormAttachment( 100, 0 );
     separator.setLayoutData( fdSpacer );
 
+    Label wlReadThreads = new Label( shell, SWT.NONE );
+    wlReadThreads.setText( BaseMessages.getString( PKG, "OrcInputDialog.ReadThreads.Label" ) );
+    props.setLook( wlReadThreads );
+    new FD( wlReadThreads ).left( 0, 0 ).top( prev, MARGIN ).apply();
+    wReadThreads = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wReadThreads.setToolTipText( BaseMessages.getString( PKG, "OrcInputDialog.ReadThreads.Tooltip" ) );
+    props.setLook( wReadThreads );
+    new FD( wReadThreads ).left( 0, 0 ).top( wlReadThreads, FIELD_LABEL_SEP ).width( FIELD_SMALL / 2 + VAR_EXTRA_WIDTH )
+      .apply();
+    setIntegerOnly( wReadThreads );
+    wReadThreads.addModifyListener( lsMod );
+
+    wPreserveOrder = new Button( shell, SWT.CHECK );
+    wPreserveOrder.setText( BaseMessages.getString( PKG, "OrcInputDialog.PreserveOrder.Label" ) );
+    wPreserveOrder.setToolTipText( BaseMessages.getString( PKG, "OrcInputDialog.PreserveOrder.Tooltip" ) );
+    wPreserveOrder.setOrientation( SWT.LEFT_TO_RIGHT );
+    props.setLook( wPreserveOrder );
+    new FD( wPreserveOrder ).left( wReadThreads, MARGIN * 2 ).top( wlReadThreads, FIELD_LABEL_SEP ).apply();
+
+    wPartitionSplits = new Button( shell, SWT.CHECK );
+    wPartitionSplits.setText( BaseMessages.getString( PKG, "OrcInputDialog.PartitionSplits.Label" ) );
+    wPartitionSplits.setToolTipText( BaseMessages.getString( PKG, "OrcInputDialog.PartitionSplits.Tooltip" ) );
+    wPartitionSplits.setOrientation( SWT.LEFT_TO_RIGHT );
+    props.setLook( wPartitionSplits );
+    new FD( wPartitionSplits ).left( wPreserveOrder, MARGIN * 2 ).top( wlReadThreads, FIELD_LABEL_SEP ).apply();
+
     Group fieldsContainer = new Group( shell, SWT.SHADOW_IN );
     fieldsContainer.setLayout( new FormLayout() );
     fieldsContainer.setText( BaseMessages.getString( PKG, "OrcInputDialog.Fields.Label" ) );
-    new FD( fieldsContainer ).left( 0, 0 ).top( prev, MARGIN ).right( 100, 0 ).bottom( separator, -MARGIN ).apply();
+    new FD( fieldsContainer ).left( 0, 0 ).top( wReadThreads, MARGIN ).right( 100, 0 ).bottom( separator, -MARGIN ).apply();
 
     // Accept fields from previous steps?
     //
@@ -186,7 +216,7 @@ public class OrcInputDialog extends BaseOrcStepDialog<OrcInputMeta> {
     List<? extends IOrcInputField> inputFields = null;
     try {
       inputFields = OrcInput.retrieveSchema( meta.getNamedClusterResolver().getNamedClusterServiceLocator(),
-        meta.getNamedClusterResolver().resolveNamedCluster( orcFileName ), orcFileName );
+        meta.getNamedClusterResolver().refreshNamedCluster( orcFileName ), orcFileName );
     } catch ( Exception ex ) {
       if ( !failQuietly ) {
         logError( BaseMessages.getString( PKG, UNABLE_TO_LOAD_SCHEMA_FROM_CONTAINER_FILE ), ex );
@@ -212,6 +242,9 @@ public class OrcInputDialog extends BaseOrcStepDialog<OrcInputMeta> {
       wPath.setText( meta.getFilename() );
     }
     wPassThruFields.setSelection( meta.inputFiles.passingThruFields );
+    wReadThreads.setText( Const.NVL( meta.getReadThreads(), "" ) );
+    wPreserveOrder.setSelection( meta.isPreserveOrder() );
+    wPartitionSplits.setSelection( meta.isPartitionSplits() );
     int itemIndex = 0;
     for ( IOrcInputField inputField : meta.getInputFields() ) {
       TableItem item = null;
@@ -263,6 +296,9 @@ public class OrcInputDialog extends BaseOrcStepDialog<OrcInputMeta> {
     }
 
     meta.inputFiles.passingThruFields = wPassThruFields.getSelection();
+    meta.setReadThreads( wReadThreads.getText() );
+    meta.setPreserveOrder( wPreserveOrder.getSelection() );
+    meta.setPartitionSplits( wPartitionSplits.getSelection() );
 
     List<? extends IOrcInputField> actualOrcFileInputFields = getInputFieldsFromOrcFile( true );
 
@@ -0,0 +1,61 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.impl.orc.input;
+
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoOrcInputFormat;
+
+/**
+ * One unit of ORC input: a stripe range of a file, or the whole file when the format could not split it.
+ */
+class OrcInputSplit {
+  private final IPentahoOrcInputFormat format;
+  private final IPentahoInputSplit split;
+
+  OrcInputSplit( IPentahoOrcInputFormat format, IPentahoInputSplit split ) {
+    this.format = format;
+    this.split = split;
+  }
+
+  IPentahoOrcInputFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * @return the stripe range, or null to read the whole file
+   */
+  IPentahoInputSplit getSplit() {
+    return split;
+  }
+
+  /**
+   * Opening a reader goes through the format shared by the splits of the file, so it is serialized; decoding the split
+   * is not.
+   */
+  IPentahoRecordReader createRecordReader() throws Exception {
+    synchronized ( format ) {
+      return format.createRecordReader( split );
+    }
+  }
+}
@@ -30,7 +30,6 @@ import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
-import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaFactory;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -70,24 +69,16 @@ public class OrcOutput extends BaseStep implements StepInterface {
 
       Object[] currentRow = getRow();
       if ( currentRow != null ) {
-        //create new outputMeta
-        RowMetaInterface outputRMI = new RowMeta();
+        if ( data.inputFieldIndexes == null ) {
+          initOutputProjection();
+        }
         //create data equals with output fileds
-        Object[] outputData = new Object[ meta.getOutputFields().size() ];
-        for ( int i = 0; i < meta.getOutputFields().size(); i++ ) {
-          int inputRowIndex = getInputRowMeta().indexOfValue( meta.getOutputFields().get( i ).getPentahoFieldName() );
-          if ( inputRowIndex == -1 ) {
-            throw new KettleException( "Field name [" + meta.getOutputFields().get( i ).getPentahoFieldName()
-              + " ] couldn't be found in the input stream!" );
-          } else {
-            ValueMetaInterface vmi = ValueMetaFactory.cloneValueMeta( getInputRowMeta().getValueMeta( inputRowIndex ) );
-            //add output value meta according output fields
-            outputRMI.addValueMeta( i, vmi );
-            //add output data according output fields
-            outputData[ i ] = currentRow[ inputRowIndex ];
-          }
+        Object[] outputData = new Object[ data.inputFieldIndexes.length ];
+        for ( int i = 0; i < data.inputFieldIndexes.length; i++ ) {
+          outputData[ i ] = currentRow[ data.inputFieldIndexes[ i ] ];
         }
-        RowMetaAndData row = new RowMetaAndData( outputRMI, outputData );
+        RowMetaAndData row = data.outputRow;
+        row.setData( outputData );
         data.writer.write( row );
         putRow( row.getRowMeta(), row.getData() );
         return true;
@@ -112,6 +103,27 @@ public class OrcOutput extends BaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Resolves the input index and value meta of every output field once, so rows only need to be copied.
+   */
+  void initOutputProjection() throws KettleException {
+    RowMetaInterface inputRowMeta = getInputRowMeta();
+    int[] inputFieldIndexes = new int[ meta.getOutputFields().size() ];
+    RowMetaInterface outputRMI = new RowMeta();
+    for ( int i = 0; i < inputFieldIndexes.length; i++ ) {
+      int inputRowIndex = inputRowMeta.indexOfValue( meta.getOutputFields().get( i ).getPentahoFieldName() );
+      if ( inputRowIndex == -1 ) {
+        throw new KettleException( "Field name [" + meta.getOutputFields().get( i ).getPentahoFieldName()
+          + " ] couldn't be found in the input stream!" );
+      }
+      inputFieldIndexes[ i ] = inputRowIndex;
+      //add output value meta according output fields
+      outputRMI.addValueMeta( i, ValueMetaFactory.cloneValueMeta( inputRowMeta.getValueMeta( inputRowIndex ) ) );
+    }
+    data.outputRow = new RowMetaAndData( outputRMI );
+    data.inputFieldIndexes = inputFieldIndexes;
+  }
+
   public void init() throws Exception {
     FormatService formatService;
     try {
@@ -21,6 +21,7 @@
  ******************************************************************************/
 package org.pentaho.big.data.kettle.plugins.formats.impl.orc.output;
 
+import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcOutputFormat;
@@ -30,4 +31,9 @@ public class OrcOutputData extends BaseStepData implements StepDataInterface {
 
   public IPentahoOrcOutputFormat output;
   public IPentahoRecordWriter writer;
+
+  /** Input row index of every output field, resolved on the first row. */
+  public int[] inputFieldIndexes;
+  /** Row holder handed to the writer, reused for every row. */
+  public RowMetaAndData outputRow;
 }
@@ -22,8 +22,10 @@
 package org.pentaho.big.data.kettle.plugins.formats.impl.output;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.Selectors;
 import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.variables.VariableSpace;
@@ -34,13 +36,39 @@ import org.pentaho.hadoop.shim.api.format.IPvfsAliasGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URISyntaxException;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Logic to use a temporary file for output and then copy that file to some VFS/PVFS scheme that wasn't original
  * supoorted for the output content.
  */
 public class PvfsFileAliaser {
+
+  /**
+   * How the temporary file is brought to its final destination, picked by
+   * {@link #chooseFinalization(FileObject, FileObject)} as the cheapest operation the provider supports.
+   */
+  public enum Finalization {
+    /**
+     * Both files are on the same file system, the temporary file is renamed
+     */
+    RENAME,
+    /**
+     * Both files are on the same file system that can't rename, the provider copies the file within its storage
+     */
+    SERVER_SIDE_COPY,
+    /**
+     * The temporary file is read once and written to the destination
+     */
+    UPLOAD
+  }
+
+  private static final int UPLOAD_BUFFER_SIZE = 1024 * 1024;
+
   private String finalFilePath;
 
   private String temporaryFilePath;
@@ -53,6 +81,12 @@ public class PvfsFileAliaser {
 
   private LogChannelInterface log;
 
+  private Finalization finalization;
+
+  private long bytesFinalized;
+
+  private long finalizationTimeMs;
+
   public PvfsFileAliaser( String finalFilePath, VariableSpace variableSpace, IPvfsAliasGenerator aliasGenerator,
                           boolean isOverwriteOutput, LogChannelInterface log ) {
     this.finalFilePath = finalFilePath;
@@ -86,13 +120,80 @@ public class PvfsFileAliaser {
 
   public void copyFileToFinalDestination() throws KettleFileException, IOException {
     if ( aliasingIsActive() ) {
+      long start = System.nanoTime();
       FileObject srcFile = KettleVFS.getFileObject( temporaryFilePath, variableSpace );
       FileObject destFile = KettleVFS.getFileObject( finalFilePath, variableSpace );
-      try ( InputStream in = KettleVFS.getInputStream( srcFile );
-            OutputStream out = KettleVFS.getOutputStream( destFile, false ) ) {
-        IOUtils.copy( in, out );
+      finalization = chooseFinalization( srcFile, destFile );
+      if ( finalization == Finalization.RENAME ) {
+        bytesFinalized = srcFile.getContent().getSize();
+        try {
+          srcFile.moveTo( destFile );
+        } catch ( FileSystemException e ) {
+          // e.g. a local rename across devices
+          if ( !srcFile.exists() ) {
+            throw e;
+          }
+          log.logDebug( "Could not rename " + temporaryFilePath + ", uploading it instead: " + e.getMessage() );
+          finalization = Finalization.UPLOAD;
+        }
+      } else if ( finalization == Finalization.SERVER_SIDE_COPY ) {
+        bytesFinalized = srcFile.getContent().getSize();
+        destFile.copyFrom( srcFile, Selectors.SELECT_SELF );
+      }
+      if ( finalization == Finalization.UPLOAD ) {
+        try ( InputStream in = openTemporaryFile( srcFile );
+              OutputStream out = KettleVFS.getOutputStream( destFile, false ) ) {
+          bytesFinalized = IOUtils.copyLarge( in, out, new byte[ UPLOAD_BUFFER_SIZE ] );
+        }
+      }
+      finalizationTimeMs = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+      log.logDetailed( "Finalized {0} bytes from {1} to {2} by {3} in {4} ms", bytesFinalized, temporaryFilePath,
+        finalFilePath, finalization, finalizationTimeMs );
+    }
+  }
+
+  Finalization chooseFinalization( FileObject srcFile, FileObject destFile ) {
+    if ( srcFile.getFileSystem() != destFile.getFileSystem() ) {
+      return Finalization.UPLOAD;
+    }
+    if ( srcFile.getFileSystem().hasCapability( Capability.RENAME ) && srcFile.canRenameTo( destFile ) ) {
+      return Finalization.RENAME;
+    }
+    return Finalization.SERVER_SIDE_COPY;
+  }
+
+  private InputStream openTemporaryFile( FileObject srcFile ) throws IOException, KettleFileException {
+    if ( "file".equals( srcFile.getName().getScheme() ) ) {
+      // read the local file directly rather than through the VFS layers
+      try {
+        return Files.newInputStream( Paths.get( srcFile.getURL().toURI() ) );
+      } catch ( URISyntaxException | IllegalArgumentException e ) {
+        log.logDebug( "Reading " + temporaryFilePath + " through VFS: " + e.getMessage() );
       }
     }
+    return KettleVFS.getInputStream( srcFile );
+  }
+
+  /**
+   * @return how the temporary file was brought to its final destination, null if it hasn't been or aliasing isn't
+   * active
+   */
+  public Finalization getFinalization() {
+    return finalization;
+  }
+
+  /**
+   * @return the size of the file brought to its final destination
+   */
+  public long getBytesFinalized() {
+    return bytesFinalized;
+  }
+
+  /**
+   * @return the time spent bringing the file to its final destination
+   */
+  public long getFinalizationTimeMs() {
+    return finalizationTimeMs;
   }
 
   public void deleteTempFileAndFolder() {
@@ -23,8 +23,10 @@
 package org.pentaho.big.data.kettle.plugins.formats.impl.parquet.input;
 
 import org.apache.commons.vfs2.FileObject;
+import org.pentaho.big.data.kettle.plugins.formats.impl.InputSplitReader;
 import org.pentaho.big.data.kettle.plugins.formats.parquet.input.ParquetInputField;
 import org.pentaho.big.data.kettle.plugins.formats.parquet.input.ParquetInputMetaBase;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.util.StringUtil;
@@ -42,14 +44,14 @@ import org.pentaho.hadoop.shim.api.cluster.NamedClusterServiceLocator;
 import org.pentaho.hadoop.shim.api.format.FormatService;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
 
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class ParquetInput extends BaseFileInputStep<ParquetInputMeta, ParquetInputData> {
   public static final long SPLIT_SIZE = 128 * 1024 * 1024L;
@@ -78,6 +80,45 @@ public class ParquetInput extends BaseFileInputStep<ParquetInputMeta, ParquetInp
     return fields;
   }
 
+  /**
+   * Builds the requested read schema: the shim only fetches and decodes the column chunks of the fields it is given,
+   * so only the configured fields are requested, whatever the width of the file. Each field is a copy resolved against
+   * the file schema, which leaves the step meta shared by the step copies untouched.
+   *
+   * @param fields     the fields configured on the step
+   * @param fileFields the fields of the file schema
+   * @return the fields to request from the file
+   */
+  public static List<IParquetInputField> createProjection( ParquetInputField[] fields,
+                                                           List<? extends IParquetInputField> fileFields ) {
+    Map<String, IParquetInputField> fileFieldsByName = new HashMap<>();
+    for ( IParquetInputField fileField : fileFields ) {
+      fileFieldsByName.putIfAbsent( fileField.getFormatFieldName(), fileField );
+    }
+    List<IParquetInputField> projection = new ArrayList<>( fields.length );
+    for ( ParquetInputField field : fields ) {
+      ParquetInputField requested = new ParquetInputField();
+      requested.setFormatFieldName( field.getFormatFieldName() );
+      requested.setPentahoFieldName( field.getPentahoFieldName() );
+      requested.setPentahoType( field.getPentahoType() );
+      requested.setStringFormat( field.getStringFormat() );
+      requested.setFormatType( field.getFormatType() );
+      requested.setPrecision( field.getPrecision() );
+      requested.setScale( field.getScale() );
+      IParquetInputField fileField = fileFieldsByName.get( field.getFormatFieldName() );
+      if ( fileField != null ) {
+        // Pentaho 8.0 transformations have the formatType set to 0, take it from the file
+        if ( requested.getFormatType() == 0 ) {
+          requested.setFormatType( fileField.getFormatType() );
+        }
+        requested.setPrecision( fileField.getPrecision() );
+        requested.setScale( fileField.getScale() );
+      }
+      projection.add( requested );
+    }
+    return projection;
+  }
+
   @Override public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
     meta = (ParquetInputMeta) smi;
     data = (ParquetInputData) sdi;
@@ -87,6 +128,10 @@ public class ParquetInput extends BaseFileInputStep<ParquetInputMeta, ParquetInp
         initSplits();
       }
 
+      if ( data.splitReader != null ) {
+        return readFromSplitReader();
+      }
+
       if ( data.currentSplit >= data.splits.size() ) {
         setOutputDone();
         return false;
@@ -136,32 +181,16 @@ public class ParquetInput extends BaseFileInputStep<ParquetInputMeta, ParquetInp
     }
     data.input = formatService.createInputFormat( IPentahoParquetInputFormat.class, getNamedCluster() );
 
-    // Pentaho 8.0 transformations will have the formatType set to 0. Get the fields from the schema and set the
-    // formatType to the formatType retrieved from the schema.
-    List<? extends IParquetInputField>
-      actualFileFields =
-      ParquetInput.retrieveSchema( meta.getNamedClusterResolver().getNamedClusterServiceLocator(), getNamedCluster(),
-        resolvedInputFileNames[ 0 ] );
+    // The footer schema is read through the same format that reads the data
+    List<? extends IParquetInputField> actualFileFields = data.input.readSchema( resolvedInputFileNames[ 0 ] );
 
     if ( meta.isIgnoreEmptyFolder() && ( actualFileFields.isEmpty() ) ) {
       data.splits = new ArrayList<>();
       logBasic( "No Parquet input files found." );
     } else {
-      Map<String, IParquetInputField>
-        fieldNamesToTypes =
-        actualFileFields.stream()
-          .collect( Collectors.toMap( IParquetInputField::getFormatFieldName, Function.identity() ) );
-      for ( ParquetInputField f : meta.getInputFields() ) {
-        if ( fieldNamesToTypes.containsKey( f.getFormatFieldName() ) ) {
-          if ( f.getFormatType() == 0 ) {
-            f.setFormatType( fieldNamesToTypes.get( f.getFormatFieldName() ).getFormatType() );
-          }
-          f.setPrecision( fieldNamesToTypes.get( f.getFormatFieldName() ).getPrecision() );
-          f.setScale( fieldNamesToTypes.get( f.getFormatFieldName() ).getScale() );
-        }
-      }
-
-      data.input.setSchema( createSchemaFromMeta( meta ) );
+      List<IParquetInputField> projection = createProjection( meta.getInputFields(), actualFileFields );
+      logDetailed( "Reading " + projection.size() + " of " + actualFileFields.size() + " columns" );
+      data.input.setSchema( projection );
       if ( resolvedInputFileNames != null && resolvedInputFileNames.length == 1 ) {
         data.input.setInputFile( resolvedInputFileNames[ 0 ] );
       } else if ( resolvedInputFileNames != null && resolvedInputFileNames.length > 1 ) {
@@ -171,10 +200,52 @@ public class ParquetInput extends BaseFileInputStep<ParquetInputMeta, ParquetInp
 
       data.splits = data.input.getSplits();
       logDebug( "Input split count: {0}", data.splits.size() );
+      if ( meta.isPartitionSplits() ) {
+        data.splits = InputSplitReader.splitsForCopy( data.splits, getUniqueStepNrAcrossSlaves(),
+          getUniqueStepCountAcrossSlaves() );
+        logDebug( "Input split count for this copy: {0}", data.splits.size() );
+      }
+      int readThreads = Const.toInt( environmentSubstitute( meta.getReadThreads() ), 1 );
+      if ( readThreads > 1 && data.splits.size() > 1 ) {
+        logBasic( "Reading " + data.splits.size() + " input splits with " + readThreads + " threads" );
+        data.splitReader = new InputSplitReader<>( data.splits, readThreads, InputSplitReader.DEFAULT_QUEUE_SIZE,
+          meta.isPreserveOrder(), this::createRecordReader );
+        data.splitReader.start();
+      }
     }
     data.currentSplit = 0;
   }
 
+  /**
+   * Opening a reader goes through the shared input format, so it is serialized; decoding the split is not.
+   */
+  private IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) throws Exception {
+    synchronized ( data.input ) {
+      return data.input.createRecordReader( split );
+    }
+  }
+
+  private boolean readFromSplitReader() throws KettleException {
+    RowMetaAndData row = data.splitReader.next();
+    if ( row == null ) {
+      data.splitReader.close();
+      data.currentSplit = data.splits.size();
+      setOutputDone();
+      return false;
+    }
+    putRow( row.getRowMeta(), row.getData() );
+    return true;
+  }
+
+  @Override
+  public void setStopped( boolean stopped ) {
+    super.setStopped( stopped );
+    InputSplitReader<IPentahoInputSplit> splitReader = data == null ? null : data.splitReader;
+    if ( stopped && splitReader != null ) {
+      splitReader.close();
+    }
+  }
+
   private NamedCluster getNamedCluster() {
     return meta.getNamedClusterResolver().resolveNamedCluster( environmentSubstitute( meta.getFilename() ) );
   }
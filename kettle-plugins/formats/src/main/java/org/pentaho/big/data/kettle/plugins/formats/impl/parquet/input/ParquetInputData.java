@@ -25,6 +25,7 @@ package org.pentaho.big.data.kettle.plugins.formats.impl.parquet.input;
 import java.util.Iterator;
 import java.util.List;
 
+import org.pentaho.big.data.kettle.plugins.formats.impl.InputSplitReader;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.steps.file.BaseFileInputStepData;
@@ -38,5 +39,6 @@ public class ParquetInputData extends BaseFileInputStepData {
   int currentSplit;
   IPentahoRecordReader reader;
   Iterator<RowMetaAndData> rowIterator;
+  InputSplitReader<IPentahoInputSplit> splitReader;
   RowMetaInterface outputRowMeta;
 }
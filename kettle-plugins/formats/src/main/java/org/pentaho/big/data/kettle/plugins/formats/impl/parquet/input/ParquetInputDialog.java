@@ -50,6 +50,7 @@ import org.pentaho.di.ui.core.events.dialog.SelectionOperation;
 import org.pentaho.di.ui.core.widget.ColumnInfo;
 import org.pentaho.di.ui.core.widget.ColumnsResizer;
 import org.pentaho.di.ui.core.widget.TableView;
+import org.pentaho.di.ui.core.widget.TextVar;
 import org.pentaho.di.ui.trans.dialog.TransPreviewProgressDialog;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.ParquetSpec;
@@ -59,7 +60,7 @@ import java.util.List;
 public class ParquetInputDialog extends BaseParquetStepDialog<ParquetInputMeta> {
 
   private static final int SHELL_WIDTH = 526;
-  private static final int SHELL_HEIGHT = 506;
+  private static final int SHELL_HEIGHT = 566;
 
   private static final int PARQUET_PATH_COLUMN_INDEX = 1;
 
@@ -76,6 +77,9 @@ public class ParquetInputDialog extends BaseParquetStepDialog<ParquetInputMeta>
   private TableView wInputFields;
   private Button wPassThruFields;
   private Button wIgnoreEmptyFolder;
+  private TextVar wReadThreads;
+  private Button wPreserveOrder;
+  private Button wPartitionSplits;
 
   public ParquetInputDialog( Shell parent, Object in, TransMeta transMeta, String sname ) {
     super( parent, (ParquetInputMeta) in, transMeta, sname );
@@ -105,10 +109,36 @@ public class ParquetInputDialog extends BaseParquetStepDialog<ParquetInputMeta>
     props.setLook( wIgnoreEmptyFolder );
     new FD( wIgnoreEmptyFolder ).left( 0, 0 ).top( prev, MARGIN ).apply();
 
+    Label wlReadThreads = new Label( shell, SWT.NONE );
+    wlReadThreads.setText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.ReadThreads.Label" ) );
+    props.setLook( wlReadThreads );
+    new FD( wlReadThreads ).left( 0, 0 ).top( wIgnoreEmptyFolder, MARGIN ).apply();
+    wReadThreads = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wReadThreads.setToolTipText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.ReadThreads.Tooltip" ) );
+    props.setLook( wReadThreads );
+    new FD( wReadThreads ).left( 0, 0 ).top( wlReadThreads, FIELD_LABEL_SEP ).width( FIELD_SMALL / 2 + VAR_EXTRA_WIDTH )
+      .apply();
+    setIntegerOnly( wReadThreads );
+    wReadThreads.addModifyListener( lsMod );
+
+    wPreserveOrder = new Button( shell, SWT.CHECK );
+    wPreserveOrder.setText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.PreserveOrder.Label" ) );
+    wPreserveOrder.setToolTipText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.PreserveOrder.Tooltip" ) );
+    wPreserveOrder.setOrientation( SWT.LEFT_TO_RIGHT );
+    props.setLook( wPreserveOrder );
+    new FD( wPreserveOrder ).left( wReadThreads, MARGIN * 2 ).top( wlReadThreads, FIELD_LABEL_SEP ).apply();
+
+    wPartitionSplits = new Button( shell, SWT.CHECK );
+    wPartitionSplits.setText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.PartitionSplits.Label" ) );
+    wPartitionSplits.setToolTipText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.PartitionSplits.Tooltip" ) );
+    wPartitionSplits.setOrientation( SWT.LEFT_TO_RIGHT );
+    props.setLook( wPartitionSplits );
+    new FD( wPartitionSplits ).left( wPreserveOrder, MARGIN * 2 ).top( wlReadThreads, FIELD_LABEL_SEP ).apply();
+
     Group fieldsContainer = new Group( shell, SWT.SHADOW_IN );
     fieldsContainer.setLayout( new FormLayout() );
     fieldsContainer.setText( BaseMessages.getString( parquetStepDialogClass, "ParquetInputDialog.Fields.Label" ) );
-    new FD( fieldsContainer ).left( 0, 0 ).top( wIgnoreEmptyFolder, MARGIN ).right( 100, 0 ).bottom( separator, -MARGIN ).apply();
+    new FD( fieldsContainer ).left( 0, 0 ).top( wReadThreads, MARGIN ).right( 100, 0 ).bottom( separator, -MARGIN ).apply();
 
     // Accept fields from previous steps?
     //
@@ -197,7 +227,7 @@ public class ParquetInputDialog extends BaseParquetStepDialog<ParquetInputMeta>
     List<? extends IParquetInputField> inputFields = null;
     try {
       inputFields = ParquetInput.retrieveSchema( meta.getNamedClusterResolver().getNamedClusterServiceLocator(),
-        meta.getNamedClusterResolver().resolveNamedCluster( parquetFileName ), parquetFileName );
+        meta.getNamedClusterResolver().refreshNamedCluster( parquetFileName ), parquetFileName );
     } catch ( Exception ex ) {
       if ( !failQuietly ) {
         logError( BaseMessages.getString( parquetStepDialogClass, UNABLE_TO_LOAD_SCHEMA_FROM_CONTAINER_FILE ), ex );
@@ -224,6 +254,9 @@ public class ParquetInputDialog extends BaseParquetStepDialog<ParquetInputMeta>
     }
     wPassThruFields.setSelection( meta.inputFiles.passingThruFields );
     wIgnoreEmptyFolder.setSelection( meta.isIgnoreEmptyFolder() );
+    wReadThreads.setText( Const.NVL( meta.getReadThreads(), "" ) );
+    wPreserveOrder.setSelection( meta.isPreserveOrder() );
+    wPartitionSplits.setSelection( meta.isPartitionSplits() );
     int itemIndex = 0;
     for ( IParquetInputField inputField : meta.getInputFields() ) {
       TableItem item = null;
@@ -276,6 +309,9 @@ public class ParquetInputDialog extends BaseParquetStepDialog<ParquetInputMeta>
 
     meta.inputFiles.passingThruFields = wPassThruFields.getSelection();
     meta.setIgnoreEmptyFolder( wIgnoreEmptyFolder.getSelection() );
+    meta.setReadThreads( wReadThreads.getText() );
+    meta.setPreserveOrder( wPreserveOrder.getSelection() );
+    meta.setPartitionSplits( wPartitionSplits.getSelection() );
 
     List<? extends IParquetInputField> actualParquetFileInputFields = getInputFieldsFromParquetFile( true );
 
@@ -0,0 +1,149 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.formats.impl;
+
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InputSplitReaderTest {
+
+  private static final int ROWS_PER_SPLIT = 50;
+
+  private final RowMeta rowMeta = new RowMeta();
+  private final List<IPentahoInputSplit> splits = new ArrayList<>();
+  private final Map<IPentahoInputSplit, IPentahoRecordReader> readers = new HashMap<>();
+
+  private void createSplits( int count ) {
+    rowMeta.addValueMeta( new ValueMetaString( "value" ) );
+    for ( int s = 0; s < count; s++ ) {
+      List<RowMetaAndData> rows = new ArrayList<>();
+      for ( int r = 0; r < ROWS_PER_SPLIT; r++ ) {
+        rows.add( new RowMetaAndData( rowMeta, String.format( "%03d-%03d", s, r ) ) );
+      }
+      IPentahoInputSplit split = mock( IPentahoInputSplit.class );
+      IPentahoRecordReader reader = mock( IPentahoRecordReader.class );
+      when( reader.iterator() ).thenReturn( rows.iterator() );
+      splits.add( split );
+      readers.put( split, reader );
+    }
+  }
+
+  private List<String> readAll( InputSplitReader<IPentahoInputSplit> splitReader ) throws KettleException {
+    List<String> values = new ArrayList<>();
+    RowMetaAndData row;
+    while ( ( row = splitReader.next() ) != null ) {
+      values.add( (String) row.getData()[ 0 ] );
+    }
+    return values;
+  }
+
+  private List<String> expectedValues() {
+    List<String> values = new ArrayList<>();
+    for ( int s = 0; s < splits.size(); s++ ) {
+      for ( int r = 0; r < ROWS_PER_SPLIT; r++ ) {
+        values.add( String.format( "%03d-%03d", s, r ) );
+      }
+    }
+    return values;
+  }
+
+  @Test
+  public void testPreserveOrder() throws Exception {
+    createSplits( 5 );
+    InputSplitReader<IPentahoInputSplit> splitReader = new InputSplitReader<>( splits, 3, 4, true, readers::get );
+    splitReader.start();
+
+    assertEquals( expectedValues(), readAll( splitReader ) );
+    assertNull( splitReader.next() );
+    splitReader.close();
+  }
+
+  @Test
+  public void testUnorderedReturnsEveryRow() throws Exception {
+    createSplits( 5 );
+    InputSplitReader<IPentahoInputSplit> splitReader = new InputSplitReader<>( splits, 3, 4, false, readers::get );
+    splitReader.start();
+
+    List<String> values = readAll( splitReader );
+    Collections.sort( values );
+    assertEquals( expectedValues(), values );
+    splitReader.close();
+  }
+
+  @Test
+  public void testReaderFailureIsRethrown() throws Exception {
+    createSplits( 3 );
+    InputSplitReader<IPentahoInputSplit> splitReader = new InputSplitReader<>( splits, 2, 4, true, split -> {
+      if ( split == splits.get( 1 ) ) {
+        throw new IllegalStateException( "broken split" );
+      }
+      return readers.get( split );
+    } );
+    splitReader.start();
+
+    try {
+      readAll( splitReader );
+      fail( "Expected the split failure to be rethrown" );
+    } catch ( KettleException e ) {
+      assertEquals( IllegalStateException.class, e.getCause().getClass() );
+    } finally {
+      splitReader.close();
+    }
+  }
+
+  @Test
+  public void testNoSplits() throws Exception {
+    InputSplitReader<IPentahoInputSplit> splitReader = new InputSplitReader<>( splits, 4, 4, false, readers::get );
+    splitReader.start();
+
+    assertNull( splitReader.next() );
+  }
+
+  @Test
+  public void testSplitsForCopy() {
+    List<String> all = Arrays.asList( "a", "b", "c", "d", "e" );
+
+    assertEquals( all, InputSplitReader.splitsForCopy( all, 0, 1 ) );
+    assertEquals( Arrays.asList( "a", "c", "e" ), InputSplitReader.splitsForCopy( all, 0, 2 ) );
+    assertEquals( Arrays.asList( "b", "d" ), InputSplitReader.splitsForCopy( all, 1, 2 ) );
+    assertEquals( Collections.emptyList(), InputSplitReader.splitsForCopy( all, 5, 6 ) );
+  }
+}
@@ -40,9 +40,13 @@ import org.pentaho.metastore.locator.api.MetastoreLocator;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
@@ -56,6 +60,7 @@ public class NamedClusterResolverTest {
   @Mock private NamedClusterServiceLocator namedClusterServiceLocator;
 
   private NamedClusterResolver namedClusterResolver;
+  private final List<NamedCluster> copies = new ArrayList<>();
 
   @Before
   public void before() {
@@ -65,6 +70,11 @@ public class NamedClusterResolverTest {
       .thenReturn( namedCluster );
     when( namedClusterService.getNamedClusterByHost( "somehost", null ) )
       .thenReturn( namedCluster );
+    when( namedCluster.clone() ).thenAnswer( invocation -> {
+      NamedCluster copy = mock( NamedCluster.class );
+      copies.add( copy );
+      return copy;
+    } );
     Collection<MetastoreLocator> metastoreLocatorCollection = new ArrayList<>();
     metastoreLocatorCollection.add( metaStoreService );
     try ( MockedStatic<PluginServiceLoader> pluginServiceLoaderMockedStatic = Mockito.mockStatic( PluginServiceLoader.class ) ) {
@@ -83,7 +93,7 @@ public class NamedClusterResolverTest {
   @Test
   public void testNamedClusterByName() {
     NamedCluster cluster = namedClusterResolver.resolveNamedCluster( "hc://testhc/path" );
-    assertEquals( namedCluster, cluster );
+    assertEquals( lastCopy(), cluster );
 
     cluster = namedClusterResolver.resolveNamedCluster( "hc://nosuchhc/path" );
     assertNull( cluster );
@@ -93,7 +103,51 @@ public class NamedClusterResolverTest {
   @Test
   public void testNamedClusterByHost() {
     NamedCluster cluster = namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path" );
-    assertEquals( namedCluster, cluster );
+    assertEquals( lastCopy(), cluster );
+  }
+
+  @Test
+  public void testResolutionsAreCached() {
+    NamedCluster cluster = namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path/one.parquet" );
+    assertEquals( lastCopy(), cluster );
+    cluster = namedClusterResolver.resolveNamedCluster( "hdfs://SomeHost/path/two.parquet" );
+    assertEquals( lastCopy(), cluster );
+    assertNull( namedClusterResolver.resolveNamedCluster( "hc://nosuchhc/one.orc" ) );
+    assertNull( namedClusterResolver.resolveNamedCluster( "hc://nosuchhc/two.orc" ) );
+
+    verify( namedClusterService, times( 1 ) ).getNamedClusterByHost( "somehost", null );
+    verify( namedClusterService, times( 1 ) ).getNamedClusterByName( "nosuchhc", null );
+  }
+
+  @Test
+  public void testRefreshAndExpiryBypassCachedResolutions() {
+    namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path" );
+    namedClusterResolver.refreshNamedCluster( "hdfs://somehost/path" );
+    namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path" );
+    verify( namedClusterService, times( 2 ) ).getNamedClusterByHost( "somehost", null );
+
+    namedClusterResolver.setCacheTtlMs( 0 );
+    namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path" );
+    namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path" );
+    verify( namedClusterService, times( 4 ) ).getNamedClusterByHost( "somehost", null );
+  }
+
+  @Test
+  public void testCachedResolutionsAreCopied() {
+    NamedCluster first = namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path/one.parquet" );
+    first.setHdfsHost( "otherhost" );
+    NamedCluster second = namedClusterResolver.resolveNamedCluster( "hdfs://somehost/path/two.parquet" );
+
+    assertNotSame( first, second );
+    assertNotSame( namedCluster, second );
+    // the change went to the caller's copy, not to the cached named cluster the next copy is made from
+    verify( namedCluster, never() ).setHdfsHost( ArgumentMatchers.anyString() );
+    verify( second, never() ).setHdfsHost( ArgumentMatchers.anyString() );
+    verify( namedClusterService, times( 1 ) ).getNamedClusterByHost( "somehost", null );
+  }
+
+  private NamedCluster lastCopy() {
+    return copies.get( copies.size() - 1 );
   }
 
 }
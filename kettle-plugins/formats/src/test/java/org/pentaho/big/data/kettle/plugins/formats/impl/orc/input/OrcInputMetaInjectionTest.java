@@ -53,6 +53,9 @@ public class OrcInputMetaInjectionTest extends BaseMetadataInjectionTest<OrcInpu
     check( "FIELD_PATH", () -> meta.getInputFields()[ 0 ].getFormatFieldName() );
     check( "FIELD_NAME", () -> meta.getInputFields()[ 0 ].getName() );
     checkPdiTypes( "FIELD_TYPE", () -> meta.getInputFields()[ 0 ].getType() );
+    check( "READ_THREADS", () -> meta.getReadThreads() );
+    check( "PRESERVE_ORDER", () -> meta.isPreserveOrder() );
+    check( "PARTITION_SPLITS", () -> meta.isPartitionSplits() );
   }
 
 }
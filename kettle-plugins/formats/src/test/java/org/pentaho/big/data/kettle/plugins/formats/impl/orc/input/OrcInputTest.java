@@ -54,10 +54,12 @@ import org.pentaho.metastore.locator.api.MetastoreLocator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -181,6 +183,25 @@ public class OrcInputTest {
     }
   }
 
+  @Test
+  public void testProcessRowReadsUnsplitFileWhenReadingInParallel() throws Exception {
+    orcInputMeta.setReadThreads( "2" );
+    orcInputData.input = null;
+    when( mockPentahoOrcInputFormat.getSplits() ).thenReturn( Collections.emptyList() );
+
+    int rowsProcessed = 0;
+    while ( orcInput.processRow( orcInputMeta, orcInputData ) ) {
+      rowsProcessed++;
+    }
+
+    // the shim returned no stripe ranges, so the file is read as a whole
+    assertEquals( 2, rowsProcessed );
+    assertEquals( 1, orcInputData.splits.size() );
+    assertNull( orcInputData.splitReader );
+    verify( mockPentahoOrcInputFormat ).setInputFile( INPUT_STREAM_FIELD_NAME );
+    verify( mockPentahoOrcRecordReader ).close();
+  }
+
   @Test
   public void testInit() {
     assertEquals( true, orcInput.init() );
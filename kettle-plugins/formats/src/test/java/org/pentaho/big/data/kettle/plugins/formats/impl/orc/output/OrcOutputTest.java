@@ -180,6 +180,20 @@ public class OrcOutputTest {
     }
   }
 
+  @Test
+  public void testProcessRowResolvesOutputFieldsOnce() throws Exception {
+    RowMeta inputRowMeta = spy( dataInputRowMeta );
+    orcOutput.setInputRowMeta( inputRowMeta );
+
+    while ( orcOutput.processRow( orcOutputMeta, orcOutputData ) ) {
+      // write every row
+    }
+
+    verify( inputRowMeta, times( 1 ) ).indexOfValue( "StringName" );
+    verify( mockPentahoOrcRecordWriter, times( 3 ) ).write( any( RowMetaAndData.class ) );
+    assertEquals( 0, orcOutputData.inputFieldIndexes[ 0 ] );
+  }
+
   @Test
   public void testProcessRowIllegalState() throws Exception {
     doThrow( new IllegalStateException( "IllegalStateExceptionMessage" ) ).when( mockPentahoOrcOutputFormat )
@@ -21,6 +21,9 @@
  ******************************************************************************/
 package org.pentaho.big.data.kettle.plugins.formats.impl.output;
 
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystem;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -36,8 +39,10 @@ import java.nio.file.Files;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @RunWith( MockitoJUnitRunner.class )
@@ -78,6 +83,8 @@ public class PvfsFileAliaserTest {
     assertFalse( finalFile.exists() );
     pvfsFileAliaser.copyFileToFinalDestination();
     assertTrue( finalFile.exists() );
+    assertEquals( PvfsFileAliaser.Finalization.RENAME, pvfsFileAliaser.getFinalization() );
+    assertEquals( 0, pvfsFileAliaser.getBytesFinalized() );
     pvfsFileAliaser.deleteTempFileAndFolder();
     assertFalse( new File( new File( temporaryPath ).getParent() ).exists() );
   }
@@ -90,6 +97,28 @@ public class PvfsFileAliaserTest {
     assertFalse( finalFile.exists() );
     pvfsFileAliaser.copyFileToFinalDestination();
     assertFalse( finalFile.exists() );
+    assertNull( pvfsFileAliaser.getFinalization() );
+  }
+
+  @Test
+  public void testChooseFinalization() {
+    FileSystem localFileSystem = mock( FileSystem.class );
+    FileSystem objectStore = mock( FileSystem.class );
+    when( localFileSystem.hasCapability( Capability.RENAME ) ).thenReturn( true );
+    FileObject localSrc = mock( FileObject.class );
+    FileObject localDest = mock( FileObject.class );
+    FileObject storeSrc = mock( FileObject.class );
+    FileObject storeDest = mock( FileObject.class );
+    when( localSrc.getFileSystem() ).thenReturn( localFileSystem );
+    when( localDest.getFileSystem() ).thenReturn( localFileSystem );
+    when( localSrc.canRenameTo( localDest ) ).thenReturn( true );
+    when( storeSrc.getFileSystem() ).thenReturn( objectStore );
+    when( storeDest.getFileSystem() ).thenReturn( objectStore );
+
+    assertEquals( PvfsFileAliaser.Finalization.RENAME, pvfsFileAliaser.chooseFinalization( localSrc, localDest ) );
+    assertEquals( PvfsFileAliaser.Finalization.SERVER_SIDE_COPY,
+      pvfsFileAliaser.chooseFinalization( storeSrc, storeDest ) );
+    assertEquals( PvfsFileAliaser.Finalization.UPLOAD, pvfsFileAliaser.chooseFinalization( localSrc, storeDest ) );
   }
 
   @Test
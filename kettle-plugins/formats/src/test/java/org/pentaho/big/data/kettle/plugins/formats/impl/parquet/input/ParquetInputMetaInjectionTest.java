@@ -61,6 +61,24 @@ public class ParquetInputMetaInjectionTest extends BaseMetadataInjectionTest<Par
       }
     } );
 
+    check( "READ_THREADS", new StringGetter() {
+      public String get() {
+        return meta.getReadThreads();
+      }
+    } );
+
+    check( "PRESERVE_ORDER", new BooleanGetter() {
+      public boolean get() {
+        return meta.isPreserveOrder();
+      }
+    } );
+
+    check( "PARTITION_SPLITS", new BooleanGetter() {
+      public boolean get() {
+        return meta.isPartitionSplits();
+      }
+    } );
+
 
     String[] typeNames = ValueMetaBase.getAllTypes();
     checkStringToInt( "FIELD_TYPE", new IntGetter() {
@@ -31,6 +31,7 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.pentaho.big.data.kettle.plugins.formats.impl.NamedClusterResolver;
+import org.pentaho.big.data.kettle.plugins.formats.parquet.input.ParquetInputField;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.LogLevel;
@@ -49,8 +50,10 @@ import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.cluster.NamedClusterService;
 import org.pentaho.hadoop.shim.api.cluster.NamedClusterServiceLocator;
 import org.pentaho.hadoop.shim.api.format.FormatService;
+import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
 import org.pentaho.metastore.locator.api.MetastoreLocator;
 
 import java.nio.file.NoSuchFileException;
@@ -186,6 +189,36 @@ public class ParquetInputTest {
     }
   }
 
+  @Test
+  public void testCreateProjectionRequestsConfiguredFieldsOnly() {
+    ParquetInputField configured = new ParquetInputField();
+    configured.setFormatFieldName( "amount" );
+    configured.setPentahoFieldName( "total" );
+    configured.setPentahoType( ValueMetaInterface.TYPE_BIGNUMBER );
+    ParquetInputField fileAmount = new ParquetInputField();
+    fileAmount.setFormatFieldName( "amount" );
+    fileAmount.setParquetType( ParquetSpec.DataType.DECIMAL );
+    fileAmount.setPrecision( 10 );
+    fileAmount.setScale( 2 );
+    ParquetInputField fileComment = new ParquetInputField();
+    fileComment.setFormatFieldName( "comment" );
+    fileComment.setParquetType( ParquetSpec.DataType.UTF8 );
+
+    List<IParquetInputField> projection = ParquetInput.createProjection( new ParquetInputField[] { configured },
+      Arrays.asList( fileAmount, fileComment ) );
+
+    assertEquals( 1, projection.size() );
+    assertEquals( "amount", projection.get( 0 ).getFormatFieldName() );
+    assertEquals( "total", projection.get( 0 ).getPentahoFieldName() );
+    assertEquals( ValueMetaInterface.TYPE_BIGNUMBER, projection.get( 0 ).getPentahoType() );
+    assertEquals( ParquetSpec.DataType.DECIMAL, projection.get( 0 ).getParquetType() );
+    assertEquals( 10, projection.get( 0 ).getPrecision() );
+    assertEquals( 2, projection.get( 0 ).getScale() );
+    // the step meta is shared between copies and stays as configured
+    assertEquals( 0, configured.getFormatType() );
+    assertEquals( 0, configured.getScale() );
+  }
+
   @Test
   public void testInit() {
     assertEquals( true, parquetInput.init() );
@@ -24,6 +24,7 @@ package org.pentaho.big.data.kettle.plugins.hbase.input;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +70,8 @@ public class HBaseInput extends BaseStep implements StepInterface {
   private HBaseService hBaseService;
   private HBaseTable m_hbAdminTable;
   private ResultScanner resultScanner;
+  private HBaseInputRangeScanner rangeScanner;
+  private final List<HBaseTable> rangeScanTables = Collections.synchronizedList( new ArrayList<HBaseTable>() );
   private HBaseValueMetaInterfaceFactory hBaseValueMetaInterfaceFactory;
 
   public HBaseInput( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
@@ -222,28 +225,19 @@ public class HBaseInput extends BaseStep implements StepInterface {
             "HBaseInput.Error.UnableToSetSourceTableForScan" ), ex );
       }
 
-      ResultScannerBuilder scannerBuilder = m_hbAdminTable
-        .createScannerBuilder( m_tableMapping, dateOrNumberConversionMaskForKey, m_meta.getKeyStartValue(),
-          m_meta.getKeyStopValue(), m_meta.getScannerCacheSize(), log, this );
-
-      // LIMIT THE SCAN TO JUST THE COLUMNS IN THE MAPPING
-      // User-selected output columns?
-      if ( m_userOutputColumns != null && m_userOutputColumns.size() > 0 && !m_tableMapping.isTupleMapping() ) {
-        HBaseInputData.setScanColumns( scannerBuilder, m_userOutputColumns, m_tableMapping );
-      }
-
-      // set any filters
-      if ( m_meta.getColumnFilters() != null && m_meta.getColumnFilters().size() > 0 ) {
-        HBaseInputData.setScanFilters( scannerBuilder, m_meta.getColumnFilters(), m_meta.getMatchAnyFilter(),
-          m_columnsMappedByAlias, this );
-      }
-
       if ( !isStopped() ) {
-        try {
-          resultScanner = scannerBuilder.build();
-        } catch ( Exception e ) {
-          throw new KettleException( BaseMessages.getString( HBaseInputMeta.PKG,
-              "HBaseInput.Error.UnableToExecuteSourceTableScan" ), e );
+        String splitPoints = environmentSubstitute( m_meta.getKeySplitPoints() );
+        if ( Const.isEmpty( splitPoints ) ) {
+          ResultScannerBuilder scannerBuilder = createScannerBuilder( m_hbAdminTable, dateOrNumberConversionMaskForKey,
+            m_meta.getKeyStartValue(), m_meta.getKeyStopValue() );
+          try {
+            resultScanner = scannerBuilder.build();
+          } catch ( Exception e ) {
+            throw new KettleException( BaseMessages.getString( HBaseInputMeta.PKG,
+                "HBaseInput.Error.UnableToExecuteSourceTableScan" ), e );
+          }
+        } else {
+          startRangeScan( sourceName, dateOrNumberConversionMaskForKey, splitPoints );
         }
 
         // set up the output fields (using the mapping)
@@ -255,7 +249,9 @@ public class HBaseInput extends BaseStep implements StepInterface {
     Result next = null;
     if ( !isStopped() ) {
       try {
-        next = resultScanner.next();
+        next = rangeScanner != null ? rangeScanner.next() : resultScanner.next();
+      } catch ( KettleException e ) {
+        throw e;
       } catch ( Exception e ) {
         throw new KettleException( e.getMessage(), e );
       }
@@ -263,6 +259,7 @@ public class HBaseInput extends BaseStep implements StepInterface {
 
     if ( next == null ) {
       try {
+        closeRangeScan();
         m_hbAdminTable.close();
         m_hbAdmin.close();
       } catch ( Exception e ) {
@@ -291,6 +288,61 @@ public class HBaseInput extends BaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Splits the configured key range at the user supplied split points, keeps the sub-ranges that belong to this step
+   * copy and starts scanning them concurrently, each with its own table instance.
+   */
+  private void startRangeScan( final String sourceName, final String dateOrNumberConversionMaskForKey,
+                               String splitPoints ) {
+    List<String[]> ranges = HBaseInputRangeScanner.rangesForCopy(
+      HBaseInputRangeScanner.splitKeyRange( m_meta.getKeyStartValue(), m_meta.getKeyStopValue(), splitPoints ),
+      getUniqueStepNrAcrossSlaves(), getUniqueStepCountAcrossSlaves() );
+    int scanThreads = Const.toInt( environmentSubstitute( m_meta.getScanThreads() ), 1 );
+    int queueSize = Math.max( HBaseInputRangeScanner.DEFAULT_QUEUE_SIZE,
+      Const.toInt( environmentSubstitute( m_meta.getScannerCacheSize() ), 0 ) * scanThreads );
+
+    logBasic( BaseMessages.getString( HBaseInputMeta.PKG, "HBaseInput.ScanningKeyRanges", ranges.size(),
+      Math.min( scanThreads, ranges.size() ) ) );
+    rangeScanner = new HBaseInputRangeScanner( ranges, scanThreads, queueSize, ( startKey, stopKey ) -> {
+      HBaseTable rangeTable = m_hbAdmin.getTable( sourceName );
+      rangeScanTables.add( rangeTable );
+      return createScannerBuilder( rangeTable, dateOrNumberConversionMaskForKey, startKey, stopKey ).build();
+    } );
+    rangeScanner.start();
+  }
+
+  private ResultScannerBuilder createScannerBuilder( HBaseTable table, String dateOrNumberConversionMaskForKey,
+                                                     String keyStart, String keyStop ) throws KettleException {
+    ResultScannerBuilder scannerBuilder = table
+      .createScannerBuilder( m_tableMapping, dateOrNumberConversionMaskForKey, keyStart, keyStop,
+        m_meta.getScannerCacheSize(), log, this );
+
+    // LIMIT THE SCAN TO JUST THE COLUMNS IN THE MAPPING
+    // User-selected output columns?
+    if ( m_userOutputColumns != null && m_userOutputColumns.size() > 0 && !m_tableMapping.isTupleMapping() ) {
+      HBaseInputData.setScanColumns( scannerBuilder, m_userOutputColumns, m_tableMapping );
+    }
+
+    // set any filters
+    if ( m_meta.getColumnFilters() != null && m_meta.getColumnFilters().size() > 0 ) {
+      HBaseInputData.setScanFilters( scannerBuilder, m_meta.getColumnFilters(), m_meta.getMatchAnyFilter(),
+        m_columnsMappedByAlias, this );
+    }
+    return scannerBuilder;
+  }
+
+  private void closeRangeScan() throws IOException {
+    if ( rangeScanner != null ) {
+      rangeScanner.close();
+    }
+    synchronized ( rangeScanTables ) {
+      for ( HBaseTable rangeTable : rangeScanTables ) {
+        rangeTable.close();
+      }
+      rangeScanTables.clear();
+    }
+  }
+
   @Override
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
     if ( super.init( smi, sdi ) ) {
@@ -345,6 +397,9 @@ public class HBaseInput extends BaseStep implements StepInterface {
     }
     super.setStopped( stopped );
 
+    if ( stopped && rangeScanner != null ) {
+      rangeScanner.close();
+    }
     if ( stopped && m_hbAdmin != null ) {
       logBasic( BaseMessages.getString( HBaseInputMeta.PKG, "HBaseInput.ClosingConnection" ) );
       try {
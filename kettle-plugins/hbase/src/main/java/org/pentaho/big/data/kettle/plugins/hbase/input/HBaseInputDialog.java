@@ -146,6 +146,8 @@ public class HBaseInputDialog extends BaseStepDialog implements StepDialogInterf
 
   // Rows to be cached by Scanner
   private TextVar m_scanCacheText;
+  private TextVar m_keySplitPointsText;
+  private TextVar m_scanThreadsText;
 
   // Key as a column
   // private Button m_includeKey;
@@ -569,6 +571,48 @@ public class HBaseInputDialog extends BaseStepDialog implements StepDialogInterf
     fd.top = new FormAttachment( m_keyStopText, margin );
     m_scanCacheText.setLayoutData( fd );
 
+    // key split points
+    Label keySplitPointsLab = new Label( wConfigComp, SWT.RIGHT );
+    keySplitPointsLab.setText( Messages.getString( "HBaseInputDialog.KeySplitPoints.Label" ) );
+    keySplitPointsLab.setToolTipText( Messages.getString( "HBaseInputDialog.KeySplitPoints.TipText" ) );
+    props.setLook( keySplitPointsLab );
+    fd = new FormData();
+    fd.left = new FormAttachment( 0, 0 );
+    fd.top = new FormAttachment( m_scanCacheText, margin );
+    fd.right = new FormAttachment( middle, -margin );
+    keySplitPointsLab.setLayoutData( fd );
+
+    m_keySplitPointsText = new TextVar( transMeta, wConfigComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    m_keySplitPointsText.setToolTipText( Messages.getString( "HBaseInputDialog.KeySplitPoints.TipText" ) );
+    m_keySplitPointsText.addModifyListener( lsMod );
+    props.setLook( m_keySplitPointsText );
+    fd = new FormData();
+    fd.right = new FormAttachment( 100, 0 );
+    fd.left = new FormAttachment( middle, 0 );
+    fd.top = new FormAttachment( m_scanCacheText, margin );
+    m_keySplitPointsText.setLayoutData( fd );
+
+    // concurrent scanners
+    Label scanThreadsLab = new Label( wConfigComp, SWT.RIGHT );
+    scanThreadsLab.setText( Messages.getString( "HBaseInputDialog.ScanThreads.Label" ) );
+    scanThreadsLab.setToolTipText( Messages.getString( "HBaseInputDialog.ScanThreads.TipText" ) );
+    props.setLook( scanThreadsLab );
+    fd = new FormData();
+    fd.left = new FormAttachment( 0, 0 );
+    fd.top = new FormAttachment( m_keySplitPointsText, margin );
+    fd.right = new FormAttachment( middle, -margin );
+    scanThreadsLab.setLayoutData( fd );
+
+    m_scanThreadsText = new TextVar( transMeta, wConfigComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    m_scanThreadsText.setToolTipText( Messages.getString( "HBaseInputDialog.ScanThreads.TipText" ) );
+    m_scanThreadsText.addModifyListener( lsMod );
+    props.setLook( m_scanThreadsText );
+    fd = new FormData();
+    fd.right = new FormAttachment( 100, 0 );
+    fd.left = new FormAttachment( middle, 0 );
+    fd.top = new FormAttachment( m_keySplitPointsText, margin );
+    m_scanThreadsText.setLayoutData( fd );
+
     m_getKeyInfoBut = new Button( wConfigComp, SWT.PUSH );
     m_getKeyInfoBut.setText( "Get Key/Fields Info" );
     props.setLook( m_getKeyInfoBut );
@@ -652,7 +696,7 @@ public class HBaseInputDialog extends BaseStepDialog implements StepDialogInterf
     m_fieldsView = new TableView( transMeta, wConfigComp, SWT.FULL_SELECTION | SWT.MULTI, colinf, 1, lsMod, props );
 
     fd = new FormData();
-    fd.top = new FormAttachment( m_scanCacheText, margin * 2 );
+    fd.top = new FormAttachment( m_scanThreadsText, margin * 2 );
     fd.bottom = new FormAttachment( m_getKeyInfoBut, -margin * 2 );
     fd.left = new FormAttachment( 0, 0 );
     fd.right = new FormAttachment( 100, 0 );
@@ -1018,6 +1062,8 @@ public class HBaseInputDialog extends BaseStepDialog implements StepDialogInterf
     m_currentMeta.setKeyStartValue( m_keyStartText.getText() );
     m_currentMeta.setKeyStopValue( m_keyStopText.getText() );
     m_currentMeta.setScannerCacheSize( m_scanCacheText.getText() );
+    m_currentMeta.setKeySplitPoints( m_keySplitPointsText.getText() );
+    m_currentMeta.setScanThreads( m_scanThreadsText.getText() );
     m_currentMeta.setMatchAnyFilter( m_matchAnyBut.getSelection() );
 
     int numNonEmpty = m_fieldsView.nrNonEmpty();
@@ -1191,6 +1237,14 @@ public class HBaseInputDialog extends BaseStepDialog implements StepDialogInterf
       m_scanCacheText.setText( m_currentMeta.getScannerCacheSize() );
     }
 
+    if ( !Const.isEmpty( m_currentMeta.getKeySplitPoints() ) ) {
+      m_keySplitPointsText.setText( m_currentMeta.getKeySplitPoints() );
+    }
+
+    if ( !Const.isEmpty( m_currentMeta.getScanThreads() ) ) {
+      m_scanThreadsText.setText( m_currentMeta.getScanThreads() );
+    }
+
     m_matchAnyBut.setSelection( m_currentMeta.getMatchAnyFilter() );
     m_matchAllBut.setSelection( !m_currentMeta.getMatchAnyFilter() );
 
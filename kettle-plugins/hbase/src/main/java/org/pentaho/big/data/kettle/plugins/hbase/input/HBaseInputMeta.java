@@ -152,6 +152,19 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
   @Injection( name = "SCANNER_ROW_CACHE_SIZE" )
   protected String m_scannerCacheSize;
 
+  /**
+   * Comma separated key values splitting the scanned key range into sub-ranges that are scanned concurrently and
+   * divided between step copies
+   */
+  @Injection( name = "KEY_SPLIT_POINTS" )
+  protected String m_keySplitPoints;
+
+  /**
+   * Number of sub-ranges scanned at the same time by one step copy
+   */
+  @Injection( name = "SCAN_THREADS" )
+  protected String m_scanThreads;
+
   protected transient Mapping m_cachedMapping;
 
   /**
@@ -380,6 +393,43 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
     return m_scannerCacheSize;
   }
 
+  /**
+   * Set the key values at which the scanned key range is split into sub-ranges. Each sub-range is read by its own
+   * scanner, so splitting at region boundaries lets a full table extract read several regions at once.
+   *
+   * @param splitPoints comma separated key values, in ascending key order
+   */
+  public void setKeySplitPoints( String splitPoints ) {
+    m_keySplitPoints = splitPoints;
+  }
+
+  /**
+   * The key values at which the scanned key range is split into sub-ranges.
+   *
+   * @return comma separated key values, or null if the range is scanned as a whole.
+   */
+  public String getKeySplitPoints() {
+    return m_keySplitPoints;
+  }
+
+  /**
+   * Set the number of key sub-ranges scanned concurrently by each copy of this step.
+   *
+   * @param threads the number of concurrent scanners
+   */
+  public void setScanThreads( String threads ) {
+    m_scanThreads = threads;
+  }
+
+  /**
+   * The number of key sub-ranges scanned concurrently by each copy of this step.
+   *
+   * @return the number of concurrent scanners
+   */
+  public String getScanThreads() {
+    return m_scanThreads;
+  }
+
   /**
    * Set a list of fields to emit from this steo. If not specified, then all fields defined in the mapping for the
    * source table will be emitted.
@@ -426,6 +476,8 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
     m_sourceMappingName = null;
     m_keyStart = null;
     m_keyStop = null;
+    m_keySplitPoints = null;
+    m_scanThreads = null;
     namedCluster = namedClusterService.getClusterTemplate();
   }
 
@@ -603,6 +655,12 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
     if ( !Const.isEmpty( m_scannerCacheSize ) ) {
       retval.append( "\n    " ).append( XMLHandler.addTagValue( "scanner_cache_size", m_scannerCacheSize ) );
     }
+    if ( !Const.isEmpty( m_keySplitPoints ) ) {
+      retval.append( "\n    " ).append( XMLHandler.addTagValue( "key_split_points", m_keySplitPoints ) );
+    }
+    if ( !Const.isEmpty( m_scanThreads ) ) {
+      retval.append( "\n    " ).append( XMLHandler.addTagValue( "scan_threads", m_scanThreads ) );
+    }
 
     if ( m_outputFields != null && m_outputFields.size() > 0 ) {
       retval.append( "\n    " ).append( XMLHandler.openTag( "output_fields" ) );
@@ -658,6 +716,8 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
     m_keyStart = XMLHandler.getTagValue( stepnode, "key_start" );
     m_keyStop = XMLHandler.getTagValue( stepnode, "key_stop" );
     m_scannerCacheSize = XMLHandler.getTagValue( stepnode, "scanner_cache_size" );
+    m_keySplitPoints = XMLHandler.getTagValue( stepnode, "key_split_points" );
+    m_scanThreads = XMLHandler.getTagValue( stepnode, "scan_threads" );
     String m = XMLHandler.getTagValue( stepnode, "match_any_filter" );
     if ( !Const.isEmpty( m ) ) {
       m_matchAnyFilter = m.equalsIgnoreCase( "Y" );
@@ -762,6 +822,12 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
     if ( !Const.isEmpty( m_scannerCacheSize ) ) {
       rep.saveStepAttribute( id_transformation, id_step, 0, "scanner_cache_size", m_scannerCacheSize );
     }
+    if ( !Const.isEmpty( m_keySplitPoints ) ) {
+      rep.saveStepAttribute( id_transformation, id_step, 0, "key_split_points", m_keySplitPoints );
+    }
+    if ( !Const.isEmpty( m_scanThreads ) ) {
+      rep.saveStepAttribute( id_transformation, id_step, 0, "scan_threads", m_scanThreads );
+    }
 
     if ( m_outputFields != null && m_outputFields.size() > 0 ) {
 
@@ -809,6 +875,8 @@ public class HBaseInputMeta extends BaseStepMeta implements StepMetaInterface {
     m_keyStop = rep.getStepAttributeString( id_step, 0, "key_stop" );
     m_matchAnyFilter = rep.getStepAttributeBoolean( id_step, 0, "match_any_filter" );
     m_scannerCacheSize = rep.getStepAttributeString( id_step, 0, "scanner_cache_size" );
+    m_keySplitPoints = rep.getStepAttributeString( id_step, 0, "key_split_points" );
+    m_scanThreads = rep.getStepAttributeString( id_step, 0, "scan_threads" );
 
     if ( hBaseService != null ) {
       HBaseValueMetaInterfaceFactory valueMetaInterfaceFactory = hBaseService.getHBaseValueMetaInterfaceFactory();
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.hbase.input;
+
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.hadoop.shim.api.hbase.Result;
+import org.pentaho.hadoop.shim.api.hbase.table.ResultScanner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scans a list of key sub-ranges with a bounded number of concurrent scanners and hands their results to the step
+ * thread through a bounded queue. Results of different sub-ranges are interleaved, so row order is not preserved.
+ */
+public class HBaseInputRangeScanner {
+
+  /**
+   * Opens a scanner over [startKey, stopKey). Either bound may be empty, meaning the start or end of the table.
+   */
+  public interface ScannerFactory {
+    ResultScanner createScanner( String startKey, String stopKey ) throws Exception;
+  }
+
+  public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+  private static final Object END_OF_RANGES = new Object();
+  private static final long QUEUE_TIMEOUT_MS = 100;
+
+  private final ConcurrentLinkedQueue<String[]> pendingRanges;
+  private final int scanThreads;
+  private final ScannerFactory scannerFactory;
+  private final BlockingQueue<Object> results;
+  private final AtomicInteger runningScanners = new AtomicInteger();
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+  private volatile boolean closed = false;
+  private boolean finished = false;
+  private ExecutorService executor;
+
+  public HBaseInputRangeScanner( List<String[]> ranges, int scanThreads, int queueSize,
+                                 ScannerFactory scannerFactory ) {
+    this.pendingRanges = new ConcurrentLinkedQueue<>( ranges );
+    this.scanThreads = Math.max( 1, Math.min( scanThreads, Math.max( 1, ranges.size() ) ) );
+    this.scannerFactory = scannerFactory;
+    this.results = new ArrayBlockingQueue<>( Math.max( 1, queueSize ) );
+  }
+
+  /**
+   * Splits [startKey, stopKey) at the given split points, e.g. [start, p1), [p1, p2), ..., [pn, stop). Split points
+   * are expected in ascending key order and inside the scanned range.
+   *
+   * @param startKey    the inclusive start key of the whole scan, may be empty
+   * @param stopKey     the exclusive stop key of the whole scan, may be empty
+   * @param splitPoints comma separated key values
+   * @return the sub-ranges as {start, stop} pairs
+   */
+  public static List<String[]> splitKeyRange( String startKey, String stopKey, String splitPoints ) {
+    List<String[]> ranges = new ArrayList<>();
+    String rangeStart = startKey;
+    if ( !Const.isEmpty( splitPoints ) ) {
+      for ( String splitPoint : splitPoints.split( "," ) ) {
+        String trimmed = splitPoint.trim();
+        if ( !trimmed.isEmpty() ) {
+          ranges.add( new String[] { rangeStart, trimmed } );
+          rangeStart = trimmed;
+        }
+      }
+    }
+    ranges.add( new String[] { rangeStart, stopKey } );
+    return ranges;
+  }
+
+  /**
+   * Picks the sub-ranges handled by one step copy, dealing them out round robin between the copies.
+   *
+   * @param ranges all sub-ranges
+   * @param copyNr the number of this copy
+   * @param copies the total number of copies
+   * @return the sub-ranges for this copy
+   */
+  public static List<String[]> rangesForCopy( List<String[]> ranges, int copyNr, int copies ) {
+    if ( copies <= 1 ) {
+      return ranges;
+    }
+    List<String[]> copyRanges = new ArrayList<>();
+    for ( int i = copyNr; i < ranges.size(); i += copies ) {
+      copyRanges.add( ranges.get( i ) );
+    }
+    return Collections.unmodifiableList( copyRanges );
+  }
+
+  public void start() {
+    if ( pendingRanges.isEmpty() ) {
+      finished = true;
+      return;
+    }
+    executor = Executors.newFixedThreadPool( scanThreads );
+    runningScanners.set( scanThreads );
+    for ( int i = 0; i < scanThreads; i++ ) {
+      executor.submit( this::scanRanges );
+    }
+    executor.shutdown();
+  }
+
+  /**
+   * Returns the next result from any of the sub-ranges, blocking until one is available.
+   *
+   * @return the next result, or null once every sub-range has been read or the scanner has been closed
+   * @throws KettleException if one of the scanners failed
+   */
+  public Result next() throws KettleException {
+    if ( finished ) {
+      return null;
+    }
+    Object next = take();
+    if ( next == null ) {
+      finished = true;
+      return null;
+    }
+    if ( next == END_OF_RANGES ) {
+      finished = true;
+      Exception e = failure.get();
+      if ( e != null ) {
+        throw e instanceof KettleException ? (KettleException) e : new KettleException( e.getMessage(), e );
+      }
+      return null;
+    }
+    return (Result) next;
+  }
+
+  public void close() {
+    closed = true;
+    if ( executor != null ) {
+      executor.shutdownNow();
+    }
+    results.clear();
+  }
+
+  private Object take() throws KettleException {
+    try {
+      while ( !closed ) {
+        Object item = results.poll( QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS );
+        if ( item != null ) {
+          return item;
+        }
+      }
+      return null;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    }
+  }
+
+  private void scanRanges() {
+    try {
+      String[] range;
+      while ( !closed && failure.get() == null && ( range = pendingRanges.poll() ) != null ) {
+        scanRange( range );
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } catch ( Exception e ) {
+      failure.compareAndSet( null, e );
+    } finally {
+      if ( runningScanners.decrementAndGet() == 0 || failure.get() != null ) {
+        try {
+          enqueue( END_OF_RANGES );
+        } catch ( InterruptedException e ) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private void scanRange( String[] range ) throws Exception {
+    ResultScanner scanner;
+    try {
+      scanner = scannerFactory.createScanner( range[ 0 ], range[ 1 ] );
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString( HBaseInputMeta.PKG, "HBaseInput.Error.UnableToScanKeyRange",
+        range[ 0 ], range[ 1 ] ), e );
+    }
+    try {
+      Result result;
+      while ( !closed && failure.get() == null && ( result = scanner.next() ) != null ) {
+        enqueue( result );
+      }
+    } finally {
+      scanner.close();
+    }
+  }
+
+  private void enqueue( Object item ) throws InterruptedException {
+    while ( !closed ) {
+      if ( results.offer( item, QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS ) ) {
+        return;
+      }
+    }
+  }
+}
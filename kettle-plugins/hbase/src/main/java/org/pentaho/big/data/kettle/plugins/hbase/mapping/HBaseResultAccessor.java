@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.hbase.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.NavigableMap;
+
+/**
+ * Bound accessors for the HBase row (Result) objects handed to the steps by the table input formats. The Result class
+ * comes from the shim's class loader, so its methods can't be called directly; instead of looking them up by
+ * reflection for every row and column, the method handles are resolved once per Result class and reused.
+ */
+public final class HBaseResultAccessor {
+
+  private static final ClassValue<HBaseResultAccessor> ACCESSORS = new ClassValue<HBaseResultAccessor>() {
+    @Override
+    protected HBaseResultAccessor computeValue( Class<?> type ) {
+      return new HBaseResultAccessor( type );
+    }
+  };
+
+  private final Class<?> resultClass;
+  private final MethodHandle getRow;
+  private final MethodHandle getValue;
+  private final MethodHandle getMap;
+
+  private HBaseResultAccessor( Class<?> resultClass ) {
+    this.resultClass = resultClass;
+    getRow = resolve( resultClass, "getRow", MethodType.methodType( byte[].class, Object.class ) );
+    getValue = resolve( resultClass, "getValue",
+      MethodType.methodType( byte[].class, Object.class, byte[].class, byte[].class ), byte[].class, byte[].class );
+    getMap = resolve( resultClass, "getMap", MethodType.methodType( NavigableMap.class, Object.class ) );
+  }
+
+  /**
+   * @param result an HBase Result object
+   * @return the accessor for the class of the given result
+   */
+  public static HBaseResultAccessor forResult( Object result ) {
+    return ACCESSORS.get( result.getClass() );
+  }
+
+  private static MethodHandle resolve( Class<?> type, String name, MethodType erasedType, Class<?>... parameterTypes ) {
+    try {
+      return MethodHandles.lookup().unreflect( type.getMethod( name, parameterTypes ) ).asType( erasedType );
+    } catch ( ReflectiveOperationException | RuntimeException e ) {
+      // not every Result-like class has every accessor, report it when the accessor is actually used
+      return null;
+    }
+  }
+
+  public byte[] getRow( Object result ) throws Exception {
+    try {
+      return (byte[]) handle( getRow, "getRow" ).invokeExact( result );
+    } catch ( Exception | Error e ) {
+      throw e;
+    } catch ( Throwable t ) {
+      throw new Exception( t );
+    }
+  }
+
+  public byte[] getValue( Object result, byte[] family, byte[] qualifier ) throws Exception {
+    try {
+      return (byte[]) handle( getValue, "getValue" ).invokeExact( result, family, qualifier );
+    } catch ( Exception | Error e ) {
+      throw e;
+    } catch ( Throwable t ) {
+      throw new Exception( t );
+    }
+  }
+
+  @SuppressWarnings( "unchecked" )
+  public NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> getMap( Object result )
+    throws Exception {
+    try {
+      return (NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>>) (NavigableMap) handle( getMap,
+        "getMap" ).invokeExact( result );
+    } catch ( Exception | Error e ) {
+      throw e;
+    } catch ( Throwable t ) {
+      throw new Exception( t );
+    }
+  }
+
+  private MethodHandle handle( MethodHandle handle, String name ) throws NoSuchMethodException {
+    if ( handle == null ) {
+      throw new NoSuchMethodException( resultClass.getName() + "." + name );
+    }
+    return handle;
+  }
+}
@@ -178,9 +178,10 @@ public class HBaseRowToKettleTuple {
       mDecodedTuples.clear();
     }
 
+    HBaseResultAccessor resultAccessor = HBaseResultAccessor.forResult( result );
     byte[] rawKey = null;
     try {
-      rawKey = (byte[]) result.getClass().getMethod( "getRow" ).invoke( result );
+      rawKey = resultAccessor.getRow( result );
     } catch ( Exception ex ) {
       throw new KettleException( ex );
     }
@@ -188,9 +189,7 @@ public class HBaseRowToKettleTuple {
 
     NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> rowData = null;
     try {
-      rowData =
-        (NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>>) result.getClass().getMethod( "getMap" )
-          .invoke( result );
+      rowData = resultAccessor.getMap( result );
     } catch ( Exception ex ) {
       throw new KettleException( ex );
     }
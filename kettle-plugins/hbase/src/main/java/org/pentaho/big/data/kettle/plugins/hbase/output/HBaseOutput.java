@@ -39,6 +39,7 @@ import org.pentaho.hadoop.shim.api.hbase.table.HBaseDelete;
 import org.pentaho.hadoop.shim.api.hbase.table.HBasePut;
 import org.pentaho.hadoop.shim.api.hbase.table.HBaseTable;
 import org.pentaho.hadoop.shim.api.hbase.table.HBaseTableWriteOperationManager;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
@@ -66,6 +67,13 @@ public class HBaseOutput extends BaseStep implements StepInterface {
   private final NamedClusterServiceLocator namedClusterServiceLocator;
   private HBaseService hBaseService;
   private HBaseTableWriteOperationManager targetTableWriteOperationManager;
+  private HBaseOutputBatcher batcher;
+
+  /** Write buffer used in batch mode when none is configured; batches need a buffer that does not auto-flush */
+  static final long DEFAULT_BATCH_WRITE_BUFFER_SIZE = 2 * 1024 * 1024;
+
+  /** Flush retries used in batch mode when none are configured */
+  static final int DEFAULT_BATCH_MAX_RETRIES = 3;
 
   public HBaseOutput( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
       Trans trans, NamedClusterServiceLocator namedClusterServiceLocator ) {
@@ -112,36 +120,13 @@ public class HBaseOutput extends BaseStep implements StepInterface {
       // clean up/close connections etc.
       // target table will be null if we haven't seen any input
       if ( targetTable != null ) {
-        if ( targetTableWriteOperationManager != null ) {
-          try {
-            if ( !targetTableWriteOperationManager.isAutoFlush() ) {
-              logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.FlushingWriteBuffer" ) );
-              targetTableWriteOperationManager.flushCommits();
-            }
-          } catch ( Exception ex ) {
-            throw new KettleException( BaseMessages.getString( HBaseOutputMeta.PKG,
-                "HBaseOutput.Error.ProblemFlushingBufferedData", ex.getMessage() ), ex );
-          } finally {
-            try {
-              targetTableWriteOperationManager.close();
-            } catch ( IOException e ) {
-              // Ignore
-            }
-          }
-        }
         try {
-          targetTable.close();
-        } catch ( IOException e ) {
-          // Ignore
-        }
-
-        try {
-          logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.ClosingConnectionToTable" ) );
-          targetTable = null;
-          m_hbAdmin.close();
-        } catch ( Exception ex ) {
-          throw new KettleException( BaseMessages.getString( HBaseOutputMeta.PKG,
-              "HBaseOutput.Error.ProblemWhenClosingConnection", ex.getMessage() ), ex );
+          if ( batcher != null ) {
+            batcher.flush();
+            batcher.logSummary();
+          }
+        } finally {
+          closeTargetTable();
         }
       }
 
@@ -271,10 +256,13 @@ public class HBaseOutput extends BaseStep implements StepInterface {
       try {
         logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.ConnectingToTargetTable" ) );
 
+        int batchSize = Const.toInt( environmentSubstitute( m_meta.getBatchSize() ), 0 );
+
         // set a write buffer size (and disable auto flush)
         Long writeBufferSize = null;
-        if ( !Utils.isEmpty( m_meta.getWriteBufferSize() ) ) {
-          writeBufferSize = Long.parseLong( environmentSubstitute( m_meta.getWriteBufferSize() ) );
+        if ( !Utils.isEmpty( m_meta.getWriteBufferSize() ) || batchSize > 0 ) {
+          writeBufferSize = Utils.isEmpty( m_meta.getWriteBufferSize() ) ? DEFAULT_BATCH_WRITE_BUFFER_SIZE
+            : Long.parseLong( environmentSubstitute( m_meta.getWriteBufferSize() ) );
 
           logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.SettingWriteBuffer", writeBufferSize ) );
 
@@ -283,6 +271,13 @@ public class HBaseOutput extends BaseStep implements StepInterface {
           }
         }
         targetTableWriteOperationManager = targetTable.createWriteOperationManager( writeBufferSize );
+
+        if ( batchSize > 0 ) {
+          batcher = new HBaseOutputBatcher( targetTableWriteOperationManager, batchSize,
+            Const.toLong( environmentSubstitute( m_meta.getBatchFlushInterval() ), 0 ),
+            Const.toInt( environmentSubstitute( m_meta.getBatchMaxRetries() ), DEFAULT_BATCH_MAX_RETRIES ), log,
+            new BatchRowListener() );
+        }
       } catch ( Exception e ) {
         throw new KettleException( BaseMessages.getString( HBaseOutputMeta.PKG,
             "HBaseOutput.Error.ProblemConnectingToTargetTable", e.getMessage() ), e );
@@ -295,6 +290,7 @@ public class HBaseOutput extends BaseStep implements StepInterface {
 
     if ( m_meta.getDeleteRowKey() ) {
 
+      HBaseDelete hBaseDelete;
       try {
 
         if ( m_incomingKeyValueMeta.isNull( r[m_incomingKeyIndex] ) ) {
@@ -302,8 +298,10 @@ public class HBaseOutput extends BaseStep implements StepInterface {
         }
 
         byte[] encodedKeyBytes = m_bytesUtil.encodeKeyValue( r[m_incomingKeyIndex], m_incomingKeyValueMeta, m_tableMapping.getKeyType() );
-        HBaseDelete hBaseDelete = targetTableWriteOperationManager.createDelete( encodedKeyBytes );
-        hBaseDelete.execute();
+        hBaseDelete = targetTableWriteOperationManager.createDelete( encodedKeyBytes );
+        if ( batcher == null ) {
+          hBaseDelete.execute();
+        }
 
       } catch ( Exception ex ) {
 
@@ -322,6 +320,11 @@ public class HBaseOutput extends BaseStep implements StepInterface {
         }
       }
 
+      if ( batcher != null ) {
+        batcher.add( r, hBaseDelete::execute );
+        return true;
+      }
+
     } else {
       // Put the data
       HBasePut hBasePut;
@@ -384,6 +387,11 @@ public class HBaseOutput extends BaseStep implements StepInterface {
             m_bytesUtil );
       }
 
+      if ( batcher != null ) {
+        batcher.add( r, hBasePut::execute );
+        return true;
+      }
+
       try {
         hBasePut.execute();
       } catch ( Exception e ) {
@@ -399,6 +407,12 @@ public class HBaseOutput extends BaseStep implements StepInterface {
       }
     }
 
+    passOnRow( r );
+
+    return true;
+  }
+
+  private void passOnRow( Object[] r ) throws KettleException {
     // pass on the data to any downstream steps
     putRow( m_data.getOutputRowMeta(), r );
 
@@ -409,8 +423,32 @@ public class HBaseOutput extends BaseStep implements StepInterface {
     if ( checkFeedback( getLinesRead() ) ) {
       logBasic( "Linenr " + getLinesRead() );
     }
+  }
 
-    return true;
+  /**
+   * Passes the rows of a written batch downstream, and routes the rows of a batch that failed before reaching the
+   * write buffer to the error stream.
+   */
+  private class BatchRowListener implements HBaseOutputBatcher.BatchListener {
+
+    @Override
+    public void batchWritten( List<Object[]> rows ) throws KettleException {
+      for ( Object[] row : rows ) {
+        passOnRow( row );
+      }
+    }
+
+    @Override
+    public void batchFailed( List<Object[]> rows, Exception cause ) throws KettleException {
+      String errorDescriptions = BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.Error.ProblemFlushingBatch",
+        rows.size(), cause.getMessage() );
+      if ( !getStepMeta().isDoingErrorHandling() ) {
+        throw new KettleException( errorDescriptions, cause );
+      }
+      for ( Object[] row : rows ) {
+        putError( getInputRowMeta(), row, 1, errorDescriptions, "Unknown", "HBaseOutput002" );
+      }
+    }
   }
 
   @Override
@@ -432,6 +470,47 @@ public class HBaseOutput extends BaseStep implements StepInterface {
     return false;
   }
 
+  /**
+   * Flushes what is left in the write buffer and closes the table and the connection, the table and the connection are
+   * closed even if the last batch or the flush failed.
+   */
+  private void closeTargetTable() throws KettleException {
+    try {
+      if ( targetTableWriteOperationManager != null ) {
+        try {
+          if ( !targetTableWriteOperationManager.isAutoFlush() ) {
+            logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.FlushingWriteBuffer" ) );
+            targetTableWriteOperationManager.flushCommits();
+          }
+        } catch ( Exception ex ) {
+          throw new KettleException( BaseMessages.getString( HBaseOutputMeta.PKG,
+              "HBaseOutput.Error.ProblemFlushingBufferedData", ex.getMessage() ), ex );
+        } finally {
+          try {
+            targetTableWriteOperationManager.close();
+          } catch ( IOException e ) {
+            // Ignore
+          }
+        }
+      }
+    } finally {
+      try {
+        targetTable.close();
+      } catch ( IOException e ) {
+        // Ignore
+      }
+
+      try {
+        logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.ClosingConnectionToTable" ) );
+        targetTable = null;
+        m_hbAdmin.close();
+      } catch ( Exception ex ) {
+        throw new KettleException( BaseMessages.getString( HBaseOutputMeta.PKG,
+            "HBaseOutput.Error.ProblemWhenClosingConnection", ex.getMessage() ), ex );
+      }
+    }
+  }
+
   @Override
   public void setStopped( boolean stopped ) {
     if ( isStopped() && stopped == true ) {
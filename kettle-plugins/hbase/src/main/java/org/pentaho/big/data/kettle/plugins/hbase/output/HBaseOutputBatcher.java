@@ -0,0 +1,205 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.hbase.output;
+
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseTableWriteOperationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gathers the puts/deletes of consecutive rows and sends them to HBase as one batch: the mutations are executed into
+ * the (non auto-flushing) write buffer and committed with a single flush. A batch is flushed once it holds
+ * {@code batchSize} rows, once it is older than {@code flushIntervalMs} (checked as rows arrive) or when
+ * {@link #flush()} is called at the end of the stream.
+ * <p>
+ * A failed flush is retried without executing the mutations already in the write buffer again: only the mutations not
+ * executed yet are executed, then the buffer is flushed again, which sends only what the client still holds. Executing
+ * the whole batch again would apply the mutations that did reach the table a second time.
+ * <p>
+ * Once the retries are used up, the rows of the batch are only reported as failed when none of its mutations made it
+ * into the write buffer. The client cannot drop buffered mutations, so any later flush or close of the table would
+ * still send them, and keep failing on them; in that case the batch fails with a {@link KettleException} instead.
+ */
+public class HBaseOutputBatcher {
+
+  /**
+   * A single put or delete that is executed when its batch is flushed.
+   */
+  public interface Mutation {
+    void execute() throws Exception;
+  }
+
+  /**
+   * Receives the rows of each batch once it has been written, or once it has finally failed without any of its
+   * mutations reaching the write buffer.
+   */
+  public interface BatchListener {
+    void batchWritten( List<Object[]> rows ) throws KettleException;
+
+    void batchFailed( List<Object[]> rows, Exception cause ) throws KettleException;
+  }
+
+  static final long RETRY_BACKOFF_MS = 100;
+
+  private final HBaseTableWriteOperationManager writeOperationManager;
+  private final int batchSize;
+  private final long flushIntervalMs;
+  private final int maxRetries;
+  private final LogChannelInterface log;
+  private final BatchListener listener;
+
+  private final List<Object[]> pendingRows;
+  private final List<Mutation> pendingMutations;
+  private long batchStarted;
+
+  private long batches;
+  private long rowsWritten;
+  private long failedRows;
+  private long retries;
+  private long totalLatencyMs;
+  private long maxLatencyMs;
+
+  public HBaseOutputBatcher( HBaseTableWriteOperationManager writeOperationManager, int batchSize,
+                             long flushIntervalMs, int maxRetries, LogChannelInterface log, BatchListener listener ) {
+    this.writeOperationManager = writeOperationManager;
+    this.batchSize = Math.max( 1, batchSize );
+    this.flushIntervalMs = flushIntervalMs;
+    this.maxRetries = Math.max( 0, maxRetries );
+    this.log = log;
+    this.listener = listener;
+    this.pendingRows = new ArrayList<>( this.batchSize );
+    this.pendingMutations = new ArrayList<>( this.batchSize );
+  }
+
+  public void add( Object[] row, Mutation mutation ) throws KettleException {
+    if ( pendingRows.isEmpty() ) {
+      batchStarted = System.currentTimeMillis();
+    }
+    pendingRows.add( row );
+    pendingMutations.add( mutation );
+
+    if ( pendingRows.size() >= batchSize
+      || ( flushIntervalMs > 0 && System.currentTimeMillis() - batchStarted >= flushIntervalMs ) ) {
+      flush();
+    }
+  }
+
+  public void flush() throws KettleException {
+    if ( pendingRows.isEmpty() ) {
+      return;
+    }
+    List<Object[]> rows = new ArrayList<>( pendingRows );
+    pendingRows.clear();
+
+    long start = System.currentTimeMillis();
+    Exception failure = null;
+    int executed = 0;
+    for ( int attempt = 0; attempt <= maxRetries; attempt++ ) {
+      if ( attempt > 0 ) {
+        retries++;
+        backOff( attempt );
+      }
+      try {
+        for ( ; executed < pendingMutations.size(); executed++ ) {
+          pendingMutations.get( executed ).execute();
+        }
+        writeOperationManager.flushCommits();
+        failure = null;
+        break;
+      } catch ( Exception e ) {
+        failure = e;
+        log.logDetailed( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.BatchFlushFailed", rows.size(),
+          attempt + 1, maxRetries + 1, e.getMessage() ) );
+      }
+    }
+    pendingMutations.clear();
+
+    long latency = System.currentTimeMillis() - start;
+    batches++;
+    totalLatencyMs += latency;
+    maxLatencyMs = Math.max( maxLatencyMs, latency );
+
+    if ( failure == null ) {
+      rowsWritten += rows.size();
+      if ( log.isDetailed() ) {
+        log.logDetailed( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.BatchFlushed", rows.size(),
+          latency ) );
+      }
+      listener.batchWritten( rows );
+    } else if ( executed == 0 ) {
+      // the first mutation could not be executed, so nothing of this batch is in the write buffer
+      failedRows += rows.size();
+      listener.batchFailed( rows, failure );
+    } else {
+      failedRows += rows.size();
+      throw new KettleException( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.Error.ProblemFlushingBatch",
+        rows.size(), failure.getMessage() ), failure );
+    }
+  }
+
+  public void logSummary() {
+    log.logBasic( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutput.BatchSummary", rowsWritten, batches,
+      batches == 0 ? 0 : totalLatencyMs / batches, maxLatencyMs, retries, failedRows ) );
+  }
+
+  private void backOff( int attempt ) throws KettleException {
+    try {
+      Thread.sleep( RETRY_BACKOFF_MS * attempt );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    }
+  }
+
+  public int getPendingRows() {
+    return pendingRows.size();
+  }
+
+  public long getBatches() {
+    return batches;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  public long getFailedRows() {
+    return failedRows;
+  }
+
+  public long getRetries() {
+    return retries;
+  }
+
+  public long getTotalLatencyMs() {
+    return totalLatencyMs;
+  }
+
+  public long getMaxLatencyMs() {
+    return maxLatencyMs;
+  }
+}
@@ -137,6 +137,9 @@ public class HBaseOutputDialog extends BaseStepDialog implements StepDialogInter
 
   // Write buffer size line
   private TextVar m_writeBufferSizeText;
+  private TextVar m_batchSizeText;
+  private TextVar m_batchFlushIntervalText;
+  private TextVar m_batchMaxRetriesText;
 
   // mapping editor composite
   private MappingEditor m_mappingEditor;
@@ -554,6 +557,63 @@ public class HBaseOutputDialog extends BaseStepDialog implements StepDialogInter
     fd.right = new FormAttachment( 100, 0 );
     m_writeBufferSizeText.setLayoutData( fd );
 
+    // batch size line
+    Label batchSizeLab = new Label( wConfigComp, SWT.RIGHT );
+    batchSizeLab.setText( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutputDialog.BatchSize.Label" ) );
+    batchSizeLab.setToolTipText( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutputDialog.BatchSize.TipText" ) );
+    props.setLook( batchSizeLab );
+    fd = new FormData();
+    fd.left = new FormAttachment( 0, 0 );
+    fd.top = new FormAttachment( m_writeBufferSizeText, margin );
+    fd.right = new FormAttachment( middle, -margin );
+    batchSizeLab.setLayoutData( fd );
+
+    m_batchSizeText = new TextVar( transMeta, wConfigComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( m_batchSizeText );
+    fd = new FormData();
+    fd.left = new FormAttachment( middle, 0 );
+    fd.top = new FormAttachment( m_writeBufferSizeText, margin );
+    fd.right = new FormAttachment( 100, 0 );
+    m_batchSizeText.setLayoutData( fd );
+
+    // batch flush interval line
+    Label batchFlushIntervalLab = new Label( wConfigComp, SWT.RIGHT );
+    batchFlushIntervalLab.setText( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutputDialog.BatchFlushInterval.Label" ) );
+    batchFlushIntervalLab.setToolTipText( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutputDialog.BatchFlushInterval.TipText" ) );
+    props.setLook( batchFlushIntervalLab );
+    fd = new FormData();
+    fd.left = new FormAttachment( 0, 0 );
+    fd.top = new FormAttachment( m_batchSizeText, margin );
+    fd.right = new FormAttachment( middle, -margin );
+    batchFlushIntervalLab.setLayoutData( fd );
+
+    m_batchFlushIntervalText = new TextVar( transMeta, wConfigComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( m_batchFlushIntervalText );
+    fd = new FormData();
+    fd.left = new FormAttachment( middle, 0 );
+    fd.top = new FormAttachment( m_batchSizeText, margin );
+    fd.right = new FormAttachment( 100, 0 );
+    m_batchFlushIntervalText.setLayoutData( fd );
+
+    // batch retries line
+    Label batchMaxRetriesLab = new Label( wConfigComp, SWT.RIGHT );
+    batchMaxRetriesLab.setText( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutputDialog.BatchMaxRetries.Label" ) );
+    batchMaxRetriesLab.setToolTipText( BaseMessages.getString( HBaseOutputMeta.PKG, "HBaseOutputDialog.BatchMaxRetries.TipText" ) );
+    props.setLook( batchMaxRetriesLab );
+    fd = new FormData();
+    fd.left = new FormAttachment( 0, 0 );
+    fd.top = new FormAttachment( m_batchFlushIntervalText, margin );
+    fd.right = new FormAttachment( middle, -margin );
+    batchMaxRetriesLab.setLayoutData( fd );
+
+    m_batchMaxRetriesText = new TextVar( transMeta, wConfigComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( m_batchMaxRetriesText );
+    fd = new FormData();
+    fd.left = new FormAttachment( middle, 0 );
+    fd.top = new FormAttachment( m_batchFlushIntervalText, margin );
+    fd.right = new FormAttachment( 100, 0 );
+    m_batchMaxRetriesText.setLayoutData( fd );
+
     fd = new FormData();
     fd.left = new FormAttachment( 0, 0 );
     fd.top = new FormAttachment( 0, 0 );
@@ -792,6 +852,9 @@ public class HBaseOutputDialog extends BaseStepDialog implements StepDialogInter
 
     meta.setDisableWriteToWAL( m_disableWriteToWALBut.getSelection() );
     meta.setWriteBufferSize( m_writeBufferSizeText.getText() );
+    meta.setBatchSize( m_batchSizeText.getText() );
+    meta.setBatchFlushInterval( m_batchFlushIntervalText.getText() );
+    meta.setBatchMaxRetries( m_batchMaxRetriesText.getText() );
 
   }
 
@@ -825,6 +888,18 @@ public class HBaseOutputDialog extends BaseStepDialog implements StepDialogInter
       m_writeBufferSizeText.setText( m_currentMeta.getWriteBufferSize() );
     }
 
+    if ( !Utils.isEmpty( m_currentMeta.getBatchSize() ) ) {
+      m_batchSizeText.setText( m_currentMeta.getBatchSize() );
+    }
+
+    if ( !Utils.isEmpty( m_currentMeta.getBatchFlushInterval() ) ) {
+      m_batchFlushIntervalText.setText( m_currentMeta.getBatchFlushInterval() );
+    }
+
+    if ( !Utils.isEmpty( m_currentMeta.getBatchMaxRetries() ) ) {
+      m_batchMaxRetriesText.setText( m_currentMeta.getBatchMaxRetries() );
+    }
+
     if ( Utils.isEmpty( m_currentMeta.getTargetMappingName() ) && m_currentMeta.getMapping() != null ) {
       m_mappingEditor.setMapping( m_currentMeta.getMapping() );
       m_storeMappingInStepMetaData.setSelection( true );
@@ -127,6 +127,24 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
   @Injection( name = "WRITE_BUFFER_SIZE" )
   protected String m_writeBufferSize;
 
+  /**
+   * Number of rows whose mutations are gathered and flushed together (empty - no batching, rows are written one by one)
+   */
+  @Injection( name = "BATCH_SIZE" )
+  protected String m_batchSize;
+
+  /**
+   * Maximum time in milliseconds a partial batch is held before it is flushed (empty - only flush on size/end of stream)
+   */
+  @Injection( name = "BATCH_FLUSH_INTERVAL" )
+  protected String m_batchFlushInterval;
+
+  /**
+   * Number of times a batch that failed to flush is retried before its rows are treated as failed
+   */
+  @Injection( name = "BATCH_MAX_RETRIES" )
+  protected String m_batchMaxRetries;
+
   /**
    * The mapping to use if we are not loading one dynamically at runtime from HBase itself
    */
@@ -262,6 +280,30 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
     return m_writeBufferSize;
   }
 
+  public void setBatchSize( String batchSize ) {
+    m_batchSize = batchSize;
+  }
+
+  public String getBatchSize() {
+    return m_batchSize;
+  }
+
+  public void setBatchFlushInterval( String batchFlushInterval ) {
+    m_batchFlushInterval = batchFlushInterval;
+  }
+
+  public String getBatchFlushInterval() {
+    return m_batchFlushInterval;
+  }
+
+  public void setBatchMaxRetries( String batchMaxRetries ) {
+    m_batchMaxRetries = batchMaxRetries;
+  }
+
+  public String getBatchMaxRetries() {
+    return m_batchMaxRetries;
+  }
+
   void applyInjection( VariableSpace space ) throws KettleException {
     if ( namedCluster == null ) {
       throw new KettleException( "Named cluster was not initialized!" );
@@ -359,6 +401,15 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
     if ( !Utils.isEmpty( m_writeBufferSize ) ) {
       retval.append( "\n    " ).append( XMLHandler.addTagValue( "write_buffer_size", m_writeBufferSize ) );
     }
+    if ( !Utils.isEmpty( m_batchSize ) ) {
+      retval.append( "\n    " ).append( XMLHandler.addTagValue( "batch_size", m_batchSize ) );
+    }
+    if ( !Utils.isEmpty( m_batchFlushInterval ) ) {
+      retval.append( "\n    " ).append( XMLHandler.addTagValue( "batch_flush_interval", m_batchFlushInterval ) );
+    }
+    if ( !Utils.isEmpty( m_batchMaxRetries ) ) {
+      retval.append( "\n    " ).append( XMLHandler.addTagValue( "batch_max_retries", m_batchMaxRetries ) );
+    }
     retval.append( "\n    " ).append( XMLHandler.addTagValue( "disable_wal", m_disableWriteToWAL ) );
 
 
@@ -398,6 +449,9 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
       m_deleteRowKey = deleteKeys.equalsIgnoreCase( "Y" );
     }
     m_writeBufferSize = XMLHandler.getTagValue( stepnode, "write_buffer_size" );
+    m_batchSize = XMLHandler.getTagValue( stepnode, "batch_size" );
+    m_batchFlushInterval = XMLHandler.getTagValue( stepnode, "batch_flush_interval" );
+    m_batchMaxRetries = XMLHandler.getTagValue( stepnode, "batch_max_retries" );
     String disableWAL = XMLHandler.getTagValue( stepnode, "disable_wal" );
     m_disableWriteToWAL = disableWAL.equalsIgnoreCase( "Y" );
 
@@ -441,6 +495,9 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
     m_targetMappingName = rep.getStepAttributeString( id_step, 0, "target_mapping_name" );
     m_deleteRowKey = rep.getStepAttributeBoolean( id_step, 0, "delete_rows_by_key" );
     m_writeBufferSize = rep.getStepAttributeString( id_step, 0, "write_buffer_size" );
+    m_batchSize = rep.getStepAttributeString( id_step, 0, "batch_size" );
+    m_batchFlushInterval = rep.getStepAttributeString( id_step, 0, "batch_flush_interval" );
+    m_batchMaxRetries = rep.getStepAttributeString( id_step, 0, "batch_max_retries" );
     m_disableWriteToWAL = rep.getStepAttributeBoolean( id_step, 0, "disable_wal" );
 
     Mapping tempMapping = null;
@@ -485,6 +542,15 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
     if ( !Utils.isEmpty( m_writeBufferSize ) ) {
       rep.saveStepAttribute( id_transformation, id_step, 0, "write_buffer_size", m_writeBufferSize );
     }
+    if ( !Utils.isEmpty( m_batchSize ) ) {
+      rep.saveStepAttribute( id_transformation, id_step, 0, "batch_size", m_batchSize );
+    }
+    if ( !Utils.isEmpty( m_batchFlushInterval ) ) {
+      rep.saveStepAttribute( id_transformation, id_step, 0, "batch_flush_interval", m_batchFlushInterval );
+    }
+    if ( !Utils.isEmpty( m_batchMaxRetries ) ) {
+      rep.saveStepAttribute( id_transformation, id_step, 0, "batch_max_retries", m_batchMaxRetries );
+    }
     rep.saveStepAttribute( id_transformation, id_step, 0, "disable_wal", m_disableWriteToWAL );
 
     if ( m_mapping != null ) {
@@ -500,6 +566,9 @@ public class HBaseOutputMeta extends BaseStepMeta implements StepMetaInterface {
     m_deleteRowKey = false;
     m_disableWriteToWAL = false;
     m_writeBufferSize = null;
+    m_batchSize = null;
+    m_batchFlushInterval = null;
+    m_batchMaxRetries = null;
     namedCluster = namedClusterService.getClusterTemplate();
   }
 
@@ -27,6 +27,7 @@ import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
 import org.pentaho.hadoop.shim.api.cluster.NamedClusterServiceLocator;
+import org.pentaho.big.data.kettle.plugins.hbase.mapping.HBaseResultAccessor;
 import org.pentaho.big.data.kettle.plugins.hbase.mapping.HBaseRowToKettleTuple;
 import org.pentaho.hadoop.shim.api.hbase.ByteConversionUtil;
 import org.pentaho.hadoop.shim.api.hbase.HBaseService;
@@ -79,6 +80,16 @@ public class HBaseRowDecoder extends BaseStep implements StepInterface {
    */
   protected HBaseValueMetaInterface[] mOutputColumns;
 
+  /**
+   * Encoded column family of each of the output columns
+   */
+  protected byte[][] mColumnFamilies;
+
+  /**
+   * Encoded column qualifier of each of the output columns
+   */
+  protected byte[][] mColumnQualifiers;
+
   /**
    * Index of incoming key value
    */
@@ -138,9 +149,15 @@ public class HBaseRowDecoder extends BaseStep implements StepInterface {
       }
 
       mOutputColumns = new HBaseValueMetaInterface[ mTableMapping.getMappedColumns().keySet().size() ];
+      mColumnFamilies = new byte[ mOutputColumns.length ][];
+      mColumnQualifiers = new byte[ mOutputColumns.length ][];
       int k = 0;
       for ( String alias : mTableMapping.getMappedColumns().keySet() ) {
-        mOutputColumns[ k++ ] = mTableMapping.getMappedColumns().get( alias );
+        HBaseValueMetaInterface column = mTableMapping.getMappedColumns().get( alias );
+        mOutputColumns[ k ] = column;
+        mColumnFamilies[ k ] = column.getColumnFamily().getBytes();
+        mColumnQualifiers[ k ] = column.getColumnName().getBytes();
+        k++;
       }
 
       hBaseRowDecoderData.setOutputRowMeta( getInputRowMeta().clone() );
@@ -178,12 +195,14 @@ public class HBaseRowDecoder extends BaseStep implements StepInterface {
       }
     }
 
-    try {
-      inputRow[ mKeyInIndex ] = mBytesUtil.convertToImmutableBytesWritable( inputRow[ mKeyInIndex ] );
-    } catch ( InvocationTargetException | IllegalAccessException | NoSuchMethodException e ) {
-      throw new KettleException( BaseMessages.getString( hBaseRowDecoderMetaClass,
-        HBASE_ROW_DECODER_ERROR_NOT_IMMUTABLE_BYTES_WRITABLE,
-        hBaseRowDecoderMeta.getIncomingKeyField() ) );
+    if ( inputRow[ mKeyInIndex ] != null && !mBytesUtil.isImmutableBytesWritable( inputRow[ mKeyInIndex ] ) ) {
+      try {
+        inputRow[ mKeyInIndex ] = mBytesUtil.convertToImmutableBytesWritable( inputRow[ mKeyInIndex ] );
+      } catch ( InvocationTargetException | IllegalAccessException | NoSuchMethodException e ) {
+        throw new KettleException( BaseMessages.getString( hBaseRowDecoderMetaClass,
+          HBASE_ROW_DECODER_ERROR_NOT_IMMUTABLE_BYTES_WRITABLE,
+          hBaseRowDecoderMeta.getIncomingKeyField() ) );
+      }
     }
 
     Object hRow = inputRow[ mResultInIndex ];
@@ -199,10 +218,11 @@ public class HBaseRowDecoder extends BaseStep implements StepInterface {
         }
       } else {
         Object[] outputRowData = RowDataUtil.allocateRowData( mOutputColumns.length + 1 ); // + 1 for key
+        HBaseResultAccessor resultAccessor = HBaseResultAccessor.forResult( hRow );
 
         byte[] rowKey = null;
         try {
-          rowKey = (byte[]) hRow.getClass().getMethod( "getRow" ).invoke( hRow );
+          rowKey = resultAccessor.getRow( hRow );
         } catch ( Exception ex ) {
           throw new KettleException(
             BaseMessages.getString( hBaseRowDecoderMetaClass, "HBaseRowDecoder.Error.UnableToGetRowKey" ), ex );
@@ -213,13 +233,9 @@ public class HBaseRowDecoder extends BaseStep implements StepInterface {
         for ( int i = 0; i < mOutputColumns.length; i++ ) {
           HBaseValueMetaInterface current = mOutputColumns[ i ];
 
-          byte[] colFamilyName = current.getColumnFamily().getBytes();
-          byte[] qualifier = current.getColumnName().getBytes();
-
           byte[] kv = null;
           try {
-            kv = (byte[]) hRow.getClass().getMethod( "getValue", byte[].class, byte[].class )
-              .invoke( hRow, colFamilyName, qualifier );
+            kv = resultAccessor.getValue( hRow, mColumnFamilies[ i ], mColumnQualifiers[ i ] );
           } catch ( Exception ex ) {
             throw new KettleException(
               BaseMessages.getString( hBaseRowDecoderMetaClass, "HBaseRowDecoder.Error.UnableToGetColumnValue" ),
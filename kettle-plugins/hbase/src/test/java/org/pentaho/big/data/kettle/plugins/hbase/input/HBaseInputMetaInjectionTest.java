@@ -83,6 +83,16 @@ public class HBaseInputMetaInjectionTest extends BaseMetadataInjectionTest<HBase
         return meta.getScannerCacheSize();
       }
     } );
+    check( "KEY_SPLIT_POINTS", new StringGetter() {
+      public String get() {
+        return meta.getKeySplitPoints();
+      }
+    } );
+    check( "SCAN_THREADS", new StringGetter() {
+      public String get() {
+        return meta.getScanThreads();
+      }
+    } );
     check( "MATCH_ANY_FILTER", new BooleanGetter() {
       public boolean get() {
         return meta.getMatchAnyFilter();
@@ -0,0 +1,142 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.big.data.kettle.plugins.hbase.input;
+
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.hadoop.shim.api.hbase.Result;
+import org.pentaho.hadoop.shim.api.hbase.table.ResultScanner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBaseInputRangeScannerTest {
+
+  @Test
+  public void testSplitKeyRange() {
+    List<String[]> ranges = HBaseInputRangeScanner.splitKeyRange( "a", "z", " f, ,m " );
+    assertEquals( 3, ranges.size() );
+    assertArrayEquals( new String[] { "a", "f" }, ranges.get( 0 ) );
+    assertArrayEquals( new String[] { "f", "m" }, ranges.get( 1 ) );
+    assertArrayEquals( new String[] { "m", "z" }, ranges.get( 2 ) );
+
+    ranges = HBaseInputRangeScanner.splitKeyRange( null, null, null );
+    assertEquals( 1, ranges.size() );
+    assertArrayEquals( new String[] { null, null }, ranges.get( 0 ) );
+  }
+
+  @Test
+  public void testRangesForCopy() {
+    List<String[]> ranges = HBaseInputRangeScanner.splitKeyRange( "", "", "b,c,d,e" );
+    List<String[]> copy1 = HBaseInputRangeScanner.rangesForCopy( ranges, 1, 2 );
+    assertEquals( 2, copy1.size() );
+    assertArrayEquals( new String[] { "b", "c" }, copy1.get( 0 ) );
+    assertArrayEquals( new String[] { "d", "e" }, copy1.get( 1 ) );
+    assertEquals( 3, HBaseInputRangeScanner.rangesForCopy( ranges, 0, 2 ).size() );
+    assertEquals( ranges, HBaseInputRangeScanner.rangesForCopy( ranges, 0, 1 ) );
+  }
+
+  @Test
+  public void testReadsEveryRange() throws Exception {
+    Map<String, ResultScanner> scanners = new HashMap<>();
+    Set<Result> expected = new HashSet<>();
+    for ( String start : new String[] { "", "f", "m" } ) {
+      Result first = mock( Result.class );
+      Result second = mock( Result.class );
+      ResultScanner scanner = mock( ResultScanner.class );
+      when( scanner.next() ).thenReturn( first, second, null );
+      scanners.put( start, scanner );
+      expected.addAll( Arrays.asList( first, second ) );
+    }
+
+    HBaseInputRangeScanner rangeScanner =
+      new HBaseInputRangeScanner( HBaseInputRangeScanner.splitKeyRange( "", "", "f,m" ), 2, 2,
+        ( startKey, stopKey ) -> scanners.get( startKey ) );
+    rangeScanner.start();
+
+    Set<Result> read = new HashSet<>();
+    Result result;
+    while ( ( result = rangeScanner.next() ) != null ) {
+      read.add( result );
+    }
+    assertEquals( expected, read );
+    assertNull( rangeScanner.next() );
+    for ( ResultScanner scanner : scanners.values() ) {
+      verify( scanner ).close();
+    }
+  }
+
+  @Test( timeout = 10000 )
+  public void testCloseReleasesWaitingReader() throws Exception {
+    ResultScanner scanner = mock( ResultScanner.class );
+    when( scanner.next() ).thenAnswer( invocation -> {
+      Thread.sleep( Long.MAX_VALUE );
+      return null;
+    } );
+    HBaseInputRangeScanner rangeScanner =
+      new HBaseInputRangeScanner( HBaseInputRangeScanner.splitKeyRange( "", "", null ), 1, 1,
+        ( startKey, stopKey ) -> scanner );
+    rangeScanner.start();
+    AtomicReference<Result> read = new AtomicReference<>( mock( Result.class ) );
+    Thread reader = new Thread( () -> {
+      try {
+        read.set( rangeScanner.next() );
+      } catch ( KettleException e ) {
+        throw new IllegalStateException( e );
+      }
+    } );
+    reader.start();
+    verify( scanner, timeout( 5000 ) ).next();
+
+    rangeScanner.close();
+    reader.join();
+
+    assertNull( read.get() );
+    verify( scanner, timeout( 5000 ) ).close();
+  }
+
+  @Test( expected = KettleException.class )
+  public void testScannerFailureIsReported() throws Exception {
+    HBaseInputRangeScanner rangeScanner =
+      new HBaseInputRangeScanner( HBaseInputRangeScanner.splitKeyRange( "", "", "f" ), 2, 10,
+        ( startKey, stopKey ) -> {
+          throw new IllegalStateException( "region offline" );
+        } );
+    rangeScanner.start();
+    while ( rangeScanner.next() != null ) {
+      // drain
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.hbase.mapping;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class HBaseResultAccessorTest {
+
+  public static class FakeResult {
+    private final byte[] row;
+    private final NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> map = new TreeMap<>();
+
+    public FakeResult( byte[] row ) {
+      this.row = row;
+    }
+
+    public byte[] getRow() {
+      return row;
+    }
+
+    public byte[] getValue( byte[] family, byte[] qualifier ) {
+      return Arrays.equals( family, "f".getBytes() ) && Arrays.equals( qualifier, "q".getBytes() ) ? row : null;
+    }
+
+    public NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> getMap() {
+      return map;
+    }
+  }
+
+  public static class NoValueResult {
+    public byte[] getRow() {
+      throw new IllegalStateException( "closed" );
+    }
+  }
+
+  @Test
+  public void testAccessorIsSharedPerClass() {
+    assertSame( HBaseResultAccessor.forResult( new FakeResult( new byte[ 0 ] ) ),
+      HBaseResultAccessor.forResult( new FakeResult( new byte[ 1 ] ) ) );
+  }
+
+  @Test
+  public void testReadsResult() throws Exception {
+    FakeResult result = new FakeResult( "key".getBytes() );
+    HBaseResultAccessor accessor = HBaseResultAccessor.forResult( result );
+
+    assertArrayEquals( "key".getBytes(), accessor.getRow( result ) );
+    assertArrayEquals( "key".getBytes(), accessor.getValue( result, "f".getBytes(), "q".getBytes() ) );
+    assertNull( accessor.getValue( result, "f".getBytes(), "other".getBytes() ) );
+    assertSame( result.getMap(), accessor.getMap( result ) );
+  }
+
+  @Test( expected = NoSuchMethodException.class )
+  public void testMissingAccessorFailsOnUse() throws Exception {
+    NoValueResult result = new NoValueResult();
+    HBaseResultAccessor.forResult( result ).getValue( result, new byte[ 0 ], new byte[ 0 ] );
+  }
+
+  @Test
+  public void testAccessorExceptionsArePassedThrough() throws Exception {
+    NoValueResult result = new NoValueResult();
+    try {
+      HBaseResultAccessor.forResult( result ).getRow( result );
+      fail( "Expected the getRow failure" );
+    } catch ( IllegalStateException e ) {
+      // expected
+    }
+  }
+}
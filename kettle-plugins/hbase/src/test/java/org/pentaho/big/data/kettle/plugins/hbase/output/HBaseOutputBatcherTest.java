@@ -0,0 +1,197 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.big.data.kettle.plugins.hbase.output;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseTableWriteOperationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class HBaseOutputBatcherTest {
+
+  private HBaseTableWriteOperationManager writeOperationManager;
+  private List<Object[]> written;
+  private List<Object[]> failed;
+  private HBaseOutputBatcher.BatchListener listener;
+
+  @Before
+  public void setUp() {
+    writeOperationManager = mock( HBaseTableWriteOperationManager.class );
+    written = new ArrayList<>();
+    failed = new ArrayList<>();
+    listener = new HBaseOutputBatcher.BatchListener() {
+      @Override
+      public void batchWritten( List<Object[]> rows ) {
+        written.addAll( rows );
+      }
+
+      @Override
+      public void batchFailed( List<Object[]> rows, Exception cause ) {
+        failed.addAll( rows );
+      }
+    };
+  }
+
+  @Test
+  public void testFlushesWhenBatchIsFull() throws Exception {
+    HBaseOutputBatcher batcher =
+      new HBaseOutputBatcher( writeOperationManager, 2, 0, 0, mock( LogChannelInterface.class ), listener );
+    HBaseOutputBatcher.Mutation mutation = mock( HBaseOutputBatcher.Mutation.class );
+
+    batcher.add( new Object[] { "a" }, mutation );
+    verify( mutation, never() ).execute();
+    assertEquals( 1, batcher.getPendingRows() );
+
+    batcher.add( new Object[] { "b" }, mutation );
+    verify( mutation, times( 2 ) ).execute();
+    verify( writeOperationManager ).flushCommits();
+    assertEquals( 2, written.size() );
+    assertEquals( 0, batcher.getPendingRows() );
+
+    batcher.add( new Object[] { "c" }, mutation );
+    batcher.flush();
+    assertEquals( 3, written.size() );
+    assertEquals( 2, batcher.getBatches() );
+    assertEquals( 3, batcher.getRowsWritten() );
+  }
+
+  @Test
+  public void testRetriesFailedFlush() throws Exception {
+    doThrow( new IOException( "region moved" ) ).doNothing().when( writeOperationManager ).flushCommits();
+    HBaseOutputBatcher batcher =
+      new HBaseOutputBatcher( writeOperationManager, 1, 0, 2, mock( LogChannelInterface.class ), listener );
+
+    HBaseOutputBatcher.Mutation mutation = mock( HBaseOutputBatcher.Mutation.class );
+    batcher.add( new Object[] { "a" }, mutation );
+    assertEquals( 1, written.size() );
+    assertEquals( 1, batcher.getRetries() );
+    assertTrue( failed.isEmpty() );
+    // the retry flushes the buffer again without adding the mutation to it twice
+    verify( mutation ).execute();
+    verify( writeOperationManager, times( 2 ) ).flushCommits();
+  }
+
+  @Test
+  public void testRetryExecutesOnlyTheMutationsNotExecutedYet() throws Exception {
+    HBaseOutputBatcher.Mutation first = mock( HBaseOutputBatcher.Mutation.class );
+    HBaseOutputBatcher.Mutation second = mock( HBaseOutputBatcher.Mutation.class );
+    doThrow( new IOException( "buffer full" ) ).doNothing().when( second ).execute();
+    HBaseOutputBatcher batcher =
+      new HBaseOutputBatcher( writeOperationManager, 2, 0, 2, mock( LogChannelInterface.class ), listener );
+
+    batcher.add( new Object[] { "a" }, first );
+    batcher.add( new Object[] { "b" }, second );
+
+    verify( first ).execute();
+    verify( second, times( 2 ) ).execute();
+    verify( writeOperationManager ).flushCommits();
+    assertEquals( 2, written.size() );
+    assertEquals( 1, batcher.getRetries() );
+  }
+
+  @Test
+  public void testReportsRowsOfBatchThatNeverReachedTheBuffer() throws Exception {
+    HBaseOutputBatcher.Mutation rejected = mock( HBaseOutputBatcher.Mutation.class );
+    doThrow( new IOException( "table disabled" ) ).when( rejected ).execute();
+    HBaseOutputBatcher.Mutation second = mock( HBaseOutputBatcher.Mutation.class );
+    HBaseOutputBatcher batcher =
+      new HBaseOutputBatcher( writeOperationManager, 5, 0, 1, mock( LogChannelInterface.class ), listener );
+
+    batcher.add( new Object[] { "a" }, rejected );
+    batcher.add( new Object[] { "b" }, second );
+    batcher.flush();
+
+    verify( rejected, times( 2 ) ).execute();
+    verify( second, never() ).execute();
+    verify( writeOperationManager, never() ).flushCommits();
+    assertEquals( 2, failed.size() );
+    assertEquals( 2, batcher.getFailedRows() );
+    assertTrue( written.isEmpty() );
+  }
+
+  @Test
+  public void testBatchThatKeepsFailingAfterBufferingStopsTheStep() throws Exception {
+    doThrow( new IOException( "table disabled" ) ).when( writeOperationManager ).flushCommits();
+    HBaseOutputBatcher batcher =
+      new HBaseOutputBatcher( writeOperationManager, 5, 0, 1, mock( LogChannelInterface.class ), listener );
+
+    batcher.add( new Object[] { "a" }, mock( HBaseOutputBatcher.Mutation.class ) );
+    batcher.add( new Object[] { "b" }, mock( HBaseOutputBatcher.Mutation.class ) );
+    try {
+      batcher.flush();
+      fail( "Expected the failed flush to stop the step" );
+    } catch ( KettleException e ) {
+      assertTrue( e.getCause() instanceof IOException );
+    }
+
+    verify( writeOperationManager, times( 2 ) ).flushCommits();
+    // the mutations are still buffered and may yet be sent, so their rows must not go to the error stream
+    assertTrue( failed.isEmpty() );
+    assertTrue( written.isEmpty() );
+  }
+
+  @Test
+  public void testFailedBatchIsNotSentWithTheNextBatch() throws Exception {
+    List<Object> buffered = new ArrayList<>();
+    List<Object> flushed = new ArrayList<>();
+    doAnswer( invocation -> {
+      flushed.addAll( buffered );
+      buffered.clear();
+      return null;
+    } ).when( writeOperationManager ).flushCommits();
+    HBaseOutputBatcher batcher =
+      new HBaseOutputBatcher( writeOperationManager, 2, 0, 1, mock( LogChannelInterface.class ), listener );
+
+    batcher.add( new Object[] { "a" }, () -> {
+      throw new IOException( "table disabled" );
+    } );
+    batcher.add( new Object[] { "b" }, () -> buffered.add( "b" ) );
+    batcher.add( new Object[] { "c" }, () -> buffered.add( "c" ) );
+    batcher.add( new Object[] { "d" }, () -> buffered.add( "d" ) );
+
+    assertEquals( 2, failed.size() );
+    assertEquals( 2, written.size() );
+    assertEquals( Arrays.asList( "c", "d" ), flushed );
+    for ( Object[] row : failed ) {
+      assertFalse( flushed.contains( row[ 0 ] ) );
+    }
+    assertEquals( 2, batcher.getFailedRows() );
+    assertEquals( 2, batcher.getRowsWritten() );
+  }
+}
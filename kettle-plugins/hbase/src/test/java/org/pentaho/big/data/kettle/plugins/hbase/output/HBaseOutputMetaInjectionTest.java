@@ -85,6 +85,21 @@ public class HBaseOutputMetaInjectionTest extends BaseMetadataInjectionTest<HBas
         return meta.getWriteBufferSize();
       }
     } );
+    check( "BATCH_SIZE", new StringGetter() {
+      public String get() {
+        return meta.getBatchSize();
+      }
+    } );
+    check( "BATCH_FLUSH_INTERVAL", new StringGetter() {
+      public String get() {
+        return meta.getBatchFlushInterval();
+      }
+    } );
+    check( "BATCH_MAX_RETRIES", new StringGetter() {
+      public String get() {
+        return meta.getBatchMaxRetries();
+      }
+    } );
 
     check( "TABLE_NAME", new StringGetter() {
       public String get() {
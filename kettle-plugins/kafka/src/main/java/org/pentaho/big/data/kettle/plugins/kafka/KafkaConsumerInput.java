@@ -22,6 +22,7 @@
 package org.pentaho.big.data.kettle.plugins.kafka;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.Result;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.i18n.BaseMessages;
@@ -34,6 +35,7 @@ import org.pentaho.di.trans.step.StepMetaInterface;
 import org.pentaho.di.trans.streaming.common.BaseStreamStep;
 import org.pentaho.di.trans.streaming.common.FixedTimeStreamWindow;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -74,16 +76,31 @@ public class KafkaConsumerInput extends BaseStreamStep implements StepInterface
       log.logError( e.getMessage(), e );
     }
 
-    Consumer consumer =
-      kafkaConsumerInputMeta.getKafkaFactory().consumer( kafkaConsumerInputMeta, this::environmentSubstitute,
-        kafkaConsumerInputMeta.getKeyField().getOutputType(),
-        kafkaConsumerInputMeta.getMessageField().getOutputType() );
+    int consumerCount = Const.toInt( environmentSubstitute( kafkaConsumerInputMeta.getConsumerCount() ), 1 );
+    if ( consumerCount < 1 ) {
+      logError( BaseMessages.getString( PKG, "KafkaConsumerInput.Error.ConsumerCount",
+        kafkaConsumerInputMeta.getConsumerCount() ) );
+      return false;
+    }
 
     Set<String> topics =
       kafkaConsumerInputMeta.getTopics().stream().map( this::environmentSubstitute ).collect( Collectors.toSet() );
-    consumer.subscribe( topics );
+    List<Consumer> consumers = new ArrayList<>( consumerCount );
+    for ( int i = 0; i < consumerCount; i++ ) {
+      Consumer consumer =
+        kafkaConsumerInputMeta.getKafkaFactory().consumer( kafkaConsumerInputMeta, this::environmentSubstitute,
+          kafkaConsumerInputMeta.getKeyField().getOutputType(),
+          kafkaConsumerInputMeta.getMessageField().getOutputType() );
+      consumers.add( consumer );
+    }
+    if ( consumerCount > 1 ) {
+      logBasic( BaseMessages.getString( PKG, "KafkaConsumerInput.Log.Consumers", consumerCount ) );
+    }
 
-    source = new KafkaStreamSource( consumer, kafkaConsumerInputMeta, kafkaConsumerInputData, variables, this );
+    KafkaStreamSource kafkaSource =
+      new KafkaStreamSource( consumers, kafkaConsumerInputMeta, kafkaConsumerInputData, variables, this );
+    kafkaSource.subscribe( topics );
+    source = kafkaSource;
     window = new FixedTimeStreamWindow<>( getSubtransExecutor(), kafkaConsumerInputData.outputRowMeta, getDuration(),
       getBatchSize(), getParallelism(), kafkaConsumerInputMeta.isAutoCommit() ? p -> { } : this::commitOffsets );
 
@@ -70,7 +70,7 @@ public class KafkaConsumerInputDialog extends BaseStreamingDialog implements Ste
 
   private static final int INPUT_WIDTH = 350;
   private static final int SHELL_MIN_WIDTH = 527;
-  private static final int SHELL_MIN_HEIGHT = 682;
+  private static final int SHELL_MIN_HEIGHT = 772;
   private static final Class<?> PKG = KafkaConsumerInputMeta.class;
   // for i18n purposes, needed by Translator2!!   $NON-NLS-1$
 
@@ -96,6 +96,8 @@ public class KafkaConsumerInputDialog extends BaseStreamingDialog implements Ste
   private TextVar wBootstrapServers;
   private Button wbAutoCommit;
   private Button wbManualCommit;
+  private Button wbAsyncCommit;
+  private TextVar wConsumerCount;
   private static final String REPOS_DELIM = "/";
 
   public KafkaConsumerInputDialog( Shell parent, Object in, TransMeta tr, String sname ) {
@@ -145,6 +147,37 @@ public class KafkaConsumerInputDialog extends BaseStreamingDialog implements Ste
     fdbManualCommit.top = new FormAttachment( wbAutoCommit, 10, SWT.BOTTOM );
     wbManualCommit.setLayoutData( fdbManualCommit );
     props.setLook( wbManualCommit );
+
+    wbAsyncCommit = new Button( wOffsetGroup, SWT.CHECK );
+    wbAsyncCommit.setText( BaseMessages.getString( PKG, "KafkaConsumerInputDialog.AsyncCommit" ) );
+    wbAsyncCommit.setToolTipText( BaseMessages.getString( PKG, "KafkaConsumerInputDialog.AsyncCommit.Tooltip" ) );
+    FormData fdbAsyncCommit = new FormData();
+    fdbAsyncCommit.left = new FormAttachment( 0, 20 );
+    fdbAsyncCommit.top = new FormAttachment( wbManualCommit, 10, SWT.BOTTOM );
+    wbAsyncCommit.setLayoutData( fdbAsyncCommit );
+    props.setLook( wbAsyncCommit );
+    wbAsyncCommit.addListener( SWT.Selection, event -> lsMod.modifyText( null ) );
+    wbAutoCommit.addListener( SWT.Selection, event -> wbAsyncCommit.setEnabled( wbManualCommit.getSelection() ) );
+    wbManualCommit.addListener( SWT.Selection, event -> wbAsyncCommit.setEnabled( wbManualCommit.getSelection() ) );
+
+    Label wlConsumerCount = new Label( wBatchComp, SWT.LEFT );
+    props.setLook( wlConsumerCount );
+    wlConsumerCount.setText( BaseMessages.getString( PKG, "KafkaConsumerInputDialog.ConsumerCount" ) );
+    wlConsumerCount.setToolTipText( BaseMessages.getString( PKG, "KafkaConsumerInputDialog.ConsumerCount.Tooltip" ) );
+    FormData fdlConsumerCount = new FormData();
+    fdlConsumerCount.left = new FormAttachment( 0, 0 );
+    fdlConsumerCount.top = new FormAttachment( wOffsetGroup, 15 );
+    fdlConsumerCount.right = new FormAttachment( 50, 0 );
+    wlConsumerCount.setLayoutData( fdlConsumerCount );
+
+    wConsumerCount = new TextVar( transMeta, wBatchComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( wConsumerCount );
+    wConsumerCount.addModifyListener( lsMod );
+    FormData fdConsumerCount = new FormData();
+    fdConsumerCount.left = new FormAttachment( 0, 0 );
+    fdConsumerCount.top = new FormAttachment( wlConsumerCount, 5 );
+    fdConsumerCount.width = 75;
+    wConsumerCount.setLayoutData( fdConsumerCount );
   }
 
   @Override protected void buildSetup( Composite wSetupComp ) {
@@ -627,6 +660,11 @@ public class KafkaConsumerInputDialog extends BaseStreamingDialog implements Ste
 
     wbAutoCommit.setSelection( consumerMeta.isAutoCommit() );
     wbManualCommit.setSelection( !consumerMeta.isAutoCommit() );
+    wbAsyncCommit.setSelection( consumerMeta.isAsyncCommit() );
+    wbAsyncCommit.setEnabled( !consumerMeta.isAutoCommit() );
+    if ( consumerMeta.getConsumerCount() != null ) {
+      wConsumerCount.setText( consumerMeta.getConsumerCount() );
+    }
 
     specificationMethod = meta.getSpecificationMethod();
     switch ( specificationMethod ) {
@@ -657,6 +695,8 @@ public class KafkaConsumerInputDialog extends BaseStreamingDialog implements Ste
     consumerMeta.setConnectionType( wbDirect.getSelection() ? DIRECT : CLUSTER );
     consumerMeta.setDirectBootstrapServers( wBootstrapServers.getText() );
     consumerMeta.setAutoCommit( wbAutoCommit.getSelection() );
+    consumerMeta.setConsumerCount( wConsumerCount.getText() );
+    consumerMeta.setAsyncCommit( wbAsyncCommit.getSelection() );
     setFieldsFromTable();
     setOptionsFromTable();
   }
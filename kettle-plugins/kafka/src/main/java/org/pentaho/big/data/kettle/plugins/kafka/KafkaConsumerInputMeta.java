@@ -126,6 +126,9 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
   public static final String KAFKA_NAME_ATTRIBUTE = "kafkaName";
   public static final String TYPE_ATTRIBUTE = "type";
   public static final String AUTO_COMMIT = "AUTO_COMMIT";
+  public static final String CONSUMER_COUNT = "consumerCount";
+  public static final String CONSUMER_COUNT_DEFAULT = "1";
+  public static final String ASYNC_COMMIT = "asyncCommit";
 
   private static final Class<?> PKG = KafkaConsumerInput.class; // for i18n purposes, needed by Translator2!!   $NON-NLS-1$
 
@@ -159,6 +162,12 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
   @Injection( name = AUTO_COMMIT )
   private boolean autoCommit = true;
 
+  @Injection( name = "CONSUMER_COUNT" )
+  private String consumerCount = CONSUMER_COUNT_DEFAULT;
+
+  @Injection( name = "ASYNC_COMMIT" )
+  private boolean asyncCommit = false;
+
   private Map<String, String> config = new LinkedHashMap<>();
 
   private KafkaConsumerField topicField;
@@ -253,6 +262,9 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
     setDirectBootstrapServers( XMLHandler.getTagValue( stepnode, DIRECT_BOOTSTRAP_SERVERS ) );
     String autoCommitValue = XMLHandler.getTagValue( stepnode, AUTO_COMMIT );
     setAutoCommit( "Y".equals( autoCommitValue ) || isNullOrEmpty( autoCommitValue ) );
+    String consumerCountValue = XMLHandler.getTagValue( stepnode, CONSUMER_COUNT );
+    setConsumerCount( isNullOrEmpty( consumerCountValue ) ? CONSUMER_COUNT_DEFAULT : consumerCountValue );
+    setAsyncCommit( "Y".equals( XMLHandler.getTagValue( stepnode, ASYNC_COMMIT ) ) );
     List<Node> ofNode = XMLHandler.getNodes( stepnode, OUTPUT_FIELD_TAG_NAME );
 
     ofNode.forEach( node -> {
@@ -291,6 +303,7 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
     batchDuration = "1000";
     parallelism = "1";
     prefetchCount = PREFETCH_DEFAULT;
+    consumerCount = CONSUMER_COUNT_DEFAULT;
   }
 
   @Override public void readRep( Repository rep, IMetaStore metaStore, ObjectId objectId, List<DatabaseMeta> databases )
@@ -315,6 +328,9 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
     setConnectionType( ConnectionType.valueOf( rep.getStepAttributeString( objectId, CONNECTION_TYPE ) ) );
     setDirectBootstrapServers( rep.getStepAttributeString( objectId, DIRECT_BOOTSTRAP_SERVERS ) );
     setAutoCommit( rep.getStepAttributeBoolean( objectId, 0, AUTO_COMMIT, true ) );
+    String consumerCountValue = rep.getStepAttributeString( objectId, CONSUMER_COUNT );
+    setConsumerCount( isNullOrEmpty( consumerCountValue ) ? CONSUMER_COUNT_DEFAULT : consumerCountValue );
+    setAsyncCommit( rep.getStepAttributeBoolean( objectId, 0, ASYNC_COMMIT, false ) );
 
     for ( KafkaConsumerField.Name name : KafkaConsumerField.Name.values() ) {
       String prefix = OUTPUT_FIELD_TAG_NAME + "_" + name;
@@ -352,6 +368,8 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
     rep.saveStepAttribute( transId, stepId, CONNECTION_TYPE, connectionType.name() );
     rep.saveStepAttribute( transId, stepId, DIRECT_BOOTSTRAP_SERVERS, directBootstrapServers );
     rep.saveStepAttribute( transId, stepId, AUTO_COMMIT, autoCommit );
+    rep.saveStepAttribute( transId, stepId, CONSUMER_COUNT, consumerCount );
+    rep.saveStepAttribute( transId, stepId, ASYNC_COMMIT, asyncCommit );
 
     List<KafkaConsumerField> fields = getFieldDefinitions();
     for ( KafkaConsumerField field : fields ) {
@@ -526,6 +544,8 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
     retval.append( "    " ).append( XMLHandler.addTagValue( CONNECTION_TYPE, connectionType.name() ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( DIRECT_BOOTSTRAP_SERVERS, directBootstrapServers ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( AUTO_COMMIT, autoCommit ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( CONSUMER_COUNT, consumerCount ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( ASYNC_COMMIT, asyncCommit ) );
 
     getFieldDefinitions().forEach( field ->
       retval.append( "    " ).append(
@@ -588,6 +608,29 @@ public class KafkaConsumerInputMeta extends BaseStreamStepMeta implements StepMe
     return autoCommit;
   }
 
+  /**
+   * @return the number of consumers of the group polling in the step, each one is assigned its own partitions
+   */
+  public String getConsumerCount() {
+    return consumerCount;
+  }
+
+  public void setConsumerCount( String consumerCount ) {
+    this.consumerCount = consumerCount;
+  }
+
+  /**
+   * @return whether offsets committed when a batch completes are sent without waiting for the broker, only used when
+   * offsets are not committed automatically
+   */
+  public boolean isAsyncCommit() {
+    return asyncCommit;
+  }
+
+  public void setAsyncCommit( boolean asyncCommit ) {
+    this.asyncCommit = asyncCommit;
+  }
+
   /*
      Per https://jira.pentaho.com/browse/PDI-19585 this capability was never reproduced when the multishim
      capability was added.  It has been missing since Pentaho 9.0.
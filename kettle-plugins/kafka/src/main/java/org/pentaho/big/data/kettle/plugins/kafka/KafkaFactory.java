@@ -104,6 +104,7 @@ public class KafkaFactory {
     meta.getConfig().entrySet()
         .forEach( ( entry -> kafkaConfig.put( entry.getKey(), variableNonNull.apply(
             (String) entry.getValue() ) ) ) );
+    kafkaConfig.putAll( new KafkaProducerTuning( meta, variablesFunction ).getProducerConfig() );
 
     return producerFunction.apply( kafkaConfig );
   }
@@ -25,9 +25,10 @@ package org.pentaho.big.data.kettle.plugins.kafka;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.ValueMetaInterface;
-import org.pentaho.di.core.util.StringUtil;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -37,10 +38,14 @@ import org.pentaho.di.trans.step.StepInterface;
 import org.pentaho.di.trans.step.StepMeta;
 import org.pentaho.di.trans.step.StepMetaInterface;
 
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class KafkaProducerOutput extends BaseStep implements StepInterface, Callback {
 
   private static final Class<?> PKG = KafkaConsumerInputMeta.class;
+  private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
   private KafkaProducerOutputMeta meta;
   private KafkaProducerOutputData data;
   private KafkaFactory kafkaFactory;
@@ -68,6 +73,16 @@ public class KafkaProducerOutput extends BaseStep implements StepInterface, Call
     meta = ( (KafkaProducerOutputMeta) stepMetaInterface );
     data = ( (KafkaProducerOutputData) stepDataInterface );
 
+    try {
+      data.tuning = new KafkaProducerTuning( meta, this::environmentSubstitute );
+    } catch ( IllegalArgumentException e ) {
+      logError( BaseMessages.getString( PKG, "KafkaProducer.Error.InvalidTuning", e.getMessage() ) );
+      return false;
+    }
+    if ( data.tuning.getMaxPendingSends() > 0 ) {
+      data.sendPermits = new Semaphore( data.tuning.getMaxPendingSends() );
+    }
+
     return true;
   }
 
@@ -77,21 +92,23 @@ public class KafkaProducerOutput extends BaseStep implements StepInterface, Call
       // no more input to be expected...
       setOutputDone();
       if ( data.kafkaProducer != null ) {
+        Map<MetricName, ? extends Metric> metrics = data.kafkaProducer.metrics();
         data.kafkaProducer.close();
+        logMetrics( metrics );
       }
       return false;
     }
     if ( first ) {
-      data.keyFieldIndex = getInputRowMeta().indexOfValue( environmentSubstitute( meta.getKeyField() ) );
-      data.messageFieldIndex = getInputRowMeta().indexOfValue( environmentSubstitute( meta.getMessageField() ) );
-      ValueMetaInterface keyValueMeta = getInputRowMeta().getValueMeta( data.keyFieldIndex );
-      ValueMetaInterface msgValueMeta = getInputRowMeta().getValueMeta( data.messageFieldIndex );
+      data.sendPlan = new KafkaProducerSendPlan( meta, getInputRowMeta(), this::environmentSubstitute );
+      ValueMetaInterface keyValueMeta = getInputRowMeta().getValueMeta( data.sendPlan.getKeyFieldIndex() );
+      ValueMetaInterface msgValueMeta = getInputRowMeta().getValueMeta( data.sendPlan.getMessageFieldIndex() );
 
       data.kafkaProducer = kafkaFactory.producer( meta, this::environmentSubstitute,
         KafkaConsumerField.Type.fromValueMetaInterface( keyValueMeta ),
         KafkaConsumerField.Type.fromValueMetaInterface( msgValueMeta ) );
 
       data.isOpen = true;
+      data.lastFlush = System.currentTimeMillis();
 
       first = false;
     }
@@ -99,23 +116,27 @@ public class KafkaProducerOutput extends BaseStep implements StepInterface, Call
     if ( !data.isOpen ) {
       return false;
     }
-    ProducerRecord<Object, Object> producerRecord;
-    // allow for null keys
-    if ( data.keyFieldIndex < 0 || r[ data.keyFieldIndex ] == null || StringUtil
-      .isEmpty( r[ data.keyFieldIndex ].toString() ) ) {
-      producerRecord = new ProducerRecord<>( environmentSubstitute( meta.getTopic() ), r[ data.messageFieldIndex ] );
-    } else {
-      producerRecord = new ProducerRecord<>( environmentSubstitute( meta.getTopic() ), r[ data.keyFieldIndex ],
-        r[ data.messageFieldIndex ] );
-    }
+    ProducerRecord<Object, Object> producerRecord = data.sendPlan.record( r );
 
-    data.kafkaProducer.send( producerRecord, this );
+    if ( !acquireSendPermit() ) {
+      return false;
+    }
+    try {
+      data.kafkaProducer.send( producerRecord, this );
+    } catch ( RuntimeException e ) {
+      releaseSendPermit();
+      throw e;
+    }
+    data.sent++;
     incrementLinesOutput();
 
     putRow( getInputRowMeta(), r ); // copy row to possible alternate rowset(s).
 
+    flushIfDue();
+
     if ( checkFeedback( getLinesRead() ) && log.isBasic() ) {
       logBasic( BaseMessages.getString( PKG, "KafkaConsumerInput.Log.LineNumber" ) + getLinesRead() );
+      logMetrics( data.kafkaProducer.metrics() );
     }
 
     return true;
@@ -130,19 +151,82 @@ public class KafkaProducerOutput extends BaseStep implements StepInterface, Call
     }
   }
 
+  /**
+   * Waits until fewer than the maximum pending records are unacknowledged.
+   *
+   * @return false if the step stopped while waiting
+   */
+  private boolean acquireSendPermit() throws KettleException {
+    if ( data.sendPermits == null ) {
+      return true;
+    }
+    try {
+      while ( !data.sendPermits.tryAcquire( 100, TimeUnit.MILLISECONDS ) ) {
+        if ( isStopped() || !data.isOpen ) {
+          return false;
+        }
+      }
+      return true;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    }
+  }
+
+  private void releaseSendPermit() {
+    if ( data.sendPermits != null ) {
+      data.sendPermits.release();
+    }
+  }
+
+  private void flushIfDue() {
+    long interval = data.tuning.getFlushIntervalMs();
+    if ( interval > 0 && System.currentTimeMillis() - data.lastFlush >= interval ) {
+      data.kafkaProducer.flush();
+      data.lastFlush = System.currentTimeMillis();
+    }
+  }
+
+  private void logMetrics( Map<MetricName, ? extends Metric> metrics ) {
+    if ( log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "KafkaProducer.Log.Metrics", data.sent, data.acknowledged.get(),
+        data.failed.get(), producerMetric( metrics, "record-send-rate" ), producerMetric( metrics, "batch-size-avg" ),
+        producerMetric( metrics, "record-error-rate" ) ) );
+    }
+  }
+
+  private static String producerMetric( Map<MetricName, ? extends Metric> metrics, String name ) {
+    if ( metrics != null ) {
+      for ( Map.Entry<MetricName, ? extends Metric> metric : metrics.entrySet() ) {
+        if ( name.equals( metric.getKey().name() ) && PRODUCER_METRICS_GROUP.equals( metric.getKey().group() ) ) {
+          Object value = metric.getValue().metricValue();
+          if ( value instanceof Number && !Double.isNaN( ( (Number) value ).doubleValue() ) ) {
+            return String.format( "%.2f", ( (Number) value ).doubleValue() );
+          }
+        }
+      }
+    }
+    return "-";
+  }
+
   /**
    * Callback for the Kafka producer, not to be called externally.  Used to log debug messages from successful sends
-   * and catch any exceptions from errors.
+   * and catch any exceptions from errors.  Every completion frees a pending send and is counted for the metrics.
    * @param metadata
    * @param exception
    */
   @Override
   public void onCompletion( RecordMetadata metadata, Exception exception ) {
-    if ( null != metadata && log.isDebug() ) {
-      logDebug( metadata.toString() );
-    } else if ( null != exception ) {
+    releaseSendPermit();
+    if ( null != exception ) {
+      data.failed.incrementAndGet();
       logError( BaseMessages.getString( PKG, "KafkaProducer.Error.CallbackException" ), exception );
       stopAll();
+    } else {
+      data.acknowledged.incrementAndGet();
+      if ( null != metadata && log.isDebug() ) {
+        logDebug( metadata.toString() );
+      }
     }
   }
 
@@ -26,11 +26,22 @@ import org.apache.kafka.clients.producer.Producer;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
 
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class KafkaProducerOutputData extends BaseStepData implements StepDataInterface {
   Producer<Object, Object> kafkaProducer;
-  int keyFieldIndex;
-  int messageFieldIndex;
+  KafkaProducerSendPlan sendPlan;
   boolean isOpen;
+  KafkaProducerTuning tuning;
+  /**
+   * Permits for the records sent but not acknowledged yet, null when they are not limited
+   */
+  Semaphore sendPermits;
+  long lastFlush;
+  long sent;
+  final AtomicLong acknowledged = new AtomicLong();
+  final AtomicLong failed = new AtomicLong();
 
   public KafkaProducerOutputData() {
     super();
@@ -39,6 +39,7 @@ import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
@@ -85,7 +86,7 @@ public class KafkaProducerOutputDialog extends BaseStepDialog implements StepDia
   private final KafkaFactory kafkaFactory = KafkaFactory.defaultFactory();
 
   private static final int SHELL_MIN_WIDTH = 527;
-  private static final int SHELL_MIN_HEIGHT = 569;
+  private static final int SHELL_MIN_HEIGHT = 639;
   private static final int INPUT_WIDTH = 350;
 
   private KafkaProducerOutputMeta meta;
@@ -98,6 +99,14 @@ public class KafkaProducerOutputDialog extends BaseStepDialog implements StepDia
   private ComboVar wKeyField;
   private ComboVar wMessageField;
   private TableView optionsTable;
+  private Button wThroughputMode;
+  private TextVar wLingerMs;
+  private TextVar wBatchSize;
+  private ComboVar wCompressionType;
+  private ComboVar wAcks;
+  private TextVar wMaxInFlight;
+  private TextVar wMaxPendingSends;
+  private TextVar wFlushIntervalMs;
   private CTabFolder wTabFolder;
 
   private Button wbDirect;
@@ -215,6 +224,7 @@ public class KafkaProducerOutputDialog extends BaseStepDialog implements StepDia
     wTabFolder.setLayoutData( fdTabFolder );
 
     buildSetupTab();
+    buildBatchingTab();
     buildOptionsTab();
 
     getData();
@@ -445,6 +455,89 @@ public class KafkaProducerOutputDialog extends BaseStepDialog implements StepDia
     wClusterName.setVisible( !isDirect );
   }
 
+  private void buildBatchingTab() {
+    CTabItem wBatchingTab = new CTabItem( wTabFolder, SWT.NONE );
+    wBatchingTab.setText( BaseMessages.getString( PKG, "KafkaProducerOutputDialog.BatchingTab" ) );
+
+    Composite wBatchingComp = new Composite( wTabFolder, SWT.NONE );
+    props.setLook( wBatchingComp );
+    FormLayout batchingLayout = new FormLayout();
+    batchingLayout.marginHeight = 15;
+    batchingLayout.marginWidth = 15;
+    wBatchingComp.setLayout( batchingLayout );
+
+    wThroughputMode = new Button( wBatchingComp, SWT.CHECK );
+    wThroughputMode.setText( BaseMessages.getString( PKG, "KafkaProducerOutputDialog.ThroughputMode" ) );
+    wThroughputMode.setToolTipText( BaseMessages.getString( PKG, "KafkaProducerOutputDialog.ThroughputMode.Tooltip" ) );
+    props.setLook( wThroughputMode );
+    FormData fdThroughputMode = new FormData();
+    fdThroughputMode.left = new FormAttachment( 0, 0 );
+    fdThroughputMode.top = new FormAttachment( 0, 0 );
+    wThroughputMode.setLayoutData( fdThroughputMode );
+    wThroughputMode.addSelectionListener( new SelectionAdapter() {
+      @Override public void widgetSelected( SelectionEvent e ) {
+        meta.setChanged();
+      }
+    } );
+
+    wLingerMs = new TextVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    layoutBatchingField( wBatchingComp, wThroughputMode, wLingerMs, "KafkaProducerOutputDialog.LingerMs" );
+
+    wBatchSize = new TextVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    layoutBatchingField( wBatchingComp, wLingerMs, wBatchSize, "KafkaProducerOutputDialog.BatchSize" );
+
+    wCompressionType = new ComboVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wCompressionType.setItems( KafkaProducerTuning.COMPRESSION_TYPES.toArray( new String[ 0 ] ) );
+    layoutBatchingField( wBatchingComp, wBatchSize, wCompressionType, "KafkaProducerOutputDialog.CompressionType" );
+
+    wAcks = new ComboVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wAcks.setItems( KafkaProducerTuning.ACKS.toArray( new String[ 0 ] ) );
+    layoutBatchingField( wBatchingComp, wCompressionType, wAcks, "KafkaProducerOutputDialog.Acks" );
+
+    wMaxInFlight = new TextVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    layoutBatchingField( wBatchingComp, wAcks, wMaxInFlight, "KafkaProducerOutputDialog.MaxInFlight" );
+
+    wMaxPendingSends = new TextVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    layoutBatchingField( wBatchingComp, wMaxInFlight, wMaxPendingSends, "KafkaProducerOutputDialog.MaxPendingSends" );
+
+    wFlushIntervalMs = new TextVar( transMeta, wBatchingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    layoutBatchingField( wBatchingComp, wMaxPendingSends, wFlushIntervalMs,
+      "KafkaProducerOutputDialog.FlushIntervalMs" );
+
+    FormData fdBatchingComp = new FormData();
+    fdBatchingComp.left = new FormAttachment( 0, 0 );
+    fdBatchingComp.top = new FormAttachment( 0, 0 );
+    fdBatchingComp.right = new FormAttachment( 100, 0 );
+    fdBatchingComp.bottom = new FormAttachment( 100, 0 );
+    wBatchingComp.setLayoutData( fdBatchingComp );
+    wBatchingComp.layout();
+    wBatchingTab.setControl( wBatchingComp );
+  }
+
+  private void layoutBatchingField( Composite parentWidget, Control above, Control field, String messageKey ) {
+    Label label = new Label( parentWidget, SWT.LEFT );
+    props.setLook( label );
+    label.setText( BaseMessages.getString( PKG, messageKey ) );
+    label.setToolTipText( BaseMessages.getString( PKG, messageKey + ".Tooltip" ) );
+    FormData fdLabel = new FormData();
+    fdLabel.left = new FormAttachment( 0, 0 );
+    fdLabel.top = new FormAttachment( above, 10 );
+    fdLabel.right = new FormAttachment( 50, 0 );
+    label.setLayoutData( fdLabel );
+
+    props.setLook( field );
+    if ( field instanceof TextVar ) {
+      ( (TextVar) field ).addModifyListener( lsMod );
+    } else {
+      ( (ComboVar) field ).addModifyListener( lsMod );
+    }
+    FormData fdField = new FormData();
+    fdField.left = new FormAttachment( 0, 0 );
+    fdField.top = new FormAttachment( label, 5 );
+    fdField.right = new FormAttachment( 0, INPUT_WIDTH );
+    field.setLayoutData( fdField );
+  }
+
   private void buildOptionsTab() {
     CTabItem wOptionsTab = new CTabItem( wTabFolder, SWT.NONE );
     wOptionsTab.setText( BaseMessages.getString( PKG, "KafkaProducerOutputDialog.Options.Tab" ) );
@@ -574,12 +667,30 @@ public class KafkaProducerOutputDialog extends BaseStepDialog implements StepDia
     if ( meta.getMessageField() != null ) {
       wMessageField.setText( meta.getMessageField() );
     }
+    wThroughputMode.setSelection( meta.isThroughputMode() );
+    setText( wLingerMs, meta.getLingerMs() );
+    setText( wBatchSize, meta.getBatchSize() );
+    if ( meta.getCompressionType() != null ) {
+      wCompressionType.setText( meta.getCompressionType() );
+    }
+    if ( meta.getAcks() != null ) {
+      wAcks.setText( meta.getAcks() );
+    }
+    setText( wMaxInFlight, meta.getMaxInFlight() );
+    setText( wMaxPendingSends, meta.getMaxPendingSends() );
+    setText( wFlushIntervalMs, meta.getFlushIntervalMs() );
     wbCluster.setSelection( !isDirect() );
     wbDirect.setSelection( isDirect() );
 
     toggleConnectionType( isDirect() );
   }
 
+  private static void setText( TextVar textVar, String value ) {
+    if ( value != null ) {
+      textVar.setText( value );
+    }
+  }
+
   private boolean isDirect() {
     return DIRECT.equals( meta.getConnectionType() );
   }
@@ -609,6 +720,14 @@ public class KafkaProducerOutputDialog extends BaseStepDialog implements StepDia
     meta.setTopic( wTopic.getText() );
     meta.setKeyField( wKeyField.getText() );
     meta.setMessageField( wMessageField.getText() );
+    meta.setThroughputMode( wThroughputMode.getSelection() );
+    meta.setLingerMs( wLingerMs.getText() );
+    meta.setBatchSize( wBatchSize.getText() );
+    meta.setCompressionType( wCompressionType.getText() );
+    meta.setAcks( wAcks.getText() );
+    meta.setMaxInFlight( wMaxInFlight.getText() );
+    meta.setMaxPendingSends( wMaxPendingSends.getText() );
+    meta.setFlushIntervalMs( wFlushIntervalMs.getText() );
     setOptionsFromTable();
     dispose();
   }
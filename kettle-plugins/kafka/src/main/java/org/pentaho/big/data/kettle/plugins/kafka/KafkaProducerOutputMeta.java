@@ -98,6 +98,14 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
   public static final String TOPIC = "topic";
   public static final String KEY_FIELD = "keyField";
   public static final String MESSAGE_FIELD = "messageField";
+  public static final String THROUGHPUT_MODE = "throughputMode";
+  public static final String LINGER_MS = "lingerMs";
+  public static final String BATCH_SIZE = "batchSize";
+  public static final String COMPRESSION_TYPE = "compressionType";
+  public static final String ACKS = "acks";
+  public static final String MAX_IN_FLIGHT = "maxInFlight";
+  public static final String MAX_PENDING_SENDS = "maxPendingSends";
+  public static final String FLUSH_INTERVAL_MS = "flushIntervalMs";
   public static final String ADVANCED_CONFIG = "advancedConfig";
   public static final String CONFIG_OPTION = "option";
   public static final String OPTION_PROPERTY = "property";
@@ -124,6 +132,30 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
   @Injection( name = "MESSAGE_FIELD" )
   private String messageField;
 
+  @Injection( name = "THROUGHPUT_MODE" )
+  private boolean throughputMode;
+
+  @Injection( name = "LINGER_MS" )
+  private String lingerMs;
+
+  @Injection( name = "BATCH_SIZE" )
+  private String batchSize;
+
+  @Injection( name = "COMPRESSION_TYPE" )
+  private String compressionType;
+
+  @Injection( name = "ACKS" )
+  private String acks;
+
+  @Injection( name = "MAX_IN_FLIGHT" )
+  private String maxInFlight;
+
+  @Injection( name = "MAX_PENDING_SENDS" )
+  private String maxPendingSends;
+
+  @Injection( name = "FLUSH_INTERVAL_MS" )
+  private String flushIntervalMs;
+
   @Injection( name = "NAMES", group = "CONFIGURATION_PROPERTIES" )
   protected List<String> injectedConfigNames;
 
@@ -161,6 +193,14 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
     setTopic( XMLHandler.getTagValue( stepnode, TOPIC ) );
     setKeyField( XMLHandler.getTagValue( stepnode, KEY_FIELD ) );
     setMessageField( XMLHandler.getTagValue( stepnode, MESSAGE_FIELD ) );
+    setThroughputMode( "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, THROUGHPUT_MODE ) ) );
+    setLingerMs( XMLHandler.getTagValue( stepnode, LINGER_MS ) );
+    setBatchSize( XMLHandler.getTagValue( stepnode, BATCH_SIZE ) );
+    setCompressionType( XMLHandler.getTagValue( stepnode, COMPRESSION_TYPE ) );
+    setAcks( XMLHandler.getTagValue( stepnode, ACKS ) );
+    setMaxInFlight( XMLHandler.getTagValue( stepnode, MAX_IN_FLIGHT ) );
+    setMaxPendingSends( XMLHandler.getTagValue( stepnode, MAX_PENDING_SENDS ) );
+    setFlushIntervalMs( XMLHandler.getTagValue( stepnode, FLUSH_INTERVAL_MS ) );
 
     config = new LinkedHashMap<>();
 
@@ -190,6 +230,14 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
     setTopic( rep.getStepAttributeString( stepId, TOPIC ) );
     setKeyField( rep.getStepAttributeString( stepId, KEY_FIELD ) );
     setMessageField( rep.getStepAttributeString( stepId, MESSAGE_FIELD ) );
+    setThroughputMode( rep.getStepAttributeBoolean( stepId, THROUGHPUT_MODE ) );
+    setLingerMs( rep.getStepAttributeString( stepId, LINGER_MS ) );
+    setBatchSize( rep.getStepAttributeString( stepId, BATCH_SIZE ) );
+    setCompressionType( rep.getStepAttributeString( stepId, COMPRESSION_TYPE ) );
+    setAcks( rep.getStepAttributeString( stepId, ACKS ) );
+    setMaxInFlight( rep.getStepAttributeString( stepId, MAX_IN_FLIGHT ) );
+    setMaxPendingSends( rep.getStepAttributeString( stepId, MAX_PENDING_SENDS ) );
+    setFlushIntervalMs( rep.getStepAttributeString( stepId, FLUSH_INTERVAL_MS ) );
 
     config = new LinkedHashMap<>();
 
@@ -208,6 +256,14 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
     rep.saveStepAttribute( transformationId, stepId, TOPIC, topicVal );
     rep.saveStepAttribute( transformationId, stepId, KEY_FIELD, keyField );
     rep.saveStepAttribute( transformationId, stepId, MESSAGE_FIELD, messageField );
+    rep.saveStepAttribute( transformationId, stepId, THROUGHPUT_MODE, throughputMode );
+    rep.saveStepAttribute( transformationId, stepId, LINGER_MS, lingerMs );
+    rep.saveStepAttribute( transformationId, stepId, BATCH_SIZE, batchSize );
+    rep.saveStepAttribute( transformationId, stepId, COMPRESSION_TYPE, compressionType );
+    rep.saveStepAttribute( transformationId, stepId, ACKS, acks );
+    rep.saveStepAttribute( transformationId, stepId, MAX_IN_FLIGHT, maxInFlight );
+    rep.saveStepAttribute( transformationId, stepId, MAX_PENDING_SENDS, maxPendingSends );
+    rep.saveStepAttribute( transformationId, stepId, FLUSH_INTERVAL_MS, flushIntervalMs );
 
     rep.saveStepAttribute( transformationId, stepId, ADVANCED_CONFIG + "_COUNT", getConfig().size() );
 
@@ -321,6 +377,14 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
     retval.append( "    " ).append( XMLHandler.addTagValue( CLIENT_ID, clientId ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( KEY_FIELD, keyField ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( MESSAGE_FIELD, messageField ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( THROUGHPUT_MODE, throughputMode ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( LINGER_MS, lingerMs ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( BATCH_SIZE, batchSize ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( COMPRESSION_TYPE, compressionType ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( ACKS, acks ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( MAX_IN_FLIGHT, maxInFlight ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( MAX_PENDING_SENDS, maxPendingSends ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( FLUSH_INTERVAL_MS, flushIntervalMs ) );
     retval.append( "    " ).append( XMLHandler.openTag( ADVANCED_CONFIG ) ).append( Const.CR );
     getConfig().forEach( ( key, value ) -> retval.append( "        " )
       .append( XMLHandler.addTagValue( CONFIG_OPTION, "", true,
@@ -331,6 +395,76 @@ public class KafkaProducerOutputMeta extends BaseStepMeta implements StepMetaInt
     return retval.toString();
   }
 
+  public boolean isThroughputMode() {
+    return throughputMode;
+  }
+
+  public void setThroughputMode( boolean throughputMode ) {
+    this.throughputMode = throughputMode;
+  }
+
+  public String getLingerMs() {
+    return lingerMs;
+  }
+
+  public void setLingerMs( String lingerMs ) {
+    this.lingerMs = lingerMs;
+  }
+
+  public String getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize( String batchSize ) {
+    this.batchSize = batchSize;
+  }
+
+  public String getCompressionType() {
+    return compressionType;
+  }
+
+  public void setCompressionType( String compressionType ) {
+    this.compressionType = compressionType;
+  }
+
+  public String getAcks() {
+    return acks;
+  }
+
+  public void setAcks( String acks ) {
+    this.acks = acks;
+  }
+
+  public String getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight( String maxInFlight ) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * @return the most records sent but not yet acknowledged before the step waits, empty for no limit
+   */
+  public String getMaxPendingSends() {
+    return maxPendingSends;
+  }
+
+  public void setMaxPendingSends( String maxPendingSends ) {
+    this.maxPendingSends = maxPendingSends;
+  }
+
+  /**
+   * @return how often the step flushes the producer, empty to leave it to linger.ms and batch.size
+   */
+  public String getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  public void setFlushIntervalMs( String flushIntervalMs ) {
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
   public NamedClusterManager getNamedClusterService() {
     return namedClusterService;
   }
@@ -0,0 +1,72 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.kafka;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+import java.util.function.Function;
+
+/**
+ * What the producer sends for each row, worked out once from the first row: the topic with its variables resolved,
+ * the positions of the key and message fields and whether an empty key has to be checked for. Building a record is
+ * then only a matter of picking the values out of the row.
+ */
+class KafkaProducerSendPlan {
+  private final String topic;
+  private final int keyFieldIndex;
+  private final int messageFieldIndex;
+  private final boolean stringKey;
+
+  KafkaProducerSendPlan( KafkaProducerOutputMeta meta, RowMetaInterface rowMeta,
+                         Function<String, String> variablesFunction ) {
+    topic = variablesFunction.apply( meta.getTopic() );
+    keyFieldIndex = rowMeta.indexOfValue( variablesFunction.apply( meta.getKeyField() ) );
+    messageFieldIndex = rowMeta.indexOfValue( variablesFunction.apply( meta.getMessageField() ) );
+    ValueMetaInterface keyValueMeta = keyFieldIndex < 0 ? null : rowMeta.getValueMeta( keyFieldIndex );
+    // only a string can be empty, other types are sent as a key unless they are null
+    stringKey = keyValueMeta == null || keyValueMeta.isString();
+  }
+
+  ProducerRecord<Object, Object> record( Object[] row ) {
+    Object key = keyFieldIndex < 0 ? null : row[ keyFieldIndex ];
+    // allow for null keys
+    if ( key == null || ( stringKey && key.toString().isEmpty() ) ) {
+      return new ProducerRecord<>( topic, row[ messageFieldIndex ] );
+    }
+    return new ProducerRecord<>( topic, key, row[ messageFieldIndex ] );
+  }
+
+  String getTopic() {
+    return topic;
+  }
+
+  int getKeyFieldIndex() {
+    return keyFieldIndex;
+  }
+
+  int getMessageFieldIndex() {
+    return messageFieldIndex;
+  }
+}
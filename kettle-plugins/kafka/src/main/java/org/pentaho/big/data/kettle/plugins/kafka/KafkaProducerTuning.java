@@ -0,0 +1,143 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.kafka;
+
+import com.google.common.base.Preconditions;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The batching, compression and back-pressure settings of a {@link KafkaProducerOutputMeta}, with variables resolved
+ * and values validated. Settings left empty keep the Kafka defaults, or the throughput defaults when throughput mode is
+ * on. The producer settings take precedence over the same properties on the Options tab.
+ */
+public class KafkaProducerTuning {
+  public static final List<String> COMPRESSION_TYPES =
+    Collections.unmodifiableList( Arrays.asList( "none", "gzip", "snappy", "lz4", "zstd" ) );
+  public static final List<String> ACKS = Collections.unmodifiableList( Arrays.asList( "0", "1", "all", "-1" ) );
+
+  static final String THROUGHPUT_LINGER_MS = "20";
+  static final String THROUGHPUT_BATCH_SIZE = "131072";
+  static final String THROUGHPUT_COMPRESSION_TYPE = "lz4";
+  static final String THROUGHPUT_MAX_PENDING_SENDS = "10000";
+
+  private final Map<String, Object> producerConfig = new LinkedHashMap<>();
+  private final int maxPendingSends;
+  private final long flushIntervalMs;
+
+  /**
+   * @param meta              the step settings
+   * @param variablesFunction resolves the variables used in the settings
+   * @throws IllegalArgumentException if a setting has an invalid value
+   */
+  public KafkaProducerTuning( KafkaProducerOutputMeta meta, Function<String, String> variablesFunction ) {
+    boolean throughput = meta.isThroughputMode();
+    String lingerMs = resolve( meta.getLingerMs(), variablesFunction, throughput, THROUGHPUT_LINGER_MS );
+    String batchSize = resolve( meta.getBatchSize(), variablesFunction, throughput, THROUGHPUT_BATCH_SIZE );
+    String compressionType =
+      resolve( meta.getCompressionType(), variablesFunction, throughput, THROUGHPUT_COMPRESSION_TYPE );
+    String acks = resolve( meta.getAcks(), variablesFunction, false, null );
+    String maxInFlight = resolve( meta.getMaxInFlight(), variablesFunction, false, null );
+    String pending = resolve( meta.getMaxPendingSends(), variablesFunction, throughput, THROUGHPUT_MAX_PENDING_SENDS );
+    String flushInterval = resolve( meta.getFlushIntervalMs(), variablesFunction, false, null );
+
+    if ( lingerMs != null ) {
+      producerConfig.put( ProducerConfig.LINGER_MS_CONFIG, parse( ProducerConfig.LINGER_MS_CONFIG, lingerMs, 0 ) );
+    }
+    if ( batchSize != null ) {
+      producerConfig.put( ProducerConfig.BATCH_SIZE_CONFIG,
+        (int) parse( ProducerConfig.BATCH_SIZE_CONFIG, batchSize, 0, Integer.MAX_VALUE ) );
+    }
+    if ( compressionType != null ) {
+      String type = compressionType.toLowerCase();
+      Preconditions.checkArgument( COMPRESSION_TYPES.contains( type ), "%s must be one of %s but was %s",
+        ProducerConfig.COMPRESSION_TYPE_CONFIG, COMPRESSION_TYPES, compressionType );
+      producerConfig.put( ProducerConfig.COMPRESSION_TYPE_CONFIG, type );
+    }
+    if ( acks != null ) {
+      String value = acks.toLowerCase();
+      Preconditions.checkArgument( ACKS.contains( value ), "%s must be one of %s but was %s",
+        ProducerConfig.ACKS_CONFIG, ACKS, acks );
+      producerConfig.put( ProducerConfig.ACKS_CONFIG, value );
+    }
+    if ( maxInFlight != null ) {
+      producerConfig.put( ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+        (int) parse( ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight, 1, Integer.MAX_VALUE ) );
+    }
+    maxPendingSends =
+      pending == null ? 0 : (int) parse( KafkaProducerOutputMeta.MAX_PENDING_SENDS, pending, 0, Integer.MAX_VALUE );
+    flushIntervalMs = flushInterval == null ? 0 : parse( KafkaProducerOutputMeta.FLUSH_INTERVAL_MS, flushInterval, 0 );
+  }
+
+  /**
+   * @return the producer properties to set, only the ones configured or defaulted by throughput mode
+   */
+  public Map<String, Object> getProducerConfig() {
+    return Collections.unmodifiableMap( producerConfig );
+  }
+
+  /**
+   * @return the most records sent but not yet acknowledged, 0 for no limit
+   */
+  public int getMaxPendingSends() {
+    return maxPendingSends;
+  }
+
+  /**
+   * @return the milliseconds between flushes of the producer, 0 to never flush before the end of the stream
+   */
+  public long getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  private static String resolve( String value, Function<String, String> variablesFunction, boolean useDefault,
+                                 String defaultValue ) {
+    String resolved = value == null ? null : variablesFunction.apply( value );
+    if ( resolved == null || resolved.trim().isEmpty() ) {
+      return useDefault ? defaultValue : null;
+    }
+    return resolved.trim();
+  }
+
+  private static long parse( String name, String value, long min ) {
+    return parse( name, value, min, Long.MAX_VALUE );
+  }
+
+  private static long parse( String name, String value, long min, long max ) {
+    long parsed;
+    try {
+      parsed = Long.parseLong( value );
+    } catch ( NumberFormatException e ) {
+      throw new IllegalArgumentException( name + " must be a number but was " + value, e );
+    }
+    Preconditions.checkArgument( parsed >= min && parsed <= max, "%s must be between %s and %s but was %s",
+      name, min, max, value );
+    return parsed;
+  }
+}
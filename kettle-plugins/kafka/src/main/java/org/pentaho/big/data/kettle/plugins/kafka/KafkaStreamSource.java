@@ -23,12 +23,15 @@
 package org.pentaho.big.data.kettle.plugins.kafka;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.errors.WakeupException;
-import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.trans.streaming.common.BlockingQueueStreamSource;
@@ -37,26 +40,34 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import static java.util.Comparator.comparingLong;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.maxBy;
-import static org.pentaho.big.data.kettle.plugins.kafka.KafkaConsumerField.Name.OFFSET;
-import static org.pentaho.big.data.kettle.plugins.kafka.KafkaConsumerField.Name.PARTITION;
-import static org.pentaho.big.data.kettle.plugins.kafka.KafkaConsumerField.Name.TOPIC;
-
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the subscribed topics and passes the records as rows to the stream window. With several consumers of the group
+ * each one polls its own partitions on its own thread and puts the rows in a bounded queue, a single thread hands them
+ * to the window. Offsets are committed by the consumer that currently owns the partition; the offsets of a partition no
+ * consumer of the step owns any more are dropped, the new owner of the partition consumes those records again.
+ * <p>
+ * With asynchronous commits the offsets queued for a partition are coalesced to the highest one and committed with
+ * commitAsync, so polling does not wait for the broker. A commit failing with a retriable error is retried unless a
+ * later commit of the partition was sent meanwhile and the consumer still owns the partition. The offsets still pending
+ * are committed synchronously when the consumer loses partitions in a rebalance and when it stops.
+ */
 public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
 
   private final Logger logger = LoggerFactory.getLogger( getClass() );
@@ -64,26 +75,70 @@ public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
   private final VariableSpace variables;
   private KafkaConsumerInputMeta kafkaConsumerInputMeta;
   private KafkaConsumerInputData kafkaConsumerInputData;
-  private EnumMap<KafkaConsumerField.Name, Integer> positions;
-
-  private Consumer consumer;
+  private static final int NOT_IN_ROW = -1;
+  private static final int DEFAULT_QUEUE_CAPACITY = 100000;
+  private static final long QUEUE_WAIT_MS = 100;
+  private static final int MAX_CLOSE_COMMITS = 3;
+
+  private int rowSize;
+  private int keyPosition = NOT_IN_ROW;
+  private int messagePosition = NOT_IN_ROW;
+  private int topicPosition = NOT_IN_ROW;
+  private int partitionPosition = NOT_IN_ROW;
+  private int offsetPosition = NOT_IN_ROW;
+  private int timestampPosition = NOT_IN_ROW;
+
+  private final boolean asyncCommit;
   private final ExecutorService executorService = Executors.newCachedThreadPool();
-  private KafkaConsumerCallable callable;
+  private final List<KafkaConsumerCallable> callables = new ArrayList<>();
+  private final Map<TopicPartition, KafkaConsumerCallable> partitionOwners = new ConcurrentHashMap<>();
+  private final AtomicBoolean closing = new AtomicBoolean( false );
+  private final AtomicInteger runningConsumers = new AtomicInteger();
+  private BlockingQueue<List<Object>> rowQueue;
   private Future<Void> future;
 
   public KafkaStreamSource( Consumer consumer, KafkaConsumerInputMeta inputMeta,
                             KafkaConsumerInputData kafkaConsumerInputData, VariableSpace variables,
                             KafkaConsumerInput kafkaStep ) {
+    this( Collections.singletonList( consumer ), inputMeta, kafkaConsumerInputData, variables, kafkaStep );
+  }
+
+  /**
+   * @param consumers the consumers of the group, all subscribed to the same topics
+   */
+  public KafkaStreamSource( List<Consumer> consumers, KafkaConsumerInputMeta inputMeta,
+                            KafkaConsumerInputData kafkaConsumerInputData, VariableSpace variables,
+                            KafkaConsumerInput kafkaStep ) {
     super( kafkaStep );
-    positions = new EnumMap<>( KafkaConsumerField.Name.class );
-    this.consumer = consumer;
     this.variables = variables;
     this.kafkaConsumerInputData = kafkaConsumerInputData;
     this.kafkaConsumerInputMeta = inputMeta;
+    this.asyncCommit = !inputMeta.isAutoCommit() && inputMeta.isAsyncCommit();
+
+    if ( consumers.size() == 1 ) {
+      callables.add( new KafkaConsumerCallable( consumers.get( 0 ), super::close ) );
+    } else {
+      runningConsumers.set( consumers.size() );
+      for ( Consumer consumer : consumers ) {
+        callables.add( new KafkaConsumerCallable( consumer, runningConsumers::decrementAndGet ) );
+      }
+    }
+  }
+
+  /**
+   * Subscribes every consumer to the topics along with the listener tracking the partitions it owns and committing the
+   * offsets queued for the partitions taken away by a rebalance.
+   */
+  @SuppressWarnings( "unchecked" )
+  public void subscribe( Collection<String> topics ) {
+    for ( KafkaConsumerCallable callable : callables ) {
+      callable.consumer.subscribe( topics, callable );
+    }
   }
 
   @Override public void close() {
-    callable.shutdown();
+    closing.set( true );
+    callables.forEach( KafkaConsumerCallable::shutdown );
   }
 
   @Override public void open()  {
@@ -92,31 +147,64 @@ public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
       return;
     }
 
-    List<ValueMetaInterface> valueMetas = kafkaConsumerInputData.outputRowMeta.getValueMetaList();
-    positions = new EnumMap<>( KafkaConsumerField.Name.class );
+    resolvePositions( kafkaConsumerInputData.outputRowMeta.getValueMetaList() );
 
-    IntStream.range( 0, valueMetas.size() )
-      .forEach( idx -> {
-        Optional<KafkaConsumerField.Name> match = Arrays.stream( KafkaConsumerField.Name.values() )
-          .filter( name -> {
-            KafkaConsumerField f = name.getFieldFromMeta( kafkaConsumerInputMeta );
-            String fieldName = variables.environmentSubstitute( f.getOutputName() );
-            return fieldName != null && fieldName.equals( valueMetas.get( idx ).getName() );
-          } )
-          .findFirst();
+    if ( callables.size() == 1 ) {
+      future = executorService.submit( callables.get( 0 ) );
+      return;
+    }
 
-        match.ifPresent( name -> positions.put( name, idx ) );
-      } );
+    rowQueue = new ArrayBlockingQueue<>( Const.toInt(
+      variables.environmentSubstitute( kafkaConsumerInputMeta.getPrefetchCount() ), DEFAULT_QUEUE_CAPACITY ) );
+    callables.forEach( executorService::submit );
+    future = executorService.submit( this::forwardRows );
+  }
+
+  /**
+   * Hands the rows the consumers queued to the window until every consumer stopped.
+   */
+  private Void forwardRows() {
+    try {
+      while ( !closing.get() && ( runningConsumers.get() > 0 || !rowQueue.isEmpty() ) ) {
+        List<Object> row = rowQueue.poll( QUEUE_WAIT_MS, TimeUnit.MILLISECONDS );
+        if ( row != null ) {
+          List<List<Object>> rows = new ArrayList<>();
+          rows.add( row );
+          rowQueue.drainTo( rows );
+          acceptRows( rows );
+        }
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } catch ( Exception e ) {
+      streamStep.logError( "Exception consuming messages.", e );
+    } finally {
+      // the rows still queued are not committed, so they are consumed again
+      close();
+      super.close();
+    }
+    return null;
+  }
 
-    callable = new KafkaConsumerCallable( consumer, super::close );
-    future = executorService.submit( callable );
+  private void queueRows( List<List<Object>> rows ) throws InterruptedException {
+    for ( List<Object> row : rows ) {
+      // wait while the queue is full, the consumer stops polling until the window catches up
+      while ( !rowQueue.offer( row, QUEUE_WAIT_MS, TimeUnit.MILLISECONDS ) ) {
+        if ( closing.get() ) {
+          return;
+        }
+      }
+    }
   }
 
-  class KafkaConsumerCallable implements Callable<Void> {
+  class KafkaConsumerCallable implements Callable<Void>, ConsumerRebalanceListener {
     private final AtomicBoolean closed = new AtomicBoolean( false );
     private final Consumer consumer;
     private Runnable onClose;
     private ConcurrentLinkedQueue<Map<TopicPartition, OffsetAndMetadata>> toCommit = new ConcurrentLinkedQueue<>();
+    private final Map<TopicPartition, OffsetAndMetadata> pendingCommits = new ConcurrentHashMap<>();
+    // the highest offset sent to the broker for each partition this consumer owns
+    private final Map<TopicPartition, Long> sentCommits = new ConcurrentHashMap<>();
 
     public KafkaConsumerCallable( Consumer consumer, Runnable onClose ) {
       this.consumer = consumer;
@@ -124,7 +212,11 @@ public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
     }
 
     public void queueCommit( Map<TopicPartition, OffsetAndMetadata> offsets ) {
-      toCommit.add( offsets );
+      if ( asyncCommit ) {
+        offsets.forEach( ( partition, offset ) -> pendingCommits.merge( partition, offset, KafkaStreamSource::higher ) );
+      } else {
+        toCommit.add( offsets );
+      }
     }
 
     @Override public Void call() {
@@ -134,12 +226,17 @@ public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
           @SuppressWarnings( "unchecked" ) //should revisit generic type here
           ConsumerRecords<String, String> records = consumer.poll( 1000 );
 
-          List<List<Object>> rows = new ArrayList<>();
+          List<List<Object>> rows = new ArrayList<>( records.count() );
           for ( ConsumerRecord<String, String> record : records ) {
             rows.add( processMessageAsRow( record ) );
           }
 
-          acceptRows( rows );
+          records.partitions().forEach( partition -> partitionOwners.put( partition, this ) );
+          if ( rowQueue == null ) {
+            acceptRows( rows );
+          } else {
+            queueRows( rows );
+          }
         }
         return null;
       } catch ( WakeupException e ) {
@@ -152,16 +249,135 @@ public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
         KafkaStreamSource.this.streamStep.logError( "Exception consuming messages.", ef );
         return null;
       } finally {
-        commitOffsets();
-        consumer.close();
-        onClose.run();
+        try {
+          if ( asyncCommit ) {
+            // a retry queued by a callback the sync commit ran is committed by the next attempt
+            for ( int attempt = 0; attempt < MAX_CLOSE_COMMITS && !pendingCommits.isEmpty(); attempt++ ) {
+              commitPendingSync( pendingCommits.keySet() );
+            }
+          } else {
+            commitOffsets();
+          }
+        } finally {
+          consumer.close();
+          onClose.run();
+        }
       }
     }
 
     private void commitOffsets() {
-      while ( !toCommit.isEmpty() ) {
-        consumer.commitSync( toCommit.poll() );
+      if ( asyncCommit ) {
+        commitPendingAsync();
+        return;
+      }
+      Map<TopicPartition, OffsetAndMetadata> offsets;
+      while ( ( offsets = toCommit.poll() ) != null ) {
+        commitSync( ownedOffsets( offsets ) );
+      }
+    }
+
+    /**
+     * The offsets of the partitions this consumer still owns, a partition taken away by a rebalance is committed by its
+     * new owner.
+     */
+    private Map<TopicPartition, OffsetAndMetadata> ownedOffsets( Map<TopicPartition, OffsetAndMetadata> offsets ) {
+      Map<TopicPartition, OffsetAndMetadata> owned = new HashMap<>();
+      offsets.forEach( ( partition, offset ) -> {
+        if ( partitionOwners.get( partition ) == this ) {
+          owned.put( partition, offset );
+        }
+      } );
+      return owned;
+    }
+
+    /**
+     * Commits the offsets, a failed commit is logged and the consumer keeps polling; the records are consumed again
+     * if the offsets of their partition are not committed later.
+     *
+     * @return whether the offsets were committed
+     */
+    @SuppressWarnings( "unchecked" )
+    private boolean commitSync( Map<TopicPartition, OffsetAndMetadata> offsets ) {
+      if ( offsets.isEmpty() ) {
+        return false;
+      }
+      try {
+        consumer.commitSync( offsets );
+        return true;
+      } catch ( WakeupException e ) {
+        throw e;
+      } catch ( KafkaException e ) {
+        streamStep.logError( "Unable to commit offsets " + offsets, e );
+        return false;
+      }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void commitPendingAsync() {
+      Map<TopicPartition, OffsetAndMetadata> offsets = takePending( pendingCommits.keySet() );
+      if ( !offsets.isEmpty() ) {
+        offsets.forEach( ( partition, offset ) -> sentCommits.merge( partition, offset.offset(), Math::max ) );
+        consumer.commitAsync( offsets, ( committed, exception ) -> onCommitted( offsets, exception ) );
+      }
+    }
+
+    /**
+     * Called on the polling thread, in the order the commits were sent.
+     */
+    private void onCommitted( Map<TopicPartition, OffsetAndMetadata> offsets, Exception exception ) {
+      if ( exception instanceof RetriableException ) {
+        offsets.forEach( ( partition, offset ) -> {
+          // a later commit of the partition makes the retry pointless, a revoked partition is committed by its new owner
+          if ( partitionOwners.get( partition ) == this
+            && offset.offset() >= sentCommits.getOrDefault( partition, offset.offset() ) ) {
+            pendingCommits.merge( partition, offset, KafkaStreamSource::higher );
+          }
+        } );
+      } else if ( exception != null ) {
+        streamStep.logError( "Unable to commit offsets " + offsets, exception );
+      }
+    }
+
+    private void commitPendingSync( Collection<TopicPartition> partitions ) {
+      Map<TopicPartition, OffsetAndMetadata> offsets = takePending( partitions );
+      offsets.forEach( ( partition, offset ) -> sentCommits.merge( partition, offset.offset(), Math::max ) );
+      if ( commitSync( offsets ) ) {
+        // commitSync ran the callbacks of the asynchronous commits completed meanwhile, a retry they queued is pointless
+        // once a sync commit of the partition reached at least its offset
+        offsets.forEach( ( partition, offset ) -> pendingCommits.computeIfPresent( partition,
+          ( p, pending ) -> pending.offset() <= offset.offset() ? null : pending ) );
+      }
+    }
+
+    /**
+     * Removes the pending offsets of the partitions, keeping those of the partitions this consumer still owns.
+     */
+    private Map<TopicPartition, OffsetAndMetadata> takePending( Collection<TopicPartition> partitions ) {
+      Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+      for ( TopicPartition partition : new ArrayList<>( partitions ) ) {
+        OffsetAndMetadata offset = pendingCommits.remove( partition );
+        if ( offset != null && partitionOwners.get( partition ) == this ) {
+          offsets.put( partition, offset );
+        }
+      }
+      return offsets;
+    }
+
+    @Override public void onPartitionsRevoked( Collection<TopicPartition> partitions ) {
+      if ( asyncCommit ) {
+        commitPendingSync( partitions );
+      } else {
+        commitOffsets();
       }
+      partitions.forEach( partition -> {
+        partitionOwners.remove( partition, this );
+        sentCommits.remove( partition );
+      } );
+    }
+
+    @Override public void onPartitionsAssigned( Collection<TopicPartition> partitions ) {
+      // the offsets committed for the partitions are where consuming resumes
+      partitions.forEach( partition -> partitionOwners.put( partition, this ) );
     }
 
     // Shutdown hook which can be called from a separate thread
@@ -172,48 +388,123 @@ public class KafkaStreamSource extends BlockingQueueStreamSource<List<Object>> {
 
   }
 
+  /**
+   * Looks up where each Kafka field goes in the output row, once per subscription rather than for every record.
+   */
+  private void resolvePositions( List<ValueMetaInterface> valueMetas ) {
+    rowSize = valueMetas.size();
+    for ( KafkaConsumerField.Name name : KafkaConsumerField.Name.values() ) {
+      String fieldName =
+        variables.environmentSubstitute( name.getFieldFromMeta( kafkaConsumerInputMeta ).getOutputName() );
+      int position = NOT_IN_ROW;
+      for ( int idx = 0; fieldName != null && idx < valueMetas.size(); idx++ ) {
+        if ( fieldName.equals( valueMetas.get( idx ).getName() ) ) {
+          position = idx;
+          break;
+        }
+      }
+      switch ( name ) {
+        case KEY:
+          keyPosition = position;
+          break;
+        case MESSAGE:
+          messagePosition = position;
+          break;
+        case TOPIC:
+          topicPosition = position;
+          break;
+        case PARTITION:
+          partitionPosition = position;
+          break;
+        case OFFSET:
+          offsetPosition = position;
+          break;
+        case TIMESTAMP:
+          timestampPosition = position;
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Queues the commit of the rows of a processed batch. The highest offset of each partition is tracked while walking
+   * the rows; the rows of a poll arrive partition by partition, so a new TopicPartition is only needed when the
+   * partition changes from one row to the next. Each offset is queued for the consumer owning its partition, the
+   * offsets of a partition no consumer owns are dropped.
+   */
   public void commitOffsets( List<List<Object>> rows ) {
-    Map<Object, Map<Object, Optional<List<Object>>>> maxRows = rows.stream().collect(
-      groupingBy(
-        row -> row.get( positions.get( TOPIC ) ),
-        groupingBy(
-          row -> row.get( positions.get( PARTITION ) ),
-          maxBy( comparingLong( row -> (long) row.get( positions.get( OFFSET ) ) ) ) ) ) );
-
-    Map<TopicPartition, OffsetAndMetadata> offsets =
-      maxRows.values().stream().flatMap( m -> m.values().stream() ).map( Optional::get ).collect(
-        Collectors.toMap( row -> new TopicPartition( (String) row.get( positions.get( TOPIC ) ),
-            ( (Long) row.get( positions.get( PARTITION ) ) ).intValue() ),
-          row -> new OffsetAndMetadata( (long) row.get( positions.get( OFFSET ) ) + 1 ) )
-      );
-    callable.queueCommit( offsets );
+    if ( topicPosition == NOT_IN_ROW || partitionPosition == NOT_IN_ROW || offsetPosition == NOT_IN_ROW ) {
+      throw new IllegalStateException( "The topic, partition and offset fields are needed to commit offsets" );
+    }
+    Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    String topic = null;
+    long partition = NOT_IN_ROW;
+    long maxOffset = NOT_IN_ROW;
+    for ( List<Object> row : rows ) {
+      String rowTopic = (String) row.get( topicPosition );
+      long rowPartition = (Long) row.get( partitionPosition );
+      long rowOffset = (Long) row.get( offsetPosition );
+      if ( rowPartition != partition || !rowTopic.equals( topic ) ) {
+        addOffset( offsets, topic, partition, maxOffset );
+        topic = rowTopic;
+        partition = rowPartition;
+        maxOffset = rowOffset;
+      } else if ( rowOffset > maxOffset ) {
+        maxOffset = rowOffset;
+      }
+    }
+    addOffset( offsets, topic, partition, maxOffset );
+    Map<KafkaConsumerCallable, Map<TopicPartition, OffsetAndMetadata>> offsetsByConsumer = new HashMap<>();
+    offsets.forEach( ( topicPartition, offset ) -> {
+      KafkaConsumerCallable owner = partitionOwners.get( topicPartition );
+      if ( owner == null ) {
+        logger.debug( "Not committing offset {} of {}, no consumer owns the partition", offset, topicPartition );
+      } else {
+        offsetsByConsumer.computeIfAbsent( owner, c -> new HashMap<>() ).put( topicPartition, offset );
+      }
+    } );
+    offsetsByConsumer.forEach( KafkaConsumerCallable::queueCommit );
+  }
+
+  private static OffsetAndMetadata higher( OffsetAndMetadata current, OffsetAndMetadata next ) {
+    return current.offset() >= next.offset() ? current : next;
+  }
+
+  private static void addOffset( Map<TopicPartition, OffsetAndMetadata> offsets, String topic, long partition,
+                                 long maxOffset ) {
+    if ( topic != null ) {
+      offsets.merge( new TopicPartition( topic, (int) partition ), new OffsetAndMetadata( maxOffset + 1 ),
+        KafkaStreamSource::higher );
+    }
   }
 
   List<Object> processMessageAsRow( ConsumerRecord<String, String> record ) {
-    Object[] rowData = RowDataUtil.allocateRowData( kafkaConsumerInputData.outputRowMeta.size() );
+    Object[] rowData = new Object[ rowSize ];
 
-    if ( positions.get( KafkaConsumerField.Name.KEY ) != null ) {
-      rowData[ positions.get( KafkaConsumerField.Name.KEY ) ] = record.key();
+    if ( keyPosition != NOT_IN_ROW ) {
+      rowData[ keyPosition ] = record.key();
     }
 
-    if ( positions.get( KafkaConsumerField.Name.MESSAGE ) != null ) {
-      rowData[ positions.get( KafkaConsumerField.Name.MESSAGE ) ] = record.value();
+    if ( messagePosition != NOT_IN_ROW ) {
+      rowData[ messagePosition ] = record.value();
     }
 
-    if ( positions.get( TOPIC ) != null ) {
-      rowData[ positions.get( TOPIC ) ] = record.topic();
+    if ( topicPosition != NOT_IN_ROW ) {
+      rowData[ topicPosition ] = record.topic();
     }
 
-    if ( positions.get( PARTITION ) != null ) {
-      rowData[ positions.get( PARTITION ) ] = (long) record.partition();
+    if ( partitionPosition != NOT_IN_ROW ) {
+      rowData[ partitionPosition ] = (long) record.partition();
     }
 
-    if ( positions.get( OFFSET ) != null ) {
-      rowData[ positions.get( OFFSET ) ] = record.offset();
+    if ( offsetPosition != NOT_IN_ROW ) {
+      rowData[ offsetPosition ] = record.offset();
     }
 
-    if ( positions.get( KafkaConsumerField.Name.TIMESTAMP ) != null ) {
-      rowData[ positions.get( KafkaConsumerField.Name.TIMESTAMP ) ] = record.timestamp();
+    if ( timestampPosition != NOT_IN_ROW ) {
+      rowData[ timestampPosition ] = record.timestamp();
     }
 
     return Arrays.asList( rowData );
@@ -26,6 +26,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -187,7 +188,7 @@ public class KafkaConsumerInputTest {
 
     step.init( meta, data );
 
-    verify( consumer ).subscribe( topics );
+    verify( consumer ).subscribe( eq( topics ), any( ConsumerRebalanceListener.class ) );
   }
 
   @Test
@@ -212,7 +213,7 @@ public class KafkaConsumerInputTest {
 
     step.init( meta, data );
 
-    verify( consumer ).subscribe( topics );
+    verify( consumer ).subscribe( eq( topics ), any( ConsumerRebalanceListener.class ) );
     verify( repository ).loadTransformation( "consumerSub.ktr", null, null, true, null );
   }
 
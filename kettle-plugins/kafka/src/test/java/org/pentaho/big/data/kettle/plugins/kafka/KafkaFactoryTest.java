@@ -233,6 +233,30 @@ public class KafkaFactoryTest {
     Mockito.verify( producerFun ).apply( expectedMap  );
   }
 
+  @Test
+  public void testProducerSettingsOverrideOptions() {
+    outputMeta.setClientId( "client" );
+    outputMeta.setThroughputMode( true );
+    outputMeta.setAcks( "all" );
+
+    Map<String, String> advancedConfig = new LinkedHashMap<>();
+    advancedConfig.put( ProducerConfig.COMPRESSION_TYPE_CONFIG, "none" );
+    outputMeta.setConfig( advancedConfig );
+
+    new KafkaFactory( consumerFun, producerFun ).producer( outputMeta, Function.identity() );
+    Map<String, Object> expectedMap = new HashMap<>();
+    expectedMap.put( ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "server:1234" );
+    expectedMap.put( ProducerConfig.CLIENT_ID_CONFIG, "client" );
+    expectedMap.put( ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class );
+    expectedMap.put( ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class );
+    expectedMap.put( ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4" );
+    expectedMap.put( ProducerConfig.LINGER_MS_CONFIG, 20L );
+    expectedMap.put( ProducerConfig.BATCH_SIZE_CONFIG, 131072 );
+    expectedMap.put( ProducerConfig.ACKS_CONFIG, "all" );
+
+    Mockito.verify( producerFun ).apply( expectedMap  );
+  }
+
   @Test
   public void testMapsProducersWithVariables() {
     outputMeta.setClientId( "${client}" );
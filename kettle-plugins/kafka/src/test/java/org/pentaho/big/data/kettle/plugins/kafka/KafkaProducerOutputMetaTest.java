@@ -62,12 +62,15 @@ import static org.mockito.Mockito.when;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.ADVANCED_CONFIG;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.CLIENT_ID;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.CLUSTER_NAME;
+import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.COMPRESSION_TYPE;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.CONNECTION_TYPE;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.ConnectionType.CLUSTER;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.ConnectionType.DIRECT;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.DIRECT_BOOTSTRAP_SERVERS;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.KEY_FIELD;
+import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.MAX_PENDING_SENDS;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.MESSAGE_FIELD;
+import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.THROUGHPUT_MODE;
 import static org.pentaho.big.data.kettle.plugins.kafka.KafkaProducerOutputMeta.TOPIC;
 
 @RunWith( MockitoJUnitRunner.class )
@@ -146,6 +149,14 @@ public class KafkaProducerOutputMetaTest {
     meta.setTopic( "myTopic" );
     meta.setKeyField( "fieldOne" );
     meta.setMessageField( "message" );
+    meta.setThroughputMode( true );
+    meta.setLingerMs( "5" );
+    meta.setBatchSize( "65536" );
+    meta.setCompressionType( "snappy" );
+    meta.setAcks( "all" );
+    meta.setMaxInFlight( "5" );
+    meta.setMaxPendingSends( "1000" );
+    meta.setFlushIntervalMs( "${flush}" );
 
     Map<String, String> advancedConfig = new LinkedHashMap<>();
     advancedConfig.put( "advanced.property1", "advancedPropertyValue1" );
@@ -167,6 +178,14 @@ public class KafkaProducerOutputMetaTest {
         + "    <clientId>id1</clientId>" + Const.CR
         + "    <keyField>fieldOne</keyField>" + Const.CR
         + "    <messageField>message</messageField>" + Const.CR
+        + "    <throughputMode>Y</throughputMode>" + Const.CR
+        + "    <lingerMs>5</lingerMs>" + Const.CR
+        + "    <batchSize>65536</batchSize>" + Const.CR
+        + "    <compressionType>snappy</compressionType>" + Const.CR
+        + "    <acks>all</acks>" + Const.CR
+        + "    <maxInFlight>5</maxInFlight>" + Const.CR
+        + "    <maxPendingSends>1000</maxPendingSends>" + Const.CR
+        + "    <flushIntervalMs>${flush}</flushIntervalMs>" + Const.CR
         + "    <advancedConfig>" + Const.CR
         + "        <option property=\"advanced.property1\"  value=\"advancedPropertyValue1\" />" + Const.CR
         + "        <option property=\"advanced.property2\"  value=\"advancedPropertyValue2\" />" + Const.CR
@@ -220,6 +239,9 @@ public class KafkaProducerOutputMetaTest {
     meta.setTopic( "temperature" );
     meta.setKeyField( "kafkaKey" );
     meta.setMessageField( "kafkaMessage" );
+    meta.setThroughputMode( true );
+    meta.setCompressionType( "lz4" );
+    meta.setMaxPendingSends( "1000" );
 
     Map<String, String> advancedConfig = new LinkedHashMap<>();
     advancedConfig.put( "advanced.property1", "advancedPropertyValue1" );
@@ -234,6 +256,9 @@ public class KafkaProducerOutputMetaTest {
     verify( rep ).saveStepAttribute( transId, stepId, TOPIC, "temperature" );
     verify( rep ).saveStepAttribute( transId, stepId, KEY_FIELD, "kafkaKey" );
     verify( rep ).saveStepAttribute( transId, stepId, MESSAGE_FIELD, "kafkaMessage" );
+    verify( rep ).saveStepAttribute( transId, stepId, THROUGHPUT_MODE, true );
+    verify( rep ).saveStepAttribute( transId, stepId, COMPRESSION_TYPE, "lz4" );
+    verify( rep ).saveStepAttribute( transId, stepId, MAX_PENDING_SENDS, "1000" );
 
     verify( rep, times( 1 ) ).saveStepAttribute( transId, stepId, ADVANCED_CONFIG + "_COUNT", 2 );
     verify( rep ).saveStepAttribute( transId, stepId, 0, ADVANCED_CONFIG + "_NAME", "advanced.property1" );
@@ -0,0 +1,90 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.kafka;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.core.variables.Variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class KafkaProducerSendPlanTest {
+  private KafkaProducerOutputMeta meta;
+  private RowMetaInterface rowMeta;
+  private Variables variables;
+
+  @Before
+  public void setUp() {
+    KettleLogStore.init();
+    meta = new KafkaProducerOutputMeta();
+    meta.setTopic( "${topic}" );
+    meta.setMessageField( "message" );
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "message" ) );
+    variables = new Variables();
+    variables.setVariable( "topic", "readings" );
+  }
+
+  @Test
+  public void testResolvesTopicAndFields() {
+    meta.setKeyField( "name" );
+    KafkaProducerSendPlan plan = new KafkaProducerSendPlan( meta, rowMeta, variables::environmentSubstitute );
+
+    ProducerRecord<Object, Object> record = plan.record( new Object[] { "one", 1L, "hello" } );
+
+    assertEquals( "readings", record.topic() );
+    assertEquals( "one", record.key() );
+    assertEquals( "hello", record.value() );
+    assertEquals( 0, plan.getKeyFieldIndex() );
+    assertEquals( 2, plan.getMessageFieldIndex() );
+  }
+
+  @Test
+  public void testEmptyOrMissingKeyIsSentWithoutKey() {
+    meta.setKeyField( "name" );
+    KafkaProducerSendPlan plan = new KafkaProducerSendPlan( meta, rowMeta, variables::environmentSubstitute );
+    assertNull( plan.record( new Object[] { "", 1L, "hello" } ).key() );
+    assertNull( plan.record( new Object[] { null, 1L, "hello" } ).key() );
+
+    meta.setKeyField( null );
+    plan = new KafkaProducerSendPlan( meta, rowMeta, variables::environmentSubstitute );
+    assertNull( plan.record( new Object[] { "one", 1L, "hello" } ).key() );
+  }
+
+  @Test
+  public void testNonStringKeyIsSent() {
+    meta.setKeyField( "id" );
+    KafkaProducerSendPlan plan = new KafkaProducerSendPlan( meta, rowMeta, variables::environmentSubstitute );
+
+    assertEquals( 0L, plan.record( new Object[] { "one", 0L, "hello" } ).key() );
+  }
+}
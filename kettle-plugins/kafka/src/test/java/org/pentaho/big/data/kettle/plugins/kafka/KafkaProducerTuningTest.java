@@ -0,0 +1,107 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.variables.Variables;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KafkaProducerTuningTest {
+  private KafkaProducerOutputMeta meta;
+
+  @Before
+  public void setUp() {
+    KettleLogStore.init();
+    meta = new KafkaProducerOutputMeta();
+  }
+
+  @Test
+  public void testEmptySettingsKeepKafkaDefaults() {
+    KafkaProducerTuning tuning = new KafkaProducerTuning( meta, Function.identity() );
+
+    assertTrue( tuning.getProducerConfig().isEmpty() );
+    assertEquals( 0, tuning.getMaxPendingSends() );
+    assertEquals( 0, tuning.getFlushIntervalMs() );
+  }
+
+  @Test
+  public void testThroughputModeFillsOnlyEmptySettings() {
+    meta.setThroughputMode( true );
+    meta.setCompressionType( "GZIP" );
+
+    KafkaProducerTuning tuning = new KafkaProducerTuning( meta, Function.identity() );
+
+    assertThat( tuning.getProducerConfig(), hasEntry( ProducerConfig.LINGER_MS_CONFIG, (Object) 20L ) );
+    assertThat( tuning.getProducerConfig(), hasEntry( ProducerConfig.BATCH_SIZE_CONFIG, (Object) 131072 ) );
+    assertThat( tuning.getProducerConfig(), hasEntry( ProducerConfig.COMPRESSION_TYPE_CONFIG, (Object) "gzip" ) );
+    assertEquals( 10000, tuning.getMaxPendingSends() );
+  }
+
+  @Test
+  public void testResolvesVariables() {
+    Variables variables = new Variables();
+    variables.setVariable( "inFlight", "1" );
+    variables.setVariable( "flush", "500" );
+    meta.setMaxInFlight( "${inFlight}" );
+    meta.setFlushIntervalMs( "${flush}" );
+    meta.setAcks( "-1" );
+
+    KafkaProducerTuning tuning = new KafkaProducerTuning( meta, variables::environmentSubstitute );
+
+    assertThat( tuning.getProducerConfig(),
+      hasEntry( ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, (Object) 1 ) );
+    assertThat( tuning.getProducerConfig(), hasEntry( ProducerConfig.ACKS_CONFIG, (Object) "-1" ) );
+    assertEquals( 500, tuning.getFlushIntervalMs() );
+  }
+
+  @Test
+  public void testRejectsInvalidSettings() {
+    assertInvalid( m -> m.setLingerMs( "soon" ), ProducerConfig.LINGER_MS_CONFIG );
+    assertInvalid( m -> m.setBatchSize( "-1" ), ProducerConfig.BATCH_SIZE_CONFIG );
+    assertInvalid( m -> m.setCompressionType( "brotli" ), ProducerConfig.COMPRESSION_TYPE_CONFIG );
+    assertInvalid( m -> m.setAcks( "2" ), ProducerConfig.ACKS_CONFIG );
+    assertInvalid( m -> m.setMaxInFlight( "0" ), ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION );
+  }
+
+  private void assertInvalid( Consumer<KafkaProducerOutputMeta> setting, String name ) {
+    KafkaProducerOutputMeta invalid = new KafkaProducerOutputMeta();
+    setting.accept( invalid );
+    try {
+      new KafkaProducerTuning( invalid, Function.identity() );
+      fail( name + " should be invalid" );
+    } catch ( IllegalArgumentException e ) {
+      assertTrue( e.getMessage(), e.getMessage().startsWith( name ) );
+    }
+  }
+}
@@ -0,0 +1,368 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2022 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.big.data.kettle.plugins.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.RetriableCommitFailedException;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.variables.Variables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KafkaStreamSourceTest {
+  private KafkaConsumerInputMeta meta;
+  private Consumer consumer;
+  private KafkaStreamSource source;
+
+  @BeforeClass
+  public static void init() throws Exception {
+    KettleClientEnvironment.init();
+  }
+
+  @Before
+  @SuppressWarnings( "unchecked" )
+  public void setUp() throws Exception {
+    meta = new KafkaConsumerInputMeta();
+    KafkaConsumerInputData data = new KafkaConsumerInputData();
+    data.outputRowMeta = meta.getRowMeta( "kafka", new Variables() );
+    consumer = mock( Consumer.class );
+    when( consumer.poll( anyLong() ) ).thenReturn( new ConsumerRecords<>( Collections.emptyMap() ) );
+    source = new KafkaStreamSource( consumer, meta, data, new Variables(), mock( KafkaConsumerInput.class ) );
+    source.open();
+  }
+
+  @After
+  public void tearDown() {
+    source.close();
+  }
+
+  @Test
+  public void testProcessMessageAsRow() {
+    List<Object> row = source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 3, 42L, "key", "value" ) );
+
+    assertEquals( "key", row.get( 0 ) );
+    assertEquals( "value", row.get( 1 ) );
+    assertEquals( "pentaho", row.get( 2 ) );
+    assertEquals( 3L, row.get( 3 ) );
+    assertEquals( 42L, row.get( 4 ) );
+  }
+
+  @Test
+  public void testCommitsHighestOffsetPerPartition() {
+    subscribe( source, consumer ).onPartitionsAssigned( Arrays.asList( new TopicPartition( "pentaho", 0 ),
+      new TopicPartition( "pentaho", 1 ), new TopicPartition( "other", 0 ) ) );
+    List<List<Object>> rows = new ArrayList<>();
+    for ( long offset : Arrays.asList( 5L, 6L, 7L ) ) {
+      rows.add( source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, offset, "k", "v" ) ) );
+    }
+    rows.add( source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 1, 10L, "k", "v" ) ) );
+    rows.add( source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 3L, "k", "v" ) ) );
+    rows.add( source.processMessageAsRow( new ConsumerRecord<>( "other", 0, 1L, "k", "v" ) ) );
+
+    source.commitOffsets( rows );
+
+    Map<TopicPartition, OffsetAndMetadata> expected = new HashMap<>();
+    expected.put( new TopicPartition( "pentaho", 0 ), new OffsetAndMetadata( 8 ) );
+    expected.put( new TopicPartition( "pentaho", 1 ), new OffsetAndMetadata( 11 ) );
+    expected.put( new TopicPartition( "other", 0 ), new OffsetAndMetadata( 2 ) );
+    verify( consumer, timeout( 5000 ) ).commitSync( expected );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testDropsOffsetsOfRevokedPartitions() {
+    TopicPartition partition = new TopicPartition( "pentaho", 0 );
+    ConsumerRebalanceListener listener = subscribe( source, consumer );
+    listener.onPartitionsAssigned( Collections.singletonList( partition ) );
+    listener.onPartitionsRevoked( Collections.singletonList( partition ) );
+
+    source.commitOffsets( Collections.singletonList(
+      source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ) ) );
+
+    // the offsets queued before the next poll are committed by then
+    verify( consumer, timeout( 5000 ).atLeast( 3 ) ).poll( anyLong() );
+    verify( consumer, never() ).commitSync( anyMap() );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testKeepsPollingWhenACommitFails() {
+    Map<TopicPartition, OffsetAndMetadata> first =
+      Collections.singletonMap( new TopicPartition( "pentaho", 0 ), new OffsetAndMetadata( 6 ) );
+    Map<TopicPartition, OffsetAndMetadata> second =
+      Collections.singletonMap( new TopicPartition( "pentaho", 0 ), new OffsetAndMetadata( 8 ) );
+    doThrow( new KafkaException( "rebalanced" ) ).when( consumer ).commitSync( first );
+    doNothing().when( consumer ).commitSync( second );
+    subscribe( source, consumer ).onPartitionsAssigned(
+      Collections.singletonList( new TopicPartition( "pentaho", 0 ) ) );
+
+    source.commitOffsets( Collections.singletonList(
+      source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ) ) );
+    verify( consumer, timeout( 5000 ) ).commitSync( first );
+    source.commitOffsets( Collections.singletonList(
+      source.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 7L, "k", "v" ) ) ) );
+
+    verify( consumer, timeout( 5000 ) ).commitSync( second );
+    verify( consumer, never() ).close();
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testCommitsOffsetsWithTheConsumerOfThePartition() throws Exception {
+    Consumer first = pollingConsumer( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) );
+    Consumer second = pollingConsumer( new ConsumerRecord<>( "pentaho", 1, 7L, "k", "v" ) );
+    KafkaConsumerInputData data = new KafkaConsumerInputData();
+    data.outputRowMeta = meta.getRowMeta( "kafka", new Variables() );
+    KafkaStreamSource multiSource = new KafkaStreamSource( Arrays.asList( first, second ), meta, data,
+      new Variables(), mock( KafkaConsumerInput.class ) );
+    multiSource.open();
+    try {
+      // a consumer owns a partition once a poll after the one returning its records started
+      verify( first, timeout( 5000 ).atLeast( 2 ) ).poll( anyLong() );
+      verify( second, timeout( 5000 ).atLeast( 2 ) ).poll( anyLong() );
+
+      multiSource.commitOffsets( Arrays.asList(
+        multiSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ),
+        multiSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 1, 7L, "k", "v" ) ) ) );
+
+      verify( first, timeout( 5000 ) ).commitSync(
+        Collections.singletonMap( new TopicPartition( "pentaho", 0 ), new OffsetAndMetadata( 6 ) ) );
+      verify( second, timeout( 5000 ) ).commitSync(
+        Collections.singletonMap( new TopicPartition( "pentaho", 1 ), new OffsetAndMetadata( 8 ) ) );
+    } finally {
+      multiSource.close();
+    }
+    verify( first, timeout( 5000 ) ).close();
+    verify( second, timeout( 5000 ) ).close();
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testAsyncCommitCoalescesOffsetsAndCommitsThemWhenPartitionsAreRevoked() throws Exception {
+    CountDownLatch pollReleased = new CountDownLatch( 1 );
+    Consumer asyncConsumer = mock( Consumer.class );
+    when( asyncConsumer.poll( anyLong() ) ).thenAnswer( invocation -> {
+      pollReleased.await();
+      return new ConsumerRecords<>( Collections.emptyMap() );
+    } );
+    KafkaStreamSource asyncSource = asyncSource( asyncConsumer );
+    asyncSource.subscribe( Collections.singleton( "pentaho" ) );
+    ArgumentCaptor<ConsumerRebalanceListener> listener = ArgumentCaptor.forClass( ConsumerRebalanceListener.class );
+    verify( asyncConsumer ).subscribe( eq( Collections.singleton( "pentaho" ) ), listener.capture() );
+    asyncSource.open();
+    try {
+      // the polling thread is waiting in poll, so the offsets stay pending
+      verify( asyncConsumer, timeout( 5000 ) ).poll( anyLong() );
+      listener.getValue().onPartitionsAssigned( Collections.singletonList( new TopicPartition( "pentaho", 0 ) ) );
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ) ) );
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 9L, "k", "v" ) ) ) );
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 7L, "k", "v" ) ) ) );
+
+      listener.getValue().onPartitionsRevoked( Collections.singletonList( new TopicPartition( "pentaho", 0 ) ) );
+
+      verify( asyncConsumer ).commitSync(
+        Collections.singletonMap( new TopicPartition( "pentaho", 0 ), new OffsetAndMetadata( 10 ) ) );
+    } finally {
+      asyncSource.close();
+      pollReleased.countDown();
+    }
+    verify( asyncConsumer, timeout( 5000 ) ).close();
+    verify( asyncConsumer, never() ).commitAsync( anyMap(), any( OffsetCommitCallback.class ) );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testAsyncCommitRetriesRetriableFailure() throws Exception {
+    Map<TopicPartition, OffsetAndMetadata> offsets =
+      Collections.singletonMap( new TopicPartition( "pentaho", 0 ), new OffsetAndMetadata( 6 ) );
+    AtomicBoolean failed = new AtomicBoolean( false );
+    Consumer asyncConsumer = mock( Consumer.class );
+    when( asyncConsumer.poll( anyLong() ) ).thenReturn( new ConsumerRecords<>( Collections.emptyMap() ) );
+    doAnswer( invocation -> {
+      Exception exception = failed.getAndSet( true ) ? null : new RetriableCommitFailedException( "retry" );
+      ( (OffsetCommitCallback) invocation.getArguments()[ 1 ] )
+        .onComplete( (Map<TopicPartition, OffsetAndMetadata>) invocation.getArguments()[ 0 ], exception );
+      return null;
+    } ).when( asyncConsumer ).commitAsync( anyMap(), any( OffsetCommitCallback.class ) );
+    KafkaStreamSource asyncSource = asyncSource( asyncConsumer );
+    subscribe( asyncSource, asyncConsumer ).onPartitionsAssigned(
+      Collections.singletonList( new TopicPartition( "pentaho", 0 ) ) );
+    asyncSource.open();
+    try {
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ) ) );
+
+      verify( asyncConsumer, timeout( 5000 ).times( 2 ) )
+        .commitAsync( eq( offsets ), any( OffsetCommitCallback.class ) );
+    } finally {
+      asyncSource.close();
+    }
+    verify( asyncConsumer, timeout( 5000 ) ).close();
+    verify( asyncConsumer, never() ).commitSync( anyMap() );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testAsyncCommitDoesNotRetryRevokedPartition() throws Exception {
+    TopicPartition partition = new TopicPartition( "pentaho", 0 );
+    AtomicReference<ConsumerRebalanceListener> listener = new AtomicReference<>();
+    Consumer asyncConsumer = mock( Consumer.class );
+    when( asyncConsumer.poll( anyLong() ) ).thenReturn( new ConsumerRecords<>( Collections.emptyMap() ) );
+    doAnswer( invocation -> {
+      // the partition is taken away while the commit is in flight
+      listener.get().onPartitionsRevoked( Collections.singletonList( partition ) );
+      ( (OffsetCommitCallback) invocation.getArguments()[ 1 ] ).onComplete(
+        (Map<TopicPartition, OffsetAndMetadata>) invocation.getArguments()[ 0 ],
+        new RetriableCommitFailedException( "retry" ) );
+      return null;
+    } ).when( asyncConsumer ).commitAsync( anyMap(), any( OffsetCommitCallback.class ) );
+    KafkaStreamSource asyncSource = asyncSource( asyncConsumer );
+    listener.set( subscribe( asyncSource, asyncConsumer ) );
+    listener.get().onPartitionsAssigned( Collections.singletonList( partition ) );
+    asyncSource.open();
+    try {
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ) ) );
+
+      verify( asyncConsumer, timeout( 5000 ) ).commitAsync( anyMap(), any( OffsetCommitCallback.class ) );
+      verify( asyncConsumer, timeout( 5000 ).atLeast( 3 ) ).poll( anyLong() );
+    } finally {
+      asyncSource.close();
+    }
+    verify( asyncConsumer, timeout( 5000 ) ).close();
+    verify( asyncConsumer ).commitAsync( anyMap(), any( OffsetCommitCallback.class ) );
+    verify( asyncConsumer, never() ).commitSync( anyMap() );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testAsyncCommitCommitsRetryQueuedByTheCommitOnClose() throws Exception {
+    TopicPartition first = new TopicPartition( "pentaho", 0 );
+    TopicPartition second = new TopicPartition( "pentaho", 1 );
+    CountDownLatch firstQueued = new CountDownLatch( 1 );
+    CountDownLatch closed = new CountDownLatch( 1 );
+    AtomicReference<Runnable> inFlight = new AtomicReference<>();
+    Consumer asyncConsumer = mock( Consumer.class );
+    when( asyncConsumer.poll( anyLong() ) ).thenAnswer( invocation -> {
+      firstQueued.await();
+      return new ConsumerRecords<>( Collections.emptyMap() );
+    } ).thenAnswer( invocation -> {
+      closed.await();
+      return new ConsumerRecords<>( Collections.emptyMap() );
+    } );
+    doAnswer( invocation -> {
+      OffsetCommitCallback callback = (OffsetCommitCallback) invocation.getArguments()[ 1 ];
+      Map<TopicPartition, OffsetAndMetadata> offsets =
+        (Map<TopicPartition, OffsetAndMetadata>) invocation.getArguments()[ 0 ];
+      inFlight.set( () -> callback.onComplete( offsets, new RetriableCommitFailedException( "retry" ) ) );
+      return null;
+    } ).when( asyncConsumer ).commitAsync( anyMap(), any( OffsetCommitCallback.class ) );
+    // the sync commit on close completes the asynchronous commit still in flight
+    doAnswer( invocation -> {
+      inFlight.getAndSet( () -> { } ).run();
+      return null;
+    } ).when( asyncConsumer ).commitSync( anyMap() );
+    KafkaStreamSource asyncSource = asyncSource( asyncConsumer );
+    subscribe( asyncSource, asyncConsumer ).onPartitionsAssigned( Arrays.asList( first, second ) );
+    asyncSource.open();
+    try {
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 0, 5L, "k", "v" ) ) ) );
+      firstQueued.countDown();
+      verify( asyncConsumer, timeout( 5000 ) ).commitAsync(
+        eq( Collections.singletonMap( first, new OffsetAndMetadata( 6 ) ) ), any( OffsetCommitCallback.class ) );
+      asyncSource.commitOffsets( Collections.singletonList(
+        asyncSource.processMessageAsRow( new ConsumerRecord<>( "pentaho", 1, 3L, "k", "v" ) ) ) );
+    } finally {
+      asyncSource.close();
+      closed.countDown();
+    }
+    verify( asyncConsumer, timeout( 5000 ) ).close();
+    verify( asyncConsumer ).commitSync( Collections.singletonMap( second, new OffsetAndMetadata( 4 ) ) );
+    verify( asyncConsumer ).commitSync( Collections.singletonMap( first, new OffsetAndMetadata( 6 ) ) );
+  }
+
+  private KafkaStreamSource asyncSource( Consumer asyncConsumer ) throws Exception {
+    KafkaConsumerInputMeta asyncMeta = new KafkaConsumerInputMeta();
+    asyncMeta.setAutoCommit( false );
+    asyncMeta.setAsyncCommit( true );
+    KafkaConsumerInputData data = new KafkaConsumerInputData();
+    data.outputRowMeta = asyncMeta.getRowMeta( "kafka", new Variables() );
+    return new KafkaStreamSource( asyncConsumer, asyncMeta, data, new Variables(), mock( KafkaConsumerInput.class ) );
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private ConsumerRebalanceListener subscribe( KafkaStreamSource streamSource, Consumer subscribed ) {
+    streamSource.subscribe( Collections.singleton( "pentaho" ) );
+    ArgumentCaptor<ConsumerRebalanceListener> listener = ArgumentCaptor.forClass( ConsumerRebalanceListener.class );
+    verify( subscribed ).subscribe( eq( Collections.singleton( "pentaho" ) ), listener.capture() );
+    return listener.getValue();
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private Consumer pollingConsumer( ConsumerRecord<String, String> record ) {
+    Consumer polling = mock( Consumer.class );
+    TopicPartition partition = new TopicPartition( record.topic(), record.partition() );
+    when( polling.poll( anyLong() ) )
+      .thenReturn( new ConsumerRecords<>( Collections.singletonMap( partition, Collections.singletonList( record ) ) ) )
+      .thenReturn( new ConsumerRecords<>( Collections.emptyMap() ) );
+    return polling;
+  }
+}
@@ -17,9 +17,9 @@
 
 package org.pentaho.s3.vfs;
 
-import com.amazonaws.SdkClientException;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -28,6 +28,7 @@ import com.amazonaws.services.s3.model.S3Object;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.provider.AbstractFileName;
+import org.pentaho.s3common.S3CommonChildIterator;
 import org.pentaho.s3common.S3CommonFileObject;
 import org.pentaho.s3common.S3CommonPipedOutputStream;
 import org.slf4j.Logger;
@@ -70,6 +71,12 @@ public class S3FileObject extends S3CommonFileObject {
     return super.getS3ObjectsFromVirtualFolder( newPath.getKey(), newPath.getValue() );
   }
 
+  @Override
+  protected S3CommonChildIterator createChildIterator( String key, String bucket ) {
+    SimpleEntry<String, String> newPath = fixFilePath( key, bucket );
+    return super.createChildIterator( newPath.getKey(), newPath.getValue() );
+  }
+
   @Override
   protected S3Object getS3Object( String key, String bucket ) {
     if ( s3Object != null && s3Object.getObjectContent() != null ) {
@@ -82,16 +89,6 @@ public class S3FileObject extends S3CommonFileObject {
     }
   }
 
-  private boolean bucketExists( String bucket ) {
-    boolean bucketExists = false;
-    try {
-      bucketExists = fileSystem.getS3Client().doesBucketExistV2( bucket );
-    } catch ( SdkClientException e ) {
-      logger.debug( "Exception checking if bucket exists", e );
-    }
-    return bucketExists;
-  }
-
   @Override
   protected boolean isRootBucket() {
     SimpleEntry<String, String> newPath = fixFilePath( key, bucketName );
@@ -106,11 +103,24 @@ public class S3FileObject extends S3CommonFileObject {
     doDelete( newPath.getKey(), newPath.getValue() );
   }
 
+  @Override
+  protected int deleteFolderContents() throws FileSystemException {
+    SimpleEntry<String, String> newPath = fixFilePath( key, bucketName );
+    return deleteFolderContents( newPath.getKey(), newPath.getValue() );
+  }
+
+  @Override
+  protected int copyFolderContents( S3CommonFileObject dest ) throws FileSystemException {
+    SimpleEntry<String, String> newPath = fixFilePath( key, bucketName );
+    return copyFolderContents( newPath.getKey(), newPath.getValue(), dest );
+  }
+
   @Override
   protected OutputStream doGetOutputStream( boolean bAppend ) throws Exception {
     SimpleEntry<String, String> newPath = fixFilePath( key, bucketName );
+    S3FileSystem s3FileSystem = (S3FileSystem) this.fileSystem;
     return new S3CommonPipedOutputStream( this.fileSystem, newPath.getValue(), newPath.getKey(),
-            ( (S3FileSystem) this.fileSystem ).getPartSize() );
+            s3FileSystem.getPartSize(), s3FileSystem.getUploadConcurrency() );
   }
 
   @Override
@@ -119,6 +129,12 @@ public class S3FileObject extends S3CommonFileObject {
     return new PutObjectRequest( newPath.getValue(), newPath.getKey(), inputStream, objectMetadata );
   }
 
+  @Override
+  protected GetObjectRequest createGetObjectRequest( String bucketName, String key ) {
+    SimpleEntry<String, String> newPath = fixFilePath( key, bucketName );
+    return new GetObjectRequest( newPath.getValue(), newPath.getKey() );
+  }
+
   @Override
   protected CopyObjectRequest createCopyObjectRequest( String sourceBucket, String sourceKey, String destBucket, String destKey ) {
     SimpleEntry<String, String> sourcePath = fixFilePath( sourceKey, sourceBucket );
@@ -163,7 +179,7 @@ public class S3FileObject extends S3CommonFileObject {
     String newKey = key;
 
     //see if the folder exists; if not, it might be from an old path and the real bucket is in the key
-    if ( !bucketExists( bucket ) ) {
+    if ( !fileSystem.bucketExists( bucket ) ) {
       logger.debug( "Bucket {} from original path not found, might be an old path from the old driver", bucket );
       if ( key.split( DELIMITER ).length > 1 ) {
         newBucket = key.split( DELIMITER )[0];
@@ -21,6 +21,7 @@ import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.provider.AbstractFileName;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.logging.LogChannel;
 import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.util.StorageUnitConverter;
@@ -46,6 +47,10 @@ public class S3FileSystem extends S3CommonFileSystem {
    * see https://docs.aws.amazon.com/AmazonS3/latest/dev/qfacts.html
    */
   private static final String MAX_PART_SIZE = "5GB";
+  /**
+   * Parts uploaded at the same time when {@code s3.vfs.uploadConcurrency} is not set
+   */
+  private static final int DEFAULT_UPLOAD_CONCURRENCY = 1;
 
   protected S3FileSystem( final FileName rootName, final FileSystemOptions fileSystemOptions ) {
     this( rootName, fileSystemOptions, new StorageUnitConverter(), new S3KettleProperty() );
@@ -62,11 +67,27 @@ public class S3FileSystem extends S3CommonFileSystem {
     return new S3FileObject( name, this );
   }
 
+  @Override
+  protected S3KettleProperty getS3KettleProperty() {
+    return s3KettleProperty;
+  }
+
   public int getPartSize() {
     long parsedPartSize = parsePartSize( s3KettleProperty.getPartSize() );
     return convertToInt( parsedPartSize );
   }
 
+  public int getUploadConcurrency() {
+    String uploadConcurrencyString = s3KettleProperty.getUploadConcurrency();
+    int uploadConcurrency = Const.toInt( uploadConcurrencyString, DEFAULT_UPLOAD_CONCURRENCY );
+    if ( uploadConcurrency < 1 ) {
+      consoleLog.logBasic( BaseMessages.getString( PKG, "WARN.S3MultiPart.DefaultUploadConcurrency",
+        uploadConcurrencyString, DEFAULT_UPLOAD_CONCURRENCY ) );
+      uploadConcurrency = DEFAULT_UPLOAD_CONCURRENCY;
+    }
+    return uploadConcurrency;
+  }
+
   protected long parsePartSize( String partSizeString ) {
     long parsePartSize = convertToLong( partSizeString );
     if ( parsePartSize < convertToLong( MIN_PART_SIZE ) ) {
@@ -0,0 +1,103 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Remembers for {@code ttlMs} whether buckets exist, so resolving a path doesn't cost a HEAD bucket request every time.
+ * Lookups that fail are not cached. A TTL of 0 disables the cache.
+ */
+public class S3CommonBucketCache {
+
+  private static class Entry {
+    private final boolean exists;
+    private final long expires;
+
+    Entry( boolean exists, long expires ) {
+      this.exists = exists;
+      this.expires = expires;
+    }
+  }
+
+  private final Map<String, Entry> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private volatile long ttlMs;
+
+  public S3CommonBucketCache( long ttlMs ) {
+    setTtlMs( ttlMs );
+  }
+
+  /**
+   * @param bucket the bucket name
+   * @param lookup asks S3 whether the bucket exists, called when the bucket isn't cached or its entry has expired
+   * @return whether the bucket exists
+   */
+  public boolean exists( String bucket, Predicate<String> lookup ) {
+    Entry entry = buckets.get( bucket );
+    if ( entry != null && System.currentTimeMillis() < entry.expires ) {
+      hits.incrementAndGet();
+      return entry.exists;
+    }
+    misses.incrementAndGet();
+    boolean exists = lookup.test( bucket );
+    put( bucket, exists );
+    return exists;
+  }
+
+  /**
+   * Records the existence of a bucket learned from another request.
+   */
+  public void put( String bucket, boolean exists ) {
+    long ttl = ttlMs;
+    if ( ttl > 0 ) {
+      buckets.put( bucket, new Entry( exists, System.currentTimeMillis() + ttl ) );
+    }
+  }
+
+  public void invalidate( String bucket ) {
+    buckets.remove( bucket );
+  }
+
+  public void clear() {
+    buckets.clear();
+  }
+
+  public long getTtlMs() {
+    return ttlMs;
+  }
+
+  public void setTtlMs( long ttlMs ) {
+    this.ttlMs = Math.max( 0, ttlMs );
+    if ( this.ttlMs == 0 ) {
+      clear();
+    }
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+}
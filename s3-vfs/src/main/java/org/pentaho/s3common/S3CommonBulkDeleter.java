@@ -0,0 +1,181 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes the keys of one bucket through multi-object DeleteObjects requests of up to {@link #MAX_KEYS_PER_REQUEST}
+ * keys, running up to {@code concurrency} requests at a time. Keys are added as they are listed; adding blocks while
+ * every request slot is busy, so the pending keys stay bounded. Keys S3 refuses to delete are collected per key rather
+ * than failing the whole delete.
+ */
+public class S3CommonBulkDeleter {
+
+  /**
+   * The most keys S3 accepts in one DeleteObjects request
+   */
+  public static final int MAX_KEYS_PER_REQUEST = 1000;
+
+  private final AmazonS3 client;
+  private final String bucketName;
+  private final int batchSize;
+  private final int concurrency;
+  private final List<DeleteError> failures = Collections.synchronizedList( new ArrayList<>() );
+  private final Deque<Future<Integer>> pendingRequests = new ArrayDeque<>();
+  private List<String> batch;
+  private ExecutorService executor;
+  private int deleted = 0;
+
+  public S3CommonBulkDeleter( AmazonS3 client, String bucketName, int concurrency ) {
+    this( client, bucketName, concurrency, MAX_KEYS_PER_REQUEST );
+  }
+
+  S3CommonBulkDeleter( AmazonS3 client, String bucketName, int concurrency, int batchSize ) {
+    this.client = client;
+    this.bucketName = bucketName;
+    this.concurrency = Math.max( 1, concurrency );
+    this.batchSize = Math.max( 1, Math.min( MAX_KEYS_PER_REQUEST, batchSize ) );
+    this.batch = new ArrayList<>( this.batchSize );
+  }
+
+  public void add( String key ) throws IOException {
+    batch.add( key );
+    if ( batch.size() >= batchSize ) {
+      submitBatch();
+    }
+  }
+
+  /**
+   * Sends the remaining keys and waits for every request to complete.
+   *
+   * @return the number of keys deleted
+   */
+  public int finish() throws IOException {
+    try {
+      if ( !batch.isEmpty() ) {
+        submitBatch();
+      }
+      while ( !pendingRequests.isEmpty() ) {
+        awaitOldest();
+      }
+      return deleted;
+    } finally {
+      if ( executor != null ) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Cancels the requests that haven't completed yet.
+   */
+  public void abort() {
+    for ( Future<Integer> request : pendingRequests ) {
+      request.cancel( true );
+    }
+    pendingRequests.clear();
+    if ( executor != null ) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return the keys that could not be deleted with the error S3 returned for each
+   */
+  public List<DeleteError> getFailures() {
+    synchronized ( failures ) {
+      return new ArrayList<>( failures );
+    }
+  }
+
+  /**
+   * @return an exception describing the failed keys, or null if every key was deleted
+   */
+  public IOException getFailure() {
+    List<DeleteError> errors = getFailures();
+    if ( errors.isEmpty() ) {
+      return null;
+    }
+    return new IOException( errors.size() + " keys of bucket " + bucketName + " could not be deleted: "
+      + errors.stream().limit( 10 ).map( error -> error.getKey() + " (" + error.getCode() + ")" )
+      .collect( Collectors.joining( ", " ) ) + ( errors.size() > 10 ? ", ..." : "" ) );
+  }
+
+  private void submitBatch() throws IOException {
+    if ( executor == null ) {
+      executor = Executors.newFixedThreadPool( concurrency );
+    }
+    while ( pendingRequests.size() >= concurrency ) {
+      awaitOldest();
+    }
+    List<String> keys = batch;
+    batch = new ArrayList<>( batchSize );
+    pendingRequests.add( executor.submit( () -> deleteKeys( keys ) ) );
+  }
+
+  private void awaitOldest() throws IOException {
+    try {
+      deleted += pendingRequests.poll().get();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while deleting from bucket " + bucketName );
+    } catch ( ExecutionException e ) {
+      throw new IOException( e.getCause().getMessage(), e.getCause() );
+    }
+  }
+
+  private int deleteKeys( List<String> keys ) {
+    DeleteObjectsRequest request = new DeleteObjectsRequest( bucketName )
+      .withKeys( keys.toArray( new String[ 0 ] ) )
+      .withQuiet( true );
+    try {
+      client.deleteObjects( request );
+      return keys.size();
+    } catch ( MultiObjectDeleteException e ) {
+      failures.addAll( e.getErrors() );
+      return keys.size() - e.getErrors().size();
+    } catch ( SdkClientException e ) {
+      for ( String key : keys ) {
+        DeleteError error = new DeleteError();
+        error.setKey( key );
+        error.setCode( e.getClass().getSimpleName() );
+        error.setMessage( e.getMessage() );
+        failures.add( error );
+      }
+      return 0;
+    }
+  }
+}
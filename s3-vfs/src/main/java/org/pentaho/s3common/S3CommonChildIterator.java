@@ -0,0 +1,158 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.Bucket;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.pentaho.s3common.S3CommonFileObject.DELIMITER;
+
+/**
+ * Iterates over the children of an S3 folder (or over the buckets, for the root) one listing page at a time. The next
+ * page is only requested once the current one has been consumed, so at most one page (1000 keys) is held in memory
+ * however wide the prefix is. Each file child carries the size, last modified time and ETag from the listing.
+ */
+public class S3CommonChildIterator implements Iterator<S3CommonChildIterator.Child> {
+
+  /**
+   * A child as returned by the listing.
+   */
+  public static class Child {
+    private final String name;
+    private final S3ObjectSummary summary;
+
+    Child( String name, S3ObjectSummary summary ) {
+      this.name = name;
+      this.summary = summary;
+    }
+
+    /**
+     * @return the name relative to the listed folder, folders end with the delimiter
+     */
+    public String getName() {
+      return name;
+    }
+
+    public boolean isFolder() {
+      return summary == null;
+    }
+
+    /**
+     * @return the listing entry of a file child, null for folders
+     */
+    public S3ObjectSummary getSummary() {
+      return summary;
+    }
+
+    /**
+     * @return the metadata the listing returned for a file child, null for folders
+     */
+    public ObjectMetadata getMetadata() {
+      if ( summary == null ) {
+        return null;
+      }
+      ObjectMetadata metadata = new ObjectMetadata();
+      metadata.setContentLength( summary.getSize() );
+      metadata.setLastModified( summary.getLastModified() );
+      if ( summary.getETag() != null ) {
+        metadata.setHeader( Headers.ETAG, summary.getETag() );
+      }
+      return metadata;
+    }
+  }
+
+  private final AmazonS3 client;
+  private final String prefix;
+  private final String folderKey;
+  private ObjectListing page;
+  private Iterator<S3ObjectSummary> summaries = Collections.emptyIterator();
+  private Iterator<String> commonPrefixes = Collections.emptyIterator();
+  private Iterator<Bucket> buckets = Collections.emptyIterator();
+  private Child next;
+
+  /**
+   * @param client     the client used for the listing requests
+   * @param bucketName the bucket to list, empty (with an empty key) to list the buckets
+   * @param key        the key of the folder to list
+   */
+  public S3CommonChildIterator( AmazonS3 client, String bucketName, String key ) {
+    this.client = client;
+    this.prefix = key.isEmpty() || key.endsWith( DELIMITER ) ? key : key + DELIMITER;
+    // the folder's own marker object isn't one of its children
+    this.folderKey = key.endsWith( DELIMITER ) ? key : key + DELIMITER;
+
+    if ( "".equals( key ) && "".equals( bucketName ) ) {
+      buckets = client.listBuckets().iterator();
+    } else {
+      loadPage( client.listObjects( new ListObjectsRequest()
+        .withBucketName( bucketName )
+        .withPrefix( prefix )
+        .withDelimiter( DELIMITER ) ) );
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while ( next == null ) {
+      if ( buckets.hasNext() ) {
+        next = new Child( buckets.next().getName() + DELIMITER, null );
+      } else if ( summaries.hasNext() ) {
+        S3ObjectSummary summary = summaries.next();
+        if ( !summary.getKey().equals( folderKey ) ) {
+          next = new Child( summary.getKey().substring( prefix.length() ), summary );
+        }
+      } else if ( commonPrefixes.hasNext() ) {
+        String commonPrefix = commonPrefixes.next();
+        if ( !commonPrefix.equals( folderKey ) ) {
+          next = new Child( commonPrefix.substring( prefix.length() ), null );
+        }
+      } else if ( page != null && page.isTruncated() ) {
+        loadPage( client.listNextBatchOfObjects( page ) );
+      } else {
+        page = null;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Child next() {
+    if ( !hasNext() ) {
+      throw new NoSuchElementException();
+    }
+    Child child = next;
+    next = null;
+    return child;
+  }
+
+  private void loadPage( ObjectListing listing ) {
+    page = listing;
+    summaries = listing.getObjectSummaries().iterator();
+    commonPrefixes = listing.getCommonPrefixes().iterator();
+  }
+}
@@ -0,0 +1,226 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Copies objects server side. Objects up to {@code partSize} are copied with a single CopyObject request, larger ones
+ * (and anything above the 5GB single copy limit) with a multipart upload whose UploadPartCopy requests run in parallel.
+ * Several objects can be copied at the same time with {@link #submit(CopyObjectRequest, long)} and
+ * {@link #finish()}; submitting blocks while {@code concurrency} copies are running.
+ */
+public class S3CommonCopier implements Closeable {
+
+  /**
+   * The most bytes S3 copies in a single CopyObject or UploadPartCopy request
+   */
+  public static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+  /**
+   * The smallest part S3 accepts, except for the last one
+   */
+  public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+  public static final int MAX_PARTS = 10000;
+
+  private final AmazonS3 client;
+  private final long partSize;
+  private final int concurrency;
+  private final Deque<Future<?>> pendingCopies = new ArrayDeque<>();
+  private ExecutorService copyExecutor;
+  private ExecutorService partExecutor;
+
+  /**
+   * @param client      the client sending the copy requests
+   * @param partSize    the size of the parts of a multipart copy, objects up to this size are copied in one request
+   * @param concurrency the number of objects, and of parts of each object, copied at the same time
+   */
+  public S3CommonCopier( AmazonS3 client, long partSize, int concurrency ) {
+    this.client = client;
+    this.partSize = Math.max( MIN_PART_SIZE, Math.min( MAX_COPY_SIZE, partSize ) );
+    this.concurrency = Math.max( 1, concurrency );
+  }
+
+  /**
+   * Copies one object and waits for the copy to complete.
+   *
+   * @param request       the source and destination of the copy
+   * @param contentLength the size of the source object
+   */
+  public void copy( CopyObjectRequest request, long contentLength ) throws IOException {
+    try {
+      if ( contentLength <= partSize ) {
+        client.copyObject( request );
+      } else {
+        copyMultipart( request, contentLength );
+      }
+    } catch ( SdkClientException e ) {
+      throw new IOException( "Could not copy " + request.getSourceBucketName() + "/" + request.getSourceKey()
+        + " to " + request.getDestinationBucketName() + "/" + request.getDestinationKey(), e );
+    }
+  }
+
+  /**
+   * Starts copying one object alongside the ones already submitted, the first failure is reported by the next call to
+   * this method or to {@link #finish()}.
+   */
+  public void submit( CopyObjectRequest request, long contentLength ) throws IOException {
+    if ( copyExecutor == null ) {
+      copyExecutor = Executors.newFixedThreadPool( concurrency );
+    }
+    while ( pendingCopies.size() >= concurrency ) {
+      await( pendingCopies.poll() );
+    }
+    pendingCopies.add( copyExecutor.submit( () -> {
+      copy( request, contentLength );
+      return null;
+    } ) );
+  }
+
+  /**
+   * Waits for every submitted copy to complete.
+   */
+  public void finish() throws IOException {
+    while ( !pendingCopies.isEmpty() ) {
+      await( pendingCopies.poll() );
+    }
+  }
+
+  /**
+   * Cancels the copies still running and releases the threads.
+   */
+  @Override
+  public void close() {
+    for ( Future<?> copy : pendingCopies ) {
+      copy.cancel( true );
+    }
+    pendingCopies.clear();
+    if ( copyExecutor != null ) {
+      copyExecutor.shutdownNow();
+    }
+    if ( partExecutor != null ) {
+      partExecutor.shutdownNow();
+    }
+  }
+
+  long getPartSize( long contentLength ) {
+    // S3 allows up to 10000 parts, larger objects need larger parts
+    return Math.max( partSize, ( contentLength + MAX_PARTS - 1 ) / MAX_PARTS );
+  }
+
+  private void copyMultipart( CopyObjectRequest request, long contentLength ) throws IOException {
+    String destBucket = request.getDestinationBucketName();
+    String destKey = request.getDestinationKey();
+    ObjectMetadata sourceMetadata =
+      client.getObjectMetadata( request.getSourceBucketName(), request.getSourceKey() );
+    ObjectMetadata metadata = new ObjectMetadata();
+    if ( sourceMetadata.getContentType() != null ) {
+      metadata.setContentType( sourceMetadata.getContentType() );
+    }
+    metadata.setUserMetadata( sourceMetadata.getUserMetadata() );
+    String uploadId = client.initiateMultipartUpload(
+      new InitiateMultipartUploadRequest( destBucket, destKey, metadata ) ).getUploadId();
+
+    List<Future<PartETag>> parts = new ArrayList<>();
+    try {
+      long size = getPartSize( contentLength );
+      int partNumber = 1;
+      for ( long offset = 0; offset < contentLength; offset += size, partNumber++ ) {
+        CopyPartRequest partRequest = new CopyPartRequest()
+          .withSourceBucketName( request.getSourceBucketName() )
+          .withSourceKey( request.getSourceKey() )
+          .withDestinationBucketName( destBucket )
+          .withDestinationKey( destKey )
+          .withUploadId( uploadId )
+          .withPartNumber( partNumber )
+          .withFirstByte( offset )
+          .withLastByte( Math.min( offset + size, contentLength ) - 1 );
+        if ( sourceMetadata.getETag() != null ) {
+          // every part has to come from the same version of the source
+          partRequest.withMatchingETagConstraint( sourceMetadata.getETag() );
+        }
+        parts.add( getPartExecutor().submit( () -> copyPart( partRequest ) ) );
+      }
+      List<PartETag> partETags = new ArrayList<>( parts.size() );
+      for ( Future<PartETag> part : parts ) {
+        partETags.add( await( part ) );
+      }
+      client.completeMultipartUpload( new CompleteMultipartUploadRequest( destBucket, destKey, uploadId, partETags ) );
+    } catch ( IOException | SdkClientException e ) {
+      for ( Future<PartETag> part : parts ) {
+        part.cancel( true );
+      }
+      try {
+        client.abortMultipartUpload( new AbortMultipartUploadRequest( destBucket, destKey, uploadId ) );
+      } catch ( SdkClientException abortException ) {
+        e.addSuppressed( abortException );
+      }
+      throw e;
+    }
+  }
+
+  private PartETag copyPart( CopyPartRequest partRequest ) throws IOException {
+    CopyPartResult result = client.copyPart( partRequest );
+    if ( result == null ) {
+      throw new IOException( partRequest.getSourceBucketName() + "/" + partRequest.getSourceKey()
+        + " changed while it was being copied" );
+    }
+    return result.getPartETag();
+  }
+
+  private synchronized ExecutorService getPartExecutor() {
+    if ( partExecutor == null ) {
+      partExecutor = Executors.newFixedThreadPool( concurrency );
+    }
+    return partExecutor;
+  }
+
+  private static <T> T await( Future<T> future ) throws IOException {
+    try {
+      return future.get();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while copying" );
+    } catch ( ExecutionException e ) {
+      if ( e.getCause() instanceof IOException ) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException( e.getCause().getMessage(), e.getCause() );
+    }
+  }
+}
@@ -17,9 +17,10 @@
 
 package org.pentaho.s3common;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
-import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -27,9 +28,14 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSelector;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.FilesCache;
+import org.apache.commons.vfs2.NameScope;
+import org.apache.commons.vfs2.Selectors;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileObject;
 import org.slf4j.Logger;
@@ -40,7 +46,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public abstract class S3CommonFileObject extends AbstractFileObject {
 
@@ -52,6 +61,7 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
   protected String key;
   protected S3Object s3Object;
   protected ObjectMetadata s3ObjectMetadata;
+  private S3CommonChildIterator.Child listing;
 
   protected S3CommonFileObject( final AbstractFileName name, final S3CommonFileSystem fileSystem ) {
     super( name, fileSystem );
@@ -69,6 +79,16 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
   protected InputStream doGetInputStream() throws Exception {
     logger.debug( "Accessing content {}", getQualifiedName() );
     closeS3Object();
+    int readBlockSize = fileSystem.getReadBlockSize();
+    if ( s3ObjectMetadata != null && s3ObjectMetadata.getContentLength() > readBlockSize ) {
+      // large objects are read through parallel ranged requests, pinned to the version that was attached
+      GetObjectRequest getObjectRequest = createGetObjectRequest( bucketName, key );
+      if ( s3ObjectMetadata.getETag() != null ) {
+        getObjectRequest.withMatchingETagConstraint( s3ObjectMetadata.getETag() );
+      }
+      return new S3CommonRangedInputStream( fileSystem.getS3Client(), getObjectRequest,
+        s3ObjectMetadata.getContentLength(), readBlockSize, fileSystem.getReadAhead() );
+    }
     S3Object streamS3Object = getS3Object();
     return new S3CommonFileInputStream( streamS3Object.getObjectContent(), streamS3Object );
   }
@@ -78,6 +98,20 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
     return getType();
   }
 
+  @Override
+  protected FileObject[] doListChildrenResolved() throws Exception {
+    List<FileObject> children = new ArrayList<>();
+
+    // only listing folders or the root bucket
+    if ( getType() == FileType.FOLDER || isRootBucket() ) {
+      S3CommonChildIterator childIterator = listChildren();
+      while ( childIterator.hasNext() ) {
+        children.add( resolveChild( childIterator.next() ) );
+      }
+    }
+    return children.toArray( new FileObject[ 0 ] );
+  }
+
   @Override
   protected String[] doListChildren() throws Exception {
     List<String> childrenList = new ArrayList<>();
@@ -105,56 +139,38 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
 
   protected List<String> getS3ObjectsFromVirtualFolder( String key, String bucketName ) {
     List<String> childrenList = new ArrayList<>();
-
-    // fix cases where the path doesn't include the final delimiter
-    String realKey = key;
-    if ( !realKey.endsWith( DELIMITER ) ) {
-      realKey += DELIMITER;
-    }
-
-    if ( "".equals( key ) && "".equals( bucketName ) ) {
-      //Getting buckets in root folder
-      List<Bucket> bucketList = fileSystem.getS3Client().listBuckets();
-      for ( Bucket bucket : bucketList ) {
-        childrenList.add( bucket.getName() + DELIMITER );
-      }
-    } else {
-      getObjectsFromNonRootFolder( key, bucketName, childrenList, realKey );
+    S3CommonChildIterator children = new S3CommonChildIterator( fileSystem.getS3Client(), bucketName, key );
+    while ( children.hasNext() ) {
+      childrenList.add( children.next().getName() );
     }
     return childrenList;
   }
 
-  private void getObjectsFromNonRootFolder( String key, String bucketName, List<String> childrenList, String realKey ) {
-    //Getting files/folders in a folder/bucket
-    String prefix = key.isEmpty() || key.endsWith( DELIMITER ) ? key : key + DELIMITER;
-    ListObjectsRequest listObjectsRequest = new ListObjectsRequest()
-      .withBucketName( bucketName )
-      .withPrefix( prefix )
-      .withDelimiter( DELIMITER );
-
-    ObjectListing ol = fileSystem.getS3Client().listObjects( listObjectsRequest );
-
-    ArrayList<S3ObjectSummary> allSummaries = new ArrayList<>( ol.getObjectSummaries() );
-    ArrayList<String> allCommonPrefixes = new ArrayList<>( ol.getCommonPrefixes() );
-
-    // get full list
-    while ( ol.isTruncated() ) {
-      ol = fileSystem.getS3Client().listNextBatchOfObjects( ol );
-      allSummaries.addAll( ol.getObjectSummaries() );
-      allCommonPrefixes.addAll( ol.getCommonPrefixes() );
-    }
+  /**
+   * Lists the children of this folder lazily, one listing page at a time, so callers walking wide prefixes keep a
+   * bounded amount of memory. Use {@link #resolveChild(S3CommonChildIterator.Child)} to get the file object of a
+   * child without another request for its metadata.
+   */
+  public S3CommonChildIterator listChildren() {
+    return createChildIterator( key, bucketName );
+  }
 
-    for ( S3ObjectSummary s3os : allSummaries ) {
-      if ( !s3os.getKey().equals( realKey ) ) {
-        childrenList.add( s3os.getKey().substring( prefix.length() ) );
-      }
-    }
+  protected S3CommonChildIterator createChildIterator( String key, String bucketName ) {
+    return new S3CommonChildIterator( fileSystem.getS3Client(), bucketName, key );
+  }
 
-    for ( String commonPrefix : allCommonPrefixes ) {
-      if ( !commonPrefix.equals( realKey ) ) {
-        childrenList.add( commonPrefix.substring( prefix.length() ) );
-      }
+  /**
+   * Resolves a listed child, handing it the type and metadata from the listing so attaching it doesn't go back to S3.
+   */
+  public FileObject resolveChild( S3CommonChildIterator.Child child ) throws FileSystemException {
+    // resolved the same way AbstractFileObject resolves the names returned by doListChildren
+    FileName childName = getFileSystem().getFileSystemManager()
+      .resolveName( getName(), "./" + child.getName(), NameScope.CHILD );
+    FileObject childObject = getFileSystem().resolveFile( childName );
+    if ( childObject instanceof S3CommonFileObject ) {
+      ( (S3CommonFileObject) childObject ).setListing( child );
     }
+    return childObject;
   }
 
   protected String getBucketRelativeS3Path() {
@@ -194,6 +210,13 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
       injectType( FileType.FOLDER );
       return;
     }
+    S3CommonChildIterator.Child listed = takeListing();
+    if ( listed != null ) {
+      // the parent's listing already told what this is
+      s3ObjectMetadata = listed.getMetadata();
+      injectType( listed.isFolder() ? FileType.FOLDER : FileType.FILE );
+      return;
+    }
     try {
       // 1. Is it an existing file?
       s3ObjectMetadata = fileSystem.getS3Client().getObjectMetadata( bucketName, key );
@@ -268,6 +291,17 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
   public void doDetach() throws Exception {
     logger.debug( "detaching {}", getQualifiedName() );
     closeS3Object();
+    takeListing();
+  }
+
+  private synchronized void setListing( S3CommonChildIterator.Child listing ) {
+    this.listing = listing;
+  }
+
+  private synchronized S3CommonChildIterator.Child takeListing() {
+    S3CommonChildIterator.Child listed = listing;
+    listing = null;
+    return listed;
   }
 
   @Override
@@ -276,25 +310,92 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
   }
 
   protected void doDelete( String key, String bucketName ) throws FileSystemException {
-    // can only delete folder if empty
+    // a folder is deleted along with everything under its prefix
     if ( getType() == FileType.FOLDER ) {
+      deleteFolderContents( key, bucketName );
+    }
+    fileSystem.getS3Client().deleteObject( bucketName, key );
+    if ( key.isEmpty() ) {
+      fileSystem.getBucketCache().invalidate( bucketName );
+    }
+  }
 
-      // list all children inside the folder
-      ObjectListing ol = fileSystem.getS3Client().listObjects( bucketName, key );
-      ArrayList<S3ObjectSummary> allSummaries = new ArrayList<>( ol.getObjectSummaries() );
+  /**
+   * Deletes every object under the folder's prefix through batched DeleteObjects requests, listing the next page of
+   * keys while the previous batches are being deleted.
+   *
+   * @return the number of objects deleted
+   * @throws FileSystemException if listing failed or some of the keys could not be deleted
+   */
+  protected int deleteFolderContents() throws FileSystemException {
+    return deleteFolderContents( this.key, this.bucketName );
+  }
 
-      // get full list
-      while ( ol.isTruncated() ) {
-        ol = fileSystem.getS3Client().listNextBatchOfObjects( ol );
-        allSummaries.addAll( ol.getObjectSummaries() );
-      }
+  protected int deleteFolderContents( String key, String bucketName ) throws FileSystemException {
+    return deleteFolderContents( key, bucketName, new ArrayList<>() );
+  }
 
-      for ( S3ObjectSummary s3os : allSummaries ) {
-        fileSystem.getS3Client().deleteObject( bucketName, s3os.getKey() );
+  /**
+   * @param deletedPaths receives the listed keys relative to the folder's prefix
+   */
+  protected int deleteFolderContents( String key, String bucketName, Collection<String> deletedPaths )
+    throws FileSystemException {
+    // only what is inside the folder, not the siblings sharing its name as a prefix
+    String prefix = folderPrefix( key );
+    S3CommonBulkDeleter deleter =
+      new S3CommonBulkDeleter( fileSystem.getS3Client(), bucketName, fileSystem.getDeleteConcurrency() );
+    int deleted;
+    try {
+      ObjectListing ol = fileSystem.getS3Client().listObjects( bucketName, prefix );
+      while ( true ) {
+        for ( S3ObjectSummary s3os : ol.getObjectSummaries() ) {
+          deleter.add( s3os.getKey() );
+          deletedPaths.add( s3os.getKey().substring( prefix.length() ) );
+        }
+        if ( !ol.isTruncated() ) {
+          break;
+        }
+        ol = fileSystem.getS3Client().listNextBatchOfObjects( ol );
       }
+    } catch ( IOException | AmazonClientException e ) {
+      deleter.abort();
+      throw new FileSystemException( "vfs.provider/delete.error", getQualifiedName(), e );
+    }
+    try {
+      deleted = deleter.finish();
+    } catch ( IOException e ) {
+      throw new FileSystemException( "vfs.provider/delete.error", getQualifiedName(), e );
     }
+    IOException failure = deleter.getFailure();
+    if ( failure != null ) {
+      deleter.getFailures().forEach( error ->
+        logger.error( "Could not delete {}: {} {}", error.getKey(), error.getCode(), error.getMessage() ) );
+      throw new FileSystemException( "vfs.provider/delete.error", getQualifiedName(), failure );
+    }
+    return deleted;
+  }
 
-    fileSystem.getS3Client().deleteObject( bucketName, key );
+  /**
+   * A recursive delete of a folder ({@link FileObject#deleteAll()}) removes everything under the folder with batched
+   * requests up front instead of walking the tree and deleting one object at a time; the remaining (now empty) folder
+   * is then deleted the regular way.
+   */
+  @Override
+  public int delete( FileSelector selector ) throws FileSystemException {
+    if ( selector != Selectors.SELECT_ALL || isRootBucket() || getType() != FileType.FOLDER ) {
+      return super.delete( selector );
+    }
+    FileObject parent = getParent();
+    List<String> deletedPaths = new ArrayList<>();
+    int deleted = deleteFolderContents( key, bucketName, deletedPaths );
+    // the deleted descendants may be cached, and so may this folder's children
+    evictFromCache( bucketName, folderPrefix( key ), deletedPaths );
+    refresh();
+    if ( parent != null ) {
+      parent.refresh();
+    }
+    // a folder without a marker object went away with its contents
+    return deleted + ( exists() ? super.delete( selector ) : 0 );
   }
 
   @Override
@@ -338,9 +439,24 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
 
   @Override
   protected void doRename( FileObject newFile ) throws Exception {
-    // no folder renames on S3
+    S3CommonFileObject dest = (S3CommonFileObject) newFile;
+
+    // a folder is renamed by copying every object under it
     if ( getType().equals( FileType.FOLDER ) ) {
-      throw new FileSystemException( "vfs.provider/rename-not-supported.error" );
+      if ( isRootBucket() || dest.isRootBucket() ) {
+        throw new FileSystemException( "vfs.provider/rename-not-supported.error" );
+      }
+      if ( dest.bucketName.equals( bucketName ) && folderPrefix( dest.key ).startsWith( folderPrefix( key ) ) ) {
+        // the copies would be listed and copied again, then deleted along with the source
+        throw new FileSystemException( "vfs.provider/rename.error", this, newFile );
+      }
+      List<String> movedPaths = new ArrayList<>();
+      copyFolderContents( key, bucketName, dest, movedPaths );
+      deleteFolderContents();
+      // the moved objects changed behind the back of their cached file objects
+      evictFromCache( bucketName, folderPrefix( key ), movedPaths );
+      evictFromCache( dest.bucketName, folderPrefix( dest.key ), movedPaths );
+      return;
     }
 
     s3ObjectMetadata = fileSystem.getS3Client().getObjectMetadata( bucketName, key );
@@ -350,16 +466,138 @@ public abstract class S3CommonFileObject extends AbstractFileObject {
       throw new FileSystemException( "vfs.provider/rename.error", this, newFile );
     }
 
-    S3CommonFileObject dest = (S3CommonFileObject) newFile;
-
     // 1. copy the file
     CopyObjectRequest copyObjRequest = createCopyObjectRequest( bucketName, key, dest.bucketName, dest.key );
-    fileSystem.getS3Client().copyObject( copyObjRequest );
+    try ( S3CommonCopier copier = fileSystem.createCopier() ) {
+      copier.copy( copyObjRequest, s3ObjectMetadata.getContentLength() );
+    }
 
     // 2. delete self
     delete();
   }
 
+  /**
+   * Copies every object under this folder to the same relative key under {@code dest}, several objects at a time.
+   *
+   * @return the number of objects copied
+   */
+  protected int copyFolderContents( S3CommonFileObject dest ) throws FileSystemException {
+    return copyFolderContents( this.key, this.bucketName, dest );
+  }
+
+  protected int copyFolderContents( String key, String bucketName, S3CommonFileObject dest )
+    throws FileSystemException {
+    return copyFolderContents( key, bucketName, dest, new ArrayList<>() );
+  }
+
+  /**
+   * @param copiedPaths receives the keys of the copied objects, relative to the source and destination folders
+   */
+  protected int copyFolderContents( String key, String bucketName, S3CommonFileObject dest,
+                                    Collection<String> copiedPaths ) throws FileSystemException {
+    String prefix = folderPrefix( key );
+    String destPrefix = folderPrefix( dest.key );
+    int copied = 0;
+    try ( S3CommonCopier copier = fileSystem.createCopier() ) {
+      ObjectListing ol = fileSystem.getS3Client().listObjects( bucketName, prefix );
+      while ( true ) {
+        for ( S3ObjectSummary s3os : ol.getObjectSummaries() ) {
+          String relativePath = s3os.getKey().substring( prefix.length() );
+          copier.submit( createCopyObjectRequest( bucketName, s3os.getKey(), dest.bucketName,
+            destPrefix + relativePath ), s3os.getSize() );
+          copiedPaths.add( relativePath );
+          copied++;
+        }
+        if ( !ol.isTruncated() ) {
+          break;
+        }
+        ol = fileSystem.getS3Client().listNextBatchOfObjects( ol );
+      }
+      copier.finish();
+    } catch ( IOException | AmazonClientException e ) {
+      throw new FileSystemException( "vfs.provider/rename.error", e, getQualifiedName(), getQualifiedName( dest ) );
+    }
+    return copied;
+  }
+
+  /**
+   * Evicts the cached file objects of the given objects, and of the folders between them and {@code prefix}, after
+   * they were changed in bulk. The rest of the file system stays cached.
+   *
+   * @param relativePaths object keys relative to {@code prefix}
+   */
+  protected void evictFromCache( String bucketName, String prefix, Collection<String> relativePaths )
+    throws FileSystemException {
+    Set<String> paths = new HashSet<>();
+    for ( String relativePath : relativePaths ) {
+      String path = relativePath;
+      while ( path.endsWith( DELIMITER ) ) {
+        path = path.substring( 0, path.length() - 1 );
+      }
+      // stop at a folder already seen, its parents have been added with it
+      while ( !path.isEmpty() && paths.add( path ) ) {
+        int slash = path.lastIndexOf( DELIMITER );
+        path = slash < 0 ? "" : path.substring( 0, slash );
+      }
+    }
+    FilesCache filesCache = getFileSystem().getFileSystemManager().getFilesCache();
+    for ( String path : paths ) {
+      filesCache.removeFile( getFileSystem(), getFileSystem().getFileSystemManager()
+        .resolveName( getName(), DELIMITER + bucketName + DELIMITER + prefix + path ) );
+    }
+  }
+
+  private static String folderPrefix( String key ) {
+    return key.isEmpty() || key.endsWith( DELIMITER ) ? key : key + DELIMITER;
+  }
+
+  /**
+   * Files copied from this same file system are copied server side, several at a time, instead of being streamed
+   * through this JVM.
+   */
+  @Override
+  public void copyFrom( FileObject file, FileSelector selector ) throws FileSystemException {
+    if ( !( file instanceof S3CommonFileObject ) || file.getFileSystem() != getFileSystem() ) {
+      super.copyFrom( file, selector );
+      return;
+    }
+    if ( !file.exists() ) {
+      throw new FileSystemException( "vfs.provider/copy-missing-file.error", file );
+    }
+    List<FileObject> files = new ArrayList<>();
+    file.findFiles( selector, false, files );
+    List<FileObject> copies = new ArrayList<>();
+    try ( S3CommonCopier copier = fileSystem.createCopier() ) {
+      for ( FileObject srcFile : files ) {
+        S3CommonFileObject source = (S3CommonFileObject) srcFile;
+        String relPath = file.getName().getRelativeName( srcFile.getName() );
+        S3CommonFileObject destFile = (S3CommonFileObject) resolveFile( relPath, NameScope.DESCENDENT_OR_SELF );
+        if ( destFile.exists() && destFile.getType() != srcFile.getType() ) {
+          destFile.deleteAll();
+        }
+        if ( srcFile.getType().hasChildren() ) {
+          destFile.createFolder();
+        } else if ( srcFile.getType().hasContent() ) {
+          copier.submit( createCopyObjectRequest( source.bucketName, source.key, destFile.bucketName, destFile.key ),
+            srcFile.getContent().getSize() );
+          copies.add( destFile );
+        }
+      }
+      copier.finish();
+    } catch ( IOException e ) {
+      throw new FileSystemException( "vfs.provider/copy-file.error", e, file, this );
+    }
+    // the copies were made behind the back of the cached destination objects
+    for ( FileObject copy : copies ) {
+      copy.refresh();
+    }
+    refresh();
+  }
+
+  protected GetObjectRequest createGetObjectRequest( String bucketName, String key ) {
+    return new GetObjectRequest( bucketName, key );
+  }
+
   protected CopyObjectRequest createCopyObjectRequest( String sourceBucket, String sourceKey, String destBucket, String destKey ) {
     return new CopyObjectRequest( sourceBucket, sourceKey, destBucket, destKey );
   }
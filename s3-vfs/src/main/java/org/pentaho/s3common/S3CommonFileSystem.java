@@ -18,6 +18,7 @@
 package org.pentaho.s3common;
 
 import com.amazonaws.ClientConfiguration;
+import com.amazonaws.SdkClientException;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
@@ -25,6 +26,7 @@ import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.auth.BasicSessionCredentials;
 import com.amazonaws.auth.profile.ProfileCredentialsProvider;
 import com.amazonaws.auth.profile.ProfilesConfigFile;
+import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
@@ -37,7 +39,10 @@ import org.apache.commons.vfs2.provider.AbstractFileSystem;
 import org.pentaho.amazon.s3.S3Util;
 import org.pentaho.di.connections.ConnectionDetails;
 import org.pentaho.di.connections.ConnectionManager;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.encryption.Encr;
+import org.pentaho.di.core.util.StorageUnitConverter;
+import org.pentaho.di.i18n.BaseMessages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,14 +55,57 @@ import java.util.function.Supplier;
 
 public abstract class S3CommonFileSystem extends AbstractFileSystem {
 
+  private static final Class<?> PKG = S3CommonFileSystem.class;
   private static final Logger logger = LoggerFactory.getLogger( S3CommonFileSystem.class );
   private static final String DEFAULT_S3_CONFIG_PROPERTY = "defaultS3Config";
+  /**
+   * Size of the ranged reads when {@code s3.vfs.readBlockSize} is not set
+   */
+  private static final String DEFAULT_READ_BLOCK_SIZE = "8MB";
+  private static final String MIN_READ_BLOCK_SIZE = "64KB";
+  /**
+   * Blocks read ahead in parallel when {@code s3.vfs.readAhead} is not set
+   */
+  private static final int DEFAULT_READ_AHEAD = 4;
+  /**
+   * DeleteObjects requests sent at the same time when {@code s3.vfs.deleteConcurrency} is not set
+   */
+  private static final int DEFAULT_DELETE_CONCURRENCY = 4;
+  /**
+   * Part size of server side copies when {@code s3.vfs.copyPartSize} is not set, smaller objects are copied in one
+   * request
+   */
+  private static final String DEFAULT_COPY_PART_SIZE = "128MB";
+  private static final String MIN_COPY_PART_SIZE = "5MB";
+  /**
+   * Objects, and parts of each object, copied at the same time when {@code s3.vfs.copyConcurrency} is not set
+   */
+  private static final int DEFAULT_COPY_CONCURRENCY = 8;
+  /**
+   * How long bucket existence checks are trusted
+   */
+  public static final long DEFAULT_BUCKET_CACHE_TTL_MS = 60000;
+  /**
+   * How often a file system without a named connection looks for a changed default S3 connection
+   */
+  public static final long DEFAULT_CONNECTION_CHECK_INTERVAL_MS = 10000;
   private String awsAccessKeyCache;
   private String awsSecretKeyCache;
   private AmazonS3 client;
   private final Supplier<ConnectionManager> connectionManager = ConnectionManager::getInstance;
   private Map<String, String> currentConnectionProperties;
   private FileSystemOptions currentFileSystemOptions;
+  private final Object clientLock = new Object();
+  private Optional<? extends ConnectionDetails> defaultS3Connection = Optional.empty();
+  private boolean defaultS3ConnectionChecked = false;
+  private long defaultS3ConnectionCheckTime;
+  private final S3CommonBucketCache bucketCache = new S3CommonBucketCache( DEFAULT_BUCKET_CACHE_TTL_MS );
+  // the read, delete and copy settings, read from kettle.properties on first use
+  private volatile Integer readBlockSize;
+  private volatile Integer readAhead;
+  private volatile Integer deleteConcurrency;
+  private volatile Long copyPartSize;
+  private volatile Integer copyConcurrency;
 
   protected S3CommonFileSystem( final FileName rootName, final FileSystemOptions fileSystemOptions ) {
     super( rootName, null, fileSystemOptions );
@@ -71,24 +119,153 @@ public abstract class S3CommonFileSystem extends AbstractFileSystem {
 
   protected abstract FileObject createFile( AbstractFileName name ) throws Exception;
 
+  protected S3KettleProperty getS3KettleProperty() {
+    return new S3KettleProperty();
+  }
+
+  /**
+   * @return the number of bytes requested at a time by the ranged input stream, objects up to this size are read with
+   * a single plain request
+   */
+  public int getReadBlockSize() {
+    if ( readBlockSize == null ) {
+      readBlockSize = resolveReadBlockSize();
+    }
+    return readBlockSize;
+  }
+
+  private int resolveReadBlockSize() {
+    StorageUnitConverter storageUnitConverter = new StorageUnitConverter();
+    String blockSizeString = getS3KettleProperty().getReadBlockSize();
+    if ( S3Util.isEmpty( blockSizeString ) ) {
+      blockSizeString = DEFAULT_READ_BLOCK_SIZE;
+    }
+    long blockSize = storageUnitConverter.displaySizeToByteCount( blockSizeString );
+    long minBlockSize = storageUnitConverter.displaySizeToByteCount( MIN_READ_BLOCK_SIZE );
+    if ( blockSize < minBlockSize ) {
+      logger.warn( BaseMessages.getString( PKG, "WARN.S3Read.DefaultBlockSize", blockSizeString,
+        MIN_READ_BLOCK_SIZE ) );
+      blockSize = minBlockSize;
+    }
+    return (int) Long.min( Integer.MAX_VALUE, blockSize );
+  }
+
+  /**
+   * @return the number of blocks fetched in parallel ahead of a sequential reader
+   */
+  public int getReadAhead() {
+    if ( readAhead == null ) {
+      readAhead = resolveReadAhead();
+    }
+    return readAhead;
+  }
+
+  private int resolveReadAhead() {
+    String readAheadString = getS3KettleProperty().getReadAhead();
+    int blocks = Const.toInt( readAheadString, DEFAULT_READ_AHEAD );
+    if ( blocks < 0 ) {
+      logger.warn( BaseMessages.getString( PKG, "WARN.S3Read.DefaultReadAhead", readAheadString,
+        DEFAULT_READ_AHEAD ) );
+      blocks = DEFAULT_READ_AHEAD;
+    }
+    return blocks;
+  }
+
+  /**
+   * @return the number of DeleteObjects requests a recursive delete sends at the same time
+   */
+  public int getDeleteConcurrency() {
+    if ( deleteConcurrency == null ) {
+      deleteConcurrency = resolveDeleteConcurrency();
+    }
+    return deleteConcurrency;
+  }
+
+  private int resolveDeleteConcurrency() {
+    String deleteConcurrencyString = getS3KettleProperty().getDeleteConcurrency();
+    int concurrency = Const.toInt( deleteConcurrencyString, DEFAULT_DELETE_CONCURRENCY );
+    if ( concurrency < 1 ) {
+      logger.warn( BaseMessages.getString( PKG, "WARN.S3Delete.DefaultConcurrency", deleteConcurrencyString,
+        DEFAULT_DELETE_CONCURRENCY ) );
+      concurrency = DEFAULT_DELETE_CONCURRENCY;
+    }
+    return concurrency;
+  }
+
+  /**
+   * @return the size of the parts of a multipart server side copy
+   */
+  public long getCopyPartSize() {
+    if ( copyPartSize == null ) {
+      copyPartSize = resolveCopyPartSize();
+    }
+    return copyPartSize;
+  }
+
+  private long resolveCopyPartSize() {
+    StorageUnitConverter storageUnitConverter = new StorageUnitConverter();
+    String partSizeString = getS3KettleProperty().getCopyPartSize();
+    if ( S3Util.isEmpty( partSizeString ) ) {
+      partSizeString = DEFAULT_COPY_PART_SIZE;
+    }
+    long partSize = storageUnitConverter.displaySizeToByteCount( partSizeString );
+    long minPartSize = storageUnitConverter.displaySizeToByteCount( MIN_COPY_PART_SIZE );
+    if ( partSize < minPartSize ) {
+      logger.warn( BaseMessages.getString( PKG, "WARN.S3Copy.DefaultPartSize", partSizeString,
+        MIN_COPY_PART_SIZE ) );
+      partSize = minPartSize;
+    }
+    return partSize;
+  }
+
+  /**
+   * @return the number of objects, and of parts of each object, copied at the same time
+   */
+  public int getCopyConcurrency() {
+    if ( copyConcurrency == null ) {
+      copyConcurrency = resolveCopyConcurrency();
+    }
+    return copyConcurrency;
+  }
+
+  private int resolveCopyConcurrency() {
+    String copyConcurrencyString = getS3KettleProperty().getCopyConcurrency();
+    int concurrency = Const.toInt( copyConcurrencyString, DEFAULT_COPY_CONCURRENCY );
+    if ( concurrency < 1 ) {
+      logger.warn( BaseMessages.getString( PKG, "WARN.S3Copy.DefaultConcurrency", copyConcurrencyString,
+        DEFAULT_COPY_CONCURRENCY ) );
+      concurrency = DEFAULT_COPY_CONCURRENCY;
+    }
+    return concurrency;
+  }
+
+  /**
+   * @return a copier for server side copies within this file system, to be closed once the copies are done
+   */
+  public S3CommonCopier createCopier() {
+    return new S3CommonCopier( getS3Client(), getCopyPartSize(), getCopyConcurrency() );
+  }
+
+  /**
+   * Returns the client of this file system. The client is built once and reused until the credentials or connection
+   * settings it was built from change; the default S3 connection is looked up again at most every
+   * {@link #DEFAULT_CONNECTION_CHECK_INTERVAL_MS}.
+   */
   public AmazonS3 getS3Client() {
+    // not synchronized on the file system itself, VFS holds that lock while it waits on streams using the client
+    synchronized ( clientLock ) {
+      return getOrCreateS3Client();
+    }
+  }
+
+  private AmazonS3 getOrCreateS3Client() {
     S3CommonFileSystemConfigBuilder s3CommonFileSystemConfigBuilder =
       new S3CommonFileSystemConfigBuilder( getFileSystemOptions() );
 
-    Optional<? extends ConnectionDetails> defaultS3Connection = Optional.empty();
-    try {
-      defaultS3Connection =
-        connectionManager.get().getConnectionDetailsByScheme( "s3" ).stream().filter(
-          connectionDetails -> connectionDetails.getProperties().get( DEFAULT_S3_CONFIG_PROPERTY ) != null
-            && connectionDetails.getProperties().get( DEFAULT_S3_CONFIG_PROPERTY ).equalsIgnoreCase( "true" ) )
-          .findFirst();
-    } catch ( Exception ignored ) {
-      // Ignore the exception, it's OK if we can't find a default S3 connection.
-    }
-
     // If the fileSystemOptions don't contain a name, the originating url is s3:// NOT pvfs://
     // Use a specified default PVFS connection if it's available.
     if ( s3CommonFileSystemConfigBuilder.getName() == null ) {
+      refreshDefaultS3Connection();
       // Copy the connection properties
       Map<String, String> newConnectionProperties = new HashMap<>();
       defaultS3Connection
@@ -102,12 +279,14 @@ public abstract class S3CommonFileSystem extends AbstractFileSystem {
         currentConnectionProperties = newConnectionProperties;
         // Clear the file system cache as the credentials have changed and the cache is now invalid.
         this.getFileSystemManager().getFilesCache().clear( this );
+        bucketCache.clear();
       }
     }
 
     if ( currentFileSystemOptions != null && !currentFileSystemOptions.equals( getFileSystemOptions() ) ) {
       client = null;
       this.getFileSystemManager().getFilesCache().clear( this );
+      bucketCache.clear();
     }
 
     if ( client == null && getFileSystemOptions() != null ) {
@@ -168,8 +347,8 @@ public abstract class S3CommonFileSystem extends AbstractFileSystem {
         awsCredentialsProvider = new ProfileCredentialsProvider( profilesConfigFile, profileName );
       }
 
+      ClientConfiguration clientConfiguration = createClientConfiguration( s3CommonFileSystemConfigBuilder );
       if ( !S3Util.isEmpty( endpoint ) ) {
-        ClientConfiguration clientConfiguration = new ClientConfiguration();
         clientConfiguration.setSignerOverride(
           S3Util.isEmpty( signatureVersion ) ? S3Util.SIGNATURE_VERSION_SYSTEM_PROPERTY : signatureVersion );
         client = AmazonS3ClientBuilder.standard()
@@ -181,6 +360,7 @@ public abstract class S3CommonFileSystem extends AbstractFileSystem {
       } else {
         AmazonS3ClientBuilder clientBuilder = AmazonS3ClientBuilder.standard()
           .enableForceGlobalBucketAccess()
+          .withClientConfiguration( clientConfiguration )
           .withCredentials( awsCredentialsProvider );
         if ( !isRegionSet() ) {
           clientBuilder.withRegion( regions );
@@ -191,16 +371,20 @@ public abstract class S3CommonFileSystem extends AbstractFileSystem {
 
     if ( client == null || hasClientChangedCredentials() ) {
       try {
+        ClientConfiguration clientConfiguration = createClientConfiguration( s3CommonFileSystemConfigBuilder );
         if ( isRegionSet() ) {
           client = AmazonS3ClientBuilder.standard()
             .enableForceGlobalBucketAccess()
+            .withClientConfiguration( clientConfiguration )
             .build();
         } else {
           client = AmazonS3ClientBuilder.standard()
             .enableForceGlobalBucketAccess()
+            .withClientConfiguration( clientConfiguration )
             .withRegion( Regions.DEFAULT_REGION )
             .build();
         }
+        bucketCache.clear();
         awsAccessKeyCache = System.getProperty( S3Util.ACCESS_KEY_SYSTEM_PROPERTY );
         awsSecretKeyCache = System.getProperty( S3Util.SECRET_KEY_SYSTEM_PROPERTY );
       } catch ( Exception ex ) {
@@ -210,6 +394,87 @@ public abstract class S3CommonFileSystem extends AbstractFileSystem {
     return client;
   }
 
+  private void refreshDefaultS3Connection() {
+    long now = System.currentTimeMillis();
+    if ( defaultS3ConnectionChecked && now - defaultS3ConnectionCheckTime < DEFAULT_CONNECTION_CHECK_INTERVAL_MS ) {
+      return;
+    }
+    defaultS3ConnectionChecked = true;
+    defaultS3ConnectionCheckTime = now;
+    defaultS3Connection = Optional.empty();
+    try {
+      defaultS3Connection =
+        connectionManager.get().getConnectionDetailsByScheme( "s3" ).stream().filter(
+          connectionDetails -> connectionDetails.getProperties().get( DEFAULT_S3_CONFIG_PROPERTY ) != null
+            && connectionDetails.getProperties().get( DEFAULT_S3_CONFIG_PROPERTY ).equalsIgnoreCase( "true" ) )
+          .findFirst();
+    } catch ( Exception ignored ) {
+      // Ignore the exception, it's OK if we can't find a default S3 connection.
+    }
+  }
+
+  /**
+   * Applies the connection pool, timeout, keep-alive and retry options of the file system to a new client
+   * configuration. An option that isn't set on the file system is read from the matching {@code s3.vfs.*} kettle
+   * property (e.g. {@code s3.vfs.maxConnections}); options set in neither place keep the SDK defaults.
+   */
+  public ClientConfiguration createClientConfiguration( S3CommonFileSystemConfigBuilder configBuilder ) {
+    S3KettleProperty kettleProperty = getS3KettleProperty();
+    ClientConfiguration clientConfiguration = new ClientConfiguration();
+    int maxConnections =
+      Const.toInt( setting( configBuilder.getMaxConnections(), kettleProperty.getMaxConnections() ), -1 );
+    if ( maxConnections > 0 ) {
+      clientConfiguration.setMaxConnections( maxConnections );
+    }
+    int connectionTimeout =
+      Const.toInt( setting( configBuilder.getConnectionTimeout(), kettleProperty.getConnectionTimeout() ), -1 );
+    if ( connectionTimeout >= 0 ) {
+      clientConfiguration.setConnectionTimeout( connectionTimeout );
+    }
+    int socketTimeout =
+      Const.toInt( setting( configBuilder.getSocketTimeout(), kettleProperty.getSocketTimeout() ), -1 );
+    if ( socketTimeout >= 0 ) {
+      clientConfiguration.setSocketTimeout( socketTimeout );
+    }
+    String tcpKeepAlive = setting( configBuilder.getTcpKeepAlive(), kettleProperty.getTcpKeepAlive() );
+    if ( !S3Util.isEmpty( tcpKeepAlive ) ) {
+      clientConfiguration.setUseTcpKeepAlive( Boolean.parseBoolean( tcpKeepAlive ) );
+    }
+    int maxErrorRetry =
+      Const.toInt( setting( configBuilder.getMaxErrorRetry(), kettleProperty.getMaxErrorRetry() ), -1 );
+    if ( maxErrorRetry >= 0 ) {
+      clientConfiguration.setRetryPolicy(
+        PredefinedRetryPolicies.getDefaultRetryPolicyWithCustomMaxRetries( maxErrorRetry ) );
+    }
+    String throttleRetries = setting( configBuilder.getThrottleRetries(), kettleProperty.getThrottleRetries() );
+    if ( !S3Util.isEmpty( throttleRetries ) ) {
+      clientConfiguration.setUseThrottleRetries( Boolean.parseBoolean( throttleRetries ) );
+    }
+    return clientConfiguration;
+  }
+
+  private static String setting( String option, String kettleProperty ) {
+    return S3Util.isEmpty( option ) ? kettleProperty : option;
+  }
+
+  /**
+   * Checks whether a bucket exists, answering from the bucket cache while its entry is fresh.
+   *
+   * @return whether the bucket exists, false if the check failed
+   */
+  public boolean bucketExists( String bucket ) {
+    try {
+      return bucketCache.exists( bucket, name -> getS3Client().doesBucketExistV2( name ) );
+    } catch ( SdkClientException e ) {
+      logger.debug( "Exception checking if bucket exists", e );
+      return false;
+    }
+  }
+
+  public S3CommonBucketCache getBucketCache() {
+    return bucketCache;
+  }
+
   private boolean hasClientChangedCredentials() {
     return client != null
       && ( S3Util.hasChanged( awsAccessKeyCache, System.getProperty( S3Util.ACCESS_KEY_SYSTEM_PROPERTY ) )
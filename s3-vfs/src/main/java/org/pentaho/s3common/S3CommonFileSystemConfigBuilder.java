@@ -39,6 +39,12 @@ public class S3CommonFileSystemConfigBuilder extends FileSystemConfigBuilder {
   private static final String PATHSTYLE_ACCESS = "pathSyleAccess";
   private static final String DEFAULT_S3_CONFIG = "defaultS3Config";
   private static final String CONNECTION_TYPE = "connectionType";
+  private static final String MAX_CONNECTIONS = "maxConnections";
+  private static final String CONNECTION_TIMEOUT = "connectionTimeout";
+  private static final String SOCKET_TIMEOUT = "socketTimeout";
+  private static final String TCP_KEEP_ALIVE = "tcpKeepAlive";
+  private static final String MAX_ERROR_RETRY = "maxErrorRetry";
+  private static final String THROTTLE_RETRIES = "throttleRetries";
 
   private FileSystemOptions fileSystemOptions;
 
@@ -151,6 +157,69 @@ public class S3CommonFileSystemConfigBuilder extends FileSystemConfigBuilder {
     return (String) this.getParam( getFileSystemOptions(), CONNECTION_TYPE );
   }
 
+  /**
+   * @param maxConnections the size of the client's HTTP connection pool
+   */
+  public void setMaxConnections( String maxConnections ) {
+    this.setParam( getFileSystemOptions(), MAX_CONNECTIONS, maxConnections );
+  }
+
+  public String getMaxConnections() {
+    return (String) this.getParam( getFileSystemOptions(), MAX_CONNECTIONS );
+  }
+
+  /**
+   * @param connectionTimeout the time allowed to open a connection, in milliseconds
+   */
+  public void setConnectionTimeout( String connectionTimeout ) {
+    this.setParam( getFileSystemOptions(), CONNECTION_TIMEOUT, connectionTimeout );
+  }
+
+  public String getConnectionTimeout() {
+    return (String) this.getParam( getFileSystemOptions(), CONNECTION_TIMEOUT );
+  }
+
+  /**
+   * @param socketTimeout the time allowed between two packets of a response, in milliseconds
+   */
+  public void setSocketTimeout( String socketTimeout ) {
+    this.setParam( getFileSystemOptions(), SOCKET_TIMEOUT, socketTimeout );
+  }
+
+  public String getSocketTimeout() {
+    return (String) this.getParam( getFileSystemOptions(), SOCKET_TIMEOUT );
+  }
+
+  public void setTcpKeepAlive( String tcpKeepAlive ) {
+    this.setParam( getFileSystemOptions(), TCP_KEEP_ALIVE, tcpKeepAlive );
+  }
+
+  public String getTcpKeepAlive() {
+    return (String) this.getParam( getFileSystemOptions(), TCP_KEEP_ALIVE );
+  }
+
+  /**
+   * @param maxErrorRetry how many times a failed request is retried by the default retry policy
+   */
+  public void setMaxErrorRetry( String maxErrorRetry ) {
+    this.setParam( getFileSystemOptions(), MAX_ERROR_RETRY, maxErrorRetry );
+  }
+
+  public String getMaxErrorRetry() {
+    return (String) this.getParam( getFileSystemOptions(), MAX_ERROR_RETRY );
+  }
+
+  /**
+   * @param throttleRetries whether retries of throttled requests are rate limited
+   */
+  public void setThrottleRetries( String throttleRetries ) {
+    this.setParam( getFileSystemOptions(), THROTTLE_RETRIES, throttleRetries );
+  }
+
+  public String getThrottleRetries() {
+    return (String) this.getParam( getFileSystemOptions(), THROTTLE_RETRIES );
+  }
+
   @Override protected Class<? extends FileSystem> getConfigClass() {
     return S3NFileSystem.class;
   }
@@ -0,0 +1,72 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Bounded pool of reusable multipart part buffers. Buffers are allocated lazily up to {@code maxBuffers}; once they
+ * are all in use {@link #acquire()} blocks until one is released, which throttles the producer to the upload rate.
+ */
+public class S3CommonPartBufferPool {
+
+  private final int bufferSize;
+  private final int maxBuffers;
+  private final LinkedBlockingQueue<byte[]> available = new LinkedBlockingQueue<>();
+  private int allocated = 0;
+
+  public S3CommonPartBufferPool( int bufferSize, int maxBuffers ) {
+    if ( bufferSize <= 0 || maxBuffers <= 0 ) {
+      throw new IllegalArgumentException( "bufferSize and maxBuffers must be positive" );
+    }
+    this.bufferSize = bufferSize;
+    this.maxBuffers = maxBuffers;
+  }
+
+  public byte[] acquire() throws InterruptedException {
+    byte[] buffer = available.poll();
+    if ( buffer != null ) {
+      return buffer;
+    }
+    synchronized ( this ) {
+      if ( allocated < maxBuffers ) {
+        allocated++;
+        return new byte[ bufferSize ];
+      }
+    }
+    return available.take();
+  }
+
+  public void release( byte[] buffer ) {
+    if ( buffer != null ) {
+      available.offer( buffer );
+    }
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public int getMaxBuffers() {
+    return maxBuffers;
+  }
+
+  public synchronized int getAllocated() {
+    return allocated;
+  }
+}
@@ -30,14 +30,14 @@ import org.pentaho.di.i18n.BaseMessages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -55,6 +55,10 @@ public class S3CommonPipedOutputStream extends PipedOutputStream {
    * set to aws multipart minimum 5MB.
    */
   private static final int DEFAULT_PART_SIZE = 5 * 1024 * 1024;
+  /**
+   * number of parts uploaded at the same time; one more part buffer than this is kept for reading ahead.
+   */
+  private static final int DEFAULT_UPLOAD_CONCURRENCY = 1;
   private ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool( 1 );
   private boolean initialized = false;
   private boolean blockedUntilDone = true;
@@ -68,12 +72,18 @@ public class S3CommonPipedOutputStream extends PipedOutputStream {
    * AWS Multipart part size.
    */
   private int partSize;
+  private int uploadConcurrency;
 
   public S3CommonPipedOutputStream( S3CommonFileSystem fileSystem, String bucketId, String key ) throws IOException {
     this( fileSystem, bucketId, key, DEFAULT_PART_SIZE );
   }
 
   public S3CommonPipedOutputStream( S3CommonFileSystem fileSystem, String bucketId, String key, int partSize ) throws IOException {
+    this( fileSystem, bucketId, key, partSize, DEFAULT_UPLOAD_CONCURRENCY );
+  }
+
+  public S3CommonPipedOutputStream( S3CommonFileSystem fileSystem, String bucketId, String key, int partSize,
+                                    int uploadConcurrency ) throws IOException {
     this.pipedInputStream = new PipedInputStream();
 
     try {
@@ -88,6 +98,7 @@ public class S3CommonPipedOutputStream extends PipedOutputStream {
     this.key = key;
     this.fileSystem = fileSystem;
     this.partSize = partSize;
+    this.uploadConcurrency = Math.max( 1, uploadConcurrency );
   }
 
   private void initializeWrite() {
@@ -138,7 +149,9 @@ public class S3CommonPipedOutputStream extends PipedOutputStream {
 
     public Boolean call() throws Exception {
       boolean returnVal = true;
-      List<PartETag> partETags = new ArrayList<>();
+      List<Future<PartETag>> partUploads = new ArrayList<>();
+      S3CommonPartBufferPool bufferPool = new S3CommonPartBufferPool( partSize, uploadConcurrency + 1 );
+      ExecutorService uploadExecutor = Executors.newFixedThreadPool( uploadConcurrency );
 
       // Step 1: Initialize
       InitiateMultipartUploadRequest initRequest;
@@ -147,64 +160,67 @@ public class S3CommonPipedOutputStream extends PipedOutputStream {
       InitiateMultipartUploadResult initResponse = null;
 
       // NOTE: byte[] max size is ~2GB < 5GB = aws api max part size
-      try ( ByteArrayOutputStream baos = new ByteArrayOutputStream( partSize );
-            BufferedInputStream bis = new BufferedInputStream( pipedInputStream, partSize ) ) {
+      try {
         initResponse = fileSystem.getS3Client().initiateMultipartUpload( initRequest );
-        // Step 2: Upload parts.
-        byte[] tmpBuffer = new byte[ partSize ];
-        int read = 0;
+        String uploadId = initResponse.getUploadId();
+        // Step 2: Upload parts, up to uploadConcurrency at a time. Acquiring a buffer blocks while all of them
+        // are still in flight, which keeps the writer from getting ahead of the uploads.
         long offset = 0;
-        long totalRead = 0;
         int partNum = 1;
+        boolean endOfStream = false;
 
-        S3CommonWindowedSubstream s3is;
         logger.info( BaseMessages.getString( PKG, "INFO.S3MultiPart.Start" ) );
-        while ( ( read = bis.read( tmpBuffer ) ) >= 0 ) {
-
-          // if something was actually read
-          if ( read > 0 ) {
-            baos.write( tmpBuffer, 0, read );
-            totalRead += read;
+        while ( !endOfStream ) {
+          byte[] buffer = bufferPool.acquire();
+          int length = 0;
+          try {
+            int read;
+            while ( length < partSize && ( read = pipedInputStream.read( buffer, length, partSize - length ) ) >= 0 ) {
+              length += read;
+            }
+            endOfStream = length < partSize;
+            checkPartUploads( partUploads );
+          } catch ( Exception e ) {
+            bufferPool.release( buffer );
+            throw e;
           }
 
-          if ( totalRead > partSize ) {
-            s3is = new S3CommonWindowedSubstream( baos.toByteArray() );
-
-            UploadPartRequest uploadRequest = new UploadPartRequest()
-              .withBucketName( bucketId ).withKey( key )
-              .withUploadId( initResponse.getUploadId() ).withPartNumber( partNum++ )
-              .withFileOffset( offset )
-              .withPartSize( totalRead )
-              .withInputStream( s3is );
-
-            // Upload part and add response to our list.
-            logger.info( BaseMessages.getString( PKG, "INFO.S3MultiPart.Upload", partNum - 1, offset, Long.toString( totalRead ) ) );
-            partETags.add( fileSystem.getS3Client().uploadPart( uploadRequest ).getPartETag() );
-
-            offset += totalRead;
-            totalRead = 0; // reset part size counter
-            baos.reset(); // reset output stream to 0
+          // an empty trailing part is only needed when nothing else was uploaded
+          if ( length == 0 && partNum > 1 ) {
+            bufferPool.release( buffer );
+            break;
           }
-        }
-
-        // Step 2.1 upload last part
-        s3is = new S3CommonWindowedSubstream( baos.toByteArray() );
 
-        UploadPartRequest uploadRequest = new UploadPartRequest()
-          .withBucketName( bucketId ).withKey( key )
-          .withUploadId( initResponse.getUploadId() ).withPartNumber( partNum++ )
-          .withFileOffset( offset )
-          .withPartSize( totalRead )
-          .withInputStream( s3is )
-          .withLastPart( true );
+          UploadPartRequest uploadRequest = new UploadPartRequest()
+            .withBucketName( bucketId ).withKey( key )
+            .withUploadId( uploadId ).withPartNumber( partNum++ )
+            .withFileOffset( offset )
+            .withPartSize( length )
+            .withInputStream( new S3CommonWindowedSubstream( buffer, 0, length ) )
+            .withLastPart( endOfStream );
+
+          logger.info( BaseMessages.getString( PKG, "INFO.S3MultiPart.Upload", partNum - 1, offset, Long.toString( length ) ) );
+          partUploads.add( uploadExecutor.submit( () -> {
+            try {
+              return fileSystem.getS3Client().uploadPart( uploadRequest ).getPartETag();
+            } finally {
+              bufferPool.release( buffer );
+            }
+          } ) );
+
+          offset += length;
+        }
 
-        logger.info( BaseMessages.getString( PKG, "INFO.S3MultiPart.Upload", partNum - 1, offset, totalRead ) );
-        partETags.add( fileSystem.getS3Client().uploadPart( uploadRequest ).getPartETag() );
+        // part futures are kept in part number order, as the complete request expects
+        List<PartETag> partETags = new ArrayList<>( partUploads.size() );
+        for ( Future<PartETag> partUpload : partUploads ) {
+          partETags.add( getPartETag( partUpload ) );
+        }
 
         // Step 3: Complete.
         logger.info( BaseMessages.getString( PKG, "INFO.S3MultiPart.Complete" ) );
         CompleteMultipartUploadRequest compRequest =
-          new CompleteMultipartUploadRequest( bucketId, key, initResponse.getUploadId(), partETags );
+          new CompleteMultipartUploadRequest( bucketId, key, uploadId, partETags );
 
         fileSystem.getS3Client().completeMultipartUpload( compRequest );
       } catch ( OutOfMemoryError oome ) {
@@ -217,14 +233,38 @@ public class S3CommonPipedOutputStream extends PipedOutputStream {
         if ( initResponse == null ) {
           close();
         } else {
+          // stop the writer instead of leaving it blocked on a pipe nobody reads anymore
+          pipedInputStream.close();
+          uploadExecutor.shutdownNow();
           fileSystem.getS3Client()
             .abortMultipartUpload( new AbortMultipartUploadRequest( bucketId, key, initResponse.getUploadId() ) );
           logger.error( BaseMessages.getString( PKG, "ERROR.S3MultiPart.Aborted" ) );
         }
         returnVal = false;
+      } finally {
+        uploadExecutor.shutdown();
       }
 
       return returnVal;
     }
+
+    /**
+     * Fails fast when a part that already finished uploading has failed, rather than reading the rest of the stream.
+     */
+    private void checkPartUploads( List<Future<PartETag>> partUploads ) throws IOException, InterruptedException {
+      for ( Future<PartETag> partUpload : partUploads ) {
+        if ( partUpload.isDone() ) {
+          getPartETag( partUpload );
+        }
+      }
+    }
+
+    private PartETag getPartETag( Future<PartETag> partUpload ) throws IOException, InterruptedException {
+      try {
+        return partUpload.get();
+      } catch ( ExecutionException e ) {
+        throw new IOException( e.getCause() );
+      }
+    }
   }
 }
@@ -0,0 +1,279 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random access InputStream over an S3 object that reads it in fixed size blocks through ranged GETs. While the
+ * object is read sequentially up to {@code readAhead} of the following blocks are fetched in parallel; a seek (or skip)
+ * only moves the read position, so jumping to a footer and back costs one ranged request per block actually touched
+ * instead of reopening the whole object. Prefetching stops after a seek and resumes once the reader moves on to the
+ * next block.
+ */
+public class S3CommonRangedInputStream extends InputStream {
+
+  private static final Logger logger = LoggerFactory.getLogger( S3CommonRangedInputStream.class );
+  private static final long IDLE_THREAD_TIMEOUT_S = 30;
+
+  private final AmazonS3 client;
+  private final GetObjectRequest request;
+  private final long length;
+  private final int blockSize;
+  private final int readAhead;
+  private final Map<Long, Future<byte[]>> prefetchedBlocks = new HashMap<>();
+  private ThreadPoolExecutor executor;
+  private long position = 0;
+  private long mark = 0;
+  private long currentBlockNr = -1;
+  private byte[] currentBlock;
+  private boolean closed = false;
+
+  /**
+   * @param client    the client used for the ranged requests
+   * @param request   the bucket, key and (optional) version and ETag constraints of the object to read
+   * @param length    the length of the object
+   * @param blockSize the number of bytes requested at a time
+   * @param readAhead the number of blocks fetched ahead of the reader, 0 to fetch each block when it is read
+   */
+  public S3CommonRangedInputStream( AmazonS3 client, GetObjectRequest request, long length, int blockSize,
+                                    int readAhead ) {
+    if ( blockSize <= 0 ) {
+      throw new IllegalArgumentException( "blockSize must be positive" );
+    }
+    this.client = client;
+    this.request = request;
+    this.length = Math.max( 0, length );
+    this.blockSize = blockSize;
+    this.readAhead = Math.max( 0, readAhead );
+  }
+
+  @Override
+  public int read() throws IOException {
+    if ( !loadBlock() ) {
+      return -1;
+    }
+    return currentBlock[ (int) ( position++ - currentBlockNr * blockSize ) ] & 0xff;
+  }
+
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( off < 0 || len < 0 || len > b.length - off ) {
+      throw new IndexOutOfBoundsException();
+    }
+    if ( len == 0 ) {
+      return 0;
+    }
+    int read = 0;
+    while ( read < len && loadBlock() ) {
+      int blockOffset = (int) ( position - currentBlockNr * blockSize );
+      int count = Math.min( len - read, currentBlock.length - blockOffset );
+      System.arraycopy( currentBlock, blockOffset, b, off + read, count );
+      position += count;
+      read += count;
+    }
+    return read == 0 ? -1 : read;
+  }
+
+  @Override
+  public long skip( long n ) throws IOException {
+    checkOpen();
+    if ( n <= 0 || position >= length ) {
+      return 0;
+    }
+    long skipped = Math.min( n, length - position );
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    checkOpen();
+    if ( currentBlock == null || position / blockSize != currentBlockNr ) {
+      return 0;
+    }
+    return (int) ( currentBlockNr * blockSize + currentBlock.length - position );
+  }
+
+  /**
+   * Moves the read position without reading anything; the block holding the new position is requested by the next
+   * read. Seeking past the end is allowed, reads then return end of stream.
+   *
+   * @param newPosition the offset from the start of the object
+   */
+  public void seek( long newPosition ) throws IOException {
+    checkOpen();
+    if ( newPosition < 0 ) {
+      throw new EOFException( "Cannot seek to negative position " + newPosition );
+    }
+    position = newPosition;
+  }
+
+  public long getPosition() {
+    return position;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark( int readlimit ) {
+    mark = position;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    seek( mark );
+  }
+
+  @Override
+  public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    closed = true;
+    for ( Future<byte[]> block : prefetchedBlocks.values() ) {
+      block.cancel( true );
+    }
+    prefetchedBlocks.clear();
+    if ( executor != null ) {
+      executor.shutdownNow();
+    }
+    currentBlock = null;
+  }
+
+  /**
+   * Makes the block holding the read position the current block.
+   *
+   * @return false if the read position is at or past the end of the object
+   */
+  private boolean loadBlock() throws IOException {
+    checkOpen();
+    if ( position >= length ) {
+      return false;
+    }
+    long blockNr = position / blockSize;
+    if ( blockNr != currentBlockNr ) {
+      boolean sequential = blockNr == currentBlockNr + 1;
+      currentBlock = takeBlock( blockNr, sequential );
+      currentBlockNr = blockNr;
+    }
+    return true;
+  }
+
+  private byte[] takeBlock( long blockNr, boolean sequential ) throws IOException {
+    // blocks behind the reader or beyond the read ahead window won't be used anymore
+    prefetchedBlocks.entrySet().removeIf( entry -> {
+      boolean stale = entry.getKey() < blockNr || entry.getKey() > blockNr + readAhead;
+      if ( stale ) {
+        entry.getValue().cancel( true );
+      }
+      return stale;
+    } );
+    Future<byte[]> prefetched = prefetchedBlocks.remove( blockNr );
+    if ( sequential ) {
+      for ( long next = blockNr + 1; next <= blockNr + readAhead && next * blockSize < length; next++ ) {
+        prefetchedBlocks.computeIfAbsent( next, this::prefetch );
+      }
+    }
+    return prefetched == null ? readBlock( blockNr ) : getPrefetched( prefetched );
+  }
+
+  private Future<byte[]> prefetch( long blockNr ) {
+    if ( executor == null ) {
+      executor = new ThreadPoolExecutor( readAhead, readAhead, IDLE_THREAD_TIMEOUT_S, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>() );
+      executor.allowCoreThreadTimeOut( true );
+    }
+    return executor.submit( () -> readBlock( blockNr ) );
+  }
+
+  private byte[] getPrefetched( Future<byte[]> prefetched ) throws IOException {
+    try {
+      return prefetched.get();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for " + request.getKey() );
+    } catch ( ExecutionException e ) {
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException( cause.getMessage(), cause );
+    }
+  }
+
+  private byte[] readBlock( long blockNr ) throws IOException {
+    long start = blockNr * blockSize;
+    long end = Math.min( length, start + blockSize ) - 1;
+    logger.debug( "Reading bytes {}-{} of {}", start, end, request.getKey() );
+
+    GetObjectRequest rangeRequest =
+      new GetObjectRequest( request.getBucketName(), request.getKey(), request.getVersionId() ).withRange( start, end );
+    rangeRequest.setMatchingETagConstraints( request.getMatchingETagConstraints() );
+    S3Object rangeObject;
+    try {
+      rangeObject = client.getObject( rangeRequest );
+    } catch ( SdkClientException e ) {
+      throw new IOException( "Could not read bytes " + start + "-" + end + " of " + request.getKey(), e );
+    }
+    if ( rangeObject == null ) {
+      // the ETag constraint wasn't met
+      throw new IOException( request.getKey() + " was modified while being read" );
+    }
+
+    byte[] block = new byte[ (int) ( end - start + 1 ) ];
+    try ( S3Object object = rangeObject; InputStream in = object.getObjectContent() ) {
+      int offset = 0;
+      while ( offset < block.length ) {
+        int read = in.read( block, offset, block.length - offset );
+        if ( read < 0 ) {
+          throw new EOFException( "Unexpected end of " + request.getKey() + " at byte " + ( start + offset ) );
+        }
+        offset += read;
+      }
+    }
+    return block;
+  }
+
+  private void checkOpen() throws IOException {
+    if ( closed ) {
+      throw new IOException( "Stream closed" );
+    }
+  }
+}
@@ -33,11 +33,71 @@ public class S3KettleProperty {
   private static final Class<?> PKG = S3KettleProperty.class;
   private static final Logger logger = LoggerFactory.getLogger( S3KettleProperty.class );
   public static final String S3VFS_PART_SIZE = "s3.vfs.partSize";
+  public static final String S3VFS_UPLOAD_CONCURRENCY = "s3.vfs.uploadConcurrency";
+  public static final String S3VFS_READ_BLOCK_SIZE = "s3.vfs.readBlockSize";
+  public static final String S3VFS_READ_AHEAD = "s3.vfs.readAhead";
+  public static final String S3VFS_DELETE_CONCURRENCY = "s3.vfs.deleteConcurrency";
+  public static final String S3VFS_COPY_PART_SIZE = "s3.vfs.copyPartSize";
+  public static final String S3VFS_COPY_CONCURRENCY = "s3.vfs.copyConcurrency";
+  public static final String S3VFS_MAX_CONNECTIONS = "s3.vfs.maxConnections";
+  public static final String S3VFS_CONNECTION_TIMEOUT = "s3.vfs.connectionTimeout";
+  public static final String S3VFS_SOCKET_TIMEOUT = "s3.vfs.socketTimeout";
+  public static final String S3VFS_TCP_KEEP_ALIVE = "s3.vfs.tcpKeepAlive";
+  public static final String S3VFS_MAX_ERROR_RETRY = "s3.vfs.maxErrorRetry";
+  public static final String S3VFS_THROTTLE_RETRIES = "s3.vfs.throttleRetries";
 
   public String getPartSize() {
     return getProperty( S3VFS_PART_SIZE );
   }
 
+  public String getUploadConcurrency() {
+    return getProperty( S3VFS_UPLOAD_CONCURRENCY );
+  }
+
+  public String getReadBlockSize() {
+    return getProperty( S3VFS_READ_BLOCK_SIZE );
+  }
+
+  public String getReadAhead() {
+    return getProperty( S3VFS_READ_AHEAD );
+  }
+
+  public String getDeleteConcurrency() {
+    return getProperty( S3VFS_DELETE_CONCURRENCY );
+  }
+
+  public String getCopyPartSize() {
+    return getProperty( S3VFS_COPY_PART_SIZE );
+  }
+
+  public String getCopyConcurrency() {
+    return getProperty( S3VFS_COPY_CONCURRENCY );
+  }
+
+  public String getMaxConnections() {
+    return getProperty( S3VFS_MAX_CONNECTIONS );
+  }
+
+  public String getConnectionTimeout() {
+    return getProperty( S3VFS_CONNECTION_TIMEOUT );
+  }
+
+  public String getSocketTimeout() {
+    return getProperty( S3VFS_SOCKET_TIMEOUT );
+  }
+
+  public String getTcpKeepAlive() {
+    return getProperty( S3VFS_TCP_KEEP_ALIVE );
+  }
+
+  public String getMaxErrorRetry() {
+    return getProperty( S3VFS_MAX_ERROR_RETRY );
+  }
+
+  public String getThrottleRetries() {
+    return getProperty( S3VFS_THROTTLE_RETRIES );
+  }
+
   public String getProperty( String property ) {
     String filename =  Const.getKettlePropertiesFilename();
     Properties properties;
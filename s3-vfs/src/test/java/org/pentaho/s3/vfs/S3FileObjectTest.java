@@ -20,6 +20,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
@@ -37,6 +38,7 @@ import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.FilesCache;
+import org.apache.commons.vfs2.Selectors;
 import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
 import org.apache.commons.vfs2.provider.VfsComponentContext;
 import org.junit.Before;
@@ -47,7 +49,9 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.util.StorageUnitConverter;
@@ -59,6 +63,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -66,6 +71,8 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 
 /**
@@ -247,9 +254,13 @@ public class S3FileObjectTest {
   public void testDoDelete() throws Exception {
     fileSystemSpy.init();
     s3FileObjectBucketSpy.doDelete();
-    verify( s3ServiceMock ).deleteObject( "bucket3", "key0" );
-    verify( s3ServiceMock ).deleteObject( "bucket3", "key1" );
-    verify( s3ServiceMock ).deleteObject( "bucket3", "key2" );
+    ArgumentCaptor<DeleteObjectsRequest> deleteObjectsRequestArgumentCaptor =
+      ArgumentCaptor.forClass( DeleteObjectsRequest.class );
+    verify( s3ServiceMock ).deleteObjects( deleteObjectsRequestArgumentCaptor.capture() );
+    assertEquals( "bucket3", deleteObjectsRequestArgumentCaptor.getValue().getBucketName() );
+    assertEquals( Arrays.asList( "key0", "key1", "key2" ), deleteObjectsRequestArgumentCaptor.getValue().getKeys()
+      .stream().map( DeleteObjectsRequest.KeyVersion::getKey ).collect( Collectors.toList() ) );
+    verify( s3ServiceMock, never() ).deleteObject( "bucket3", "key0" );
     verify( s3ServiceMock ).deleteObject( "bucket3", "" );
   }
 
@@ -271,6 +282,90 @@ public class S3FileObjectTest {
     assertEquals( origKey, copyObjectRequestArgumentCaptor.getValue().getSourceKey() );
   }
 
+  @Test
+  public void testFolderRenameIntoItselfIsRefused() throws Exception {
+    S3FileObject folder = folderSpy( origKey );
+    S3FileObject dest = spy( new S3FileObject(
+      new S3FileName( SCHEME, BUCKET_NAME, BUCKET_NAME + "/" + origKey + "/sub", FileType.FOLDER ), fileSystemSpy ) );
+    doReturn( false ).when( dest ).exists();
+
+    try {
+      folder.moveTo( dest );
+      fail( "a folder can't be moved into itself" );
+    } catch ( FileSystemException e ) {
+      // expected
+    }
+    verify( s3ServiceMock, never() ).copyObject( any( CopyObjectRequest.class ) );
+    verify( s3ServiceMock, never() ).deleteObjects( any( DeleteObjectsRequest.class ) );
+  }
+
+  @Test
+  public void testFolderRenameEvictsOnlyTheMovedObjects() throws Exception {
+    ObjectListing folderListing = mock( ObjectListing.class );
+    List<S3ObjectSummary> summaries = new ArrayList<>();
+    for ( String key : Arrays.asList( origKey + "/a.txt", origKey + "/sub/b.txt" ) ) {
+      S3ObjectSummary summary = new S3ObjectSummary();
+      summary.setBucketName( BUCKET_NAME );
+      summary.setKey( key );
+      summaries.add( summary );
+    }
+    when( folderListing.getObjectSummaries() ).thenReturn( summaries );
+    when( s3ServiceMock.listObjects( BUCKET_NAME, origKey + "/" ) ).thenReturn( folderListing );
+    S3FileObject folder = folderSpy( origKey );
+    S3FileObject dest = spy( new S3FileObject(
+      new S3FileName( SCHEME, BUCKET_NAME, BUCKET_NAME + "/some/keyed", FileType.FOLDER ), fileSystemSpy ) );
+    doReturn( false ).when( dest ).exists();
+
+    folder.moveTo( dest );
+
+    verify( s3ServiceMock, times( 2 ) ).copyObject( any( CopyObjectRequest.class ) );
+    FilesCache cache = fileSystemSpy.getFileSystemManager().getFilesCache();
+    ArgumentCaptor<FileName> evicted = ArgumentCaptor.forClass( FileName.class );
+    verify( cache, atLeast( 1 ) ).removeFile( any(), evicted.capture() );
+    Set<String> evictedPaths = evicted.getAllValues().stream().map( FileName::getPath ).collect( Collectors.toSet() );
+    assertTrue( evictedPaths.toString(), evictedPaths.containsAll( new HashSet<>( Arrays.asList(
+      "/" + BUCKET_NAME + "/some/key/a.txt", "/" + BUCKET_NAME + "/some/key/sub",
+      "/" + BUCKET_NAME + "/some/key/sub/b.txt", "/" + BUCKET_NAME + "/some/keyed/a.txt",
+      "/" + BUCKET_NAME + "/some/keyed/sub", "/" + BUCKET_NAME + "/some/keyed/sub/b.txt" ) ) ) );
+    verify( cache, never() ).clear( any() );
+  }
+
+  @Test
+  public void testFolderDeleteAllEvictsOnlyTheDeletedObjects() throws Exception {
+    ObjectListing folderListing = mock( ObjectListing.class );
+    List<S3ObjectSummary> summaries = new ArrayList<>();
+    for ( String key : Arrays.asList( origKey + "/a.txt", origKey + "/sub/b.txt" ) ) {
+      S3ObjectSummary summary = new S3ObjectSummary();
+      summary.setBucketName( BUCKET_NAME );
+      summary.setKey( key );
+      summaries.add( summary );
+    }
+    when( folderListing.getObjectSummaries() ).thenReturn( summaries );
+    when( s3ServiceMock.listObjects( BUCKET_NAME, origKey + "/" ) ).thenReturn( folderListing );
+    S3FileObject folder = folderSpy( origKey );
+    // no folder marker, the folder is gone with its contents
+    doReturn( false ).when( folder ).exists();
+
+    assertEquals( 2, folder.delete( Selectors.SELECT_ALL ) );
+
+    verify( s3ServiceMock ).deleteObjects( any( DeleteObjectsRequest.class ) );
+    FilesCache cache = fileSystemSpy.getFileSystemManager().getFilesCache();
+    ArgumentCaptor<FileName> evicted = ArgumentCaptor.forClass( FileName.class );
+    verify( cache, atLeast( 1 ) ).removeFile( any(), evicted.capture() );
+    Set<String> evictedPaths = evicted.getAllValues().stream().map( FileName::getPath ).collect( Collectors.toSet() );
+    assertTrue( evictedPaths.toString(), evictedPaths.containsAll( new HashSet<>( Arrays.asList(
+      "/" + BUCKET_NAME + "/some/key/a.txt", "/" + BUCKET_NAME + "/some/key/sub",
+      "/" + BUCKET_NAME + "/some/key/sub/b.txt" ) ) ) );
+    verify( cache, never() ).clear( any() );
+  }
+
+  private S3FileObject folderSpy( String key ) throws FileSystemException {
+    S3FileObject folder = spy( new S3FileObject(
+      new S3FileName( SCHEME, BUCKET_NAME, BUCKET_NAME + "/" + key, FileType.FOLDER ), fileSystemSpy ) );
+    doReturn( FileType.FOLDER ).when( folder ).getType();
+    return folder;
+  }
+
   @Test
   public void testDoGetLastModifiedTime() throws Exception {
     s3FileObjectFileSpy.doAttach();
@@ -288,6 +383,17 @@ public class S3FileObjectTest {
     assertEquals( childObjectNameComp, childNameArray );
   }
 
+  @Test
+  public void testListedChildrenAreNotLookedUpAgain() throws Exception {
+    fileSystemSpy.init();
+    FileObject[] children = s3FileObjectBucketSpy.getChildren();
+
+    assertEquals( FileType.FILE, children[ 0 ].getType() );
+    assertEquals( FileType.FOLDER, children[ 3 ].getType() );
+    assertEquals( 0, children[ 0 ].getContent().getSize() );
+    verify( s3ServiceMock, times( 0 ) ).getObjectMetadata( anyString(), anyString() );
+  }
+
   @Test
   public void testListChildrenRoot() throws FileSystemException {
     fileSystemSpy.init();
@@ -318,6 +424,19 @@ public class S3FileObjectTest {
     assertEquals( "", newPath.getKey() );
   }
 
+  @Test
+  public void testFixFilePathCachesBucketExistence() {
+    s3FileObjectBucketSpy.fixFilePath( "some/key", BUCKET_NAME );
+    s3FileObjectBucketSpy.fixFilePath( "other/key", BUCKET_NAME );
+    s3FileObjectBucketSpy.fixFilePath( "bucketName/some/key", "s3:/" );
+    s3FileObjectBucketSpy.fixFilePath( "bucketName/other/key", "s3:/" );
+
+    verify( s3ServiceMock, times( 1 ) ).doesBucketExistV2( BUCKET_NAME );
+    verify( s3ServiceMock, times( 1 ) ).doesBucketExistV2( "s3:/" );
+    assertEquals( 2, fileSystemSpy.getBucketCache().getHits() );
+    assertEquals( 2, fileSystemSpy.getBucketCache().getMisses() );
+  }
+
   @Test
   public void testHandleAttachException() throws FileSystemException {
     String testKey = BUCKET_NAME + "/" + origKey;
@@ -16,6 +16,7 @@
 */
 package org.pentaho.s3.vfs;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3Client;
 import org.apache.commons.vfs2.FileName;
@@ -32,12 +33,18 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.util.StorageUnitConverter;
+import org.pentaho.s3common.S3CommonFileSystemConfigBuilder;
 import org.pentaho.s3common.S3CommonFileSystemTestUtil;
 import org.pentaho.s3common.S3KettleProperty;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -82,6 +89,54 @@ public class S3FileSystemTest {
     assertNotNull( fileSystem.getS3Client() );
   }
 
+  @Test
+  public void testS3ClientIsReused() {
+    assertSame( fileSystem.getS3Client(), fileSystem.getS3Client() );
+  }
+
+  @Test
+  public void testCreateClientConfiguration() {
+    S3CommonFileSystemConfigBuilder configBuilder = new S3CommonFileSystemConfigBuilder( new FileSystemOptions() );
+    ClientConfiguration defaults = fileSystem.createClientConfiguration( configBuilder );
+    assertEquals( ClientConfiguration.DEFAULT_MAX_CONNECTIONS, defaults.getMaxConnections() );
+
+    configBuilder.setMaxConnections( "200" );
+    configBuilder.setConnectionTimeout( "3000" );
+    configBuilder.setSocketTimeout( "60000" );
+    configBuilder.setTcpKeepAlive( "true" );
+    configBuilder.setMaxErrorRetry( "7" );
+    configBuilder.setThrottleRetries( "false" );
+    ClientConfiguration tuned = fileSystem.createClientConfiguration( configBuilder );
+
+    assertEquals( 200, tuned.getMaxConnections() );
+    assertEquals( 3000, tuned.getConnectionTimeout() );
+    assertEquals( 60000, tuned.getSocketTimeout() );
+    assertTrue( tuned.useTcpKeepAlive() );
+    assertEquals( 7, tuned.getRetryPolicy().getMaxErrorRetry() );
+    assertFalse( tuned.useThrottledRetries() );
+  }
+
+  @Test
+  public void testCreateClientConfigurationFromKettleProperties() {
+    S3KettleProperty s3KettleProperty = mock( S3KettleProperty.class );
+    when( s3KettleProperty.getMaxConnections() ).thenReturn( "150" );
+    when( s3KettleProperty.getSocketTimeout() ).thenReturn( "45000" );
+    when( s3KettleProperty.getTcpKeepAlive() ).thenReturn( "true" );
+    when( s3KettleProperty.getMaxErrorRetry() ).thenReturn( "5" );
+    fileSystem.s3KettleProperty = s3KettleProperty;
+    S3CommonFileSystemConfigBuilder configBuilder = new S3CommonFileSystemConfigBuilder( new FileSystemOptions() );
+    // a file system option takes precedence over the kettle property
+    configBuilder.setMaxErrorRetry( "2" );
+
+    ClientConfiguration tuned = fileSystem.createClientConfiguration( configBuilder );
+
+    assertEquals( 150, tuned.getMaxConnections() );
+    assertEquals( 45000, tuned.getSocketTimeout() );
+    assertEquals( ClientConfiguration.DEFAULT_CONNECTION_TIMEOUT, tuned.getConnectionTimeout() );
+    assertTrue( tuned.useTcpKeepAlive() );
+    assertEquals( 2, tuned.getRetryPolicy().getMaxErrorRetry() );
+  }
+
   @Test
   public void getPartSize() {
 
@@ -101,6 +156,43 @@ public class S3FileSystemTest {
 
   }
 
+  @Test
+  public void testReadAndCopySettingsAreReadOncePerFileSystem() {
+    S3FileSystem s3FileSystem = getTestInstance();
+    S3KettleProperty s3KettleProperty = mock( S3KettleProperty.class );
+    when( s3KettleProperty.getReadAhead() ).thenReturn( "2" );
+    when( s3KettleProperty.getCopyConcurrency() ).thenReturn( "16" );
+    s3FileSystem.s3KettleProperty = s3KettleProperty;
+
+    for ( int i = 0; i < 3; i++ ) {
+      assertEquals( 2, s3FileSystem.getReadAhead() );
+      assertEquals( 16, s3FileSystem.getCopyConcurrency() );
+      assertEquals( 4, s3FileSystem.getDeleteConcurrency() );
+    }
+    verify( s3KettleProperty, times( 1 ) ).getReadAhead();
+    verify( s3KettleProperty, times( 1 ) ).getCopyConcurrency();
+    verify( s3KettleProperty, times( 1 ) ).getDeleteConcurrency();
+  }
+
+  @Test
+  public void getUploadConcurrency() {
+    S3FileSystem s3FileSystem = getTestInstance();
+    S3KettleProperty s3KettleProperty = mock( S3KettleProperty.class );
+    s3FileSystem.s3KettleProperty = s3KettleProperty;
+
+    // TEST 1: not set
+    when( s3KettleProperty.getUploadConcurrency() ).thenReturn( null );
+    assertEquals( 1, s3FileSystem.getUploadConcurrency() );
+
+    // TEST 2: set
+    when( s3KettleProperty.getUploadConcurrency() ).thenReturn( "4" );
+    assertEquals( 4, s3FileSystem.getUploadConcurrency() );
+
+    // TEST 3: not positive
+    when( s3KettleProperty.getUploadConcurrency() ).thenReturn( "0" );
+    assertEquals( 1, s3FileSystem.getUploadConcurrency() );
+  }
+
   @Test
   public void testParsePartSize() {
     S3FileSystem s3FileSystem = getTestInstance();
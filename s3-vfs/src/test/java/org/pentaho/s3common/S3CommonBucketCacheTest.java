@@ -0,0 +1,97 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class S3CommonBucketCacheTest {
+
+  private final AtomicInteger lookups = new AtomicInteger();
+  private final Predicate<String> lookup = bucket -> {
+    lookups.incrementAndGet();
+    return bucket.startsWith( "existing" );
+  };
+
+  @Test
+  public void testLookupsAreCached() {
+    S3CommonBucketCache cache = new S3CommonBucketCache( 60000 );
+
+    assertTrue( cache.exists( "existing", lookup ) );
+    assertTrue( cache.exists( "existing", lookup ) );
+    assertFalse( cache.exists( "missing", lookup ) );
+    assertFalse( cache.exists( "missing", lookup ) );
+
+    assertEquals( 2, lookups.get() );
+    assertEquals( 2, cache.getHits() );
+    assertEquals( 2, cache.getMisses() );
+  }
+
+  @Test
+  public void testInvalidate() {
+    S3CommonBucketCache cache = new S3CommonBucketCache( 60000 );
+    cache.exists( "existing", lookup );
+    cache.invalidate( "existing" );
+    cache.exists( "existing", lookup );
+
+    assertEquals( 2, lookups.get() );
+  }
+
+  @Test
+  public void testEntriesExpire() throws Exception {
+    S3CommonBucketCache cache = new S3CommonBucketCache( 1 );
+    cache.exists( "existing", lookup );
+    Thread.sleep( 10 );
+    cache.exists( "existing", lookup );
+
+    assertEquals( 2, lookups.get() );
+  }
+
+  @Test
+  public void testZeroTtlDisablesTheCache() {
+    S3CommonBucketCache cache = new S3CommonBucketCache( 0 );
+    cache.exists( "existing", lookup );
+    cache.put( "existing", true );
+    cache.exists( "existing", lookup );
+
+    assertEquals( 2, lookups.get() );
+    assertEquals( 0, cache.getHits() );
+  }
+
+  @Test
+  public void testFailedLookupsAreNotCached() {
+    S3CommonBucketCache cache = new S3CommonBucketCache( 60000 );
+    try {
+      cache.exists( "existing", bucket -> {
+        throw new IllegalStateException( "unreachable" );
+      } );
+      fail( "Expected the lookup failure" );
+    } catch ( IllegalStateException expected ) {
+      // expected
+    }
+    assertTrue( cache.exists( "existing", lookup ) );
+    assertEquals( 1, lookups.get() );
+  }
+}
@@ -0,0 +1,102 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class S3CommonBulkDeleterTest {
+
+  private List<String> keys( DeleteObjectsRequest request ) {
+    return request.getKeys().stream().map( DeleteObjectsRequest.KeyVersion::getKey ).collect( Collectors.toList() );
+  }
+
+  @Test
+  public void testKeysAreSentInBatches() throws Exception {
+    AmazonS3 client = mock( AmazonS3.class );
+    S3CommonBulkDeleter deleter = new S3CommonBulkDeleter( client, "bucket", 2, 2 );
+    for ( int i = 0; i < 5; i++ ) {
+      deleter.add( "key" + i );
+    }
+
+    assertEquals( 5, deleter.finish() );
+    assertNull( deleter.getFailure() );
+    ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass( DeleteObjectsRequest.class );
+    verify( client, times( 3 ) ).deleteObjects( requests.capture() );
+    List<List<String>> batches = requests.getAllValues().stream().map( this::keys ).collect( Collectors.toList() );
+    assertTrue( batches.contains( Arrays.asList( "key0", "key1" ) ) );
+    assertTrue( batches.contains( Arrays.asList( "key2", "key3" ) ) );
+    assertTrue( batches.contains( Collections.singletonList( "key4" ) ) );
+    requests.getAllValues().forEach( request -> {
+      assertEquals( "bucket", request.getBucketName() );
+      assertTrue( request.getQuiet() );
+    } );
+  }
+
+  @Test
+  public void testRefusedKeysAreCollected() throws Exception {
+    AmazonS3 client = mock( AmazonS3.class );
+    DeleteError error = new DeleteError();
+    error.setKey( "key1" );
+    error.setCode( "AccessDenied" );
+    when( client.deleteObjects( any( DeleteObjectsRequest.class ) ) )
+      .thenThrow( new MultiObjectDeleteException( Collections.singletonList( error ), Collections.emptyList() ) );
+    S3CommonBulkDeleter deleter = new S3CommonBulkDeleter( client, "bucket", 1 );
+    deleter.add( "key0" );
+    deleter.add( "key1" );
+
+    assertEquals( 1, deleter.finish() );
+    assertEquals( "key1", deleter.getFailures().get( 0 ).getKey() );
+    assertNotNull( deleter.getFailure() );
+    assertTrue( deleter.getFailure().getMessage().contains( "key1 (AccessDenied)" ) );
+  }
+
+  @Test
+  public void testFailedRequestFailsEveryKeyOfTheBatch() throws Exception {
+    AmazonS3 client = mock( AmazonS3.class );
+    when( client.deleteObjects( any( DeleteObjectsRequest.class ) ) )
+      .thenThrow( new SdkClientException( "connection reset" ) );
+    S3CommonBulkDeleter deleter = new S3CommonBulkDeleter( client, "bucket", 1 );
+    deleter.add( "key0" );
+    deleter.add( "key1" );
+
+    assertEquals( 0, deleter.finish() );
+    assertEquals( 2, deleter.getFailures().size() );
+    assertEquals( "connection reset", deleter.getFailures().get( 0 ).getMessage() );
+  }
+}
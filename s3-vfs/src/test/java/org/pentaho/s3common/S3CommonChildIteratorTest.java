@@ -0,0 +1,113 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.Bucket;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class S3CommonChildIteratorTest {
+
+  private ObjectListing page( boolean truncated, String... keys ) {
+    ObjectListing listing = new ObjectListing();
+    for ( String key : keys ) {
+      if ( key.endsWith( "/" ) && !key.equals( "folder/" ) ) {
+        listing.getCommonPrefixes().add( key );
+      } else {
+        S3ObjectSummary summary = new S3ObjectSummary();
+        summary.setKey( key );
+        summary.setSize( key.length() );
+        summary.setLastModified( new Date( 1000L ) );
+        summary.setETag( "etag-" + key );
+        listing.getObjectSummaries().add( summary );
+      }
+    }
+    listing.setTruncated( truncated );
+    return listing;
+  }
+
+  @Test
+  public void testPagesAreFetchedLazily() {
+    AmazonS3 client = mock( AmazonS3.class );
+    ObjectListing first = page( true, "folder/", "folder/a.csv", "folder/sub/" );
+    ObjectListing second = page( false, "folder/b.csv" );
+    when( client.listObjects( any( ListObjectsRequest.class ) ) ).thenReturn( first );
+    when( client.listNextBatchOfObjects( first ) ).thenReturn( second );
+
+    S3CommonChildIterator children = new S3CommonChildIterator( client, "bucket", "folder" );
+
+    S3CommonChildIterator.Child file = children.next();
+    assertEquals( "a.csv", file.getName() );
+    assertFalse( file.isFolder() );
+    assertEquals( "folder/a.csv".length(), file.getMetadata().getContentLength() );
+    assertEquals( 1000L, file.getMetadata().getLastModified().getTime() );
+    assertEquals( "etag-folder/a.csv", file.getMetadata().getETag() );
+
+    S3CommonChildIterator.Child folder = children.next();
+    assertEquals( "sub/", folder.getName() );
+    assertTrue( folder.isFolder() );
+    assertNull( folder.getMetadata() );
+    verify( client, never() ).listNextBatchOfObjects( any( ObjectListing.class ) );
+
+    assertEquals( "b.csv", children.next().getName() );
+    assertFalse( children.hasNext() );
+    verify( client ).listNextBatchOfObjects( first );
+  }
+
+  @Test
+  public void testRootListsBuckets() {
+    AmazonS3 client = mock( AmazonS3.class );
+    when( client.listBuckets() ).thenReturn( Arrays.asList( new Bucket( "one" ), new Bucket( "two" ) ) );
+
+    S3CommonChildIterator children = new S3CommonChildIterator( client, "", "" );
+
+    assertEquals( "one/", children.next().getName() );
+    assertEquals( "two/", children.next().getName() );
+    assertFalse( children.hasNext() );
+    verify( client, never() ).listObjects( any( ListObjectsRequest.class ) );
+  }
+
+  @Test
+  public void testEmptyPagesAreSkipped() {
+    AmazonS3 client = mock( AmazonS3.class );
+    ObjectListing empty = page( true );
+    when( client.listObjects( any( ListObjectsRequest.class ) ) ).thenReturn( empty );
+    when( client.listNextBatchOfObjects( empty ) ).thenReturn( page( false, "x" ) );
+
+    S3CommonChildIterator children = new S3CommonChildIterator( client, "bucket", "" );
+
+    assertEquals( "x", children.next().getName() );
+    assertFalse( children.hasNext() );
+  }
+}
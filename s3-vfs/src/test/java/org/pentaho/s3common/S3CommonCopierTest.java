@@ -0,0 +1,131 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class S3CommonCopierTest {
+
+  private static final long PART_SIZE = S3CommonCopier.MIN_PART_SIZE;
+
+  private AmazonS3 client;
+  private CopyObjectRequest request;
+
+  @Before
+  public void setUp() {
+    client = mock( AmazonS3.class );
+    request = new CopyObjectRequest( "source", "from.csv", "dest", "to.csv" );
+    ObjectMetadata metadata = new ObjectMetadata();
+    metadata.setContentType( "text/csv" );
+    metadata.setHeader( "ETag", "etag" );
+    when( client.getObjectMetadata( "source", "from.csv" ) ).thenReturn( metadata );
+    InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+    initiated.setUploadId( "upload" );
+    when( client.initiateMultipartUpload( any( InitiateMultipartUploadRequest.class ) ) ).thenReturn( initiated );
+    when( client.copyPart( any( CopyPartRequest.class ) ) ).thenAnswer( invocation -> {
+      CopyPartRequest part = (CopyPartRequest) invocation.getArguments()[ 0 ];
+      CopyPartResult result = new CopyPartResult();
+      result.setPartNumber( part.getPartNumber() );
+      result.setETag( "part" + part.getPartNumber() );
+      return result;
+    } );
+  }
+
+  @Test
+  public void testSmallObjectIsCopiedInOneRequest() throws Exception {
+    try ( S3CommonCopier copier = new S3CommonCopier( client, PART_SIZE, 2 ) ) {
+      copier.copy( request, PART_SIZE );
+    }
+
+    verify( client ).copyObject( request );
+    verify( client, never() ).initiateMultipartUpload( any( InitiateMultipartUploadRequest.class ) );
+  }
+
+  @Test
+  public void testLargeObjectIsCopiedInParts() throws Exception {
+    try ( S3CommonCopier copier = new S3CommonCopier( client, PART_SIZE, 2 ) ) {
+      copier.copy( request, 2 * PART_SIZE + 10 );
+    }
+
+    ArgumentCaptor<CopyPartRequest> parts = ArgumentCaptor.forClass( CopyPartRequest.class );
+    verify( client, times( 3 ) ).copyPart( parts.capture() );
+    List<CopyPartRequest> sorted = parts.getAllValues().stream()
+      .sorted( Comparator.comparing( CopyPartRequest::getPartNumber ) ).collect( Collectors.toList() );
+    assertEquals( 0L, (long) sorted.get( 0 ).getFirstByte() );
+    assertEquals( PART_SIZE - 1, (long) sorted.get( 0 ).getLastByte() );
+    assertEquals( 2 * PART_SIZE, (long) sorted.get( 2 ).getFirstByte() );
+    assertEquals( 2 * PART_SIZE + 9, (long) sorted.get( 2 ).getLastByte() );
+    assertEquals( "etag", sorted.get( 1 ).getMatchingETagConstraints().get( 0 ) );
+
+    ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+      ArgumentCaptor.forClass( CompleteMultipartUploadRequest.class );
+    verify( client ).completeMultipartUpload( complete.capture() );
+    assertEquals( "upload", complete.getValue().getUploadId() );
+    assertEquals( "dest", complete.getValue().getBucketName() );
+    assertEquals( "to.csv", complete.getValue().getKey() );
+    assertEquals( "part1,part2,part3", complete.getValue().getPartETags().stream().map( PartETag::getETag )
+      .collect( Collectors.joining( "," ) ) );
+    verify( client, never() ).copyObject( any( CopyObjectRequest.class ) );
+  }
+
+  @Test
+  public void testFailedPartAbortsTheUpload() {
+    when( client.copyPart( any( CopyPartRequest.class ) ) ).thenReturn( null );
+    try ( S3CommonCopier copier = new S3CommonCopier( client, PART_SIZE, 2 ) ) {
+      copier.copy( request, 2 * PART_SIZE );
+      fail( "the source changed while it was copied" );
+    } catch ( IOException e ) {
+      verify( client ).abortMultipartUpload( any( AbortMultipartUploadRequest.class ) );
+      verify( client, never() ).completeMultipartUpload( any( CompleteMultipartUploadRequest.class ) );
+    }
+  }
+
+  @Test
+  public void testPartsGrowToStayWithinThePartLimit() {
+    S3CommonCopier copier = new S3CommonCopier( client, PART_SIZE, 1 );
+    long contentLength = PART_SIZE * S3CommonCopier.MAX_PARTS * 2;
+    assertEquals( PART_SIZE * 2, copier.getPartSize( contentLength ) );
+    copier.close();
+  }
+}
@@ -0,0 +1,73 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class S3CommonPartBufferPoolTest {
+
+  @Test
+  public void testBuffersAreReused() throws Exception {
+    S3CommonPartBufferPool pool = new S3CommonPartBufferPool( 16, 2 );
+    byte[] first = pool.acquire();
+    assertEquals( 16, first.length );
+    pool.release( first );
+    assertSame( first, pool.acquire() );
+    assertEquals( 1, pool.getAllocated() );
+  }
+
+  @Test
+  public void testAcquireBlocksWhenAllBuffersAreInUse() throws Exception {
+    S3CommonPartBufferPool pool = new S3CommonPartBufferPool( 16, 2 );
+    pool.acquire();
+    byte[] second = pool.acquire();
+
+    CompletableFuture<byte[]> third = CompletableFuture.supplyAsync( () -> {
+      try {
+        return pool.acquire();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException( e );
+      }
+    } );
+    try {
+      third.get( 200, TimeUnit.MILLISECONDS );
+      fail( "acquire should block while every buffer is in use" );
+    } catch ( TimeoutException expected ) {
+      assertFalse( third.isDone() );
+    }
+
+    pool.release( second );
+    assertSame( second, third.get( 5, TimeUnit.SECONDS ) );
+    assertEquals( 2, pool.getAllocated() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testInvalidSize() {
+    new S3CommonPartBufferPool( 0, 1 );
+  }
+}
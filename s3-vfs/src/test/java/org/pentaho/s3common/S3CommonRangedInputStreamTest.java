@@ -0,0 +1,130 @@
+/*!
+ * Copyright 2022 Hitachi Vantara.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.pentaho.s3common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class S3CommonRangedInputStreamTest {
+
+  private static final int BLOCK_SIZE = 16;
+
+  private final byte[] data = new byte[ 100 ];
+  private final List<Long> requestedRanges = new CopyOnWriteArrayList<>();
+  private AmazonS3 client;
+
+  @Before
+  public void setUp() {
+    for ( int i = 0; i < data.length; i++ ) {
+      data[ i ] = (byte) i;
+    }
+    client = mock( AmazonS3.class );
+    when( client.getObject( any( GetObjectRequest.class ) ) ).thenAnswer( invocation -> {
+      long[] range = ( (GetObjectRequest) invocation.getArguments()[ 0 ] ).getRange();
+      requestedRanges.add( range[ 0 ] );
+      S3Object object = new S3Object();
+      object.setObjectContent(
+        new ByteArrayInputStream( Arrays.copyOfRange( data, (int) range[ 0 ], (int) range[ 1 ] + 1 ) ) );
+      return object;
+    } );
+  }
+
+  private S3CommonRangedInputStream open( int readAhead ) {
+    return new S3CommonRangedInputStream( client, new GetObjectRequest( "bucket", "key" ), data.length, BLOCK_SIZE,
+      readAhead );
+  }
+
+  @Test
+  public void testSequentialReadPrefetchesEveryBlockOnce() throws Exception {
+    byte[] read = new byte[ data.length ];
+    try ( S3CommonRangedInputStream in = open( 3 ) ) {
+      int offset = 0;
+      int count;
+      while ( ( count = in.read( read, offset, read.length - offset ) ) > 0 ) {
+        offset += count;
+      }
+      assertEquals( data.length, offset );
+      assertEquals( -1, in.read() );
+    }
+    assertArrayEquals( data, read );
+    assertEquals( 7, requestedRanges.size() );
+  }
+
+  @Test
+  public void testSeekReadsOnlyTheTouchedBlocks() throws Exception {
+    try ( S3CommonRangedInputStream in = open( 3 ) ) {
+      in.seek( 98 );
+      assertEquals( 98, in.read() );
+      assertEquals( 99, in.read() );
+      assertEquals( -1, in.read() );
+
+      in.seek( 20 );
+      assertEquals( 20, in.read() );
+      assertEquals( 21, in.getPosition() );
+    }
+    assertEquals( Arrays.asList( 96L, 16L ), requestedRanges );
+  }
+
+  @Test
+  public void testSkipAndReset() throws Exception {
+    try ( S3CommonRangedInputStream in = open( 0 ) ) {
+      in.mark( 0 );
+      assertEquals( 40, in.skip( 40 ) );
+      assertEquals( 40, in.read() );
+      assertEquals( 7, in.available() );
+      in.reset();
+      assertEquals( 0, in.read() );
+      assertEquals( 99, in.skip( 500 ) );
+      assertEquals( -1, in.read() );
+    }
+  }
+
+  @Test
+  public void testModifiedObjectFailsTheRead() throws Exception {
+    when( client.getObject( any( GetObjectRequest.class ) ) ).thenReturn( null );
+    try ( S3CommonRangedInputStream in = open( 2 ) ) {
+      in.read();
+      fail( "Expected the ETag mismatch to fail the read" );
+    } catch ( IOException expected ) {
+      // expected
+    }
+  }
+
+  @Test( expected = IOException.class )
+  public void testReadAfterClose() throws Exception {
+    S3CommonRangedInputStream in = open( 2 );
+    in.close();
+    in.read();
+  }
+}